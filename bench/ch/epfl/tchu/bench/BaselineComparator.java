@@ -0,0 +1,196 @@
+package ch.epfl.tchu.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Comparison of the results of a JMH run (in CSV format) with the ones of a stored baseline. The primary scores and
+ * the normalized allocation rates (bytes per operation) are compared, and a change is reported as a regression or an
+ * improvement only if it exceeds the threshold and the error intervals of both runs do not overlap.
+ */
+public final class BaselineComparator {
+
+    // Default relative change (in percent) below which a difference is not reported.
+    private static final double DEFAULT_THRESHOLD = 5;
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    // Separators of the name of a benchmark and the one of its secondary results, JMH before 1.36 using the latter.
+    private static final String SECONDARY_SEPARATOR = ":";
+    private static final String OLD_SECONDARY_SEPARATOR = "\u00b7";
+
+    private final double threshold;
+
+    /**
+     * Constructor, using the default threshold of 5 percent.
+     */
+    public BaselineComparator() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructor.
+     * @param threshold (double) : the relative change (in percent) below which a difference is not reported.
+     */
+    public BaselineComparator(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Compares two JMH result files, printing a line for every result of the current run.
+     * @param baseline (Path) : the CSV results of the baseline.
+     * @param current (Path) : the CSV results of the current run.
+     * @return regressions (int) : the number of results that regressed.
+     * @throws UncheckedIOException if a file cannot be read.
+     * @throws IllegalArgumentException if a file is not a JMH CSV result file.
+     */
+    public int compare(Path baseline, Path current) {
+        Map<String, Result> baselineResults = read(baseline);
+        int regressions = 0;
+        for (Result now : read(current).values()) {
+            Result then = baselineResults.get(now.key);
+            String verdict;
+            if (then == null) {
+                verdict = "new";
+            } else {
+                double change = (now.score - then.score) / then.score * 100;
+                boolean isSignificant = Math.abs(change) >= threshold
+                        && Math.abs(now.score - then.score) > now.error + then.error;
+                boolean isBetter = now.higherIsBetter ? change > 0 : change < 0;
+                verdict = String.format(Locale.ROOT, "%+.1f%%", change)
+                        + (isSignificant ? (isBetter ? " improvement" : " REGRESSION") : "");
+                if (isSignificant && !isBetter)
+                    regressions += 1;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-90s %14.3f %-10s %s", now.key, now.score, now.unit,
+                    verdict));
+        }
+
+        return regressions;
+    }
+
+    /**
+     * Compares two JMH result files, the exit code being the number of regressions.
+     * @param args (String[]) : the baseline file, the current results file, and optionally the threshold in percent
+     *             (5 by default).
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.csv> <current.csv> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length < 3 ? DEFAULT_THRESHOLD : Double.parseDouble(args[2]);
+        System.exit(new BaselineComparator(threshold).compare(Path.of(args[0]), Path.of(args[1])));
+    }
+
+    //Helper method reading the compared results of a JMH CSV file, by key
+    private static Map<String, Result> read(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (lines.isEmpty())
+            throw new IllegalArgumentException("Empty result file " + file);
+
+        List<String> header = parseLine(lines.get(0));
+        int benchmark = column(header, "Benchmark");
+        int mode = column(header, "Mode");
+        int score = column(header, "Score");
+        int error = column(header, "Score Error (99.9%)");
+        int unit = column(header, "Unit");
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank())
+                continue;
+            List<String> fields = parseLine(line);
+            String name = fields.get(benchmark);
+            boolean isAllocation = name.endsWith(ALLOCATION_METRIC);
+            // The other secondary results (such as the allocation rate per second) follow the primary score.
+            boolean isSecondary = name.contains(SECONDARY_SEPARATOR) || name.contains(OLD_SECONDARY_SEPARATOR);
+            if (isSecondary && !isAllocation)
+                continue;
+
+            StringBuilder key = new StringBuilder(name);
+            for (int i = 0 ; i < header.size() ; i++) {
+                if (header.get(i).startsWith("Param: ") && !fields.get(i).isEmpty())
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+            }
+            double errorValue = parseNumber(fields.get(error));
+            results.put(key.toString(), new Result(key.toString(), parseNumber(fields.get(score)),
+                    Double.isNaN(errorValue) ? 0 : errorValue, fields.get(unit),
+                    !isAllocation && fields.get(mode).equals("thrpt")));
+        }
+
+        return results;
+    }
+
+    //Helper method giving the index of a column of the header
+    private static int column(List<String> header, String name) {
+        int index = header.indexOf(name);
+        if (index < 0)
+            throw new IllegalArgumentException("Missing column " + name);
+        return index;
+    }
+
+    //Helper method parsing a number written by JMH, possibly with a decimal comma
+    private static double parseNumber(String s) {
+        return s.isEmpty() || s.equals("NaN") ? Double.NaN : Double.parseDouble(s.replace(',', '.'));
+    }
+
+    //Helper method splitting a CSV line, whose fields may be quoted
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        for (int i = 0 ; i < line.length() ; i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (isQuoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i += 1;
+                } else {
+                    isQuoted = !isQuoted;
+                }
+            } else if (c == ',' && !isQuoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        return fields;
+    }
+
+    /**
+     * One compared result.
+     */
+    private static final class Result {
+
+        private final String key;
+        private final double score;
+        private final double error;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        private Result(String key, double score, double error, String unit, boolean higherIsBetter) {
+            this.key = key;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+
+    }
+
+}
@@ -0,0 +1,188 @@
+package ch.epfl.tchu.bench;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.CompiledMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * The data the benchmarks run on, built once per trial from seeded games so that every run measures the same work.
+ */
+final class BenchmarkData {
+
+    /**
+     * Private constructor.
+     */
+    private BenchmarkData() {}
+
+    /**
+     * To get a map from its name.
+     * @param name (String) : "usa" or "ch".
+     * @return map (MapDefinition) : the map.
+     * @throws IllegalArgumentException if the name is not the one of a built-in map.
+     */
+    static MapDefinition map(String name) {
+        switch (name) {
+            case "usa":
+                return MapDefinition.usa();
+            case "ch":
+                return MapDefinition.ch();
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+
+    /**
+     * To get the final player states of complete games played by scripted players, as realistic inputs.
+     * @param map (MapDefinition) : the map the games are played on.
+     * @param playerCount (int) : the number of players of each game.
+     * @param gameCount (int) : the number of games.
+     * @param seed (long) : the seed of the first game.
+     * @return playerStates (List<PlayerState>) : the final states of all the players of all the games.
+     */
+    static List<PlayerState> finalPlayerStates(MapDefinition map, int playerCount, int gameCount, long seed) {
+        List<PlayerState> playerStates = new ArrayList<>();
+        for (int g = 0 ; g < gameCount ; g++) {
+            GameState finalState = playGame(map, playerCount, seed + g);
+            for (PlayerId p : PlayerId.ALL.subList(0, playerCount))
+                playerStates.add(finalState.playerState(p));
+        }
+
+        return playerStates;
+    }
+
+    /**
+     * Plays a complete game between scripted players.
+     * @param map (MapDefinition) : the map the game is played on.
+     * @param playerCount (int) : the number of players.
+     * @param seed (long) : the seed of the game and of its players.
+     * @return finalState (GameState) : the final state of the game.
+     */
+    static GameState playGame(MapDefinition map, int playerCount, long seed) {
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL.subList(0, playerCount)) {
+            players.put(p, new ScriptedPlayer(seed * PlayerId.COUNT + p.ordinal(), map.routes()));
+            names.put(p, p.name());
+        }
+
+        return Game.play(players, names, SortedBag.of(map.tickets()), new Random(seed)).finalState();
+    }
+
+    /**
+     * To get the worst case of the longest trail search that one player can reach: the shortest routes of the map,
+     * without parallel ones, favouring the routes connected to the ones already taken, until the player has no cars
+     * anymore. The graph obtained is as dense and as cyclic as possible.
+     * @param map (MapDefinition) : the map of interest.
+     * @return routes (List<Route>) : the routes of the worst case.
+     */
+    static List<Route> worstCaseRoutes(MapDefinition map) {
+        CompiledMap compiled = map.compiledMap();
+        List<Route> candidates = new ArrayList<>(map.routes());
+        candidates.sort(Comparator.comparingInt(Route::length));
+
+        List<Route> routes = new ArrayList<>();
+        Set<Integer> groups = new HashSet<>();
+        Set<Integer> stations = new HashSet<>();
+        int cars = Constants.INITIAL_CAR_COUNT;
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (Route r : candidates) {
+                int ordinal = compiled.ordinal(r);
+                boolean isConnected = routes.isEmpty()
+                        || stations.contains(r.station1().id()) || stations.contains(r.station2().id());
+                if (r.length() <= cars && isConnected && groups.add(compiled.parallelGroup(ordinal))) {
+                    routes.add(r);
+                    stations.add(r.station1().id());
+                    stations.add(r.station2().id());
+                    cars -= r.length();
+                    added = true;
+                    break;
+                }
+            }
+        }
+
+        return routes;
+    }
+
+    /**
+     * Plays turns on a game state, the current player claiming the first route of the map it can claim, and drawing
+     * a face up card and a blind card otherwise (if it can), until the given amount of turns, the start of the last
+     * turn, or a turn where the player can do neither.
+     * @param state (GameState) : the state whose initial tickets were chosen.
+     * @param map (MapDefinition) : the map the game is played on.
+     * @param turns (int) : the maximal amount of turns.
+     * @return state (GameState) : the state after the turns.
+     */
+    static GameState playTurns(GameState state, MapDefinition map, int turns) {
+        for (int t = 0 ; t < turns && !state.lastTurnBegins() ; t++) {
+            Route claimable = firstClaimableRoute(state, map);
+            if (claimable != null) {
+                state = state.withClaimedRoute(claimable,
+                        state.currentPlayerState().possibleClaimCards(claimable).get(0));
+            } else if (state.canDrawCards()) {
+                state = state.withCardsDeckRecreatedIfNeeded(new Random(t)).withDrawnFaceUpCard(0);
+                state = state.withCardsDeckRecreatedIfNeeded(new Random(t)).withBlindlyDrawnCard();
+            } else {
+                break;
+            }
+            state = state.forNextTurn();
+        }
+
+        return state;
+    }
+
+    /**
+     * To get the first route of the map the current player can claim.
+     * @param state (GameState) : the state of the game.
+     * @param map (MapDefinition) : the map the game is played on.
+     * @return route (Route) : the first route of the map that is not claimed and that the current player can claim,
+     * null if there is none.
+     */
+    static Route firstClaimableRoute(GameState state, MapDefinition map) {
+        PlayerState player = state.currentPlayerState();
+        for (Route r : map.routes()) {
+            if (!state.isClaimed(r) && player.canClaimRoute(r))
+                return r;
+        }
+
+        return null;
+    }
+
+    /**
+     * To get the initial state of a game whose players kept all their initial tickets.
+     * @param map (MapDefinition) : the map the game is played on.
+     * @param playerCount (int) : the number of players.
+     * @param seed (long) : the seed of the game.
+     * @return state (GameState) : the state at the start of the first turn.
+     */
+    static GameState initialState(MapDefinition map, int playerCount, long seed) {
+        GameState state = GameState.initial(PlayerId.ALL.subList(0, playerCount), SortedBag.of(map.tickets()),
+                new Random(seed));
+        for (PlayerId p : PlayerId.ALL.subList(0, playerCount)) {
+            SortedBag<Ticket> tickets = state.topTickets(Constants.INITIAL_TICKETS_COUNT);
+            state = state.withoutTopTickets(Constants.INITIAL_TICKETS_COUNT).withInitiallyChosenTickets(p, tickets);
+        }
+
+        return state;
+    }
+
+}
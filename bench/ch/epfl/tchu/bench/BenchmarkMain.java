@@ -0,0 +1,67 @@
+package ch.epfl.tchu.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks: runs the selected benchmarks with the allocation profiler of JMH, writes their
+ * results to bench/results.csv, and compares them with the baseline bench/baseline.csv if it exists. It is run from
+ * the root of the project, in the module tCHu-bench, which needs the JMH library (jmh-core) and its annotation
+ * processor (jmh-generator-annprocess).
+ */
+public final class BenchmarkMain {
+
+    private static final Path RESULTS = Path.of("bench", "results.csv");
+    private static final Path BASELINE = Path.of("bench", "baseline.csv");
+
+    /**
+     * Private constructor.
+     */
+    private BenchmarkMain() {}
+
+    /**
+     * Runs the benchmarks.
+     * @param args (String[]) : optionally "--save" to store the results as the new baseline, followed by the regular
+     *             expression selecting the benchmarks (all of them by default).
+     * @throws RunnerException if JMH fails to run the benchmarks.
+     */
+    public static void main(String[] args) throws RunnerException {
+        boolean save = args.length > 0 && args[0].equals("--save");
+        int first = save ? 1 : 0;
+        String include = args.length > first ? args[first] : BenchmarkMain.class.getPackageName() + ".*Benchmark";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(RESULTS.toString())
+                .build();
+        new Runner(options).run();
+
+        int regressions = 0;
+        if (Files.exists(BASELINE)) {
+            System.out.println();
+            System.out.println("Comparison with " + BASELINE + ":");
+            regressions = new BaselineComparator().compare(BASELINE, RESULTS);
+        }
+        if (save) {
+            try {
+                Files.copy(RESULTS, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        System.exit(regressions);
+    }
+
+}
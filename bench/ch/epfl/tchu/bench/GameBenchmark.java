@@ -0,0 +1,55 @@
+package ch.epfl.tchu.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.sim.BatchSimulator;
+import ch.epfl.tchu.sim.GameSummary;
+
+/**
+ * Benchmark of whole games played with Game.play between scripted players on one thread, in games per second, a new
+ * seed being used for every game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({"usa", "ch"})
+    public String map;
+
+    @Param({"2", "4"})
+    public int players;
+
+    private BatchSimulator simulator;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        MapDefinition definition = BenchmarkData.map(map);
+        simulator = new BatchSimulator(definition.tickets(), players,
+                (p, s) -> new ScriptedPlayer(s, definition.routes()));
+    }
+
+    @Benchmark
+    public GameSummary playGame() {
+        return simulator.play(seed++);
+    }
+
+}
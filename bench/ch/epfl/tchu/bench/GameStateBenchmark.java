@@ -0,0 +1,92 @@
+package ch.epfl.tchu.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.Route;
+
+/**
+ * Benchmark of the transitions of GameState: the whole chain of a game (initial state, initial tickets, then turns
+ * claiming routes or drawing cards until the last turn begins or the current player can do neither, i. e. 130 to 200
+ * turns), and single transitions from a state in the middle of a game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+
+    // Enough turns for a game to reach its last turn, or a turn where the current player can do nothing.
+    private static final int MAX_TURNS = 1_000;
+    private static final int MID_GAME_TURNS = 30;
+
+    @Param({"usa", "ch"})
+    public String map;
+
+    @Param({"2", "4"})
+    public int players;
+
+    private MapDefinition definition;
+    private GameState midGame;
+    private Route claimable;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        definition = BenchmarkData.map(map);
+        // The first state after MID_GAME_TURNS turns where the current player can claim a route.
+        midGame = BenchmarkData.playTurns(BenchmarkData.initialState(definition, players, 2021), definition,
+                MID_GAME_TURNS);
+        claimable = BenchmarkData.firstClaimableRoute(midGame, definition);
+        for (int t = 0 ; t < MAX_TURNS && claimable == null ; t++) {
+            midGame = BenchmarkData.playTurns(midGame, definition, 1);
+            claimable = BenchmarkData.firstClaimableRoute(midGame, definition);
+        }
+        if (claimable == null)
+            throw new IllegalStateException("No claimable route in the middle of the game");
+        midGame = midGame.withCardsDeckRecreatedIfNeeded(new Random(2021));
+    }
+
+    @Benchmark
+    public GameState transitionChain() {
+        GameState initial = BenchmarkData.initialState(definition, players, seed++);
+        return BenchmarkData.playTurns(initial, definition, MAX_TURNS);
+    }
+
+    @Benchmark
+    public GameState withBlindlyDrawnCard() {
+        return midGame.withBlindlyDrawnCard();
+    }
+
+    @Benchmark
+    public GameState withDrawnFaceUpCard() {
+        return midGame.withDrawnFaceUpCard(0);
+    }
+
+    @Benchmark
+    public GameState withClaimedRoute() {
+        return midGame.withClaimedRoute(claimable, midGame.currentPlayerState().possibleClaimCards(claimable).get(0));
+    }
+
+    @Benchmark
+    public GameState forNextTurn() {
+        return midGame.forNextTurn();
+    }
+
+}
@@ -0,0 +1,89 @@
+package ch.epfl.tchu.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Route;
+
+/**
+ * Benchmark of the scoring and card computations of PlayerState: the ticket points of the players at the end of games
+ * between scripted players, the possible claim cards of every route of the map for a rich hand, and the possible
+ * additional cards of a tunnel, in the common case and in the case having the most options.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerStateBenchmark {
+
+    @Param({"usa", "ch"})
+    public String map;
+
+    private List<PlayerState> finalStates;
+    private List<Route> routes;
+    private PlayerState richPlayer;
+    private SortedBag<Card> initialCards;
+    private SortedBag<Card> commonDrawnCards;
+    private SortedBag<Card> worstDrawnCards;
+    private int nextState;
+    private int nextRoute;
+
+    @Setup
+    public void setUp() {
+        MapDefinition definition = BenchmarkData.map(map);
+        finalStates = new ArrayList<>(BenchmarkData.finalPlayerStates(definition, 2, 32, 2021));
+        routes = definition.routes();
+
+        SortedBag.Builder<Card> hand = new SortedBag.Builder<>();
+        for (Card c : Card.CARS)
+            hand.add(4, c);
+        hand.add(6, Card.LOCOMOTIVE);
+        richPlayer = new PlayerState(SortedBag.of(), hand.build(), List.of(), null);
+        initialCards = SortedBag.of(2, Card.BLUE);
+        commonDrawnCards = SortedBag.of(1, Card.BLUE, 2, Card.RED);
+        worstDrawnCards = SortedBag.of(1, Card.BLUE, 2, Card.LOCOMOTIVE);
+    }
+
+    @Benchmark
+    public int ticketPoints() {
+        nextState = (nextState + 1) % finalStates.size();
+        return finalStates.get(nextState).ticketPoints();
+    }
+
+    @Benchmark
+    public List<SortedBag<Card>> possibleClaimCards() {
+        nextRoute = (nextRoute + 1) % routes.size();
+        return richPlayer.possibleClaimCards(routes.get(nextRoute));
+    }
+
+    @Benchmark
+    public List<SortedBag<Card>> possibleAdditionalCardsCommon() {
+        return richPlayer.possibleAdditionalCards(1, initialCards, commonDrawnCards);
+    }
+
+    @Benchmark
+    public List<SortedBag<Card>> possibleAdditionalCardsWorstCase() {
+        return richPlayer.possibleAdditionalCards(Constants.ADDITIONAL_TUNNEL_CARDS, initialCards, worstDrawnCards);
+    }
+
+}
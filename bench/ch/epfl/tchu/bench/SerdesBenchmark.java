@@ -0,0 +1,143 @@
+package ch.epfl.tchu.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.Player.TurnKind;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Trail;
+import ch.epfl.tchu.net.Serde;
+import ch.epfl.tchu.net.Serdes;
+
+/**
+ * Benchmark of the round trips (serialization then deserialization) and of the serializations of every serde of
+ * Serdes, on values taken from a game of the map of the United States at its last turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerdesBenchmark {
+
+    @Param({"integer", "string", "playerId", "turnKind", "card", "route", "station", "ticket", "stringList",
+            "cardList", "routeList", "cardSortedBag", "ticketSortedBag", "listOfSortedBagOfCards", "trail",
+            "publicCardState", "publicPlayerState", "playerState", "publicGameState"})
+    public String serde;
+
+    private Serde<Object> objectSerde;
+    private Object value;
+    private String serialized;
+
+    @Setup
+    public void setUp() {
+        MapDefinition map = MapDefinition.usa();
+        GameState state = BenchmarkData.playTurns(BenchmarkData.initialState(map, 4, 2021), map, Integer.MAX_VALUE);
+        PlayerState player = state.currentPlayerState();
+        List<Card> faceUpCards = state.cardState().faceUpCards();
+
+        switch (serde) {
+            case "integer":
+                set(Serdes.integerSerde, 2021);
+                break;
+            case "string":
+                set(Serdes.stringSerde, "Charles a pris la route Nouvelle Orléans - Atlanta");
+                break;
+            case "playerId":
+                set(Serdes.playerIdSerde, PlayerId.PLAYER_2);
+                break;
+            case "turnKind":
+                set(Serdes.turnKindSerde, TurnKind.CLAIM_ROUTE);
+                break;
+            case "card":
+                set(Serdes.cardSerde, Card.LOCOMOTIVE);
+                break;
+            case "route":
+                set(Serdes.routeSerde, player.routes().get(0));
+                break;
+            case "station":
+                set(Serdes.stationSerde, player.routes().get(0).station2());
+                break;
+            case "ticket":
+                set(Serdes.ticketSerde, player.tickets().get(0));
+                break;
+            case "stringList":
+                set(Serdes.stringListSerde, List.of("Ada", "Charles", "Grace", "Alan"));
+                break;
+            case "cardList":
+                set(Serdes.cardListSerde, faceUpCards);
+                break;
+            case "routeList":
+                set(Serdes.routeListSerde, player.routes());
+                break;
+            case "cardSortedBag":
+                set(Serdes.cardSortedBagSerde, player.cards());
+                break;
+            case "ticketSortedBag":
+                set(Serdes.ticketSortedBagSerde, player.tickets());
+                break;
+            case "listOfSortedBagOfCards":
+                set(Serdes.listOfSortedBagOfCardsSerde, player.possibleClaimCards(player.routes().get(0)));
+                break;
+            case "trail":
+                set(Serdes.trailSerde, Trail.longest(player.routes()));
+                break;
+            case "publicCardState":
+                set(Serdes.publicCardStateSerde, state.cardState());
+                break;
+            case "publicPlayerState":
+                set(Serdes.publicPlayerStateSerde, state.playerState(state.currentPlayerId()));
+                break;
+            case "playerState":
+                set(Serdes.playerStateSerde, player);
+                break;
+            case "publicGameState":
+                set(Serdes.publicGameStateSerde, state);
+                break;
+            default:
+                throw new Error();
+        }
+        serialized = objectSerde.serialize(value);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return objectSerde.deserialize(objectSerde.serialize(value));
+    }
+
+    @Benchmark
+    public String serialize() {
+        return objectSerde.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return objectSerde.deserialize(serialized);
+    }
+
+    //Helper method setting the serde and the value of the benchmark
+    @SuppressWarnings("unchecked")
+    private <T> void set(Serde<T> serde, T value) {
+        this.objectSerde = (Serde<Object>) serde;
+        this.value = value;
+    }
+
+}
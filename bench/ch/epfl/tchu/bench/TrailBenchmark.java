@@ -0,0 +1,63 @@
+package ch.epfl.tchu.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Trail;
+
+/**
+ * Benchmark of Trail.longest, on the routes of the players at the end of games between scripted players (cycling
+ * through them, one set per invocation), and on the densest set of routes a player can claim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrailBenchmark {
+
+    @Param({"usa", "ch"})
+    public String map;
+
+    private List<List<Route>> realisticRoutes;
+    private List<Route> worstCaseRoutes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MapDefinition definition = BenchmarkData.map(map);
+        realisticRoutes = new ArrayList<>();
+        for (PlayerState p : BenchmarkData.finalPlayerStates(definition, 2, 32, 2021))
+            realisticRoutes.add(p.routes());
+        worstCaseRoutes = BenchmarkData.worstCaseRoutes(definition);
+    }
+
+    @Benchmark
+    public Trail longestRealistic() {
+        next = (next + 1) % realisticRoutes.size();
+        return Trail.longest(realisticRoutes.get(next));
+    }
+
+    @Benchmark
+    public Trail longestWorstCase() {
+        return Trail.longest(worstCaseRoutes);
+    }
+
+}
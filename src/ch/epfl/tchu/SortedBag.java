@@ -178,20 +178,27 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
      * la taille du multiensemble
      */
     public Set<SortedBag<E>> subsetsOfSize(int size) {
-        Preconditions.checkArgument(0 <= size && size <= size());
-        if (size == 0)
-            return Set.of(SortedBag.of());
-
         var result = new HashSet<SortedBag<E>>();
-        for (var e1 : elements.keySet()) {
-            var s1 = SortedBag.of(e1);
-            this.difference(s1)
-                    .subsetsOfSize(size - 1)
-                    .forEach(e -> result.add(s1.union(e)));
-        }
+        subsetsOfSizeIterator(size).forEachRemaining(result::add);
         return result;
     }
 
+    /**
+     * Retourne un itérateur sur tous les sous-ensembles du multiensemble ayant une taille donnée, chacun n'étant
+     * produit qu'une seule fois, dans l'ordre colexicographique de leurs multiplicités : les sous-ensembles
+     * contenant le moins d'occurrences du plus grand élément viennent en premier, puis, à égalité, ceux contenant
+     * le moins d'occurrences du deuxième plus grand élément, et ainsi de suite.
+     * Aucun ensemble intermédiaire n'est construit, seuls les sous-ensembles produits le sont.
+     * @param size la taille des sous-ensembles à produire
+     * @return un itérateur sur les sous-ensembles de <code>this</code> de taille <code>size</code>
+     * @throws IllegalArgumentException si <code>size</code> n'est pas comprise entre 0 et
+     * la taille du multiensemble
+     */
+    public Iterator<SortedBag<E>> subsetsOfSizeIterator(int size) {
+        Preconditions.checkArgument(0 <= size && size <= size());
+        return new SubsetsIterator<>(elements, size);
+    }
+
     /**
      * Retourne une liste contenant les éléments du multiensemble, dans l'ordre.
      * @return une liste contenant les éléments de <code>this</code>
@@ -270,6 +277,69 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
         return j.toString();
     }
 
+    // Itérateur sur les sous-ensembles d'une taille donnée, dans l'ordre colexicographique des multiplicités.
+    // Le sous-ensemble courant est représenté par les multiplicités de chaque élément, bornées par celles du
+    // multiensemble, et le suivant est obtenu en incrémentant la plus petite position possible j, puis en
+    // répartissant les occurrences restantes des positions inférieures à j en remplissant d'abord la position 0.
+    private static final class SubsetsIterator<E extends Comparable<E>> implements Iterator<SortedBag<E>> {
+        private final List<E> keys;
+        private final int[] bounds;
+        private final int[] counts;
+        private boolean hasNext;
+
+        private SubsetsIterator(SortedMap<E, Integer> elements, int size) {
+            this.keys = new ArrayList<>(elements.keySet());
+            this.bounds = new int[keys.size()];
+            this.counts = new int[keys.size()];
+            for (var i = 0; i < keys.size(); i++)
+                bounds[i] = elements.get(keys.get(i));
+            fill(size, keys.size());
+            this.hasNext = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public SortedBag<E> next() {
+            if (!hasNext)
+                throw new NoSuchElementException();
+
+            var subset = new TreeMap<E, Integer>();
+            for (var i = 0; i < counts.length; i++) {
+                if (counts[i] > 0)
+                    subset.put(keys.get(i), counts[i]);
+            }
+            advance();
+            return new SortedBag<>(subset);
+        }
+
+        // Passe au sous-ensemble suivant, s'il existe.
+        private void advance() {
+            var lower = 0;
+            for (var j = 0; j < counts.length; j++) {
+                if (lower > 0 && counts[j] < bounds[j]) {
+                    counts[j] += 1;
+                    fill(lower - 1, j);
+                    return;
+                }
+                lower += counts[j];
+            }
+            hasNext = false;
+        }
+
+        // Répartit n occurrences sur les positions 0 (incluse) à end (exclue), en remplissant d'abord les premières.
+        private void fill(int n, int end) {
+            for (var i = 0; i < end; i++) {
+                counts[i] = Math.min(n, bounds[i]);
+                n -= counts[i];
+            }
+            assert n == 0;
+        }
+    }
+
     /**
      * Bâtisseur de multiensemble.
      * @param <E> le type des éléments du multiensemble à bâtir.
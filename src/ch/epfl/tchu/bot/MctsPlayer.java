@@ -0,0 +1,386 @@
+package ch.epfl.tchu.bot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CompiledMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.SimulationState;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * Player choosing its turns, the cards it draws and the tickets it keeps by Monte Carlo tree search, without any user
+ * interface. For each decision, the candidate moves are the children of the root of the tree, selected with UCB1, and
+ * each iteration plays the selected move then the rest of the game with the default policy of Rollout, in a
+ * simulation state where the cards and tickets the player cannot see are dealt randomly (determinization).
+ * The iterations of a decision are shared among several workers running in parallel, each with its own
+ * determinizations, whose statistics are merged at the end. The move visited the most is played.
+ */
+public final class MctsPlayer implements Player {
+
+    // Maximal amount of routes considered for a claim, the longest ones being kept.
+    private static final int MAX_CLAIM_CANDIDATES = 6;
+    // Amount of iterations played on the same determinization, which is restored in between with undoTo.
+    private static final int ITERATIONS_PER_DETERMINIZATION = 8;
+    // Exploration constant of UCB1.
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private final Random rng;
+    private final CompiledMap map;
+    private final List<Ticket> tickets;
+    private final int iterations;
+    private final long timeBudget;
+    private final int parallelism;
+    private final Rollout rollout;
+
+    private PlayerId ownId;
+    private int playerCount;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private SortedBag<Ticket> initialTicketChoice;
+    private Route claimedRoute;
+    private SortedBag<Card> initialClaimCards;
+    private int drawsLeft;
+
+    /**
+     * Constructor. A decision stops at the first of its two budgets which is exhausted.
+     * @param seed (long) : the seed of the random number generator of the player.
+     * @param routes (List<Route>) : the routes of the map the game is played on.
+     * @param tickets (List<Ticket>) : the tickets of the map the game is played on.
+     * @param iterations (int) : the maximal amount of iterations per decision.
+     * @param timeBudget (Duration) : the maximal time spent per decision.
+     * @param parallelism (int) : the amount of workers searching in parallel.
+     * @throws IllegalArgumentException if iterations, timeBudget or parallelism is not strictly positive.
+     */
+    public MctsPlayer(long seed, List<Route> routes, List<Ticket> tickets, int iterations, Duration timeBudget,
+                      int parallelism) {
+        Preconditions.checkArgument(iterations > 0);
+        Preconditions.checkArgument(!timeBudget.isNegative() && !timeBudget.isZero());
+        Preconditions.checkArgument(parallelism > 0);
+
+        this.rng = new Random(seed);
+        this.map = CompiledMap.of(routes);
+        this.tickets = List.copyOf(tickets);
+        this.iterations = iterations;
+        this.timeBudget = timeBudget.toNanos();
+        this.parallelism = parallelism;
+        this.rollout = new Rollout(map);
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        this.ownId = ownId;
+        this.playerCount = playerNames.size();
+    }
+
+    @Override
+    public void receiveInfo(String info) {}
+
+    @Override
+    public void receiveMessage(String message) {}
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        initialTicketChoice = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return ScriptedPlayer.cheapestTickets(initialTicketChoice);
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        List<Route> claimable = new ArrayList<>(
+                ScriptedPlayer.claimableRoutes(gameState, ownState, ownId, playerCount, map));
+        claimable.sort(Comparator.comparingInt(Route::length).reversed());
+
+        List<Move> moves = new ArrayList<>();
+        for (Route r : claimable.subList(0, Math.min(MAX_CLAIM_CANDIDATES, claimable.size())))
+            moves.add(Move.claim(r, ownState.possibleClaimCards(r).get(0)));
+        if (gameState.canDrawCards())
+            moves.add(Move.DRAW_CARDS);
+        if (gameState.canDrawTickets())
+            moves.add(Move.DRAW_TICKETS);
+        if (moves.isEmpty())
+            return TurnKind.DRAW_CARDS;
+
+        Move move = search(moves, SortedBag.of());
+        claimedRoute = move.route;
+        initialClaimCards = move.cards;
+        drawsLeft = Constants.IN_GAME_CARDS_COUNT;
+
+        return move.kind;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        List<Move> moves = new ArrayList<>();
+        int minCount = Math.max(1, options.size() - Constants.DISCARDABLE_TICKETS_COUNT);
+        for (SortedBag<Ticket> subset : subsets(options.toList(), minCount))
+            moves.add(Move.keep(options, subset));
+
+        return search(moves, options).tickets;
+    }
+
+    @Override
+    public int drawSlot() {
+        List<Move> moves = new ArrayList<>();
+        moves.add(Move.draw(Constants.DECK_SLOT));
+        List<Card> seenCards = new ArrayList<>();
+        for (int slot : Constants.FACE_UP_CARD_SLOTS) {
+            Card card = gameState.cardState().faceUpCard(slot);
+            if (!seenCards.contains(card)) {
+                seenCards.add(card);
+                moves.add(Move.draw(slot));
+            }
+        }
+
+        int slot = search(moves, SortedBag.of()).slot;
+        drawsLeft -= 1;
+
+        return slot;
+    }
+
+    @Override
+    public Route claimedRoute() { return claimedRoute; }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() { return initialClaimCards; }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return options.isEmpty()
+                ? SortedBag.of()
+                : options.get(0);
+    }
+
+    //Helper method searching the best of the given moves, with the given tickets known to be at the top of the deck
+    private Move search(List<Move> moves, SortedBag<Ticket> topTickets) {
+        if (moves.size() == 1)
+            return moves.get(0);
+
+        long deadline = System.nanoTime() + timeBudget;
+        long[] seeds = new long[parallelism];
+        for (int i = 0 ; i < parallelism ; i++)
+            seeds[i] = rng.nextLong();
+
+        IntStream workers = IntStream.range(0, parallelism);
+        if (parallelism > 1)
+            workers = workers.parallel();
+        List<Statistics> results = workers
+                .mapToObj(i -> work(moves, topTickets, workerIterations(i), deadline, new Random(seeds[i])))
+                .collect(Collectors.toList());
+
+        Statistics merged = new Statistics(moves.size());
+        for (Statistics s : results)
+            merged.add(s);
+
+        return moves.get(merged.mostVisited());
+    }
+
+    //Helper method sharing the iterations of a decision among the workers
+    private int workerIterations(int worker) {
+        return iterations / parallelism + (worker < iterations % parallelism ? 1 : 0);
+    }
+
+    //Helper method running the iterations of one worker
+    private Statistics work(List<Move> moves, SortedBag<Ticket> topTickets, int iterationCount, long deadline,
+                            Random rng) {
+        Statistics statistics = new Statistics(moves.size());
+        boolean isFinalTurn = gameState.lastPlayer() == ownId;
+        SimulationState state = null;
+        int mark = 0;
+        for (int i = 0 ; i < iterationCount && (i == 0 || System.nanoTime() < deadline) ; i++) {
+            if (i % ITERATIONS_PER_DETERMINIZATION == 0) {
+                state = SimulationState.determinized(gameState, ownId, ownState, tickets, topTickets, rng);
+                mark = state.mark();
+            }
+
+            int m = statistics.select();
+            play(moves.get(m), state, rng);
+            rollout.playToEnd(state, isFinalTurn, rng);
+            statistics.update(m, Rollout.reward(state, ownId));
+            state.undoTo(mark);
+        }
+
+        return statistics;
+    }
+
+    //Helper method playing the given move, until the end of the current turn
+    private void play(Move move, SimulationState state, Random rng) {
+        switch (move.kind) {
+            case CLAIM_ROUTE:
+                rollout.claimRoute(state, move.route, move.cards, rng);
+                break;
+
+            case DRAW_TICKETS:
+                if (move.tickets == null)
+                    rollout.drawTickets(state);
+                else
+                    state.chooseAdditionalTickets(move.drawnTickets, move.tickets);
+                break;
+
+            case DRAW_CARDS:
+                int draws = Constants.IN_GAME_CARDS_COUNT;
+                if (move.slot != Move.NO_SLOT) {
+                    state.recreateCardsDeckIfNeeded(rng);
+                    if (move.slot == Constants.DECK_SLOT)
+                        state.drawBlindCard();
+                    else
+                        state.drawFaceUpCard(move.slot);
+                    draws = drawsLeft - 1;
+                }
+                for (int i = 0 ; i < draws ; i++)
+                    rollout.drawCard(state, rng);
+                break;
+
+            default:
+                throw new Error();
+        }
+    }
+
+    //Helper method computing the subsets of at least minCount elements of the given list
+    private static List<SortedBag<Ticket>> subsets(List<Ticket> options, int minCount) {
+        List<SortedBag<Ticket>> subsets = new ArrayList<>();
+        for (int mask = 1 ; mask < (1 << options.size()) ; mask++) {
+            if (Integer.bitCount(mask) < minCount)
+                continue;
+
+            SortedBag.Builder<Ticket> builder = new SortedBag.Builder<>();
+            for (int i = 0 ; i < options.size() ; i++) {
+                if ((mask & (1 << i)) != 0)
+                    builder.add(options.get(i));
+            }
+            SortedBag<Ticket> subset = builder.build();
+            if (!subsets.contains(subset))
+                subsets.add(subset);
+        }
+
+        return subsets;
+    }
+
+    /**
+     * Candidate move of a decision, standing for the rest of the current turn: claiming a route with some cards,
+     * drawing cards (from a given slot first, or not) or drawing tickets (keeping some given ones, or not).
+     */
+    private static final class Move {
+
+        private static final int NO_SLOT = -2;
+        private static final Move DRAW_CARDS = new Move(TurnKind.DRAW_CARDS, null, null, NO_SLOT, null, null);
+        private static final Move DRAW_TICKETS = new Move(TurnKind.DRAW_TICKETS, null, null, NO_SLOT, null, null);
+
+        private final TurnKind kind;
+        private final Route route;
+        private final SortedBag<Card> cards;
+        private final int slot;
+        private final SortedBag<Ticket> drawnTickets;
+        private final SortedBag<Ticket> tickets;
+
+        private Move(TurnKind kind, Route route, SortedBag<Card> cards, int slot, SortedBag<Ticket> drawnTickets,
+                     SortedBag<Ticket> tickets) {
+            this.kind = kind;
+            this.route = route;
+            this.cards = cards;
+            this.slot = slot;
+            this.drawnTickets = drawnTickets;
+            this.tickets = tickets;
+        }
+
+        private static Move claim(Route route, SortedBag<Card> cards) {
+            return new Move(TurnKind.CLAIM_ROUTE, route, cards, NO_SLOT, null, null);
+        }
+
+        private static Move draw(int slot) {
+            return new Move(TurnKind.DRAW_CARDS, null, null, slot, null, null);
+        }
+
+        private static Move keep(SortedBag<Ticket> drawnTickets, SortedBag<Ticket> tickets) {
+            return new Move(TurnKind.DRAW_TICKETS, null, null, NO_SLOT, drawnTickets, tickets);
+        }
+
+    }
+
+    /**
+     * Visits and total rewards of the children of the root of a search.
+     */
+    private static final class Statistics {
+
+        private final int[] visits;
+        private final double[] rewards;
+        private int totalVisits;
+
+        private Statistics(int moveCount) {
+            visits = new int[moveCount];
+            rewards = new double[moveCount];
+        }
+
+        //Selects the move maximizing UCB1, every move being visited once first
+        private int select() {
+            double logTotal = Math.log(totalVisits);
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int m = 0 ; m < visits.length ; m++) {
+                if (visits[m] == 0)
+                    return m;
+
+                double value = rewards[m] / visits[m] + EXPLORATION * Math.sqrt(logTotal / visits[m]);
+                if (value > bestValue) {
+                    best = m;
+                    bestValue = value;
+                }
+            }
+
+            return best;
+        }
+
+        private void update(int move, double reward) {
+            update(move, 1, reward);
+        }
+
+        private void add(Statistics that) {
+            for (int m = 0 ; m < visits.length ; m++)
+                update(m, that.visits[m], that.rewards[m]);
+        }
+
+        private void update(int move, int visitCount, double reward) {
+            visits[move] += visitCount;
+            rewards[move] += reward;
+            totalVisits += visitCount;
+        }
+
+        //The most visited move, the best mean reward breaking ties
+        private int mostVisited() {
+            int best = 0;
+            for (int m = 1 ; m < visits.length ; m++) {
+                if (visits[m] > visits[best]
+                        || (visits[m] == visits[best] && rewards[m] > rewards[best]))
+                    best = m;
+            }
+
+            return best;
+        }
+
+    }
+
+}
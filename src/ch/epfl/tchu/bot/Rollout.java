@@ -0,0 +1,252 @@
+package ch.epfl.tchu.bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CompiledMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.SimulationState;
+import ch.epfl.tchu.game.Station;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trail;
+import ch.epfl.tchu.game.Trip;
+
+/**
+ * Fast default policy playing a simulation state until the end of the game, for every player: a player claims the
+ * longest route it can (favouring the ones having a station of its tickets), draws two cards otherwise, and draws
+ * tickets when it cannot draw cards anymore. The rules are the ones of Game and of the graphical interface.
+ */
+final class Rollout {
+
+    // Bonus given to a route having a station of one of the player's tickets, compared to its length.
+    private static final int TICKET_STATION_BONUS = 2;
+    // A rollout is stopped after that many turns, in case no player can end the game.
+    private static final int MAX_TURNS = 500;
+    // Scale of the points margin in the reward (a margin of that many points gives a reward of about 0.73).
+    private static final double REWARD_SCALE = 10;
+
+    private final CompiledMap map;
+
+    /**
+     * Constructor.
+     * @param map (CompiledMap) : the compiled map the game is played on.
+     */
+    Rollout(CompiledMap map) {
+        this.map = map;
+    }
+
+    /**
+     * To get the routes the current player of the simulation can claim, with the rules of ScriptedPlayer
+     * .claimableRoutes.
+     * @param state (SimulationState) : the simulation state.
+     * @return claimable (List<Route>) : the routes the current player can claim, in the order of the map.
+     */
+    List<Route> claimableRoutes(SimulationState state) {
+        PlayerId current = state.currentPlayerId();
+        int carCount = state.carCount(current);
+        boolean twoPlayers = state.allPlayers().size() == 2;
+        List<Route> claimable = new ArrayList<>();
+        for (int i = 0 ; i < map.routeCount() ; i++) {
+            Route r = map.route(i);
+            // The cheapest tests first, most of the routes being too long or too expensive.
+            if (r.length() > carCount || !state.canClaimRoute(r) || state.isClaimed(r))
+                continue;
+
+            boolean isForbidden = false;
+            int group = map.parallelGroup(i);
+            for (int k = map.groupStart(group) ; k < map.groupStart(group + 1) && !isForbidden ; k++) {
+                Route other = map.route(map.groupRoute(k));
+                if (other != r)
+                    isForbidden = twoPlayers ? state.isClaimed(other) : state.routes(current).contains(other);
+            }
+            if (!isForbidden)
+                claimable.add(r);
+        }
+
+        return claimable;
+    }
+
+    /**
+     * Ends the current turn, whose moves have already been played, and plays all the following turns, until the end
+     * of the game.
+     * @param state (SimulationState) : the simulation state, which is modified.
+     * @param isFinalTurn (boolean) : true if the current turn is the last one of the game.
+     * @param rng (Random) : the random number generator of the rollout.
+     */
+    void playToEnd(SimulationState state, boolean isFinalTurn, Random rng) {
+        for (int turn = 0 ; turn < MAX_TURNS && !isFinalTurn ; turn++) {
+            state.nextTurn();
+            isFinalTurn = state.lastPlayer() == state.currentPlayerId();
+            playTurn(state, rng);
+        }
+    }
+
+    /**
+     * Plays a complete turn for the current player of the simulation, without calling nextTurn.
+     * @param state (SimulationState) : the simulation state, which is modified.
+     * @param rng (Random) : the random number generator of the rollout.
+     */
+    void playTurn(SimulationState state, Random rng) {
+        Route route = bestRoute(state, claimableRoutes(state), rng);
+        if (route != null) {
+            claimRoute(state, route, state.possibleClaimCards(route).get(0), rng);
+        } else if (state.canDrawCards()) {
+            for (int i = 0 ; i < Constants.IN_GAME_CARDS_COUNT ; i++)
+                drawCard(state, rng);
+        } else if (state.canDrawTickets()) {
+            drawTickets(state);
+        }
+    }
+
+    /**
+     * Draws one card for the current player, recreating the deck first if needed: a locomotive or the face up card
+     * the player has the most of, or the top deck card.
+     * @param state (SimulationState) : the simulation state, which is modified.
+     * @param rng (Random) : the random number generator used to recreate the deck.
+     */
+    void drawCard(SimulationState state, Random rng) {
+        state.recreateCardsDeckIfNeeded(rng);
+        if (state.deckSize() == 0)
+            return;
+
+        int bestSlot = Constants.DECK_SLOT;
+        int bestCount = 0;
+        for (int slot : Constants.FACE_UP_CARD_SLOTS) {
+            Card card = state.faceUpCard(slot);
+            int count = (card == Card.LOCOMOTIVE)
+                    ? Integer.MAX_VALUE
+                    : state.cards(state.currentPlayerId()).countOf(card);
+            if (count > bestCount) {
+                bestSlot = slot;
+                bestCount = count;
+            }
+        }
+
+        if (bestSlot == Constants.DECK_SLOT)
+            state.drawBlindCard();
+        else
+            state.drawFaceUpCard(bestSlot);
+    }
+
+    /**
+     * Draws tickets for the current player, keeping only one of them.
+     * @param state (SimulationState) : the simulation state, which is modified.
+     */
+    void drawTickets(SimulationState state) {
+        SortedBag<Ticket> drawn = state.topTickets(Math.min(Constants.IN_GAME_TICKETS_COUNT, state.ticketsCount()));
+        state.chooseAdditionalTickets(drawn, SortedBag.of(drawn.get(0)));
+    }
+
+    /**
+     * Makes the current player try to claim a route as Game does, drawing the additional cards for a tunnel and
+     * choosing the first possible additional cards.
+     * @param state (SimulationState) : the simulation state, which is modified.
+     * @param route (Route) : the route the current player claims.
+     * @param initialCards (SortedBag<Card>) : the cards initially played.
+     * @param rng (Random) : the random number generator used to recreate the deck.
+     */
+    void claimRoute(SimulationState state, Route route, SortedBag<Card> initialCards, Random rng) {
+        if (route.level() != Route.Level.UNDERGROUND) {
+            state.claimRoute(route, initialCards);
+            return;
+        }
+
+        SortedBag.Builder<Card> drawnBuilder = new SortedBag.Builder<>();
+        for (int i = 0 ; i < Constants.ADDITIONAL_TUNNEL_CARDS ; i++) {
+            state.recreateCardsDeckIfNeeded(rng);
+            if (state.deckSize() > 0)
+                drawnBuilder.add(state.discardTopCard());
+        }
+        SortedBag<Card> drawnCards = drawnBuilder.build();
+        // Game cannot go on without enough cards in the deck and the discards, the attempt is simply given up.
+        if (drawnCards.size() < Constants.ADDITIONAL_TUNNEL_CARDS)
+            return;
+
+        int additionalCount = route.additionalClaimCardsCount(initialCards, drawnCards);
+        if (additionalCount == 0) {
+            state.claimRoute(route, initialCards);
+        } else {
+            List<SortedBag<Card>> options = state.possibleAdditionalCards(additionalCount, initialCards, drawnCards);
+            if (!options.isEmpty())
+                state.claimRoute(route, initialCards.union(options.get(0)));
+        }
+    }
+
+    /**
+     * To get the reward of a player at the end of a game, between 0 and 1, growing with the margin between its points
+     * and the best points of the other players, the longest trail bonus included.
+     * @param state (SimulationState) : the simulation state at the end of the game.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return reward (double) : the reward of the player, greater than 0.5 if it wins.
+     */
+    static double reward(SimulationState state, PlayerId playerId) {
+        List<PlayerId> players = state.allPlayers();
+        int[] points = new int[players.size()];
+        int[] trailLengths = new int[players.size()];
+        int maxTrailLength = 0;
+        for (int i = 0 ; i < players.size() ; i++) {
+            points[i] = state.finalPoints(players.get(i));
+            trailLengths[i] = Trail.longest(state.routes(players.get(i))).length();
+            maxTrailLength = Math.max(maxTrailLength, trailLengths[i]);
+        }
+
+        int ownPoints = 0;
+        int bestOtherPoints = Integer.MIN_VALUE;
+        for (int i = 0 ; i < players.size() ; i++) {
+            if (trailLengths[i] == maxTrailLength)
+                points[i] += Constants.LONGEST_TRAIL_BONUS_POINTS;
+            if (players.get(i) == playerId)
+                ownPoints = points[i];
+            else
+                bestOtherPoints = Math.max(bestOtherPoints, points[i]);
+        }
+
+        return 1 / (1 + Math.exp((bestOtherPoints - ownPoints) / REWARD_SCALE));
+    }
+
+    //Helper method choosing the claimable route of the best score, ties being broken randomly
+    private static Route bestRoute(SimulationState state, List<Route> claimable, Random rng) {
+        if (claimable.isEmpty())
+            return null;
+
+        List<Ticket> tickets = state.tickets(state.currentPlayerId());
+        int bestScore = Integer.MIN_VALUE;
+        int bestCount = 0;
+        Route best = null;
+        for (Route r : claimable) {
+            int score = r.length();
+            if (hasTicketStation(tickets, r))
+                score += TICKET_STATION_BONUS;
+            if (score > bestScore) {
+                bestScore = score;
+                bestCount = 0;
+            }
+            // Reservoir sampling among the routes of the best score.
+            if (score == bestScore && rng.nextInt(++bestCount) == 0)
+                best = r;
+        }
+
+        return best;
+    }
+
+    //Helper method stating if one of the stations of the route belongs to one of the tickets
+    private static boolean hasTicketStation(List<Ticket> tickets, Route route) {
+        for (Ticket ticket : tickets) {
+            for (Trip t : ticket.trips()) {
+                Station from = t.from();
+                Station to = t.to();
+                if (from.equals(route.station1()) || from.equals(route.station2())
+                        || to.equals(route.station1()) || to.equals(route.station2()))
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,220 @@
+package ch.epfl.tchu.bot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CompiledMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Station;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trip;
+
+/**
+ * Player following simple fixed rules, without any user interface: it claims the route it can afford that is the
+ * most useful for its tickets, and draws cards otherwise. Its only randomness comes from its own seeded Random, so
+ * that a game between scripted players is entirely reproducible.
+ */
+public final class ScriptedPlayer implements Player {
+
+    // Bonus given to a route having a station of one of the player's tickets, compared to its length.
+    private static final int TICKET_STATION_BONUS = 2;
+    // Probability (in percent) to draw tickets rather than cards when no route can be claimed.
+    private static final int DRAW_TICKETS_PERCENTAGE = 5;
+    // The player stops drawing tickets when it has less cars than that.
+    private static final int MIN_CARS_TO_DRAW_TICKETS = 15;
+
+    private final Random rng;
+    private final CompiledMap map;
+    private PlayerId ownId;
+    private int playerCount;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private SortedBag<Ticket> initialTicketChoice;
+    private Route claimedRoute;
+    private SortedBag<Card> initialClaimCards;
+
+    /**
+     * Constructor.
+     * @param seed (long) : the seed of the random number generator of the player.
+     * @param routes (List<Route>) : the routes of the map the game is played on.
+     */
+    public ScriptedPlayer(long seed, List<Route> routes) {
+        this.rng = new Random(seed);
+        this.map = CompiledMap.of(routes);
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        this.ownId = ownId;
+        this.playerCount = playerNames.size();
+    }
+
+    @Override
+    public void receiveInfo(String info) {}
+
+    @Override
+    public void receiveMessage(String message) {}
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        initialTicketChoice = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return cheapestTickets(initialTicketChoice);
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        List<Route> claimable = claimableRoutes(gameState, ownState, ownId, playerCount, map);
+        if (!claimable.isEmpty()) {
+            Set<Station> ticketStations = ticketStations(ownState.tickets());
+            int bestScore = Integer.MIN_VALUE;
+            List<Route> best = new ArrayList<>();
+            for (Route r : claimable) {
+                int score = r.length();
+                if (ticketStations.contains(r.station1()) || ticketStations.contains(r.station2()))
+                    score += TICKET_STATION_BONUS;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best.clear();
+                }
+                if (score == bestScore)
+                    best.add(r);
+            }
+
+            claimedRoute = best.get(rng.nextInt(best.size()));
+            initialClaimCards = ownState.possibleClaimCards(claimedRoute).get(0);
+            return TurnKind.CLAIM_ROUTE;
+        }
+
+        boolean wantsTickets = ownState.carCount() >= MIN_CARS_TO_DRAW_TICKETS
+                && rng.nextInt(100) < DRAW_TICKETS_PERCENTAGE;
+        if (gameState.canDrawTickets() && (wantsTickets || !gameState.canDrawCards()))
+            return TurnKind.DRAW_TICKETS;
+
+        return TurnKind.DRAW_CARDS;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return cheapestTickets(options);
+    }
+
+    @Override
+    public int drawSlot() {
+        // Takes the face up card the player already has the most of, or a locomotive, and draws blindly otherwise.
+        int bestSlot = Constants.DECK_SLOT;
+        int bestCount = 0;
+        for (int slot : Constants.FACE_UP_CARD_SLOTS) {
+            Card card = gameState.cardState().faceUpCard(slot);
+            int count = (card == Card.LOCOMOTIVE)
+                    ? Integer.MAX_VALUE
+                    : ownState.cards().countOf(card);
+            if (count > bestCount) {
+                bestSlot = slot;
+                bestCount = count;
+            }
+        }
+
+        return bestSlot;
+    }
+
+    @Override
+    public Route claimedRoute() { return claimedRoute; }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() { return initialClaimCards; }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return options.isEmpty()
+                ? SortedBag.of()
+                : options.get(0);
+    }
+
+    /**
+     * To get the routes the given player can claim, following the rules of the graphical interface: no route parallel
+     * to an already claimed route can be claimed in a two-player game, and a player can never claim two parallel
+     * routes.
+     * @param gameState (PublicGameState) : the state of the game.
+     * @param ownState (PlayerState) : the state of the player.
+     * @param ownId (PlayerId) : the identity of the player.
+     * @param playerCount (int) : the number of players.
+     * @param map (CompiledMap) : the compiled map the game is played on.
+     * @return claimable (List<Route>) : the routes the player can claim, in the order of the map.
+     */
+    static List<Route> claimableRoutes(PublicGameState gameState, PlayerState ownState, PlayerId ownId,
+                                       int playerCount, CompiledMap map) {
+        List<Route> claimable = new ArrayList<>();
+        for (Route r : map.routes()) {
+            if (gameState.isClaimed(r) || !ownState.canClaimRoute(r))
+                continue;
+
+            boolean isForbidden = false;
+            for (Route parallel : map.parallelRoutes(r)) {
+                if (playerCount == 2 ? gameState.isClaimed(parallel) : gameState.ownerOf(parallel) == ownId)
+                    isForbidden = true;
+            }
+            if (!isForbidden)
+                claimable.add(r);
+        }
+
+        return claimable;
+    }
+
+    /**
+     * To get the tickets worth the least points among the given ones, keeping as few of them as allowed.
+     * @param options (SortedBag<Ticket>) : the tickets the player can choose from.
+     * @return tickets (SortedBag<Ticket>) : the kept tickets.
+     */
+    static SortedBag<Ticket> cheapestTickets(SortedBag<Ticket> options) {
+        List<Ticket> sorted = new ArrayList<>(options.toList());
+        sorted.sort(Comparator.comparingInt(ScriptedPlayer::maxPoints));
+        int keptCount = Math.max(1, options.size() - Constants.DISCARDABLE_TICKETS_COUNT);
+
+        return SortedBag.of(sorted.subList(0, keptCount));
+    }
+
+    //Helper method computing the maximal amount of points of a ticket
+    private static int maxPoints(Ticket ticket) {
+        int max = 0;
+        for (Trip t : ticket.trips())
+            max = Math.max(max, t.points());
+
+        return max;
+    }
+
+    //Helper method gathering the stations of the given tickets
+    private static Set<Station> ticketStations(SortedBag<Ticket> tickets) {
+        Set<Station> stations = new HashSet<>();
+        for (Ticket ticket : tickets.toSet()) {
+            for (Trip t : ticket.trips()) {
+                stations.add(t.from());
+                stations.add(t.to());
+            }
+        }
+
+        return stations;
+    }
+
+}
@@ -0,0 +1,243 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+import java.util.StringJoiner;
+
+/**
+ * Immutable multiset of cards, specialized for the 9 kinds of cards of the game.
+ * The multiplicity of each card is stored in a field of 7 bits of a single long, the field of a card being given by
+ * its ordinal. The 6 lower bits of a field hold the multiplicity, the upper one is always 0 and is only used as a
+ * guard bit in the computations, so that union, difference and inclusion are computed on all the fields at once.
+ */
+public final class CardBag {
+
+    /**
+     * Maximal multiplicity of a card in a bag (int).
+     */
+    public static final int MAX_COUNT = 63;
+
+    /**
+     * The empty bag of cards (CardBag).
+     */
+    public static final CardBag EMPTY = new CardBag(0L);
+
+    private static final int FIELD_BITS = 7;
+    private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+    private static final long GUARDS = computeGuards();
+
+    private final long counts;
+    private final int size;
+
+    /**
+     * To get the bag containing the given cards.
+     * @param cards (SortedBag<Card>) : the cards.
+     * @return cardBag (CardBag) : the bag containing exactly the given cards.
+     * @throws IllegalArgumentException if a card appears more than MAX_COUNT times.
+     */
+    public static CardBag of(SortedBag<Card> cards) {
+        long counts = 0L;
+        for (Card c : cards.toSet()) {
+            int count = cards.countOf(c);
+            Preconditions.checkArgument(count <= MAX_COUNT);
+            counts |= (long) count << shift(c);
+        }
+
+        return new CardBag(counts);
+    }
+
+    /**
+     * To get the bag containing a card with the given multiplicity.
+     * @param n (int) : the multiplicity of the card.
+     * @param card (Card) : the card.
+     * @return cardBag (CardBag) : the bag containing n times the card.
+     * @throws IllegalArgumentException if n is not between 0 and MAX_COUNT (both inclusive).
+     */
+    public static CardBag of(int n, Card card) {
+        Preconditions.checkArgument(0 <= n && n <= MAX_COUNT);
+
+        return new CardBag((long) n << shift(card));
+    }
+
+    /**
+     * To get the bag containing two cards with the given multiplicities.
+     * @param n1 (int) : the multiplicity of the first card.
+     * @param card1 (Card) : the first card.
+     * @param n2 (int) : the multiplicity of the second card.
+     * @param card2 (Card) : the second card.
+     * @return cardBag (CardBag) : the bag containing n1 times the first card and n2 times the second one.
+     * @throws IllegalArgumentException if n1 or n2 is not between 0 and MAX_COUNT (both inclusive),
+     *                                  or if the two cards are the same.
+     */
+    public static CardBag of(int n1, Card card1, int n2, Card card2) {
+        Preconditions.checkArgument(card1 != card2);
+
+        return of(n1, card1).union(of(n2, card2));
+    }
+
+    /**
+     * To get the bag whose fields are given by the bits of the given long (see bits()).
+     * @param bits (long) : the fields of the bag, the guard bits being 0.
+     * @return cardBag (CardBag) : the corresponding bag.
+     */
+    static CardBag ofBits(long bits) {
+        return bits == 0L ? EMPTY : new CardBag(bits);
+    }
+
+    /**
+     * To get the fields of the bag containing the given card once (see bits()).
+     * @param card (Card) : the card.
+     * @return bits (long) : the fields of the bag containing the card once.
+     */
+    static long bitsOf(Card card) {
+        return 1L << shift(card);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private CardBag(long counts) {
+        this.counts = counts;
+
+        int sizeBuilder = 0;
+        for (int i = 0 ; i < Card.COUNT ; i++)
+            sizeBuilder += (int) ((counts >>> (i * FIELD_BITS)) & FIELD_MASK);
+        size = sizeBuilder;
+    }
+
+    /**
+     * To get the fields of the bag, packed in a long. The fields of two bags can be added directly when no count
+     * overflows, and subtracted directly when no count becomes negative.
+     * @return bits (long) : the fields of the bag.
+     */
+    long bits() { return counts; }
+
+    /**
+     * To get the amount of cards in the bag.
+     * @return size (int) : the amount of cards.
+     */
+    public int size() { return size; }
+
+    /**
+     * States if the bag is empty.
+     * @return isEmpty (boolean) : true if the bag contains no card, false otherwise.
+     */
+    public boolean isEmpty() { return counts == 0L; }
+
+    /**
+     * To get the multiplicity of the given card.
+     * @param card (Card) : the card of interest.
+     * @return count (int) : the multiplicity of the card, 0 if the bag does not contain it.
+     */
+    public int countOf(Card card) {
+        return (int) ((counts >>> shift(card)) & FIELD_MASK);
+    }
+
+    /**
+     * States if the given card appears at least once in the bag.
+     * @param card (Card) : the card of interest.
+     * @return contains (boolean) : true if the bag contains the card, false otherwise.
+     */
+    public boolean contains(Card card) {
+        return countOf(card) > 0;
+    }
+
+    /**
+     * States if the given bag is included in this one.
+     * @param that (CardBag) : the bag which could be included.
+     * @return contains (boolean) : true if every card appears in this bag at least as many times as in that,
+     * false otherwise.
+     */
+    public boolean contains(CardBag that) {
+        // The guard bit of a field is still set after the subtraction iff no borrow happened, i.e. iff the count of
+        // this bag is greater or equal than the count of that.
+        return (((counts | GUARDS) - that.counts) & GUARDS) == GUARDS;
+    }
+
+    /**
+     * To get the union of this bag and the given one.
+     * @param that (CardBag) : the bag to add to this one.
+     * @return cardBag (CardBag) : the bag where the multiplicity of every card is the sum of its multiplicities.
+     * @throws IllegalArgumentException if a card would appear more than MAX_COUNT times.
+     */
+    public CardBag union(CardBag that) {
+        long sum = counts + that.counts;
+        Preconditions.checkArgument((sum & GUARDS) == 0);
+
+        return new CardBag(sum);
+    }
+
+    /**
+     * To get the same bag with one more occurrence of the given card.
+     * @param card (Card) : the card to add.
+     * @return cardBag (CardBag) : the bag with the card added.
+     * @throws IllegalArgumentException if the card would appear more than MAX_COUNT times.
+     */
+    public CardBag with(Card card) {
+        return union(of(1, card));
+    }
+
+    /**
+     * To get the difference between this bag and the given one, a card never appearing a negative number of times.
+     * @param that (CardBag) : the bag to remove from this one.
+     * @return cardBag (CardBag) : the bag where the multiplicity of every card is the difference of its
+     * multiplicities, or 0 if it would be negative.
+     */
+    public CardBag difference(CardBag that) {
+        long difference = (counts | GUARDS) - that.counts;
+        long nonNegative = difference & GUARDS;
+
+        // Keeps the fields whose guard bit is still set, and clears all the others and the guard bits.
+        return new CardBag(difference & (nonNegative - (nonNegative >>> (FIELD_BITS - 1))));
+    }
+
+    /**
+     * To get the sorted bag containing the same cards.
+     * @return sortedBag (SortedBag<Card>) : the cards of the bag.
+     */
+    public SortedBag<Card> toSortedBag() {
+        SortedBag.Builder<Card> builder = new SortedBag.Builder<>();
+        for (Card c : Card.ALL)
+            builder.add(countOf(c), c);
+
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return (that instanceof CardBag) && counts == ((CardBag) that).counts;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner j = new StringJoiner(", ", "{", "}");
+        for (Card c : Card.ALL) {
+            int n = countOf(c);
+            if (n > 0)
+                j.add((n > 1 ? n + "×" : "") + c);
+        }
+
+        return j.toString();
+    }
+
+    //Helper method used to get the position of the field of the given card
+    private static int shift(Card card) {
+        return card.ordinal() * FIELD_BITS;
+    }
+
+    //Helper method used to compute the mask of all the guard bits
+    private static long computeGuards() {
+        long guards = 0L;
+        for (int i = 0 ; i < Card.COUNT ; i++)
+            guards |= 1L << (i * FIELD_BITS + FIELD_BITS - 1);
+
+        return guards;
+    }
+
+}
@@ -14,7 +14,7 @@ import ch.epfl.tchu.SortedBag;
 public final class CardState extends PublicCardState {
 
     private final Deck<Card> deck;
-    private final SortedBag<Card> discards;
+    private final CardBag discards;
 
     /**
      * To have a configuration where the Constants.FACE_UP_CARDS_COUNT top cards of the deck are the one face up,
@@ -33,19 +33,34 @@ public final class CardState extends PublicCardState {
             deck = deck.withoutTopCard();
         }
 
-        return new CardState(cards, deck, SortedBag.of());
+        return new CardState(cards, deck, CardBag.EMPTY);
     }
 
     /**
-     * Private constructor.
+     * Package-private constructor.
+     * @param faceUpCards (List<Card>) : the face up cards.
+     * @param deck (Deck<Card>) : the deck.
+     * @param discards (CardBag) : the discards.
      */
-    private CardState(List<Card> faceUpCards, Deck<Card> deck, SortedBag<Card> discards) {
+    CardState(List<Card> faceUpCards, Deck<Card> deck, CardBag discards) {
         super(faceUpCards, deck.size(), discards.size());
 
         this.deck = deck;
         this.discards = discards;
     }
     
+    /**
+     * To get the deck.
+     * @return deck (Deck<Card>) : the deck.
+     */
+    Deck<Card> deck() { return deck; }
+
+    /**
+     * To get the discards.
+     * @return discards (CardBag) : the discarded cards.
+     */
+    CardBag discards() { return discards; }
+
     /**
      * To get the same set of cards, except that the card from the face up ones of index 'slot' will be replaced by
      * the card at the top of the deck.
@@ -97,9 +112,9 @@ public final class CardState extends PublicCardState {
     public CardState withDeckRecreatedFromDiscards(Random rng) {
         Preconditions.checkArgument(isDeckEmpty());
 
-        Deck<Card> newDeck = Deck.of(discards, rng);
+        Deck<Card> newDeck = Deck.of(discards.toSortedBag(), rng);
 
-        return new CardState(faceUpCards(), newDeck, SortedBag.of());
+        return new CardState(faceUpCards(), newDeck, CardBag.EMPTY);
     }
     
     /**
@@ -108,7 +123,7 @@ public final class CardState extends PublicCardState {
      * @return cardState (CardState) : the same set of cards, but we added cards to the discards.
      */
     public CardState withMoreDiscardedCards(SortedBag<Card> additionalDiscards) {
-        return new CardState(faceUpCards(), deck, discards.union(additionalDiscards));
+        return new CardState(faceUpCards(), deck, discards.union(CardBag.of(additionalDiscards)));
     }
 
 }
@@ -0,0 +1,301 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * Immutable graph of a map, where routes and stations are identified by dense ordinals: the index of a route in the
+ * list it was compiled from, and the index of a station in the list of the stations of these routes, sorted by
+ * identity. Besides the ordinal lookups, it gives the adjacency of the stations in compressed (CSR) form, and the
+ * groups of parallel routes, i. e. of the routes linking the same two stations.
+ */
+public final class CompiledMap {
+
+    private static final CompiledMap USA = of(UsaMap.routes());
+    private static final CompiledMap CH = of(ChMap.routes());
+
+    private final List<Route> routes;
+    private final List<Station> stations;
+    private final Map<Route, Integer> routeOrdinals;
+    // Indexed by Station.id(), -1 for the identities of no station of the map.
+    private final int[] stationOrdinals;
+
+    // Indexed by route ordinal.
+    private final int[] station1;
+    private final int[] station2;
+    private final int[] lengths;
+    private final int[] parallelGroup;
+
+    // The half-routes leaving the station of ordinal s are the ones between adjacencyStart[s] (inclusive) and
+    // adjacencyStart[s + 1] (exclusive), each one being described by its route and the station it leads to.
+    private final int[] adjacencyStart;
+    private final int[] adjacencyRoute;
+    private final int[] adjacencyTarget;
+
+    // The routes of the parallel group of ordinal g are the ones between groupStart[g] (inclusive) and
+    // groupStart[g + 1] (exclusive) in groupRoutes, in increasing order of ordinal.
+    private final int[] groupStart;
+    private final int[] groupRoutes;
+
+    /**
+     * To get the compiled map of the routes of UsaMap.
+     * @return compiledMap (CompiledMap) : the compiled map of the United States.
+     */
+    public static CompiledMap usa() { return USA; }
+
+    /**
+     * To get the compiled map of the routes of ChMap.
+     * @return compiledMap (CompiledMap) : the compiled map of Switzerland.
+     */
+    public static CompiledMap ch() { return CH; }
+
+    /**
+     * To get the compiled map of the given routes.
+     * @param routes (List<Route>) : the routes of the map, without duplicates.
+     * @return compiledMap (CompiledMap) : the compiled map.
+     * @throws IllegalArgumentException if a route appears several times in the list.
+     */
+    public static CompiledMap of(List<Route> routes) {
+        return new CompiledMap(List.copyOf(routes));
+    }
+
+    /**
+     * Private constructor.
+     */
+    private CompiledMap(List<Route> routes) {
+        this.routes = routes;
+        int routeCount = routes.size();
+
+        Map<Route, Integer> routeOrdinals = new HashMap<>();
+        for (int i = 0 ; i < routeCount ; i++)
+            Preconditions.checkArgument(routeOrdinals.put(routes.get(i), i) == null);
+        this.routeOrdinals = Map.copyOf(routeOrdinals);
+
+        int maxId = -1;
+        for (Route r : routes)
+            maxId = Math.max(maxId, Math.max(r.station1().id(), r.station2().id()));
+        Station[] stationsById = new Station[maxId + 1];
+        for (Route r : routes) {
+            stationsById[r.station1().id()] = r.station1();
+            stationsById[r.station2().id()] = r.station2();
+        }
+        List<Station> stations = new ArrayList<>();
+        stationOrdinals = new int[maxId + 1];
+        for (int id = 0 ; id <= maxId ; id++) {
+            stationOrdinals[id] = (stationsById[id] == null) ? -1 : stations.size();
+            if (stationsById[id] != null)
+                stations.add(stationsById[id]);
+        }
+        this.stations = List.copyOf(stations);
+
+        station1 = new int[routeCount];
+        station2 = new int[routeCount];
+        lengths = new int[routeCount];
+        for (int i = 0 ; i < routeCount ; i++) {
+            Route r = routes.get(i);
+            station1[i] = stationOrdinals[r.station1().id()];
+            station2[i] = stationOrdinals[r.station2().id()];
+            lengths[i] = r.length();
+        }
+
+        int stationCount = this.stations.size();
+        adjacencyStart = new int[stationCount + 1];
+        for (int i = 0 ; i < routeCount ; i++) {
+            adjacencyStart[station1[i] + 1] += 1;
+            adjacencyStart[station2[i] + 1] += 1;
+        }
+        for (int s = 0 ; s < stationCount ; s++)
+            adjacencyStart[s + 1] += adjacencyStart[s];
+        adjacencyRoute = new int[2 * routeCount];
+        adjacencyTarget = new int[2 * routeCount];
+        int[] fill = Arrays.copyOf(adjacencyStart, stationCount);
+        for (int i = 0 ; i < routeCount ; i++) {
+            adjacencyRoute[fill[station1[i]]] = i;
+            adjacencyTarget[fill[station1[i]]++] = station2[i];
+            adjacencyRoute[fill[station2[i]]] = i;
+            adjacencyTarget[fill[station2[i]]++] = station1[i];
+        }
+
+        // The routes sorted by pair of stations, the parallel ones being then next to each other.
+        Integer[] sorted = new Integer[routeCount];
+        for (int i = 0 ; i < routeCount ; i++)
+            sorted[i] = i;
+        Arrays.sort(sorted, Comparator.<Integer>comparingInt(i -> Math.min(station1[i], station2[i]))
+                .thenComparingInt(i -> Math.max(station1[i], station2[i]))
+                .thenComparingInt(i -> i));
+        parallelGroup = new int[routeCount];
+        groupRoutes = new int[routeCount];
+        int[] groupStartBuilder = new int[routeCount + 1];
+        int groupCount = 0;
+        for (int k = 0 ; k < routeCount ; k++) {
+            int i = sorted[k];
+            if (k == 0 || !sameStations(sorted[k - 1], i))
+                groupStartBuilder[groupCount++] = k;
+            parallelGroup[i] = groupCount - 1;
+            groupRoutes[k] = i;
+        }
+        groupStartBuilder[groupCount] = routeCount;
+        groupStart = Arrays.copyOf(groupStartBuilder, groupCount + 1);
+    }
+
+    /**
+     * To get the routes of the map.
+     * @return routes (List<Route>) : the unmodifiable list of the routes, in the order of their ordinal.
+     */
+    public List<Route> routes() { return routes; }
+
+    /**
+     * To get the stations of the map.
+     * @return stations (List<Station>) : the unmodifiable list of the stations, in the order of their ordinal.
+     */
+    public List<Station> stations() { return stations; }
+
+    /**
+     * To get the number of routes of the map.
+     * @return routeCount (int) : the number of routes.
+     */
+    public int routeCount() { return routes.size(); }
+
+    /**
+     * To get the number of stations of the map.
+     * @return stationCount (int) : the number of stations.
+     */
+    public int stationCount() { return stations.size(); }
+
+    /**
+     * To get the route of the given ordinal.
+     * @param ordinal (int) : the ordinal of the route.
+     * @return route (Route) : the route.
+     * @throws IndexOutOfBoundsException if the ordinal is not between 0 (inclusive) and routeCount() (exclusive).
+     */
+    public Route route(int ordinal) { return routes.get(ordinal); }
+
+    /**
+     * To get the station of the given ordinal.
+     * @param ordinal (int) : the ordinal of the station.
+     * @return station (Station) : the station.
+     * @throws IndexOutOfBoundsException if the ordinal is not between 0 (inclusive) and stationCount() (exclusive).
+     */
+    public Station station(int ordinal) { return stations.get(ordinal); }
+
+    /**
+     * To get the ordinal of the given route.
+     * @param route (Route) : the route of interest.
+     * @return ordinal (int) : the ordinal of the route, -1 if it is not part of the map.
+     */
+    public int ordinal(Route route) { return routeOrdinals.getOrDefault(route, -1); }
+
+    /**
+     * To get the ordinal of the given station.
+     * @param station (Station) : the station of interest.
+     * @return ordinal (int) : the ordinal of the station, -1 if it is not part of the map.
+     */
+    public int ordinal(Station station) {
+        int id = station.id();
+        return (id < stationOrdinals.length) ? stationOrdinals[id] : -1;
+    }
+
+    /**
+     * To get the ordinal of the first station of a route.
+     * @param route (int) : the ordinal of the route.
+     * @return station (int) : the ordinal of its first station.
+     */
+    public int station1(int route) { return station1[route]; }
+
+    /**
+     * To get the ordinal of the second station of a route.
+     * @param route (int) : the ordinal of the route.
+     * @return station (int) : the ordinal of its second station.
+     */
+    public int station2(int route) { return station2[route]; }
+
+    /**
+     * To get the length of a route.
+     * @param route (int) : the ordinal of the route.
+     * @return length (int) : the length of the route.
+     */
+    public int length(int route) { return lengths[route]; }
+
+    /**
+     * To get the index of the first half-route leaving a station, the half-routes leaving the station being the
+     * ones between adjacencyStart(station) (inclusive) and adjacencyStart(station + 1) (exclusive).
+     * @param station (int) : the ordinal of the station, or stationCount() for the end of the last station.
+     * @return start (int) : the index of the first half-route leaving the station.
+     */
+    public int adjacencyStart(int station) { return adjacencyStart[station]; }
+
+    /**
+     * To get the route of a half-route.
+     * @param halfRoute (int) : the index of the half-route (see adjacencyStart).
+     * @return route (int) : the ordinal of the route.
+     */
+    public int adjacentRoute(int halfRoute) { return adjacencyRoute[halfRoute]; }
+
+    /**
+     * To get the station a half-route leads to.
+     * @param halfRoute (int) : the index of the half-route (see adjacencyStart).
+     * @return station (int) : the ordinal of the station at the other end of the route.
+     */
+    public int adjacentStation(int halfRoute) { return adjacencyTarget[halfRoute]; }
+
+    /**
+     * To get the group of parallel routes of a route, i. e. the routes linking the same two stations.
+     * @param route (int) : the ordinal of the route.
+     * @return group (int) : the ordinal of its group, shared by all the parallel routes.
+     */
+    public int parallelGroup(int route) { return parallelGroup[route]; }
+
+    /**
+     * To get the number of groups of parallel routes.
+     * @return groupCount (int) : the number of groups.
+     */
+    public int parallelGroupCount() { return groupStart.length - 1; }
+
+    /**
+     * To get the index of the first route of a group of parallel routes, the routes of the group being the ones
+     * between groupStart(group) (inclusive) and groupStart(group + 1) (exclusive) (see groupRoute).
+     * @param group (int) : the ordinal of the group, or parallelGroupCount() for the end of the last group.
+     * @return start (int) : the index of the first route of the group.
+     */
+    public int groupStart(int group) { return groupStart[group]; }
+
+    /**
+     * To get a route of a group of parallel routes.
+     * @param index (int) : the index of the route (see groupStart).
+     * @return route (int) : the ordinal of the route.
+     */
+    public int groupRoute(int index) { return groupRoutes[index]; }
+
+    /**
+     * To get the routes linking the same stations as the given route, the route itself excluded.
+     * @param route (Route) : a route of the map.
+     * @return parallelRoutes (List<Route>) : the routes parallel to the given one, in the order of their ordinal.
+     * @throws IllegalArgumentException if the route is not part of the map.
+     */
+    public List<Route> parallelRoutes(Route route) {
+        int ordinal = ordinal(route);
+        Preconditions.checkArgument(ordinal >= 0);
+
+        int group = parallelGroup[ordinal];
+        List<Route> parallelRoutes = new ArrayList<>();
+        for (int k = groupStart[group] ; k < groupStart[group + 1] ; k++) {
+            if (groupRoutes[k] != ordinal)
+                parallelRoutes.add(routes.get(groupRoutes[k]));
+        }
+
+        return parallelRoutes;
+    }
+
+    //Helper method stating if two routes link the same stations
+    private boolean sameStations(int r1, int r2) {
+        return (station1[r1] == station1[r2] && station2[r1] == station2[r2])
+                || (station1[r1] == station2[r2] && station2[r1] == station1[r2]);
+    }
+
+}
@@ -1,5 +1,6 @@
 package ch.epfl.tchu.game;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -12,7 +13,10 @@ import ch.epfl.tchu.SortedBag;
  */
 public final class Deck <C extends Comparable<C>> {
 
-    private final List<C> cards;
+    // All the decks obtained by drawing from the same shuffled deck share its array of cards, a deck being made up
+    // of the cards from index top (inclusive) to the end of the array. The array is never modified.
+    private final Object[] cards;
+    private final int top;
 
     /**
      * Static method that takes a SortedBag of cards and returns a deck of shuffled cards of that type.
@@ -24,14 +28,25 @@ public final class Deck <C extends Comparable<C>> {
     public static <C extends Comparable<C>> Deck<C> of(SortedBag<C> cards, Random rng) {
         List<C> l = cards.toList();
         Collections.shuffle(l, rng);
-        return new Deck<>(l);
+        return new Deck<>(l.toArray(), 0);
+    }
+
+    /**
+     * Package-private static method building the deck made up of the given cards, without shuffling them.
+     * @param <C> : type of cards
+     * @param cards (List<C>) : the cards of the deck, the first one being at the top
+     * @return deck (Deck) : a deck of the given cards, in the same order
+     */
+    static <C extends Comparable<C>> Deck<C> ofOrdered(List<C> cards) {
+        return new Deck<>(cards.toArray(), 0);
     }
 
     /**
      * Private Constructor.
      */
-    private Deck(List<C> cards) {
-        this.cards = List.copyOf(cards);
+    private Deck(Object[] cards, int top) {
+        this.cards = cards;
+        this.top = top;
     }
     
     /**
@@ -39,7 +54,7 @@ public final class Deck <C extends Comparable<C>> {
      * @return size (int) : the size of the deck
      */
     public int size() {
-        return cards.size();
+        return cards.length - top;
     }
     
     /**
@@ -47,7 +62,7 @@ public final class Deck <C extends Comparable<C>> {
      * @return isEmpty (boolean) : true if the deck is empty false if not.
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return top == cards.length;
     }
     
     /**
@@ -58,7 +73,7 @@ public final class Deck <C extends Comparable<C>> {
     public C topCard() {
         Preconditions.checkArgument(!isEmpty());
 
-        return cards.get(0);
+        return card(top);
     }
     
     /**
@@ -69,9 +84,7 @@ public final class Deck <C extends Comparable<C>> {
     public Deck<C> withoutTopCard() {
         Preconditions.checkArgument(!isEmpty());
 
-        final List<C> cardsCopy = cards.subList(1, cards.size());
-
-        return new Deck<>(cardsCopy);
+        return new Deck<>(cards, top + 1);
     }
     
     /**
@@ -81,11 +94,11 @@ public final class Deck <C extends Comparable<C>> {
      * @throws IllegalArgumentException if count is less than 0 or more than the number of cards the deck has
      */
     public SortedBag<C> topCards(int count) {
-        Preconditions.checkArgument(count >= 0 && count <= cards.size());
+        Preconditions.checkArgument(count >= 0 && count <= size());
 
         SortedBag.Builder<C> topCards = new SortedBag.Builder<>();
-            for (int i = 0 ; i < count ; i++) {
-                topCards.add(cards.get(i));
+            for (int i = top ; i < top + count ; i++) {
+                topCards.add(card(i));
             }
 
         return topCards.build();
@@ -98,11 +111,27 @@ public final class Deck <C extends Comparable<C>> {
      * @throws IllegalArgumentException if count is less that 0 or more than the number of cards the deck has
      */
     public Deck<C> withoutTopCards(int count) {
-        Preconditions.checkArgument(count >= 0 && count <= cards.size());
+        Preconditions.checkArgument(count >= 0 && count <= size());
 
-        final List<C> cardsCopy = cards.subList(count, cards.size());
+        return new Deck<>(cards, top + count);
+    }
+
+    /**
+     * Returns the cards of the deck, in order.
+     * @return cards (List<C>) : the cards of the deck, the first one being the top card
+     */
+    List<C> toList() {
+        List<C> list = new ArrayList<>(size());
+        for (int i = top ; i < cards.length ; i++)
+            list.add(card(i));
+
+        return list;
+    }
 
-        return new Deck<>(cardsCopy);
+    //Helper method used to get the card at the given index of the array, which only contains cards of type C
+    @SuppressWarnings("unchecked")
+    private C card(int index) {
+        return (C) cards[index];
     }
 
 }
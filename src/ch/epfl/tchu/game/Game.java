@@ -19,16 +19,37 @@ public final class Game {
      * @param playerNames (Map<PlayerId, String>) : the names of the player.
      * @param tickets     (SortedBag<Ticket>) : all the tickets available for the game.
      * @param rng         (Random) : instance from Random used to shuffle and generate random.
+     * @return result (GameResult) : the result of the game, with its final state, where the longest trail bonus was
+     * given to the player(s) getting it.
      * @throws IllegalArgumentException if players is not size PlayerId.COUNT,
      *                                  or if playerNames is not size PlayerId.COUNT.
      */
-    public static void play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames,
+    public static GameResult play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames,
                             SortedBag<Ticket> tickets, Random rng) {
+        return play(players, playerNames, tickets, rng, GameLog.disabled());
+    }
+
+    /**
+     * Static public method that represents the tCHu game, recording its transitions in a log.
+     * @param players     (Map<PlayerId, Player>) : the players engaged in the game.
+     * @param playerNames (Map<PlayerId, String>) : the names of the player.
+     * @param tickets     (SortedBag<Ticket>) : all the tickets available for the game.
+     * @param rng         (Random) : instance from Random used to shuffle and generate random.
+     * @param log         (GameLog) : the log recording the game, which is not closed.
+     * @return result (GameResult) : the result of the game, with its final state, where the longest trail bonus was
+     * given to the player(s) getting it.
+     * @throws IllegalArgumentException if players is not size PlayerId.COUNT,
+     *                                  or if playerNames is not size PlayerId.COUNT.
+     */
+    public static GameResult play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames,
+                            SortedBag<Ticket> tickets, Random rng, GameLog log) {
         Preconditions.checkArgument(players.size() == playerNames.size());
         List<PlayerId> allPlayers = PlayerId.ALL.subList(0, players.size());
+        rng = log.recording(rng);
 
         //Before the game
         GameState gameState = GameState.initial(allPlayers, tickets, rng);
+        log.gameStarted(allPlayers, tickets);
         Map<PlayerId, Info> playerInfos = new HashMap<>();
             for (PlayerId p : allPlayers)
                 playerInfos.put(p, new Info(playerNames.get(p)));
@@ -39,6 +60,7 @@ public final class Game {
         for (Map.Entry<PlayerId, Player> p : players.entrySet()) {
             p.getValue().setInitialTicketChoice(gameState.topTickets(Constants.INITIAL_TICKETS_COUNT));
             gameState = gameState.withoutTopTickets(Constants.INITIAL_TICKETS_COUNT);
+            log.topTicketsRemoved(Constants.INITIAL_TICKETS_COUNT);
         }
 
         updateState(players, gameState);
@@ -48,6 +70,7 @@ public final class Game {
             var playerId = p.getKey();
             playerInitialTickets.put(playerId, p.getValue().chooseInitialTickets());
             gameState = gameState.withInitiallyChosenTickets(playerId, playerInitialTickets.get(playerId));
+            log.initialTicketsChosen(playerId, playerInitialTickets.get(playerId));
         }
 
         players.forEach((playerId, player) -> receiveInfo(players, playerInfos.get(playerId)
@@ -63,6 +86,7 @@ public final class Game {
             PlayerId currentPlayerId = gameState.currentPlayerId();
             Player currentPlayer = players.get(currentPlayerId);
             Info currentPlayerInfo = playerInfos.get(currentPlayerId);
+            log.turnStarted(gameState);
 
             receiveInfo(players, currentPlayerInfo.canPlay());
             updateState(players, gameState);
@@ -75,6 +99,7 @@ public final class Game {
                     receiveInfo(players, currentPlayerInfo.drewTickets(Constants.IN_GAME_TICKETS_COUNT));
                     SortedBag<Ticket> keptTickets = currentPlayer.chooseTickets(drawnTickets);
                     gameState = gameState.withChosenAdditionalTickets(drawnTickets, keptTickets);
+                    log.additionalTicketsChosen(drawnTickets.size(), keptTickets);
                     receiveInfo(players, currentPlayerInfo.keptTickets(keptTickets.size()));
                     break;
 
@@ -83,13 +108,16 @@ public final class Game {
                         if (i != 0)
                             updateState(players, gameState);
                         gameState = gameState.withCardsDeckRecreatedIfNeeded(rng);
+                        log.deckRecreatedIfNeeded();
                         int slot = currentPlayer.drawSlot();
                         if (slot == Constants.DECK_SLOT) {
                             gameState = gameState.withBlindlyDrawnCard();
+                            log.blindCardDrawn();
                             receiveInfo(players, currentPlayerInfo.drewBlindCard());
                         } else {
                             Card card = gameState.cardState().faceUpCard(slot);
                             gameState = gameState.withDrawnFaceUpCard(slot);
+                            log.faceUpCardDrawn(slot);
                             receiveInfo(players, currentPlayerInfo.drewVisibleCard(card));
                         }
                     }
@@ -106,10 +134,12 @@ public final class Game {
                         var drawCardsBuilder = new SortedBag.Builder<Card>();
                             for (int i = 0 ; i < Constants.ADDITIONAL_TUNNEL_CARDS ; i++) {
                                 gameState = gameState.withCardsDeckRecreatedIfNeeded(rng);
+                                log.deckRecreatedIfNeeded();
                                 Card topCard = gameState.topCard();
                                 drawCardsBuilder.add(topCard);
                                 gameState = gameState.withoutTopCard()
                                         .withMoreDiscardedCards(SortedBag.of(topCard));
+                                log.topCardDiscarded();
                             }
                         SortedBag<Card> drawnCards = drawCardsBuilder.build();
 
@@ -119,6 +149,7 @@ public final class Game {
 
                         if (additionalClaimCardsCount == 0) {
                             gameState = gameState.withClaimedRoute(claimedRoute, initialClaimCards);
+                            log.routeClaimed(claimedRoute, initialClaimCards);
                             receiveInfo(players, currentPlayerInfo.claimedRoute(claimedRoute, initialClaimCards));
                         } else {
                             List<SortedBag<Card>> possibleAdditionalCards = gameState.currentPlayerState()
@@ -133,6 +164,7 @@ public final class Game {
                                 else {
                                     var cards = initialClaimCards.union(chosenAdditionalCards);
                                     gameState = gameState.withClaimedRoute(claimedRoute, cards);
+                                    log.routeClaimed(claimedRoute, cards);
                                     receiveInfo(players, currentPlayerInfo.claimedRoute(claimedRoute, cards));
                                 }
                             }
@@ -140,6 +172,7 @@ public final class Game {
 
                     } else {
                         gameState = gameState.withClaimedRoute(claimedRoute, initialClaimCards);
+                        log.routeClaimed(claimedRoute, initialClaimCards);
                         receiveInfo(players, currentPlayerInfo.claimedRoute(claimedRoute, initialClaimCards));
                     }
                     break;
@@ -153,68 +186,40 @@ public final class Game {
                receiveInfo(players, currentPlayerInfo.lastTurnBegins(gameState.playerState(currentPlayerId).carCount()));
            }
 
-           if (remainingTurns > 0)
+           if (remainingTurns > 0) {
                gameState = gameState.forNextTurn();
+               log.nextTurn();
+           }
         }
 
 
 
         //In the end
-        Map<PlayerId, Trail> playerLongestTrails = new HashMap<>();
-        Map<PlayerId, Integer> playerFinalPoints = new HashMap<>();
-            for (PlayerId p : allPlayers) {
-                playerLongestTrails.put(p, Trail.longest(gameState.playerState(p).routes()));
-                playerFinalPoints.put(p, gameState.playerState(p).finalPoints());
-            }
-
-        Map<Map<PlayerId, Trail>, Integer> unSortedMapOfTrails = new HashMap<>();
-            playerLongestTrails.forEach((id, trail) -> unSortedMapOfTrails.put(Map.of(id, trail), trail.length()));
-        Map<Map<PlayerId, Trail>, Integer> sortedMapOfTrails = new LinkedHashMap<>();
-        unSortedMapOfTrails.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                .forEachOrdered(x -> sortedMapOfTrails.put(x.getKey(), x.getValue()));
-
-        List<Integer> listOfTrailLengths = new ArrayList<>(sortedMapOfTrails.values());
-        var occurrences = Collections.frequency(listOfTrailLengths, listOfTrailLengths.get(0));
-        Iterator<Map.Entry<Map<PlayerId, Trail>, Integer>> trailsIterator = sortedMapOfTrails.entrySet().iterator();
-        for (int i = 0 ; i < occurrences ; i++) {
-            var playerId = trailsIterator.next().getKey().keySet().iterator().next();
-            var trail = playerLongestTrails.get(playerId);
-            playerFinalPoints.put(playerId , playerFinalPoints.get(playerId) + Constants.LONGEST_TRAIL_BONUS_POINTS);
-            gameState = gameState.withAddedLongestTrail(playerId, trail);
-            receiveInfo(players, playerInfos.get(playerId).getsLongestTrailBonus(trail));
+        GameResult result = GameResult.of(gameState);
+        for (PlayerId p : result.trailBonusPlayers()) {
+            log.longestTrailAdded(p, result.longestTrail(p));
+            receiveInfo(players, playerInfos.get(p).getsLongestTrailBonus(result.longestTrail(p)));
         }
 
-        updateState(players, gameState);
+        log.gameEnded();
+        updateState(players, result.finalState());
 
-        Map<PlayerId, Integer> sortedMapOfPlayerFinalPoints = new LinkedHashMap<>();
-        playerFinalPoints.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                .forEachOrdered(x -> sortedMapOfPlayerFinalPoints.put(x.getKey(), x.getValue()));
-
-        List<Integer> listOfPoints = new ArrayList<>(sortedMapOfPlayerFinalPoints.values());
-        var numberOfWinners = Collections.frequency(listOfPoints, listOfPoints.get(0));
-        Iterator<Map.Entry<PlayerId, Integer>> pointsIterator = sortedMapOfPlayerFinalPoints.entrySet().iterator();
-        if (numberOfWinners == 1) {
-            var playerId = pointsIterator.next().getKey();
-            receiveInfo(players, playerInfos.get(playerId).won(playerFinalPoints.get(playerId)));
+        List<PlayerId> winners = result.winners();
+        if (winners.size() == 1) {
+            receiveInfo(players, playerInfos.get(winners.get(0)).won(result.winnerPoints()));
         } else {
             List<String> namesOfWinner = new ArrayList<>();
-            for (int i = 0 ; i < numberOfWinners ; i++)
-                namesOfWinner.add(playerNames.get(pointsIterator.next().getKey()));
-            receiveInfo(players, Info.draw(namesOfWinner, listOfPoints.get(0)));
+            for (PlayerId p : winners)
+                namesOfWinner.add(playerNames.get(p));
+            receiveInfo(players, Info.draw(namesOfWinner, result.winnerPoints()));
         }
-        String otherPlayersPoints = "";
-            while (pointsIterator.hasNext()) {
-                var otherId = pointsIterator.next().getKey();
-                otherPlayersPoints =
-                        otherPlayersPoints.concat(playerInfos.get(otherId).getPoints(sortedMapOfPlayerFinalPoints.get(otherId)));
-            }
-        if (!otherPlayersPoints.isEmpty())
-            receiveInfo(players, otherPlayersPoints);
+        StringBuilder otherPlayersPoints = new StringBuilder();
+            for (PlayerId p : result.ranking().subList(winners.size(), allPlayers.size()))
+                otherPlayersPoints.append(playerInfos.get(p).getPoints(result.points(p)));
+        if (otherPlayersPoints.length() > 0)
+            receiveInfo(players, otherPlayersPoints.toString());
 
+        return result;
     }
 
     private static void receiveInfo(Map<PlayerId, Player> players, String info) {
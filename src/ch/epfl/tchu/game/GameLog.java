@@ -0,0 +1,742 @@
+package ch.epfl.tchu.game;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Append-only log of the transitions of the game state applied by Game.play, from which the state at the start of
+ * any turn can be rebuilt.
+ *
+ * Every transition is recorded as a compact event (the slot of a drawn card, the ordinal of a claimed route and the
+ * cards used, the tickets chosen, ...), and so is every value drawn from the random number generator of the game, so
+ * that replaying the events gives back exactly the same states. A snapshot of the complete game state is also
+ * written at the start of every snapshotInterval-th turn: a state is rebuilt from the nearest snapshot before it,
+ * replaying only the events that follow. The log is flushed with every snapshot, so that a crash loses at most the
+ * turns since the last one, a log cut short giving back all the turns it contains.
+ */
+public final class GameLog implements Closeable {
+
+    // "tCHl" in ASCII.
+    private static final int MAGIC = 0x7443486C;
+    private static final int VERSION = 1;
+
+    // The kinds of records of the log.
+    private static final byte RANDOM_DRAW = 0;
+    private static final byte GAME_STARTED = 1;
+    private static final byte TOP_TICKETS_REMOVED = 2;
+    private static final byte INITIAL_TICKETS_CHOSEN = 3;
+    private static final byte ADDITIONAL_TICKETS_CHOSEN = 4;
+    private static final byte DECK_RECREATED_IF_NEEDED = 5;
+    private static final byte FACE_UP_CARD_DRAWN = 6;
+    private static final byte BLIND_CARD_DRAWN = 7;
+    private static final byte TOP_CARD_DISCARDED = 8;
+    private static final byte ROUTE_CLAIMED = 9;
+    private static final byte LONGEST_TRAIL_ADDED = 10;
+    private static final byte NEXT_TURN = 11;
+    private static final byte TURN_STARTED = 12;
+    private static final byte SNAPSHOT = 13;
+    private static final byte GAME_ENDED = 14;
+
+    private static final GameLog DISABLED = new GameLog(null, null, null, 1);
+
+    private final DataOutputStream out;
+    private final MapDefinition map;
+    private final Map<Ticket, Integer> ticketIndexes;
+    private final int snapshotInterval;
+    private int turn;
+
+    /**
+     * To create a new log for one game.
+     * @param file (Path) : the file of the log, which must not exist.
+     * @param map (MapDefinition) : the map the game is played on.
+     * @param snapshotInterval (int) : the amount of turns between two snapshots.
+     * @return log (GameLog) : the new log, to be given to Game.play and closed after the game.
+     * @throws IllegalArgumentException if snapshotInterval is not strictly positive.
+     * @throws UncheckedIOException if the file exists or cannot be created.
+     */
+    public static GameLog create(Path file, MapDefinition map, int snapshotInterval) {
+        Preconditions.checkArgument(snapshotInterval > 0);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(map.name());
+            out.flush();
+            return new GameLog(out, map, ticketIndexes(map), snapshotInterval);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * To get the log recording nothing, used by the games that are not logged.
+     * @return log (GameLog) : the disabled log.
+     */
+    static GameLog disabled() { return DISABLED; }
+
+    /**
+     * Private constructor.
+     */
+    private GameLog(DataOutputStream out, MapDefinition map, Map<Ticket, Integer> ticketIndexes,
+                    int snapshotInterval) {
+        this.out = out;
+        this.map = map;
+        this.ticketIndexes = ticketIndexes;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * To get the random number generator to use in the game, which records the values it draws in the log.
+     * @param rng (Random) : the random number generator of the game.
+     * @return rng (Random) : a generator giving the same values as the given one (if it is a java.util.Random) and
+     * recording them, or the given generator itself if the log is disabled.
+     */
+    Random recording(Random rng) {
+        return (out == null) ? rng : new RecordingRandom(rng, this);
+    }
+
+    /**
+     * Records the creation of the initial state with GameState.initial.
+     * @param allPlayers (List<PlayerId>) : the players of the game.
+     * @param tickets (SortedBag<Ticket>) : the tickets of the game.
+     */
+    void gameStarted(List<PlayerId> allPlayers, SortedBag<Ticket> tickets) {
+        if (out == null)
+            return;
+        try {
+            out.writeByte(GAME_STARTED);
+            out.writeByte(allPlayers.size());
+            writeTickets(tickets);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a call to GameState.withoutTopTickets.
+     * @param count (int) : the amount of tickets removed.
+     */
+    void topTicketsRemoved(int count) {
+        writeEvent(TOP_TICKETS_REMOVED, count);
+    }
+
+    /**
+     * Records a call to GameState.withInitiallyChosenTickets.
+     * @param playerId (PlayerId) : the player choosing the tickets.
+     * @param chosenTickets (SortedBag<Ticket>) : the tickets chosen.
+     */
+    void initialTicketsChosen(PlayerId playerId, SortedBag<Ticket> chosenTickets) {
+        if (out == null)
+            return;
+        try {
+            out.writeByte(INITIAL_TICKETS_CHOSEN);
+            out.writeByte(playerId.ordinal());
+            writeTickets(chosenTickets);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a call to GameState.withChosenAdditionalTickets, the drawn tickets being the top tickets.
+     * @param drawnCount (int) : the amount of tickets drawn.
+     * @param chosenTickets (SortedBag<Ticket>) : the tickets chosen.
+     */
+    void additionalTicketsChosen(int drawnCount, SortedBag<Ticket> chosenTickets) {
+        if (out == null)
+            return;
+        try {
+            out.writeByte(ADDITIONAL_TICKETS_CHOSEN);
+            out.writeByte(drawnCount);
+            writeTickets(chosenTickets);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a call to GameState.withCardsDeckRecreatedIfNeeded.
+     */
+    void deckRecreatedIfNeeded() {
+        writeEvent(DECK_RECREATED_IF_NEEDED, -1);
+    }
+
+    /**
+     * Records a call to GameState.withDrawnFaceUpCard.
+     * @param slot (int) : the slot of the card drawn.
+     */
+    void faceUpCardDrawn(int slot) {
+        writeEvent(FACE_UP_CARD_DRAWN, slot);
+    }
+
+    /**
+     * Records a call to GameState.withBlindlyDrawnCard.
+     */
+    void blindCardDrawn() {
+        writeEvent(BLIND_CARD_DRAWN, -1);
+    }
+
+    /**
+     * Records the top deck card being drawn and discarded (GameState.withoutTopCard then withMoreDiscardedCards).
+     */
+    void topCardDiscarded() {
+        writeEvent(TOP_CARD_DISCARDED, -1);
+    }
+
+    /**
+     * Records a call to GameState.withClaimedRoute.
+     * @param route (Route) : the route claimed.
+     * @param cards (SortedBag<Card>) : the cards used.
+     * @throws IllegalArgumentException if the route is not part of the map of the log.
+     */
+    void routeClaimed(Route route, SortedBag<Card> cards) {
+        if (out == null)
+            return;
+        int ordinal = map.compiledMap().ordinal(route);
+        Preconditions.checkArgument(ordinal >= 0);
+        try {
+            out.writeByte(ROUTE_CLAIMED);
+            out.writeShort(ordinal);
+            out.writeLong(CardBag.of(cards).bits());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a call to GameState.withAddedLongestTrail.
+     * @param playerId (PlayerId) : the player getting the bonus.
+     * @param trail (Trail) : the longest trail of the player, recorded as is since the player may have several
+     * longest trails.
+     */
+    void longestTrailAdded(PlayerId playerId, Trail trail) {
+        if (out == null)
+            return;
+        try {
+            out.writeByte(LONGEST_TRAIL_ADDED);
+            out.writeByte(playerId.ordinal());
+            // The empty trail has no routes nor stations.
+            if (trail.length() == 0) {
+                out.writeShort(-1);
+                return;
+            }
+            out.writeShort(trail.routes().size());
+            for (Route r : trail.routes())
+                out.writeShort(map.compiledMap().ordinal(r));
+            out.writeShort(trail.station1().id());
+            out.writeShort(trail.station2().id());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records a call to GameState.forNextTurn.
+     */
+    void nextTurn() {
+        writeEvent(NEXT_TURN, -1);
+    }
+
+    /**
+     * Records the start of a turn, writing a snapshot of the state and flushing the log if it is time to.
+     * @param state (GameState) : the state at the start of the turn.
+     */
+    void turnStarted(GameState state) {
+        if (out == null)
+            return;
+        try {
+            out.writeByte(TURN_STARTED);
+            if (turn % snapshotInterval == 0) {
+                byte[] snapshot = snapshot(state);
+                out.writeByte(SNAPSHOT);
+                out.writeInt(turn);
+                out.writeInt(snapshot.length);
+                out.write(snapshot);
+                out.flush();
+            }
+            turn += 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records the end of the game and flushes the log.
+     */
+    void gameEnded() {
+        writeEvent(GAME_ENDED, -1);
+        if (out == null)
+            return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (out == null)
+            return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * To get the amount of turns started in a log.
+     * @param file (Path) : the file of the log.
+     * @return turnCount (int) : the amount of turns whose start was recorded.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a game log.
+     */
+    public static int turnCount(Path file) {
+        ByteBuffer buffer = map(file);
+        readHeader(buffer);
+        int turns = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                if (skipRecord(buffer) == TURN_STARTED)
+                    turns += 1;
+            }
+        } catch (BufferUnderflowException e) {
+            // The last record was cut short.
+        }
+
+        return turns;
+    }
+
+    /**
+     * To get the state at the start of a turn, rebuilt from the nearest snapshot before it.
+     * @param file (Path) : the file of the log.
+     * @param map (MapDefinition) : the map the game was played on.
+     * @param turn (int) : the turn of interest, the first one being 0.
+     * @return state (GameState) : the state at the start of the turn.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a game log of the given map, or if the turn is negative
+     * or was not started in the log.
+     */
+    public static GameState stateAt(Path file, MapDefinition map, int turn) {
+        Preconditions.checkArgument(turn >= 0);
+        ByteBuffer buffer = map(file);
+        Preconditions.checkArgument(readHeader(buffer).equals(map.name()));
+        int start = buffer.position();
+
+        // First pass: the position of the last snapshot of a turn not after the one of interest.
+        int snapshotPosition = -1;
+        try {
+            while (buffer.hasRemaining()) {
+                int position = buffer.position();
+                if (skipRecord(buffer) == SNAPSHOT) {
+                    if (buffer.getInt(position + 1) > turn)
+                        break;
+                    snapshotPosition = position;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            // The last record was cut short.
+        }
+
+        // Second pass: replay of the events from the snapshot (or from the start of the log).
+        Replay replay = new Replay(map);
+        buffer.position(snapshotPosition >= 0 ? snapshotPosition : start);
+        return replay.untilTurn(buffer, turn);
+    }
+
+    /**
+     * To get the last state of a log: the final state of the game if it ended, or the state after the last event
+     * recorded otherwise.
+     * @param file (Path) : the file of the log.
+     * @param map (MapDefinition) : the map the game was played on.
+     * @return state (GameState) : the last state of the log.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a game log of the given map, or if the game did not start.
+     */
+    public static GameState lastState(Path file, MapDefinition map) {
+        ByteBuffer buffer = map(file);
+        Preconditions.checkArgument(readHeader(buffer).equals(map.name()));
+        return new Replay(map).untilTurn(buffer, Integer.MAX_VALUE);
+    }
+
+    //Helper method writing an event having at most one small parameter (-1 for none)
+    private void writeEvent(byte kind, int parameter) {
+        if (out == null)
+            return;
+        try {
+            out.writeByte(kind);
+            if (parameter >= 0)
+                out.writeByte(parameter);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Helper method writing a value drawn from the random number generator of the game
+    private void writeRandomDraw(int value) {
+        try {
+            out.writeByte(RANDOM_DRAW);
+            out.writeInt(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Helper method writing tickets as their amount followed by their indexes in the map
+    private void writeTickets(SortedBag<Ticket> tickets) throws IOException {
+        out.writeShort(tickets.size());
+        for (Ticket t : tickets)
+            out.writeShort(ticketIndex(t));
+    }
+
+    //Helper method giving the index of a ticket in the map
+    private int ticketIndex(Ticket ticket) {
+        Integer index = ticketIndexes.get(ticket);
+        Preconditions.checkArgument(index != null);
+        return index;
+    }
+
+    //Helper method writing the complete state of a game
+    private byte[] snapshot(GameState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream snapshot = new DataOutputStream(bytes);
+
+        snapshot.writeByte(state.allPlayers().size());
+        snapshot.writeByte(state.currentPlayerId().ordinal());
+        snapshot.writeByte(state.lastPlayer() == null ? -1 : state.lastPlayer().ordinal());
+
+        List<Ticket> ticketDeck = state.ticketDeck().toList();
+        snapshot.writeShort(ticketDeck.size());
+        for (Ticket t : ticketDeck)
+            snapshot.writeShort(ticketIndex(t));
+
+        CardState cardState = state.cardState();
+        for (Card c : cardState.faceUpCards())
+            snapshot.writeByte(c.ordinal());
+        List<Card> deck = cardState.deck().toList();
+        snapshot.writeShort(deck.size());
+        for (Card c : deck)
+            snapshot.writeByte(c.ordinal());
+        snapshot.writeLong(cardState.discards().bits());
+
+        for (PlayerId p : state.allPlayers()) {
+            PlayerState playerState = state.playerState(p);
+            snapshot.writeShort(playerState.tickets().size());
+            for (Ticket t : playerState.tickets())
+                snapshot.writeShort(ticketIndex(t));
+            snapshot.writeLong(playerState.cardBag().bits());
+            snapshot.writeShort(playerState.routes().size());
+            for (Route r : playerState.routes())
+                snapshot.writeShort(map.compiledMap().ordinal(r));
+        }
+        snapshot.flush();
+
+        return bytes.toByteArray();
+    }
+
+    //Helper method giving the index of every ticket of a map, the first one being kept for identical tickets
+    private static Map<Ticket, Integer> ticketIndexes(MapDefinition map) {
+        Map<Ticket, Integer> indexes = new HashMap<>();
+        for (int i = 0 ; i < map.tickets().size() ; i++)
+            indexes.putIfAbsent(map.tickets().get(i), i);
+
+        return indexes;
+    }
+
+    //Helper method memory-mapping a whole log
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Helper method checking the header of a log and giving the name of its map
+    private static String readHeader(ByteBuffer buffer) {
+        try {
+            Preconditions.checkArgument(buffer.getInt() == MAGIC && buffer.getInt() == VERSION);
+            byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(name);
+            // The name of a map being a word of ASCII letters, the modified UTF-8 of writeUTF is plain ASCII.
+            return new String(name, java.nio.charset.StandardCharsets.UTF_8);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    //Helper method skipping a record, giving its kind
+    private static byte skipRecord(ByteBuffer buffer) {
+        byte kind = buffer.get();
+        switch (kind) {
+            case RANDOM_DRAW:
+                skip(buffer, Integer.BYTES);
+                break;
+            case GAME_STARTED:
+                skip(buffer, Byte.BYTES);
+                skip(buffer, Short.BYTES * Short.toUnsignedInt(buffer.getShort()));
+                break;
+            case INITIAL_TICKETS_CHOSEN:
+            case ADDITIONAL_TICKETS_CHOSEN:
+                skip(buffer, Byte.BYTES);
+                skip(buffer, Short.BYTES * Short.toUnsignedInt(buffer.getShort()));
+                break;
+            case TOP_TICKETS_REMOVED:
+            case FACE_UP_CARD_DRAWN:
+                skip(buffer, Byte.BYTES);
+                break;
+            case LONGEST_TRAIL_ADDED:
+                skip(buffer, Byte.BYTES);
+                int routeCount = buffer.getShort();
+                if (routeCount >= 0)
+                    skip(buffer, Short.BYTES * (routeCount + 2));
+                break;
+            case ROUTE_CLAIMED:
+                skip(buffer, Short.BYTES + Long.BYTES);
+                break;
+            case SNAPSHOT:
+                skip(buffer, Integer.BYTES);
+                skip(buffer, buffer.getInt());
+                break;
+            case DECK_RECREATED_IF_NEEDED:
+            case BLIND_CARD_DRAWN:
+            case TOP_CARD_DISCARDED:
+            case NEXT_TURN:
+            case TURN_STARTED:
+            case GAME_ENDED:
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown record " + kind);
+        }
+
+        return kind;
+    }
+
+    //Helper method skipping bytes, failing as a read would if there are not enough of them
+    private static void skip(ByteBuffer buffer, int count) {
+        if (count > buffer.remaining())
+            throw new BufferUnderflowException();
+        buffer.position(buffer.position() + count);
+    }
+
+    /**
+     * Random number generator giving the same values as another one (when it is a java.util.Random, whose next(bits)
+     * is the upper bits of nextInt()), and recording them in a log.
+     */
+    private static final class RecordingRandom extends Random {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Random rng;
+        private final GameLog log;
+
+        private RecordingRandom(Random rng, GameLog log) {
+            this.rng = rng;
+            this.log = log;
+        }
+
+        @Override
+        protected int next(int bits) {
+            int value = rng.nextInt() >>> (Integer.SIZE - bits);
+            log.writeRandomDraw(value);
+            return value;
+        }
+
+    }
+
+    /**
+     * Random number generator giving back the values recorded in a log.
+     */
+    private static final class ReplayedRandom extends Random {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Queue<Integer> values = new ArrayDeque<>();
+
+        @Override
+        protected int next(int bits) {
+            Integer value = values.poll();
+            Preconditions.checkArgument(value != null);
+            return value;
+        }
+
+    }
+
+    /**
+     * Replay of the records of a log.
+     */
+    private static final class Replay {
+
+        private final MapDefinition map;
+        private final ReplayedRandom rng = new ReplayedRandom();
+        private GameState state;
+        private int turn = -1;
+
+        private Replay(MapDefinition map) {
+            this.map = map;
+        }
+
+        //Helper method applying the records until the start of the given turn, or the end of the log
+        private GameState untilTurn(ByteBuffer buffer, int targetTurn) {
+            try {
+                while (buffer.hasRemaining() && !(state != null && turn == targetTurn)) {
+                    byte kind = buffer.get();
+                    if (kind == GAME_ENDED)
+                        break;
+                    apply(kind, buffer);
+                }
+            } catch (BufferUnderflowException e) {
+                // The last record was cut short, the state is the one before it.
+            }
+            Preconditions.checkArgument(state != null
+                    && (turn == targetTurn || targetTurn == Integer.MAX_VALUE));
+
+            return state;
+        }
+
+        //Helper method applying one record to the state
+        private void apply(byte kind, ByteBuffer buffer) {
+            switch (kind) {
+                case RANDOM_DRAW:
+                    rng.values.add(buffer.getInt());
+                    return;
+                case SNAPSHOT:
+                    turn = buffer.getInt();
+                    buffer.getInt();
+                    state = readSnapshot(buffer);
+                    return;
+                case TURN_STARTED:
+                    turn += 1;
+                    return;
+                case GAME_STARTED:
+                    int playerCount = buffer.get();
+                    state = GameState.initial(PlayerId.ALL.subList(0, playerCount), SortedBag.of(readTickets(buffer)),
+                            rng);
+                    break;
+                case TOP_TICKETS_REMOVED:
+                    state = state.withoutTopTickets(buffer.get());
+                    break;
+                case INITIAL_TICKETS_CHOSEN:
+                    PlayerId playerId = PlayerId.ALL.get(buffer.get());
+                    state = state.withInitiallyChosenTickets(playerId, SortedBag.of(readTickets(buffer)));
+                    break;
+                case ADDITIONAL_TICKETS_CHOSEN:
+                    int drawnCount = buffer.get();
+                    state = state.withChosenAdditionalTickets(state.topTickets(drawnCount),
+                            SortedBag.of(readTickets(buffer)));
+                    break;
+                case DECK_RECREATED_IF_NEEDED:
+                    state = state.withCardsDeckRecreatedIfNeeded(rng);
+                    break;
+                case FACE_UP_CARD_DRAWN:
+                    state = state.withDrawnFaceUpCard(buffer.get());
+                    break;
+                case BLIND_CARD_DRAWN:
+                    state = state.withBlindlyDrawnCard();
+                    break;
+                case TOP_CARD_DISCARDED:
+                    Card topCard = state.topCard();
+                    state = state.withoutTopCard().withMoreDiscardedCards(SortedBag.of(topCard));
+                    break;
+                case ROUTE_CLAIMED:
+                    Route route = map.compiledMap().route(buffer.getShort());
+                    state = state.withClaimedRoute(route, CardBag.ofBits(buffer.getLong()).toSortedBag());
+                    break;
+                case LONGEST_TRAIL_ADDED:
+                    PlayerId trailOwner = PlayerId.ALL.get(buffer.get());
+                    state = state.withAddedLongestTrail(trailOwner, readTrail(buffer));
+                    break;
+                case NEXT_TURN:
+                    state = state.forNextTurn();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown record " + kind);
+            }
+            // Every value drawn before a transition is used by it.
+            Preconditions.checkArgument(rng.values.isEmpty());
+        }
+
+        //Helper method reading a trail written by longestTrailAdded
+        private Trail readTrail(ByteBuffer buffer) {
+            int routeCount = buffer.getShort();
+            if (routeCount < 0)
+                return Trail.longest(List.of());
+
+            Route[] routes = new Route[routeCount];
+            for (int i = 0 ; i < routes.length ; i++)
+                routes[i] = map.compiledMap().route(buffer.getShort());
+            Station station1 = map.stations().get(buffer.getShort());
+            Station station2 = map.stations().get(buffer.getShort());
+
+            return new Trail(Arrays.asList(routes), station1, station2);
+        }
+
+        //Helper method reading tickets written by writeTickets
+        private List<Ticket> readTickets(ByteBuffer buffer) {
+            int count = Short.toUnsignedInt(buffer.getShort());
+            List<Ticket> tickets = new ArrayList<>(count);
+            for (int i = 0 ; i < count ; i++)
+                tickets.add(map.tickets().get(buffer.getShort()));
+
+            return tickets;
+        }
+
+        //Helper method reading the complete state of a game written by snapshot
+        private GameState readSnapshot(ByteBuffer buffer) {
+            int playerCount = buffer.get();
+            List<PlayerId> allPlayers = PlayerId.ALL.subList(0, playerCount);
+            PlayerId currentPlayerId = PlayerId.ALL.get(buffer.get());
+            int lastPlayer = buffer.get();
+
+            List<Ticket> ticketDeck = readTickets(buffer);
+
+            Card[] faceUpCards = new Card[Constants.FACE_UP_CARDS_COUNT];
+            for (int i = 0 ; i < faceUpCards.length ; i++)
+                faceUpCards[i] = Card.ALL.get(buffer.get());
+            Card[] deck = new Card[Short.toUnsignedInt(buffer.getShort())];
+            for (int i = 0 ; i < deck.length ; i++)
+                deck[i] = Card.ALL.get(buffer.get());
+            CardBag discards = CardBag.ofBits(buffer.getLong());
+
+            PlayerState[] playerStates = new PlayerState[PlayerId.COUNT];
+            for (PlayerId p : allPlayers) {
+                SortedBag<Ticket> tickets = SortedBag.of(readTickets(buffer));
+                SortedBag<Card> cards = CardBag.ofBits(buffer.getLong()).toSortedBag();
+                Route[] routes = new Route[Short.toUnsignedInt(buffer.getShort())];
+                for (int i = 0 ; i < routes.length ; i++)
+                    routes[i] = map.compiledMap().route(buffer.getShort());
+                playerStates[p.ordinal()] = new PlayerState(tickets, cards, Arrays.asList(routes), null);
+            }
+
+            return new GameState(Deck.ofOrdered(ticketDeck),
+                    new CardState(List.of(faceUpCards), Deck.ofOrdered(Arrays.asList(deck)), discards),
+                    currentPlayerId, playerStates, allPlayers,
+                    lastPlayer < 0 ? null : PlayerId.ALL.get(lastPlayer), null);
+        }
+
+    }
+
+}
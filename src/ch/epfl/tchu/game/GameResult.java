@@ -0,0 +1,189 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable result of a complete game: the final state, where the longest trail bonus was given, and for each player
+ * its final points, its longest trail and its rank.
+ *
+ * The players are scored concurrently when the game is large enough for it to pay off, and ranked with primitive
+ * arrays, ties being broken by the order of the identities.
+ */
+public final class GameResult {
+
+    /**
+     * The default amount of routes and tickets of all the players from which they are scored concurrently, reached
+     * by large maps only, the scoring of the built-in maps being too quick for it to pay off.
+     */
+    public static final int DEFAULT_PARALLEL_SCORING_THRESHOLD = 512;
+
+    private final GameState finalState;
+    private final List<PlayerId> players;
+    // Indexed by PlayerId.ordinal().
+    private final int[] points;
+    private final Trail[] longestTrails;
+    private final boolean[] trailBonuses;
+    private final List<PlayerId> trailBonusPlayers;
+    private final List<PlayerId> ranking;
+    private final int winnerCount;
+
+    /**
+     * To score a game at its end, concurrently from DEFAULT_PARALLEL_SCORING_THRESHOLD routes and tickets.
+     * @param state (GameState) : the state of the game after its last turn, where the longest trail bonus was not
+     * given yet.
+     * @return result (GameResult) : the result of the game.
+     */
+    static GameResult of(GameState state) {
+        return of(state, DEFAULT_PARALLEL_SCORING_THRESHOLD);
+    }
+
+    /**
+     * To score a game at its end.
+     * @param state (GameState) : the state of the game after its last turn, where the longest trail bonus was not
+     * given yet.
+     * @param parallelScoringThreshold (int) : the amount of routes and tickets of all the players from which they are
+     *                                 scored concurrently.
+     * @return result (GameResult) : the result of the game.
+     */
+    static GameResult of(GameState state, int parallelScoringThreshold) {
+        List<PlayerId> players = state.allPlayers();
+        int[] points = new int[PlayerId.COUNT];
+        Trail[] longestTrails = new Trail[PlayerId.COUNT];
+
+        int size = 0;
+        for (PlayerId p : players)
+            size += state.playerState(p).routes().size() + state.playerState(p).ticketCount();
+        IntStream scoring = IntStream.range(0, players.size());
+        if (size >= parallelScoringThreshold)
+            scoring = scoring.parallel();
+        // Every player writes its own slots of the arrays only.
+        scoring.forEach(i -> {
+            PlayerId p = players.get(i);
+            PlayerState playerState = state.playerState(p);
+            longestTrails[p.ordinal()] = playerState.currentLongestTrail();
+            points[p.ordinal()] = playerState.finalPoints();
+        });
+
+        int maxTrailLength = 0;
+        for (PlayerId p : players)
+            maxTrailLength = Math.max(maxTrailLength, longestTrails[p.ordinal()].length());
+
+        boolean[] trailBonuses = new boolean[PlayerId.COUNT];
+        List<PlayerId> trailBonusPlayers = new ArrayList<>();
+        GameState finalState = state;
+        for (PlayerId p : players) {
+            if (longestTrails[p.ordinal()].length() == maxTrailLength) {
+                trailBonuses[p.ordinal()] = true;
+                trailBonusPlayers.add(p);
+                points[p.ordinal()] += Constants.LONGEST_TRAIL_BONUS_POINTS;
+                finalState = finalState.withAddedLongestTrail(p, longestTrails[p.ordinal()]);
+            }
+        }
+
+        int[] order = rank(players.size(), points);
+        List<PlayerId> ranking = new ArrayList<>(players.size());
+        for (int i : order)
+            ranking.add(PlayerId.ALL.get(i));
+        int winnerCount = 1;
+        while (winnerCount < order.length && points[order[winnerCount]] == points[order[0]])
+            winnerCount += 1;
+
+        return new GameResult(finalState, players, points, longestTrails, trailBonuses,
+                List.copyOf(trailBonusPlayers), List.copyOf(ranking), winnerCount);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private GameResult(GameState finalState, List<PlayerId> players, int[] points, Trail[] longestTrails,
+                       boolean[] trailBonuses, List<PlayerId> trailBonusPlayers, List<PlayerId> ranking,
+                       int winnerCount) {
+        this.finalState = finalState;
+        this.players = players;
+        this.points = points;
+        this.longestTrails = longestTrails;
+        this.trailBonuses = trailBonuses;
+        this.trailBonusPlayers = trailBonusPlayers;
+        this.ranking = ranking;
+        this.winnerCount = winnerCount;
+    }
+
+    /**
+     * To get the final state of the game.
+     * @return finalState (GameState) : the final state, where the longest trail bonus was given to the player(s)
+     * getting it.
+     */
+    public GameState finalState() { return finalState; }
+
+    /**
+     * To get the players of the game.
+     * @return players (List<PlayerId>) : the players, in the order of their identity.
+     */
+    public List<PlayerId> players() { return players; }
+
+    /**
+     * To get the final points of a player, the longest trail bonus included.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return points (int) : the final points of the player.
+     */
+    public int points(PlayerId playerId) { return points[playerId.ordinal()]; }
+
+    /**
+     * To get one of the longest trails of a player.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return longestTrail (Trail) : one of the longest trails of the player, of length 0 if it has no routes.
+     */
+    public Trail longestTrail(PlayerId playerId) { return longestTrails[playerId.ordinal()]; }
+
+    /**
+     * States if a player got the longest trail bonus.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return hasTrailBonus (boolean) : true if the player got the bonus, false otherwise.
+     */
+    public boolean hasTrailBonus(PlayerId playerId) { return trailBonuses[playerId.ordinal()]; }
+
+    /**
+     * To get the players who got the longest trail bonus.
+     * @return trailBonusPlayers (List<PlayerId>) : the players having the longest trail, in the order of their
+     * identity.
+     */
+    public List<PlayerId> trailBonusPlayers() { return trailBonusPlayers; }
+
+    /**
+     * To get the players from the first to the last.
+     * @return ranking (List<PlayerId>) : the players by decreasing points, in the order of their identity for the
+     * same points.
+     */
+    public List<PlayerId> ranking() { return ranking; }
+
+    /**
+     * To get the winners of the game, several players winning in case of a draw.
+     * @return winners (List<PlayerId>) : the players having the most points, in the order of their identity.
+     */
+    public List<PlayerId> winners() { return ranking.subList(0, winnerCount); }
+
+    /**
+     * To get the points of the winners.
+     * @return winnerPoints (int) : the most points of the game.
+     */
+    public int winnerPoints() { return points(ranking.get(0)); }
+
+    //Helper method sorting the identities of the players by decreasing points, stably (an insertion sort, there
+    //being only a few players)
+    private static int[] rank(int playerCount, int[] points) {
+        int[] order = new int[playerCount];
+        for (int i = 0 ; i < playerCount ; i++) {
+            int j = i;
+            while (j > 0 && points[order[j - 1]] < points[i]) {
+                order[j] = order[j - 1];
+                j -= 1;
+            }
+            order[j] = i;
+        }
+
+        return order;
+    }
+
+}
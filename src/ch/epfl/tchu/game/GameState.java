@@ -11,53 +11,67 @@ import java.util.*;
 public final class GameState extends PublicGameState {
 
     private final Deck<Ticket> tickets;
-    private final Map<PlayerId, PlayerState> playerState;
+    private final PlayerState[] playerState;
     private final CardState cardState;
-    private final List<PlayerId> allPlayers;
 
     /**
      * To get a initial game state of tCHu.
+     * @param allPlayers (List<PlayerId>) : the players taking part in the game, in any order, the players of the
+     *                   state being sorted by identity.
      * @param tickets (SortedBag<Ticket>) : the deck of all tickets.
      * @param rng     (Random) : instance from Random used to shuffle or generate random number.
      * @return initialGameState (GameState) : a new game state for the start of the game, where each player
      * has Constants.INITIAL_CARDS_COUNT cards, and the left cards constitute the deck.
      */
     public static GameState initial(List<PlayerId> allPlayers, SortedBag<Ticket> tickets, Random rng) {
+        List<PlayerId> sortedPlayers = new ArrayList<>(allPlayers);
+        Collections.sort(sortedPlayers);
+        allPlayers = List.copyOf(sortedPlayers);
         var numberOfPlayers = allPlayers.size();
-        Map<PlayerId, PlayerState> newMap = new HashMap<>();
+        PlayerState[] newPlayerState = new PlayerState[PlayerId.COUNT];
         Deck<Card> randomCards = Deck.of(Constants.ALL_CARDS, rng);
         Deck<Ticket> randomTickets = Deck.of(tickets, rng);
         int randomPlayer = rng.nextInt(numberOfPlayers);
 
         for (PlayerId p : allPlayers) {
-            newMap.put(p, PlayerState.initial(randomCards.topCards(Constants.INITIAL_CARDS_COUNT)));
+            newPlayerState[p.ordinal()] = PlayerState.initial(randomCards.topCards(Constants.INITIAL_CARDS_COUNT));
             randomCards = randomCards.withoutTopCards(Constants.INITIAL_CARDS_COUNT);
         }
 
         while ((randomTickets.size() - (Constants.INITIAL_TICKETS_COUNT * numberOfPlayers)) % Constants.IN_GAME_TICKETS_COUNT != 0)
             randomTickets = randomTickets.withoutTopCard();
 
-        return new GameState(randomTickets, CardState.of(randomCards), allPlayers.get(randomPlayer), newMap, null);
+        return new GameState(randomTickets, CardState.of(randomCards), allPlayers.get(randomPlayer), newPlayerState,
+                allPlayers, null, List.of());
     }
 
     /**
-     * Private constructor.
+     * Package-private constructor. The array of the player states is shared with the public game state, and between the game
+     * states where none of the player states changed, it is therefore never modified.
      * @param tickets         (SortedBag<Ticket>) : the sorted set of all tickets.
      * @param cardState       (CardState) : state of the cards car/locomotive.
      * @param currentPlayerId (PlayerId) : current player identity.
-     * @param playerState     (Map<PlayerId, PlayerState>) : state of the players.
+     * @param playerState     (PlayerState[]) : state of the players, indexed by PlayerId.ordinal().
+     * @param allPlayers      (List<PlayerId>) : the players taking part in the game, sorted by identity.
      * @param lastPlayer      (PlayerId) : last player identity.
+     * @param claimedRoutes   (List<Route>) : the routes claimed by the players, null to build them from the player
+     *                        states.
      */
-    private GameState(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId, Map<PlayerId,
-            PlayerState> playerState, PlayerId lastPlayer) {
-        super(tickets.size(), cardState, currentPlayerId, Map.copyOf(playerState), lastPlayer);
+    GameState(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId, PlayerState[] playerState,
+                      List<PlayerId> allPlayers, PlayerId lastPlayer, List<Route> claimedRoutes) {
+        super(tickets.size(), cardState, currentPlayerId, playerState, allPlayers, lastPlayer, claimedRoutes);
 
         this.tickets = Objects.requireNonNull(tickets);
         this.cardState = Objects.requireNonNull(cardState);
-        this.playerState = Map.copyOf(playerState);
-        this.allPlayers = new ArrayList<>(playerState.keySet());
+        this.playerState = playerState;
     }
 
+    /**
+     * To get the deck of tickets.
+     * @return tickets (Deck<Ticket>) : the deck of tickets.
+     */
+    Deck<Ticket> ticketDeck() { return tickets; }
+
     /**
      * To get the 'count' first ticket(s) at the top of the deck of tickets.
      * @param count (int) : the number of tickets wanted.
@@ -79,7 +93,8 @@ public final class GameState extends PublicGameState {
     public GameState withoutTopTickets(int count) {
         Preconditions.checkArgument((count >= 0) && (count <= tickets.size()));
 
-        return new GameState(tickets.withoutTopCards(count), cardState, currentPlayerId(), playerState, lastPlayer());
+        return new GameState(tickets.withoutTopCards(count), cardState, currentPlayerId(), playerState, allPlayers(),
+                lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -101,7 +116,8 @@ public final class GameState extends PublicGameState {
     public GameState withoutTopCard() {
         Preconditions.checkArgument(!cardState.isDeckEmpty());
 
-        return new GameState(tickets, cardState.withoutTopDeckCard(), currentPlayerId(), playerState, lastPlayer());
+        return new GameState(tickets, cardState.withoutTopDeckCard(), currentPlayerId(), playerState, allPlayers(),
+                lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -111,7 +127,7 @@ public final class GameState extends PublicGameState {
      */
     public GameState withMoreDiscardedCards(SortedBag<Card> discardedCards) {
         return new GameState(tickets, cardState.withMoreDiscardedCards(discardedCards), currentPlayerId(), playerState,
-                lastPlayer());
+                allPlayers(), lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -123,7 +139,7 @@ public final class GameState extends PublicGameState {
     public GameState withCardsDeckRecreatedIfNeeded(Random rng) {
         if (cardState.isDeckEmpty()) {
             return new GameState(tickets, cardState.withDeckRecreatedFromDiscards(rng), currentPlayerId(), playerState,
-                    lastPlayer());
+                    allPlayers(), lastPlayer(), claimedRoutes());
         } else return this;
     }
 
@@ -135,12 +151,12 @@ public final class GameState extends PublicGameState {
      * @throws IllegalArgumentException if the player possesses already at least one ticket.
      */
     public GameState withInitiallyChosenTickets(PlayerId playerId, SortedBag<Ticket> chosenTickets) {
-        Preconditions.checkArgument(!(playerState.get(playerId).ticketCount() > 0));
+        Preconditions.checkArgument(!(playerState(playerId).ticketCount() > 0));
 
-        Map<PlayerId, PlayerState> newMap = new EnumMap<>(playerState);
-        newMap.put(playerId, newMap.get(playerId).withAddedTickets(chosenTickets));
+        PlayerState[] newPlayerState = withPlayerState(playerId, playerState(playerId).withAddedTickets(chosenTickets));
 
-        return new GameState(tickets, cardState, currentPlayerId(), newMap, lastPlayer());
+        return new GameState(tickets, cardState, currentPlayerId(), newPlayerState, allPlayers(),
+                lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -155,10 +171,11 @@ public final class GameState extends PublicGameState {
         Preconditions.checkArgument(drawnTickets.contains(chosenTickets));
 
         Deck<Ticket> newTickets = tickets.withoutTopCards(drawnTickets.size());
-        Map<PlayerId, PlayerState> newMap = new EnumMap<>(playerState);
-        newMap.put(currentPlayerId(), newMap.get(currentPlayerId()).withAddedTickets(chosenTickets));
+        PlayerState[] newPlayerState = withPlayerState(currentPlayerId(),
+                currentPlayerState().withAddedTickets(chosenTickets));
 
-        return new GameState(newTickets, cardState, currentPlayerId(), newMap, lastPlayer());
+        return new GameState(newTickets, cardState, currentPlayerId(), newPlayerState, allPlayers(),
+                lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -172,10 +189,11 @@ public final class GameState extends PublicGameState {
      */
     public GameState withDrawnFaceUpCard(int slot) {
 
-        Map<PlayerId, PlayerState> newMap = new EnumMap<>(playerState);
-        newMap.put(currentPlayerId(), newMap.get(currentPlayerId()).withAddedCard(cardState.faceUpCard(slot)));
+        PlayerState[] newPlayerState = withPlayerState(currentPlayerId(),
+                currentPlayerState().withAddedCard(cardState.faceUpCard(slot)));
 
-        return new GameState(tickets, cardState.withDrawnFaceUpCard(slot), currentPlayerId(), newMap, lastPlayer());
+        return new GameState(tickets, cardState.withDrawnFaceUpCard(slot), currentPlayerId(), newPlayerState,
+                allPlayers(), lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -187,10 +205,11 @@ public final class GameState extends PublicGameState {
      */
     public GameState withBlindlyDrawnCard() {
 
-        Map<PlayerId, PlayerState> newMap = new EnumMap<>(playerState);
-        newMap.put(currentPlayerId(), newMap.get(currentPlayerId()).withAddedCard(cardState.topDeckCard()));
+        PlayerState[] newPlayerState = withPlayerState(currentPlayerId(),
+                currentPlayerState().withAddedCard(cardState.topDeckCard()));
 
-        return new GameState(tickets, cardState.withoutTopDeckCard(), currentPlayerId(), newMap, lastPlayer());
+        return new GameState(tickets, cardState.withoutTopDeckCard(), currentPlayerId(), newPlayerState, allPlayers(),
+                lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -200,10 +219,11 @@ public final class GameState extends PublicGameState {
      * @return gameState (GameState) : the same game state, but the current player claimed a route.
      */
     public GameState withClaimedRoute(Route route, SortedBag<Card> cards) {
-        Map<PlayerId, PlayerState> newMap = new EnumMap<>(playerState);
-        newMap.put(currentPlayerId(), newMap.get(currentPlayerId()).withClaimedRoute(route, cards));
+        PlayerState[] newPlayerState = withPlayerState(currentPlayerId(),
+                currentPlayerState().withClaimedRoute(route, cards));
 
-        return new GameState(tickets, cardState.withMoreDiscardedCards(cards), currentPlayerId(), newMap, lastPlayer());
+        return new GameState(tickets, cardState.withMoreDiscardedCards(cards), currentPlayerId(), newPlayerState,
+                allPlayers(), lastPlayer(), null);
     }
 
     /**
@@ -214,10 +234,11 @@ public final class GameState extends PublicGameState {
      * @return gameState (GameState) : the same game state, but with an added longest trail.
      */
     public GameState withAddedLongestTrail(PlayerId playerId, Trail longestTrail) {
-        Map<PlayerId, PlayerState> newMap = new EnumMap<>(playerState);
-        newMap.put(playerId, newMap.get(playerId).withAddedLongestTrail(longestTrail));
+        PlayerState[] newPlayerState = withPlayerState(playerId,
+                playerState(playerId).withAddedLongestTrail(longestTrail));
 
-        return new GameState(tickets, cardState, currentPlayerId(), newMap, lastPlayer());
+        return new GameState(tickets, cardState, currentPlayerId(), newPlayerState, allPlayers(),
+                lastPlayer(), claimedRoutes());
     }
 
     /**
@@ -226,7 +247,7 @@ public final class GameState extends PublicGameState {
      */
     public boolean lastTurnBegins() {
         return lastPlayer() == null
-                && playerState.get(currentPlayerId()).carCount() <= 2;
+                && currentPlayerState().carCount() <= 2;
     }
 
     /**
@@ -236,9 +257,20 @@ public final class GameState extends PublicGameState {
      */
     public GameState forNextTurn() {
         if (lastTurnBegins())
-            return new GameState(tickets, cardState, currentPlayerId().next(allPlayers), playerState, currentPlayerId());
+            return new GameState(tickets, cardState, currentPlayerId().next(allPlayers()), playerState, allPlayers(),
+                    currentPlayerId(), claimedRoutes());
 
-        else return new GameState(tickets, cardState, currentPlayerId().next(allPlayers), playerState, lastPlayer());
+        else return new GameState(tickets, cardState, currentPlayerId().next(allPlayers()), playerState, allPlayers(),
+                    lastPlayer(), claimedRoutes());
+    }
+
+    /**
+     * To get the (complete) state of the cards car/locomotive.
+     * @return cardState (CardState) : the state of the cards car/locomotive.
+     */
+    @Override
+    public CardState cardState() {
+        return cardState;
     }
 
     /**
@@ -248,7 +280,7 @@ public final class GameState extends PublicGameState {
      */
     @Override
     public PlayerState playerState(PlayerId playerId) {
-        return playerState.get(playerId);
+        return playerState[playerId.ordinal()];
     }
 
     /**
@@ -257,7 +289,15 @@ public final class GameState extends PublicGameState {
      */
     @Override
     public PlayerState currentPlayerState() {
-        return playerState.get(currentPlayerId());
+        return playerState[currentPlayerId().ordinal()];
+    }
+
+    //Helper method used to copy the array of the player states, replacing the state of the given player
+    private PlayerState[] withPlayerState(PlayerId playerId, PlayerState newPlayerState) {
+        PlayerState[] newPlayerStates = playerState.clone();
+        newPlayerStates[playerId.ordinal()] = newPlayerState;
+
+        return newPlayerStates;
     }
 
 }
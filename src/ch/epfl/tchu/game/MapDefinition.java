@@ -0,0 +1,473 @@
+package ch.epfl.tchu.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * Immutable definition of a map: its name, its stations, its routes (whose identities are the layout ids used by the
+ * graphical interface) and its tickets, together with its compiled form.
+ *
+ * A map can be read from a text definition, made of one declaration per line (empty lines and lines starting with
+ * '#' being ignored):
+ * <pre>
+ * map usa
+ * station 0 Atlanta
+ * route ATL_MIA_1 0 15 5 OVERGROUND BLUE
+ * route ATL_CHA_1 0 3 2 UNDERGROUND -
+ * ticket 0-15:9
+ * ticket 0-1:4 0-2:6
+ * </pre>
+ * where the stations must be declared in the order of their identity, starting from 0, the stations of the routes and
+ * tickets are given by identity, a neutral route has the color "-", and a ticket has one trip "from-to:points" per
+ * destination.
+ *
+ * The maps loaded from a file are compiled into a compact binary form stored next to it, which is memory-mapped
+ * instead of parsing the text again on the next starts, and they are loaded only once per JVM, so that all the games
+ * played on the same map share the same definition.
+ */
+public final class MapDefinition {
+
+    private static final MapDefinition USA = new MapDefinition("usa", UsaMap.stations(), UsaMap.routes(),
+            UsaMap.tickets(), CompiledMap.usa());
+    private static final MapDefinition CH = new MapDefinition("ch", ChMap.stations(), ChMap.routes(),
+            ChMap.tickets(), CompiledMap.ch());
+
+    // "tCHu" in ASCII.
+    private static final int BINARY_MAGIC = 0x74434875;
+    private static final int BINARY_VERSION = 1;
+    private static final String BINARY_SUFFIX = ".bin";
+    private static final String NEUTRAL_COLOR = "-";
+
+    private static final Map<Path, MapDefinition> LOADED = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final List<Station> stations;
+    private final List<Route> routes;
+    private final List<Ticket> tickets;
+    private final CompiledMap compiledMap;
+
+    /**
+     * To get the definition of the map of the United States (UsaMap).
+     * @return map (MapDefinition) : the definition of the map, sharing its stations, routes and tickets with UsaMap.
+     */
+    public static MapDefinition usa() { return USA; }
+
+    /**
+     * To get the definition of the map of Switzerland (ChMap).
+     * @return map (MapDefinition) : the definition of the map, sharing its stations, routes and tickets with ChMap.
+     */
+    public static MapDefinition ch() { return CH; }
+
+    /**
+     * To get the definition of a map.
+     * @param name (String) : the name of the map, made of a single word.
+     * @param stations (List<Station>) : the stations of the map, in the order of their identity, starting from 0.
+     * @param routes (List<Route>) : the routes of the map, whose stations are part of the map.
+     * @param tickets (List<Ticket>) : the tickets of the map, whose stations are part of the map.
+     * @return map (MapDefinition) : the definition of the map.
+     * @throws IllegalArgumentException if the name is not a single word, if the identity of a station is not its
+     * index, if a station of a route or of a ticket is not part of the map, or if a route appears several times.
+     */
+    public static MapDefinition of(String name, List<Station> stations, List<Route> routes, List<Ticket> tickets) {
+        Preconditions.checkArgument(isWord(name));
+        for (int i = 0 ; i < stations.size() ; i++)
+            Preconditions.checkArgument(stations.get(i).id() == i);
+        for (Route r : routes)
+            Preconditions.checkArgument(isPartOf(r.station1(), stations) && isPartOf(r.station2(), stations));
+        for (Ticket t : tickets) {
+            for (Trip trip : t.trips())
+                Preconditions.checkArgument(isPartOf(trip.from(), stations) && isPartOf(trip.to(), stations));
+        }
+
+        return new MapDefinition(name, List.copyOf(stations), List.copyOf(routes), List.copyOf(tickets),
+                CompiledMap.of(routes));
+    }
+
+    /**
+     * Private constructor.
+     */
+    private MapDefinition(String name, List<Station> stations, List<Route> routes, List<Ticket> tickets,
+                          CompiledMap compiledMap) {
+        this.name = name;
+        this.stations = stations;
+        this.routes = routes;
+        this.tickets = tickets;
+        this.compiledMap = compiledMap;
+    }
+
+    /**
+     * To get the definition of the map of a text definition file, loading it only once per JVM: the binary form of
+     * the map is memory-mapped if it exists and is up to date, and otherwise the text is parsed and its binary form is
+     * written next to it (if possible) for the next starts.
+     * @param source (Path) : the text definition file.
+     * @return map (MapDefinition) : the definition of the map, the same one for every call with the same file.
+     * @throws UncheckedIOException if the text definition cannot be read.
+     * @throws IllegalArgumentException if the text definition is invalid.
+     */
+    public static MapDefinition load(Path source) {
+        return LOADED.computeIfAbsent(source.toAbsolutePath().normalize(), MapDefinition::loadUncached);
+    }
+
+    /**
+     * To get the definition of a map from its text definition.
+     * @param lines (List<String>) : the lines of the text definition.
+     * @return map (MapDefinition) : the definition of the map.
+     * @throws IllegalArgumentException if the text definition is invalid, the message giving the faulty line.
+     */
+    public static MapDefinition parse(List<String> lines) {
+        String name = null;
+        List<Station> stations = new ArrayList<>();
+        List<Route> routes = new ArrayList<>();
+        List<Ticket> tickets = new ArrayList<>();
+
+        for (int n = 0 ; n < lines.size() ; n++) {
+            String line = lines.get(n).strip();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] words = line.split("\\s+");
+            try {
+                switch (words[0]) {
+                    case "map":
+                        Preconditions.checkArgument(name == null && words.length == 2);
+                        name = words[1];
+                        break;
+                    case "station":
+                        Preconditions.checkArgument(words.length >= 3);
+                        Preconditions.checkArgument(Integer.parseInt(words[1]) == stations.size());
+                        stations.add(new Station(stations.size(), line.split("\\s+", 3)[2]));
+                        break;
+                    case "route":
+                        Preconditions.checkArgument(words.length == 7);
+                        routes.add(new Route(words[1],
+                                stations.get(Integer.parseInt(words[2])),
+                                stations.get(Integer.parseInt(words[3])),
+                                Integer.parseInt(words[4]),
+                                Route.Level.valueOf(words[5]),
+                                words[6].equals(NEUTRAL_COLOR) ? null : Color.valueOf(words[6])));
+                        break;
+                    case "ticket":
+                        Preconditions.checkArgument(words.length >= 2);
+                        List<Trip> trips = new ArrayList<>();
+                        for (int i = 1 ; i < words.length ; i++) {
+                            String[] trip = words[i].split("[-:]", -1);
+                            Preconditions.checkArgument(trip.length == 3);
+                            trips.add(new Trip(stations.get(Integer.parseInt(trip[0])),
+                                    stations.get(Integer.parseInt(trip[1])),
+                                    Integer.parseInt(trip[2])));
+                        }
+                        tickets.add(new Ticket(trips));
+                        break;
+                    default:
+                        throw new IllegalArgumentException();
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid map definition at line " + (n + 1) + ": " + line, e);
+            }
+        }
+        Preconditions.checkArgument(name != null);
+
+        return of(name, stations, routes, tickets);
+    }
+
+    /**
+     * To get the text definition of the map, which parse reads back into an equivalent map.
+     * @return lines (List<String>) : the lines of the text definition.
+     * @throws IllegalArgumentException if the name of a station, the identity of a route or the name of the map
+     * cannot be written in the text definition.
+     */
+    public List<String> toText() {
+        List<String> lines = new ArrayList<>();
+        lines.add("map " + name);
+        for (Station s : stations) {
+            Preconditions.checkArgument(s.name().strip().equals(s.name()) && !s.name().isEmpty());
+            lines.add("station " + s.id() + " " + s.name());
+        }
+        for (Route r : routes) {
+            Preconditions.checkArgument(isWord(r.id()));
+            lines.add("route " + r.id() + " " + r.station1().id() + " " + r.station2().id() + " " + r.length() + " "
+                    + r.level().name() + " " + (r.color() == null ? NEUTRAL_COLOR : r.color().name()));
+        }
+        for (Ticket t : tickets) {
+            StringBuilder line = new StringBuilder("ticket");
+            for (Trip trip : t.trips())
+                line.append(' ').append(trip.from().id()).append('-').append(trip.to().id()).append(':')
+                        .append(trip.points());
+            lines.add(line.toString());
+        }
+
+        return lines;
+    }
+
+    /**
+     * Writes the binary form of the map, which mapBinary reads back into an equivalent map.
+     * @param target (Path) : the file to write, replaced if it exists.
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    public void writeBinary(Path target) {
+        writeBinary(target, 0, 0);
+    }
+
+    /**
+     * To get the definition of a map from its binary form, memory-mapping the file.
+     * @param binary (Path) : the file containing the binary form of the map.
+     * @return map (MapDefinition) : the definition of the map.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file does not contain the binary form of a map.
+     */
+    public static MapDefinition mapBinary(Path binary) {
+        ByteBuffer buffer = map(binary);
+        checkHeader(buffer);
+        buffer.getLong();
+        buffer.getLong();
+        return decode(buffer);
+    }
+
+    /**
+     * To get the name of the map.
+     * @return name (String) : the name of the map.
+     */
+    public String name() { return name; }
+
+    /**
+     * To get the stations of the map.
+     * @return stations (List<Station>) : the unmodifiable list of the stations, in the order of their identity.
+     */
+    public List<Station> stations() { return stations; }
+
+    /**
+     * To get the routes of the map.
+     * @return routes (List<Route>) : the unmodifiable list of the routes.
+     */
+    public List<Route> routes() { return routes; }
+
+    /**
+     * To get the tickets of the map.
+     * @return tickets (List<Ticket>) : the unmodifiable list of the tickets.
+     */
+    public List<Ticket> tickets() { return tickets; }
+
+    /**
+     * To get the compiled form of the routes of the map.
+     * @return compiledMap (CompiledMap) : the compiled map, whose route ordinals are the indexes in routes().
+     */
+    public CompiledMap compiledMap() { return compiledMap; }
+
+    @Override
+    public String toString() { return name; }
+
+    //Helper method loading a map from its text definition file, or from its binary form if it is up to date
+    private static MapDefinition loadUncached(Path source) {
+        Path binary = source.resolveSibling(source.getFileName() + BINARY_SUFFIX);
+        long sourceSize;
+        long sourceModified;
+        try {
+            sourceSize = Files.size(source);
+            sourceModified = Files.getLastModifiedTime(source).toMillis();
+            if (Files.isRegularFile(binary)) {
+                MapDefinition map = mapBinaryIfFresh(binary, sourceSize, sourceModified);
+                if (map != null)
+                    return map;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        MapDefinition map;
+        try {
+            map = parse(Files.readAllLines(source, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            map.writeBinary(binary, sourceSize, sourceModified);
+        } catch (UncheckedIOException e) {
+            // The binary form is only a cache: without it, the text is simply parsed again on the next start.
+        }
+
+        return map;
+    }
+
+    //Helper method reading the binary form of a map, null if it is stale or unreadable
+    private static MapDefinition mapBinaryIfFresh(Path binary, long sourceSize, long sourceModified) {
+        try {
+            ByteBuffer buffer = map(binary);
+            checkHeader(buffer);
+            if (buffer.getLong() != sourceSize || buffer.getLong() != sourceModified)
+                return null;
+            return decode(buffer);
+        } catch (UncheckedIOException | IllegalArgumentException | BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    //Helper method writing the binary form of the map, stamped with the size and date of its text definition
+    private void writeBinary(Path target, long sourceSize, long sourceModified) {
+        byte[] bytes = encode(sourceSize, sourceModified);
+        try {
+            Path directory = target.toAbsolutePath().getParent();
+            Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporary, bytes);
+                try {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Helper method giving the binary form of the map
+    private byte[] encode(long sourceSize, long sourceModified) {
+        List<byte[]> stationNames = new ArrayList<>();
+        List<byte[]> routeIds = new ArrayList<>();
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int size = 5 * Integer.BYTES + 2 * Long.BYTES + Short.BYTES + nameBytes.length;
+        for (Station s : stations) {
+            stationNames.add(s.name().getBytes(StandardCharsets.UTF_8));
+            size += Short.BYTES + stationNames.get(stationNames.size() - 1).length;
+        }
+        for (Route r : routes) {
+            routeIds.add(r.id().getBytes(StandardCharsets.UTF_8));
+            size += Short.BYTES + routeIds.get(routeIds.size() - 1).length + 2 * Short.BYTES + 3 * Byte.BYTES;
+        }
+        for (Ticket t : tickets)
+            size += Short.BYTES + t.trips().size() * 3 * Short.BYTES;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putLong(sourceSize).putLong(sourceModified);
+        putString(buffer, nameBytes);
+        buffer.putInt(stations.size());
+        for (byte[] stationName : stationNames)
+            putString(buffer, stationName);
+        buffer.putInt(routes.size());
+        for (int i = 0 ; i < routes.size() ; i++) {
+            Route r = routes.get(i);
+            putString(buffer, routeIds.get(i));
+            buffer.putShort((short) r.station1().id()).putShort((short) r.station2().id())
+                    .put((byte) r.length())
+                    .put((byte) r.level().ordinal())
+                    .put((byte) (r.color() == null ? -1 : r.color().ordinal()));
+        }
+        buffer.putInt(tickets.size());
+        for (Ticket t : tickets) {
+            buffer.putShort((short) t.trips().size());
+            for (Trip trip : t.trips())
+                buffer.putShort((short) trip.from().id()).putShort((short) trip.to().id())
+                        .putShort((short) trip.points());
+        }
+
+        return buffer.array();
+    }
+
+    //Helper method reading a map from its binary form, after its header
+    private static MapDefinition decode(ByteBuffer buffer) {
+        String name = getString(buffer);
+        int stationCount = buffer.getInt();
+        Preconditions.checkArgument(stationCount >= 0);
+        List<Station> stations = new ArrayList<>(stationCount);
+        for (int i = 0 ; i < stationCount ; i++)
+            stations.add(new Station(i, getString(buffer)));
+
+        int routeCount = buffer.getInt();
+        Preconditions.checkArgument(routeCount >= 0);
+        List<Route> routes = new ArrayList<>(routeCount);
+        for (int i = 0 ; i < routeCount ; i++) {
+            String id = getString(buffer);
+            Station station1 = station(stations, buffer.getShort());
+            Station station2 = station(stations, buffer.getShort());
+            int length = buffer.get();
+            int level = buffer.get();
+            int color = buffer.get();
+            Preconditions.checkArgument(0 <= level && level < Route.Level.values().length);
+            Preconditions.checkArgument(-1 <= color && color < Color.COUNT);
+            routes.add(new Route(id, station1, station2, length, Route.Level.values()[level],
+                    color == -1 ? null : Color.ALL.get(color)));
+        }
+
+        int ticketCount = buffer.getInt();
+        Preconditions.checkArgument(ticketCount >= 0);
+        List<Ticket> tickets = new ArrayList<>(ticketCount);
+        for (int i = 0 ; i < ticketCount ; i++) {
+            int tripCount = buffer.getShort();
+            List<Trip> trips = new ArrayList<>(Math.max(0, tripCount));
+            for (int j = 0 ; j < tripCount ; j++)
+                trips.add(new Trip(station(stations, buffer.getShort()), station(stations, buffer.getShort()),
+                        buffer.getShort()));
+            tickets.add(new Ticket(trips));
+        }
+        Preconditions.checkArgument(!buffer.hasRemaining());
+
+        return of(name, stations, routes, tickets);
+    }
+
+    //Helper method memory-mapping a whole file
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Helper method checking the magic number and version at the start of a binary form
+    private static void checkHeader(ByteBuffer buffer) {
+        try {
+            Preconditions.checkArgument(buffer.getInt() == BINARY_MAGIC && buffer.getInt() == BINARY_VERSION);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    //Helper method writing a string as its length followed by its UTF-8 bytes
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        Preconditions.checkArgument(bytes.length <= 0xFFFF);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    //Helper method reading a string written by putString
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //Helper method getting a station of a binary form by identity
+    private static Station station(List<Station> stations, int id) {
+        Preconditions.checkArgument(0 <= id && id < stations.size());
+        return stations.get(id);
+    }
+
+    //Helper method stating if a string is a non-empty word without white space
+    private static boolean isWord(String s) {
+        return !s.isEmpty() && s.chars().noneMatch(Character::isWhitespace);
+    }
+
+    //Helper method stating if a station is the station of the same identity in a list of stations
+    private static boolean isPartOf(Station station, List<Station> stations) {
+        return station.id() < stations.size() && Objects.equals(stations.get(station.id()).name(), station.name());
+    }
+
+}
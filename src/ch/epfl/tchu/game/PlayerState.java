@@ -1,7 +1,8 @@
 package ch.epfl.tchu.game;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import ch.epfl.tchu.Preconditions;
@@ -13,7 +14,9 @@ import ch.epfl.tchu.SortedBag;
 public final class PlayerState extends PublicPlayerState {
 
     private final SortedBag<Ticket> tickets;
-    private final SortedBag<Card> cards;
+    private final CardBag cards;
+    private final StationPartition connectivity;
+    private SortedBag<Card> sortedCards;
 
     /**
      * Static construction method.
@@ -25,7 +28,8 @@ public final class PlayerState extends PublicPlayerState {
     public static PlayerState initial(SortedBag<Card> initialCards) {
         Preconditions.checkArgument(initialCards.size() == Constants.INITIAL_CARDS_COUNT);
 
-        return new PlayerState(SortedBag.of(), initialCards, List.of(), null);
+        return new PlayerState(SortedBag.of(), CardBag.of(initialCards), List.of(), Constants.INITIAL_CAR_COUNT, 0,
+                null, Trail.longest(List.of()), null, StationPartition.EMPTY);
     }
     
     /**
@@ -35,10 +39,26 @@ public final class PlayerState extends PublicPlayerState {
      * @param routes (List<Route>) : the routes already possessed by the player.
      */
     public PlayerState(SortedBag<Ticket> tickets, SortedBag<Card> cards, List<Route> routes, Trail longestTrail) {
-        super(tickets.size(), cards.size(), routes, longestTrail);
+        this(tickets, CardBag.of(cards), List.copyOf(routes), carCountOf(routes), claimPointsOf(routes), longestTrail,
+                null, null, connectivityOf(routes));
+
+        this.sortedCards = cards;
+    }
+
+    /**
+     * Private constructor, used to carry over the unmodifiable list of routes, their totals, the current longest
+     * trail (or the previous one it is to be extended from) and the connectivity of the routes.
+     * The cards are kept in a CardBag, the corresponding SortedBag being only built when asked for.
+     */
+    private PlayerState(SortedBag<Ticket> tickets, CardBag cards, List<Route> routes, int carCount, int claimPoints,
+                        Trail longestTrail, Trail currentLongestTrail, Trail previousLongestTrail,
+                        StationPartition connectivity) {
+        super(tickets.size(), cards.size(), routes, carCount, claimPoints, longestTrail, currentLongestTrail,
+                previousLongestTrail);
 
         this.tickets = tickets;
         this.cards = cards;
+        this.connectivity = connectivity;
     }
     
     /**
@@ -53,7 +73,8 @@ public final class PlayerState extends PublicPlayerState {
      * @return playerState (PlayerState) : the same player state but with tickets added to the old ones.
      */
     public PlayerState withAddedTickets(SortedBag<Ticket> newTickets) {
-        return new PlayerState(tickets.union(newTickets), cards, routes(), null);
+        return new PlayerState(tickets.union(newTickets), cards, routes(), carCount(), claimPoints(), null,
+                knownLongestTrail(), knownPreviousLongestTrail(), connectivity);
     }
 
     /**
@@ -62,13 +83,26 @@ public final class PlayerState extends PublicPlayerState {
      * @return playerState (PlayerState) : the same player state but with a longest trail added.
      */
     public PlayerState withAddedLongestTrail(Trail longestTrail) {
-        return new PlayerState(tickets, cards, routes(), longestTrail);
+        return new PlayerState(tickets, cards, routes(), carCount(), claimPoints(), longestTrail,
+                knownLongestTrail(), knownPreviousLongestTrail(), connectivity);
     }
+
     /**
      * To get the player's cards.
      * @return cards (SortedBag<Card>) : the player's cards.
      */
-    public SortedBag<Card> cards() { return cards; }
+    public SortedBag<Card> cards() {
+        if (sortedCards == null)
+            sortedCards = cards.toSortedBag();
+
+        return sortedCards;
+    }
+
+    /**
+     * To get the player's cards as a bag of card counts, cheaper to combine than cards().
+     * @return cards (CardBag) : the player's cards.
+     */
+    public CardBag cardBag() { return cards; }
     
     /**
      * To add a new card to the player.
@@ -76,7 +110,8 @@ public final class PlayerState extends PublicPlayerState {
      * @return playerState (PlayerState) : the same player state but with a card added to the old ones.
      */
     public PlayerState withAddedCard(Card card) {
-        return new PlayerState(tickets, cards.union(SortedBag.of(card)), routes(), null);
+        return new PlayerState(tickets, cards.with(card), routes(), carCount(), claimPoints(), null,
+                knownLongestTrail(), knownPreviousLongestTrail(), connectivity);
     }
     
     /** UNUSED METHOD.
@@ -95,7 +130,7 @@ public final class PlayerState extends PublicPlayerState {
      */
     public boolean canClaimRoute(Route route) {
         return route.length() <= carCount()
-                && possibleClaimCards(route).size() > 0;
+                && route.canBeClaimedWith(cards);
     }
     
     /**
@@ -109,14 +144,7 @@ public final class PlayerState extends PublicPlayerState {
     public List<SortedBag<Card>> possibleClaimCards(Route route) {
         Preconditions.checkArgument(route.length() <= carCount());
 
-        var allPossibleClaimCards = route.possibleClaimCards();
-        List<SortedBag<Card>> possibleClaimCards = new ArrayList<>();
-            allPossibleClaimCards.forEach((c) -> {
-                if (cards.contains(c))
-                    possibleClaimCards.add(c);
-            });
-
-        return possibleClaimCards;
+        return route.possibleClaimCards(cards);
     }
     
     /**
@@ -141,7 +169,7 @@ public final class PlayerState extends PublicPlayerState {
         Preconditions.checkArgument(initialCards.toSet().size() <= 2);
         Preconditions.checkArgument(drawnCards.size() == Constants.ADDITIONAL_TUNNEL_CARDS);
         
-        var newCards = cards.difference(initialCards);
+        var newCards = cards.difference(CardBag.of(initialCards));
         var onlyUsableCardsBuilder = new SortedBag.Builder<Card>();
             for (Card c : Card.CARS) {
                 if (initialCards.contains(c)) {
@@ -156,54 +184,45 @@ public final class PlayerState extends PublicPlayerState {
         if (onlyUsableCards.size() < additionalCardsCount)
             return List.of();
 
-        var subSetsOfGivenSize = onlyUsableCards.subsetsOfSize(additionalCardsCount);
+        // The locomotive being the greatest card, the subsets come in increasing order of locomotives.
         List<SortedBag<Card>> possibleAdditionalCards = new ArrayList<>();
-        subSetsOfGivenSize.forEach(possibleAdditionalCards::add);
-        possibleAdditionalCards.sort(Comparator.comparingInt(cs -> cs.countOf(Card.LOCOMOTIVE)));
-        
+        onlyUsableCards.subsetsOfSizeIterator(additionalCardsCount).forEachRemaining(possibleAdditionalCards::add);
+
         return possibleAdditionalCards;
     }
 
     /**
      * To get the same player state, but where the player took in possession the given route by use of
-     * the given cards.
+     * the given cards. The remaining cars and the claim points are updated from the previous ones. The current
+     * longest trail is only computed when first asked for, by extending the previous one if it was known, the
+     * search being restricted to the routes connected to the new one.
      * @param route (Route) : the route the player took hold of.
      * @param claimCards (SortedBag<Card>) : the cards the player took the route hold of with.
      * @return playerState (PlayerState) : the same player state with a new route in possession, and less cards.
      */
     public PlayerState withClaimedRoute(Route route, SortedBag<Card> claimCards) {
-        List<Route> newRoutes = routes();
-        newRoutes.add(route);
+        Route[] routes = routes().toArray(new Route[routes().size() + 1]);
+        routes[routes.length - 1] = route;
+        List<Route> newRoutes = Collections.unmodifiableList(Arrays.asList(routes));
 
-        return new PlayerState(tickets, cards.difference(claimCards), newRoutes, null);
+        return new PlayerState(tickets, cards.difference(CardBag.of(claimCards)), newRoutes,
+                carCount() - route.length(), claimPoints() + route.claimPoints(), null,
+                null, knownLongestTrail(), connectivity.withConnected(route.station1(), route.station2()));
     }
     
     /**
      * To get the amount of points, eventually negative, obtained by the player thanks to his tickets.
+     * The connectivity of the player's routes being extended each time a route is claimed, it is not rebuilt here.
      * @return ticketPoints (int) : the amount of points obtained by the player.
      */
     public int ticketPoints() {
         int points = 0;
-        int maxId = 0;
-            for (Route route : routes()) {
-                int a = route.station1().id();
-                int b = route.station2().id();
-                if ((a > maxId) || (b > maxId)) {
-                    maxId = Math.max(a, b);
-                }
-            }
-        
-        StationPartition.Builder partitionInBuilding = new StationPartition.Builder(maxId + 1);
-        for (Route route : routes())
-            partitionInBuilding = partitionInBuilding.connect(route.station1(), route.station2());
-        StationPartition partition = partitionInBuilding.build();
-        
         for (Ticket t : tickets)
-            points += t.points(partition);
-        
+            points += t.points(connectivity);
+
         return points;
     }
-    
+
     /**
      * To get the amount of points in total obtained by the player at the end of the game, i. e. the sum
      * of his ticket points and the construction of the routes points.
@@ -211,4 +230,17 @@ public final class PlayerState extends PublicPlayerState {
      */
     public int finalPoints() { return ticketPoints() + claimPoints(); }
     
+    //Helper method used to build the connectivity of the given routes from scratch
+    static StationPartition connectivityOf(List<Route> routes) {
+        int maxId = 0;
+        for (Route route : routes)
+            maxId = Math.max(maxId, Math.max(route.station1().id(), route.station2().id()));
+
+        StationPartition.Builder partitionInBuilding = new StationPartition.Builder(maxId + 1);
+        for (Route route : routes)
+            partitionInBuilding.connect(route.station1(), route.station2());
+
+        return partitionInBuilding.build();
+    }
+
 }
@@ -12,8 +12,15 @@ public class PublicGameState {
     private final int ticketsCount;
     private final PublicCardState cardState;
     private final PlayerId currentPlayerId;
-    private final Map<PlayerId, PublicPlayerState> playerState;
+    // Indexed by PlayerId.ordinal(), null for the identities not taking part in the game. Never modified once built,
+    // so that it can be shared between successive game states.
+    private final PublicPlayerState[] playerState;
+    private final List<PlayerId> allPlayers;
     private final PlayerId lastPlayer;
+    // Routes claimed by the players, carried over from the previous state while none of them claims a route.
+    private final List<Route> claimedRoutes;
+    // Owner of each claimed route, built the first time it is needed (see owners()).
+    private Map<Route, PlayerId> owners;
 
     /**
      * Constructor.
@@ -28,13 +35,34 @@ public class PublicGameState {
      */
     public PublicGameState(int ticketsCount, PublicCardState cardState, PlayerId currentPlayerId, Map<PlayerId,
             PublicPlayerState> playerState, PlayerId lastPlayer) {
+        this(ticketsCount, cardState, currentPlayerId, toArray(playerState), playersOf(playerState), lastPlayer,
+                null);
+    }
+
+    /**
+     * Package-private constructor, sharing the given array and lists instead of copying them.
+     * @param ticketsCount    (int) : size of the deck of tickets.
+     * @param cardState       (PublicCardState) : public state of the cards car/locomotive.
+     * @param currentPlayerId (PlayerId) : current player.
+     * @param playerState     (PublicPlayerState[]) : public state of the players, indexed by PlayerId.ordinal(),
+     *                        which must not be modified afterwards.
+     * @param allPlayers      (List<PlayerId>) : the (unmodifiable) list of the players taking part in the game.
+     * @param lastPlayer      (PlayerId) : identity of the last player.
+     * @param claimedRoutes   (List<Route>) : the (unmodifiable) list of the routes claimed by the players, in the
+     *                        order of claimedRoutes(), null to build it from the player states.
+     */
+    PublicGameState(int ticketsCount, PublicCardState cardState, PlayerId currentPlayerId,
+                    PublicPlayerState[] playerState, List<PlayerId> allPlayers, PlayerId lastPlayer,
+                    List<Route> claimedRoutes) {
         Preconditions.checkArgument(ticketsCount >= 0);
 
         this.ticketsCount = ticketsCount;
         this.cardState = Objects.requireNonNull(cardState);
         this.currentPlayerId = Objects.requireNonNull(currentPlayerId);
-        this.playerState = Map.copyOf(playerState);
+        this.playerState = playerState;
+        this.allPlayers = allPlayers;
         this.lastPlayer = lastPlayer;
+        this.claimedRoutes = claimedRoutes != null ? claimedRoutes : claimedRoutesOf(playerState, allPlayers);
     }
 
     /**
@@ -79,26 +107,36 @@ public class PublicGameState {
      * @param playerId (PlayerId) : the identity of the player of interest.
      * @return playerState (PublicPlayerState) : the public player state of the given player identity.
      */
-    public PublicPlayerState playerState(PlayerId playerId) { return playerState.get(playerId); }
+    public PublicPlayerState playerState(PlayerId playerId) { return playerState[playerId.ordinal()]; }
 
     /**
      * To get the public player state of the current player.
      * @return playerState (PublicPlayerState) : the public player state of the current player.
      */
     public PublicPlayerState currentPlayerState() {
-        return playerState.get(currentPlayerId);
+        return playerState[currentPlayerId.ordinal()];
     }
 
     /**
      * To get the totality of the routes possessed by the two players.
-     * @return claimedRoutes (List<Route>) : the list of the routes possessed by the players.
+     * @return claimedRoutes (List<Route>) : the unmodifiable list of the routes possessed by the players, those of
+     * each player following those of the previous one.
      */
-    public List<Route> claimedRoutes() {
-        List<Route> claimedRoutes = new ArrayList<>();
-        playerState.forEach((k, v) -> claimedRoutes.addAll(v.routes()));
+    public List<Route> claimedRoutes() { return claimedRoutes; }
 
-        return claimedRoutes;
-    }
+    /**
+     * To get the player owning the given route.
+     * @param route (Route) : the route of interest.
+     * @return owner (PlayerId) : the identity of the player owning the route, null if it is not claimed.
+     */
+    public PlayerId ownerOf(Route route) { return owners().get(route); }
+
+    /**
+     * States if the given route is claimed by one of the players.
+     * @param route (Route) : the route of interest.
+     * @return isClaimed (boolean) : true if the route is claimed, false otherwise.
+     */
+    public boolean isClaimed(Route route) { return owners().containsKey(route); }
 
     /**
      * To get the identity of the last player.
@@ -110,6 +148,57 @@ public class PublicGameState {
      * To get the number of players playing the tCHu game.
      * @return number (int) : the number of players.
      */
-    public int numberOfPlayers() { return playerState.size(); }
+    public int numberOfPlayers() { return allPlayers.size(); }
+
+    /**
+     * To get the players taking part in the game, in the order of their identity.
+     * @return allPlayers (List<PlayerId>) : the unmodifiable list of the players.
+     */
+    List<PlayerId> allPlayers() { return allPlayers; }
+
+    //Helper method giving the owner of each claimed route, the index being built once per state: it is immutable, so
+    //that it can be published without synchronization, the worst case being to build it once per thread
+    private Map<Route, PlayerId> owners() {
+        Map<Route, PlayerId> index = owners;
+        if (index == null) {
+            Map<Route, PlayerId> builtIndex = new HashMap<>();
+            for (PlayerId p : allPlayers) {
+                for (Route r : playerState[p.ordinal()].routes())
+                    builtIndex.put(r, p);
+            }
+            index = Map.copyOf(builtIndex);
+            owners = index;
+        }
+
+        return index;
+    }
+
+    //Helper method used to gather the routes claimed by the players, in the order of the players
+    private static List<Route> claimedRoutesOf(PublicPlayerState[] playerState, List<PlayerId> allPlayers) {
+        List<Route> claimedRoutes = new ArrayList<>();
+        for (PlayerId p : allPlayers)
+            claimedRoutes.addAll(playerState[p.ordinal()].routes());
+
+        return Collections.unmodifiableList(claimedRoutes);
+    }
+
+    //Helper method used to store the player states of the map in an array indexed by the identity of the players
+    private static PublicPlayerState[] toArray(Map<PlayerId, ? extends PublicPlayerState> playerState) {
+        PublicPlayerState[] array = new PublicPlayerState[PlayerId.COUNT];
+        playerState.forEach((k, v) -> array[k.ordinal()] = Objects.requireNonNull(v));
+
+        return array;
+    }
+
+    //Helper method used to get the players of the map, in the order of their identity
+    private static List<PlayerId> playersOf(Map<PlayerId, ?> playerState) {
+        List<PlayerId> players = new ArrayList<>();
+        for (PlayerId p : PlayerId.ALL) {
+            if (playerState.containsKey(p))
+                players.add(p);
+        }
+
+        return List.copyOf(players);
+    }
 
 }
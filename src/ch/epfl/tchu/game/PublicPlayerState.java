@@ -1,6 +1,5 @@
 package ch.epfl.tchu.game;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import ch.epfl.tchu.Preconditions;
@@ -16,6 +15,9 @@ public class PublicPlayerState {
     private final int carCount;
     private final int claimPoints;
     private final Trail longestTrail;
+    private Trail currentLongestTrail;
+    // One of the longest trails formed by the routes but the last one, from which the current one is computed.
+    private Trail previousLongestTrail;
     
     /**
      * Constructor.
@@ -27,24 +29,55 @@ public class PublicPlayerState {
      *                                  or if cardCount is strictly smaller than 0.
      */
     public PublicPlayerState(int ticketCount, int cardCount, List<Route> routes, Trail longestTrail) {
+        this(ticketCount, cardCount, routes, longestTrail, null);
+    }
+
+    /**
+     * Constructor used when the current longest trail of the routes is already known.
+     * @param ticketCount (int) : the amount of tickets.
+     * @param cardCount (int) : the amount of cards.
+     * @param routes (List<Route>) : the route the player possesses.
+     * @param longestTrail (Trail) : one of the longest trail of the game that the player possesses (can be null).
+     * @param currentLongestTrail (Trail) : one of the longest trails formed by the routes, or null if it is
+     *                            to be computed when first needed.
+     * @throws IllegalArgumentException if ticketCount is strictly smaller than 0,
+     *                                  or if cardCount is strictly smaller than 0.
+     */
+    PublicPlayerState(int ticketCount, int cardCount, List<Route> routes, Trail longestTrail,
+                      Trail currentLongestTrail) {
+        this(ticketCount, cardCount, List.copyOf(routes), carCountOf(routes), claimPointsOf(routes), longestTrail,
+                currentLongestTrail, null);
+    }
+
+    /**
+     * Constructor used when the totals of the routes are carried over from a previous state, instead of being
+     * computed from all the routes.
+     * @param ticketCount (int) : the amount of tickets.
+     * @param cardCount (int) : the amount of cards.
+     * @param routes (List<Route>) : the route the player possesses, in an unmodifiable list that is not copied.
+     * @param carCount (int) : the amount of remaining cars, given the routes.
+     * @param claimPoints (int) : the total of points the routes are worth.
+     * @param longestTrail (Trail) : one of the longest trail of the game that the player possesses (can be null).
+     * @param currentLongestTrail (Trail) : one of the longest trails formed by the routes, or null if it is
+     *                            to be computed when first needed.
+     * @param previousLongestTrail (Trail) : one of the longest trails formed by the routes but the last one, from
+     *                             which the current one is extended when first needed, or null if it is unknown.
+     * @throws IllegalArgumentException if ticketCount is strictly smaller than 0,
+     *                                  or if cardCount is strictly smaller than 0.
+     */
+    PublicPlayerState(int ticketCount, int cardCount, List<Route> routes, int carCount, int claimPoints,
+                      Trail longestTrail, Trail currentLongestTrail, Trail previousLongestTrail) {
         Preconditions.checkArgument(ticketCount >= 0);
         Preconditions.checkArgument(cardCount >= 0);
 
         this.ticketCount = ticketCount;
         this.cardCount = cardCount;
-        this.routes = List.copyOf(routes);
+        this.routes = routes;
+        this.carCount = carCount;
+        this.claimPoints = claimPoints;
         this.longestTrail = longestTrail;
-
-
-        var carCountBuilder = Constants.INITIAL_CAR_COUNT;
-        var claimPointBuilder = 0;
-            for (Route r : this.routes) {
-                carCountBuilder -= r.length();
-                claimPointBuilder += r.claimPoints();
-            }
-
-        carCount = carCountBuilder;
-        claimPoints = claimPointBuilder;
+        this.currentLongestTrail = currentLongestTrail;
+        this.previousLongestTrail = currentLongestTrail == null ? previousLongestTrail : null;
     }
     
     /**
@@ -65,9 +98,10 @@ public class PublicPlayerState {
     
     /**
      * To get the routes possessed by the player.
-     * @return routes (List<Route>) : the routes of the player.
+     * @return routes (List<Route>) : the routes of the player, in an unmodifiable list shared by the states where
+     * the player has the same routes.
      */
-    public List<Route> routes() { return new ArrayList<>(routes); }
+    public List<Route> routes() { return routes; }
     
     /**
      * To get the player's amount of remaining cars.
@@ -93,4 +127,47 @@ public class PublicPlayerState {
          return longestTrail;
      }
 
+     /**
+      * To get one of the longest trails currently formed by the routes of the player, computed when first asked for:
+      * it is extended from the longest trail before the last claim if that one was known, and searched among all
+      * the routes otherwise.
+      * @return currentLongestTrail (Trail) : one of the longest trails formed by the player's routes (of length 0 if
+      * the player has no routes).
+      */
+     public Trail currentLongestTrail() {
+         if (currentLongestTrail == null) {
+             Trail previous = previousLongestTrail;
+             currentLongestTrail = (previous == null)
+                     ? Trail.longest(routes)
+                     : TrailSearch.extended(previous, routes);
+             previousLongestTrail = null;
+         }
+
+         return currentLongestTrail;
+     }
+
+     //Helper method giving the current longest trail if it is already known, null otherwise
+     Trail knownLongestTrail() { return currentLongestTrail; }
+
+     //Helper method giving the longest trail before the last claim if the current one is still to be extended from it
+     Trail knownPreviousLongestTrail() { return previousLongestTrail; }
+
+    //Helper method giving the amount of cars remaining once the given routes are claimed
+    static int carCountOf(List<Route> routes) {
+        int carCount = Constants.INITIAL_CAR_COUNT;
+        for (Route r : routes)
+            carCount -= r.length();
+
+        return carCount;
+    }
+
+    //Helper method giving the total of points the given routes are worth
+    static int claimPointsOf(List<Route> routes) {
+        int claimPoints = 0;
+        for (Route r : routes)
+            claimPoints += r.claimPoints();
+
+        return claimPoints;
+    }
+
 }
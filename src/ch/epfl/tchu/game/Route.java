@@ -17,6 +17,8 @@ public final class Route {
     private final int length;
     private final Level level;
     private final Color color;
+    private final List<SortedBag<Card>> possibleClaimCards;
+    private final CardBag[] possibleClaimBags;
     
     /**
      * Constructor.
@@ -40,6 +42,11 @@ public final class Route {
         this.length = length;
         this.level = Objects.requireNonNull(level);
         this.color = color;
+
+        this.possibleClaimCards = computePossibleClaimCards();
+        this.possibleClaimBags = new CardBag[possibleClaimCards.size()];
+        for (int i = 0 ; i < possibleClaimBags.length ; i++)
+            possibleClaimBags[i] = CardBag.of(possibleClaimCards.get(i));
     }
 
     /**
@@ -106,9 +113,43 @@ public final class Route {
    /**
     * Returns a list of all the possible card to claim the road.
     * Sorted in ascending order of locomotive then in color.
+    * The list is computed once, when the road is built, and cannot be modified.
     * @return list (List<SortedBag<Card>>) : list of the possible claim cards.
     */
-   public List<SortedBag<Card>> possibleClaimCards() {
+   public List<SortedBag<Card>> possibleClaimCards() { return possibleClaimCards; }
+
+   /**
+    * Returns the possible claim cards of the road that can be taken from the given cards, in the same order as
+    * possibleClaimCards().
+    * @param cards (CardBag) : the cards available.
+    * @return list (List<SortedBag<Card>>) : list of the possible claim cards included in the given cards.
+    */
+   List<SortedBag<Card>> possibleClaimCards(CardBag cards) {
+       List<SortedBag<Card>> list = new ArrayList<>();
+       for (int i = 0 ; i < possibleClaimBags.length ; i++) {
+           if (cards.contains(possibleClaimBags[i]))
+               list.add(possibleClaimCards.get(i));
+       }
+
+       return list;
+   }
+
+   /**
+    * States if at least one of the possible claim cards of the road can be taken from the given cards.
+    * @param cards (CardBag) : the cards available.
+    * @return boolean (Boolean) : true if some possible claim cards are included in the given cards, false otherwise.
+    */
+   boolean canBeClaimedWith(CardBag cards) {
+       for (CardBag b : possibleClaimBags) {
+           if (cards.contains(b))
+               return true;
+       }
+
+       return false;
+   }
+
+   //Helper method computing the list of all the possible claim cards of the road
+   private List<SortedBag<Card>> computePossibleClaimCards() {
        List<SortedBag<Card>> list = new ArrayList<>();
       
        switch (level) {
@@ -138,7 +179,7 @@ public final class Route {
                break;
        }
 
-       return list;
+       return List.copyOf(list);
    }
 
 
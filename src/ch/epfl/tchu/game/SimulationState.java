@@ -0,0 +1,668 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Mutable state of a game, applying the same rules as GameState but in place, for the bots searching ahead.
+ * Every move is recorded in a log of longs, so that it can be undone, the state being then exactly the one it was
+ * before the move. A simulation state is obtained from a game state, and can be turned back into one at any time.
+ */
+public final class SimulationState {
+
+    // A move is recorded as a long holding its kind in the lower bits and its small arguments in the upper ones,
+    // preceded in the log by the bits of a bag of cards (see CardBag.bits()) for the moves needing one.
+    private static final int REMOVED_TOP_TICKETS = 0;
+    private static final int INITIAL_TICKETS = 1;
+    private static final int ADDITIONAL_TICKETS = 2;
+    private static final int FACE_UP_CARD = 3;
+    private static final int BLIND_CARD = 4;
+    private static final int DISCARDED_TOP_CARD = 5;
+    private static final int DECK_RECREATED = 6;
+    private static final int CLAIMED_ROUTE = 7;
+    private static final int NEXT_TURN = 8;
+    private static final int KIND_BITS = 4;
+    private static final int ARGUMENT_BITS = 16;
+    private static final long ARGUMENT_MASK = (1L << ARGUMENT_BITS) - 1;
+
+    private final List<PlayerId> allPlayers;
+
+    private final Ticket[] ticketDeck;
+    private int ticketTop;
+
+    private Card[] deck;
+    private int deckTop;
+    private final Card[] faceUpCards;
+    private long discards;
+    private int discardsSize;
+
+    // Indexed by PlayerId.ordinal().
+    private final long[] cards;
+    private final int[] carCount;
+    private final int[] claimPoints;
+    private final List<List<Ticket>> tickets;
+    private final List<List<Route>> routes;
+    private final Trail[] longestTrails;
+    private final Set<Route> claimedRoutes;
+
+    private PlayerId currentPlayerId;
+    private PlayerId lastPlayer;
+
+    private long[] log;
+    private int logSize;
+    private final List<Card[]> previousDecks;
+
+    /**
+     * To get a simulation state identical to the given game state.
+     * @param gameState (GameState) : the game state to start from.
+     * @return simulationState (SimulationState) : a new simulation state, whose log is empty.
+     */
+    public static SimulationState of(GameState gameState) {
+        List<List<Ticket>> tickets = new ArrayList<>(PlayerId.COUNT);
+        long[] cards = new long[PlayerId.COUNT];
+        for (PlayerId p : PlayerId.ALL) {
+            boolean isPlaying = gameState.allPlayers().contains(p);
+            tickets.add(isPlaying ? gameState.playerState(p).tickets().toList() : List.of());
+            cards[p.ordinal()] = isPlaying ? gameState.playerState(p).cardBag().bits() : 0L;
+        }
+
+        CardState cardState = gameState.cardState();
+
+        return new SimulationState(gameState, gameState.ticketDeck().toList(), cardState.deck().toList(),
+                cardState.discards().bits(), tickets, cards);
+    }
+
+    /**
+     * To get a simulation state compatible with what the given player knows of the game. The cards and tickets the
+     * player cannot see (the ones of the other players, the decks and the discards) are dealt randomly among the
+     * ones that are not visible to him, so that their amounts are the ones of the public game state.
+     * @param gameState (PublicGameState) : the public state of the game.
+     * @param ownId (PlayerId) : the identity of the player.
+     * @param ownState (PlayerState) : the complete state of the player.
+     * @param allTickets (List<Ticket>) : all the tickets of the map.
+     * @param topTickets (SortedBag<Ticket>) : the tickets known to be at the top of the deck of tickets (can be
+     *                   empty), for instance the ones the player drew and has still to choose from.
+     * @param rng (Random) : random number generator used to deal the hidden cards and tickets.
+     * @return simulationState (SimulationState) : a new simulation state, whose log is empty.
+     * @throws IllegalArgumentException if there are not enough hidden cards or tickets to deal.
+     */
+    public static SimulationState determinized(PublicGameState gameState, PlayerId ownId, PlayerState ownState,
+                                               List<Ticket> allTickets, SortedBag<Ticket> topTickets, Random rng) {
+        List<PlayerId> others = new ArrayList<>(gameState.allPlayers());
+        others.remove(ownId);
+
+        CardBag hiddenCardBag = CardBag.of(Constants.ALL_CARDS)
+                .difference(ownState.cardBag())
+                .difference(CardBag.of(SortedBag.of(gameState.cardState().faceUpCards())));
+        List<Card> hiddenCards = hiddenCardBag.toSortedBag().toList();
+        Collections.shuffle(hiddenCards, rng);
+
+        int hiddenCount = gameState.cardState().deckSize() + gameState.cardState().discardsSize();
+        for (PlayerId p : others)
+            hiddenCount += gameState.playerState(p).cardCount();
+        Preconditions.checkArgument(hiddenCount == hiddenCards.size());
+
+        long[] cards = new long[PlayerId.COUNT];
+        cards[ownId.ordinal()] = ownState.cardBag().bits();
+        int dealt = 0;
+        for (PlayerId p : others) {
+            int count = gameState.playerState(p).cardCount();
+            cards[p.ordinal()] = CardBag.of(SortedBag.of(hiddenCards.subList(dealt, dealt + count))).bits();
+            dealt += count;
+        }
+        List<Card> deck = hiddenCards.subList(dealt, dealt + gameState.cardState().deckSize());
+        dealt += deck.size();
+        long discards = CardBag.of(SortedBag.of(hiddenCards.subList(dealt, hiddenCards.size()))).bits();
+
+        List<Ticket> hiddenTickets = SortedBag.of(allTickets)
+                .difference(ownState.tickets())
+                .difference(topTickets)
+                .toList();
+        Collections.shuffle(hiddenTickets, rng);
+
+        List<List<Ticket>> tickets = new ArrayList<>(PlayerId.COUNT);
+        int dealtTickets = 0;
+        for (PlayerId p : PlayerId.ALL) {
+            if (p == ownId) {
+                tickets.add(ownState.tickets().toList());
+            } else if (others.contains(p)) {
+                int count = gameState.playerState(p).ticketCount();
+                Preconditions.checkArgument(dealtTickets + count <= hiddenTickets.size());
+                tickets.add(hiddenTickets.subList(dealtTickets, dealtTickets + count));
+                dealtTickets += count;
+            } else {
+                tickets.add(List.of());
+            }
+        }
+
+        List<Ticket> ticketDeck = new ArrayList<>(topTickets.toList());
+        int remainingCount = gameState.ticketsCount() - topTickets.size();
+        Preconditions.checkArgument(remainingCount >= 0 && dealtTickets + remainingCount <= hiddenTickets.size());
+        ticketDeck.addAll(hiddenTickets.subList(dealtTickets, dealtTickets + remainingCount));
+
+        return new SimulationState(gameState, ticketDeck, deck, discards, tickets, cards);
+    }
+
+    /**
+     * Private constructor, taking the public parts of the state from the given public game state.
+     */
+    private SimulationState(PublicGameState gameState, List<Ticket> ticketDeck, List<Card> deck, long discards,
+                            List<List<Ticket>> tickets, long[] cards) {
+        allPlayers = gameState.allPlayers();
+
+        this.ticketDeck = ticketDeck.toArray(new Ticket[0]);
+        ticketTop = 0;
+
+        this.deck = deck.toArray(new Card[0]);
+        deckTop = 0;
+        faceUpCards = gameState.cardState().faceUpCards().toArray(new Card[0]);
+        this.discards = discards;
+        discardsSize = CardBag.ofBits(discards).size();
+
+        this.cards = cards;
+        carCount = new int[PlayerId.COUNT];
+        claimPoints = new int[PlayerId.COUNT];
+        this.tickets = new ArrayList<>(PlayerId.COUNT);
+        routes = new ArrayList<>(PlayerId.COUNT);
+        longestTrails = new Trail[PlayerId.COUNT];
+        claimedRoutes = new HashSet<>();
+        for (PlayerId p : PlayerId.ALL) {
+            this.tickets.add(new ArrayList<>(tickets.get(p.ordinal())));
+            routes.add(new ArrayList<>());
+            if (allPlayers.contains(p)) {
+                PublicPlayerState playerState = gameState.playerState(p);
+                carCount[p.ordinal()] = playerState.carCount();
+                claimPoints[p.ordinal()] = playerState.claimPoints();
+                routes.get(p.ordinal()).addAll(playerState.routes());
+                longestTrails[p.ordinal()] = playerState.longestTrail();
+                claimedRoutes.addAll(playerState.routes());
+            }
+        }
+
+        currentPlayerId = gameState.currentPlayerId();
+        lastPlayer = gameState.lastPlayer();
+
+        log = new long[64];
+        logSize = 0;
+        previousDecks = new ArrayList<>();
+    }
+
+    /**
+     * To get the game state identical to this simulation state.
+     * @return gameState (GameState) : the corresponding game state.
+     */
+    public GameState toGameState() {
+        PlayerState[] playerStates = new PlayerState[PlayerId.COUNT];
+        for (PlayerId p : allPlayers) {
+            playerStates[p.ordinal()] = new PlayerState(SortedBag.of(tickets.get(p.ordinal())),
+                    CardBag.ofBits(cards[p.ordinal()]).toSortedBag(), routes.get(p.ordinal()),
+                    longestTrails[p.ordinal()]);
+        }
+
+        CardState cardState = new CardState(List.of(faceUpCards),
+                Deck.ofOrdered(Arrays.asList(deck).subList(deckTop, deck.length)), CardBag.ofBits(discards));
+
+        return new GameState(Deck.ofOrdered(Arrays.asList(ticketDeck).subList(ticketTop, ticketDeck.length)),
+                cardState, currentPlayerId, playerStates, allPlayers, lastPlayer, null);
+    }
+
+    /**
+     * To get the players taking part in the game.
+     * @return allPlayers (List<PlayerId>) : the unmodifiable list of the players.
+     */
+    public List<PlayerId> allPlayers() { return allPlayers; }
+
+    /**
+     * To get the current player id.
+     * @return currentPlayerId (PlayerId) : the current player id.
+     */
+    public PlayerId currentPlayerId() { return currentPlayerId; }
+
+    /**
+     * To get the identity of the last player.
+     * @return lastPlayer (PlayerId) : identity of the last player (can be null).
+     */
+    public PlayerId lastPlayer() { return lastPlayer; }
+
+    /**
+     * To get the size of the deck of tickets.
+     * @return ticketsCount (int) : size of the deck of tickets.
+     */
+    public int ticketsCount() { return ticketDeck.length - ticketTop; }
+
+    /**
+     * States if the player can draw tickets.
+     * @return canDrawTickets (boolean) : true if the player can draw tickets, false otherwise.
+     */
+    public boolean canDrawTickets() { return ticketsCount() > 0; }
+
+    /**
+     * To get the deck size.
+     * @return deckSize (int) : the deck size.
+     */
+    public int deckSize() { return deck.length - deckTop; }
+
+    /**
+     * To get the discards size.
+     * @return discardsSize (int) : the discards size.
+     */
+    public int discardsSize() { return discardsSize; }
+
+    /**
+     * States if the player can draw cards, which is the case if the sum of the deck size and the discard size is
+     * more or equal to 5.
+     * @return canDrawCards (boolean) : true if the player can draw cards, false otherwise.
+     */
+    public boolean canDrawCards() { return deckSize() + discardsSize >= 5; }
+
+    /**
+     * To get a certain card from those face up.
+     * @param slot (int) : the slot of interest.
+     * @return card (Card) : the card of the given index from those which are face up.
+     * @throws IndexOutOfBoundsException if slot is not between 0 (inclusive) and
+     *                                      Constants.FACE_UP_CARDS_COUNT (exclusive).
+     */
+    public Card faceUpCard(int slot) {
+        return faceUpCards[Objects.checkIndex(slot, Constants.FACE_UP_CARDS_COUNT)];
+    }
+
+    /**
+     * To get a view of the card at the top of the deck.
+     * @return card (Card) : the top deck card.
+     * @throws IllegalArgumentException if the deck is empty.
+     */
+    public Card topCard() {
+        Preconditions.checkArgument(deckSize() > 0);
+
+        return deck[deckTop];
+    }
+
+    /**
+     * To get the cards of the given player.
+     * @param playerId (PlayerId) : the identity of the player of interest.
+     * @return cards (CardBag) : the player's cards.
+     */
+    public CardBag cards(PlayerId playerId) { return CardBag.ofBits(cards[playerId.ordinal()]); }
+
+    /**
+     * To get the amount of cars the given player has left.
+     * @param playerId (PlayerId) : the identity of the player of interest.
+     * @return carCount (int) : the amount of cars.
+     */
+    public int carCount(PlayerId playerId) { return carCount[playerId.ordinal()]; }
+
+    /**
+     * To get the tickets of the given player.
+     * @param playerId (PlayerId) : the identity of the player of interest.
+     * @return tickets (List<Ticket>) : an unmodifiable view of the player's tickets.
+     */
+    public List<Ticket> tickets(PlayerId playerId) {
+        return Collections.unmodifiableList(tickets.get(playerId.ordinal()));
+    }
+
+    /**
+     * To get the routes of the given player.
+     * @param playerId (PlayerId) : the identity of the player of interest.
+     * @return routes (List<Route>) : an unmodifiable view of the player's routes, in the order they were claimed.
+     */
+    public List<Route> routes(PlayerId playerId) {
+        return Collections.unmodifiableList(routes.get(playerId.ordinal()));
+    }
+
+    /**
+     * States if the given route was claimed by any player.
+     * @param route (Route) : the route of interest.
+     * @return isClaimed (boolean) : true if the route is claimed, false otherwise.
+     */
+    public boolean isClaimed(Route route) { return claimedRoutes.contains(route); }
+
+    /**
+     * To get the amount of points the given player obtained by claiming routes.
+     * @param playerId (PlayerId) : the identity of the player of interest.
+     * @return claimPoints (int) : the amount of points.
+     */
+    public int claimPoints(PlayerId playerId) { return claimPoints[playerId.ordinal()]; }
+
+    /**
+     * To get the amount of points, eventually negative, obtained by the given player thanks to his tickets.
+     * @param playerId (PlayerId) : the identity of the player of interest.
+     * @return ticketPoints (int) : the amount of points.
+     */
+    public int ticketPoints(PlayerId playerId) {
+        StationPartition connectivity = PlayerState.connectivityOf(routes.get(playerId.ordinal()));
+        int points = 0;
+        for (Ticket t : tickets.get(playerId.ordinal()))
+            points += t.points(connectivity);
+
+        return points;
+    }
+
+    /**
+     * To get the amount of points in total obtained by the given player, the longest trail bonus excluded.
+     * @param playerId (PlayerId) : the identity of the player of interest.
+     * @return finalPoints (int) : the sum of the ticket points and of the claim points of the player.
+     */
+    public int finalPoints(PlayerId playerId) { return ticketPoints(playerId) + claimPoints(playerId); }
+
+    /**
+     * States if the current player can claim the route, given his cars and cards (see PlayerState).
+     * @param route (Route) : the route of interest.
+     * @return boolean (Boolean) : true if the current player can claim the route, false otherwise.
+     */
+    public boolean canClaimRoute(Route route) {
+        return route.length() <= carCount[currentPlayerId.ordinal()]
+                && route.canBeClaimedWith(cards(currentPlayerId));
+    }
+
+    /**
+     * To get the possible claim cards of a certain route for the current player (see PlayerState).
+     * @param route (Route) : the route of interest.
+     * @return possibleClaimCards (List<SortedBag<Card>>) : the sets of cards the current player can use to claim
+     * the route.
+     * @throws IllegalArgumentException if the current player has less cars than the route length.
+     */
+    public List<SortedBag<Card>> possibleClaimCards(Route route) {
+        Preconditions.checkArgument(route.length() <= carCount[currentPlayerId.ordinal()]);
+
+        return route.possibleClaimCards(cards(currentPlayerId));
+    }
+
+    /**
+     * To get the possible additional cards the current player can play to claim a tunnel (see PlayerState).
+     * @param additionalCardsCount (int) : the amount of cards the player is forced to play.
+     * @param initialCards (SortedBag<Card>) : the cards already played by the player.
+     * @param drawnCards (SortedBag<Card>) : the cards drawn at the top of the deck.
+     * @return possibleAdditionalCards (List<SortedBag<Card>>) : the sets of cards the player can play.
+     */
+    public List<SortedBag<Card>> possibleAdditionalCards(int additionalCardsCount, SortedBag<Card> initialCards,
+                                                         SortedBag<Card> drawnCards) {
+        PlayerState hand = new PlayerState(SortedBag.of(), cards(currentPlayerId).toSortedBag(), List.of(), null);
+
+        return hand.possibleAdditionalCards(additionalCardsCount, initialCards, drawnCards);
+    }
+
+    /**
+     * States if the last turn begins.
+     * @return lastTurnBegins (Boolean) : true if it's the case, false otherwise.
+     */
+    public boolean lastTurnBegins() {
+        return lastPlayer == null
+                && carCount[currentPlayerId.ordinal()] <= 2;
+    }
+
+    /**
+     * To get the 'count' first ticket(s) at the top of the deck of tickets.
+     * @param count (int) : the number of tickets wanted.
+     * @return topTickets (SortedBag<Ticket>) : the sorted set of 'count' tickets.
+     * @throws IllegalArgumentException if count is not between 0 and the deck of tickets size (both inclusive).
+     */
+    public SortedBag<Ticket> topTickets(int count) {
+        Preconditions.checkArgument(count >= 0 && count <= ticketsCount());
+
+        return SortedBag.of(Arrays.asList(ticketDeck).subList(ticketTop, ticketTop + count));
+    }
+
+    /**
+     * Removes the 'count' top tickets from the deck of tickets (see GameState.withoutTopTickets).
+     * @param count (int) : the number of tickets at the top of the deck to remove.
+     * @throws IllegalArgumentException if count is not between 0 and the deck of tickets size (both inclusive).
+     */
+    public void removeTopTickets(int count) {
+        Preconditions.checkArgument(count >= 0 && count <= ticketsCount());
+
+        ticketTop += count;
+        record(REMOVED_TOP_TICKETS, count, 0);
+    }
+
+    /**
+     * Adds the initially chosen tickets to a player (see GameState.withInitiallyChosenTickets).
+     * @param playerId (PlayerId) : the player we want to add tickets to.
+     * @param chosenTickets (SortedBag<Ticket>) : the tickets the player chose.
+     * @throws IllegalArgumentException if the player possesses already at least one ticket.
+     */
+    public void chooseInitialTickets(PlayerId playerId, SortedBag<Ticket> chosenTickets) {
+        Preconditions.checkArgument(tickets.get(playerId.ordinal()).isEmpty());
+
+        tickets.get(playerId.ordinal()).addAll(chosenTickets.toList());
+        record(INITIAL_TICKETS, playerId.ordinal(), chosenTickets.size());
+    }
+
+    /**
+     * Removes the drawn tickets from the deck of tickets and adds the chosen ones to the current player
+     * (see GameState.withChosenAdditionalTickets).
+     * @param drawnTickets (SortedBag<Ticket>) : the tickets the current player drew.
+     * @param chosenTickets (SortedBag<Ticket>) : the tickets the current player chose.
+     * @throws IllegalArgumentException if the drawn tickets does not contain the chosen ones.
+     */
+    public void chooseAdditionalTickets(SortedBag<Ticket> drawnTickets, SortedBag<Ticket> chosenTickets) {
+        Preconditions.checkArgument(drawnTickets.contains(chosenTickets));
+
+        ticketTop += drawnTickets.size();
+        tickets.get(currentPlayerId.ordinal()).addAll(chosenTickets.toList());
+        record(ADDITIONAL_TICKETS, drawnTickets.size(), chosenTickets.size());
+    }
+
+    /**
+     * Recreates the deck from the shuffled discards if it is empty (see GameState.withCardsDeckRecreatedIfNeeded),
+     * using the random number generator exactly as the game state does.
+     * @param rng (Random) : random number generator.
+     */
+    public void recreateCardsDeckIfNeeded(Random rng) {
+        if (deckSize() > 0)
+            return;
+
+        List<Card> shuffled = CardBag.ofBits(discards).toSortedBag().toList();
+        Collections.shuffle(shuffled, rng);
+
+        previousDecks.add(deck);
+        push(discards);
+        record(DECK_RECREATED, 0, 0);
+        deck = shuffled.toArray(new Card[0]);
+        deckTop = 0;
+        discards = 0L;
+        discardsSize = 0;
+    }
+
+    /**
+     * Gives the face up card of the given slot to the current player, and replaces it by the top deck card
+     * (see GameState.withDrawnFaceUpCard).
+     * @param slot (int) : index of the face up card the player takes.
+     * @throws IllegalArgumentException if the deck is empty.
+     * @throws IndexOutOfBoundsException if slot is not between 0 (inclusive) and
+     *                                      Constants.FACE_UP_CARDS_COUNT (exclusive).
+     */
+    public void drawFaceUpCard(int slot) {
+        Card card = faceUpCard(slot);
+        Preconditions.checkArgument(deckSize() > 0);
+
+        cards[currentPlayerId.ordinal()] += CardBag.bitsOf(card);
+        faceUpCards[slot] = deck[deckTop++];
+        record(FACE_UP_CARD, slot, card.ordinal());
+    }
+
+    /**
+     * Gives the top deck card to the current player (see GameState.withBlindlyDrawnCard).
+     * @throws IllegalArgumentException if the deck is empty.
+     */
+    public void drawBlindCard() {
+        Preconditions.checkArgument(deckSize() > 0);
+
+        cards[currentPlayerId.ordinal()] += CardBag.bitsOf(deck[deckTop++]);
+        record(BLIND_CARD, 0, 0);
+    }
+
+    /**
+     * Moves the top deck card to the discards, as done for the additional cards drawn when claiming a tunnel
+     * (see GameState.withoutTopCard and GameState.withMoreDiscardedCards).
+     * @return card (Card) : the discarded card.
+     * @throws IllegalArgumentException if the deck is empty.
+     */
+    public Card discardTopCard() {
+        Preconditions.checkArgument(deckSize() > 0);
+
+        Card card = deck[deckTop++];
+        discards += CardBag.bitsOf(card);
+        discardsSize += 1;
+        record(DISCARDED_TOP_CARD, 0, 0);
+
+        return card;
+    }
+
+    /**
+     * Makes the current player claim a route, the cards used being added to the discards
+     * (see GameState.withClaimedRoute).
+     * @param route (Route) : the route the current player is claiming.
+     * @param claimCards (SortedBag<Card>) : the cards used to claim the route.
+     * @throws IllegalArgumentException if the current player does not have the given cards.
+     */
+    public void claimRoute(Route route, SortedBag<Card> claimCards) {
+        CardBag used = CardBag.of(claimCards);
+        int current = currentPlayerId.ordinal();
+        Preconditions.checkArgument(cards(currentPlayerId).contains(used));
+
+        cards[current] -= used.bits();
+        discards += used.bits();
+        discardsSize += used.size();
+        routes.get(current).add(route);
+        claimedRoutes.add(route);
+        carCount[current] -= route.length();
+        claimPoints[current] += route.claimPoints();
+        push(used.bits());
+        record(CLAIMED_ROUTE, 0, 0);
+    }
+
+    /**
+     * Finishes the turn of the current player (see GameState.forNextTurn).
+     */
+    public void nextTurn() {
+        int previousLastPlayer = (lastPlayer == null) ? 0 : lastPlayer.ordinal() + 1;
+        record(NEXT_TURN, currentPlayerId.ordinal(), previousLastPlayer);
+
+        if (lastTurnBegins())
+            lastPlayer = currentPlayerId;
+        currentPlayerId = currentPlayerId.next(allPlayers);
+    }
+
+    /**
+     * To get a mark of the current position in the log, to come back to it later with undoTo.
+     * @return mark (int) : the mark of the current position.
+     */
+    public int mark() { return logSize; }
+
+    /**
+     * States if there is a move to undo.
+     * @return canUndo (boolean) : true if at least one move was made since the creation of the state.
+     */
+    public boolean canUndo() { return logSize > 0; }
+
+    /**
+     * Undoes all the moves made since the given mark was taken.
+     * @param mark (int) : a mark obtained from mark().
+     * @throws IllegalArgumentException if the mark is not a position of the log before the current one.
+     */
+    public void undoTo(int mark) {
+        Preconditions.checkArgument(0 <= mark && mark <= logSize);
+
+        while (logSize > mark)
+            undo();
+    }
+
+    /**
+     * Undoes the last move, the state being then exactly the one it was before the move.
+     * @throws IllegalArgumentException if there is no move to undo.
+     */
+    public void undo() {
+        Preconditions.checkArgument(canUndo());
+
+        long move = log[--logSize];
+        int kind = (int) (move & ((1L << KIND_BITS) - 1));
+        int argument1 = (int) ((move >>> KIND_BITS) & ARGUMENT_MASK);
+        int argument2 = (int) ((move >>> (KIND_BITS + ARGUMENT_BITS)) & ARGUMENT_MASK);
+        int current = currentPlayerId.ordinal();
+
+        switch (kind) {
+            case REMOVED_TOP_TICKETS:
+                ticketTop -= argument1;
+                break;
+
+            case INITIAL_TICKETS:
+                removeLast(tickets.get(argument1), argument2);
+                break;
+
+            case ADDITIONAL_TICKETS:
+                ticketTop -= argument1;
+                removeLast(tickets.get(current), argument2);
+                break;
+
+            case FACE_UP_CARD:
+                Card card = Card.ALL.get(argument2);
+                deckTop -= 1;
+                faceUpCards[argument1] = card;
+                cards[current] -= CardBag.bitsOf(card);
+                break;
+
+            case BLIND_CARD:
+                cards[current] -= CardBag.bitsOf(deck[--deckTop]);
+                break;
+
+            case DISCARDED_TOP_CARD:
+                discards -= CardBag.bitsOf(deck[--deckTop]);
+                discardsSize -= 1;
+                break;
+
+            case DECK_RECREATED:
+                discards = log[--logSize];
+                discardsSize = CardBag.ofBits(discards).size();
+                deck = previousDecks.remove(previousDecks.size() - 1);
+                deckTop = deck.length;
+                break;
+
+            case CLAIMED_ROUTE:
+                CardBag used = CardBag.ofBits(log[--logSize]);
+                List<Route> currentRoutes = routes.get(current);
+                Route route = currentRoutes.remove(currentRoutes.size() - 1);
+                claimedRoutes.remove(route);
+                cards[current] += used.bits();
+                discards -= used.bits();
+                discardsSize -= used.size();
+                carCount[current] += route.length();
+                claimPoints[current] -= route.claimPoints();
+                break;
+
+            case NEXT_TURN:
+                currentPlayerId = PlayerId.ALL.get(argument1);
+                lastPlayer = (argument2 == 0) ? null : PlayerId.ALL.get(argument2 - 1);
+                break;
+
+            default:
+                throw new Error();
+        }
+    }
+
+    //Helper method recording a move and its arguments at the end of the log
+    private void record(int kind, int argument1, int argument2) {
+        push(kind | ((long) argument1 << KIND_BITS) | ((long) argument2 << (KIND_BITS + ARGUMENT_BITS)));
+    }
+
+    //Helper method adding a long at the end of the log, enlarging it if needed
+    private void push(long value) {
+        if (logSize == log.length)
+            log = Arrays.copyOf(log, 2 * log.length);
+        log[logSize++] = value;
+    }
+
+    //Helper method removing the given amount of elements at the end of a list
+    private static <E> void removeLast(List<E> list, int count) {
+        list.subList(list.size() - count, list.size()).clear();
+    }
+
+}
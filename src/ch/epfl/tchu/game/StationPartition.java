@@ -9,10 +9,77 @@ import java.util.Arrays;
  */
 public final class StationPartition implements StationConnectivity {
 
-    private final int[] stationDestination;
+    /**
+     * The partition where no station is connected to another one.
+     */
+    static final StationPartition EMPTY = new StationPartition(new int[0], new byte[0], new long[0], 0);
+
+    // The parent of each station in the forest of the subsets, the representative of a subset being its own parent.
+    // The paths are compressed while searching for a representative, which never changes the partition, so that the
+    // racing writes of the threads sharing a partition are harmless.
+    private final int[] stationParents;
+    private final byte[] ranks;
+    // The stations of the subset of each representative, as a bitmask of maskWords longs per station (bit i of word w
+    // being set if station 64 * w + i is part of the subset), the bitmasks of the other stations being meaningless.
+    private final long[] components;
+    private final int maskWords;
+
+    //The arrays are not copied, the caller handing them over
+    private StationPartition(int[] stationParents, byte[] ranks, long[] components, int maskWords) {
+        this.stationParents = stationParents;
+        this.ranks = ranks;
+        this.components = components;
+        this.maskWords = maskWords;
+    }
+
+    /**
+     * To get the number of longs needed by a bitmask of stations whose identities are smaller than stationCount.
+     * @param stationCount (int) : the number of stations.
+     * @return maskWords (int) : the number of longs of the bitmask.
+     */
+    static int maskWords(int stationCount) { return (stationCount + Long.SIZE - 1) / Long.SIZE; }
+
+    /**
+     * To get the same partition, extended so that the two given stations are connected. The representative of the
+     * subset of lower rank is linked to the representative of the other one, whose bitmask becomes the union of both,
+     * and the partition grows if one of the stations is not yet part of it.
+     * @param s1 (Station) : the first station.
+     * @param s2 (Station) : the second station.
+     * @return stationPartition (StationPartition) : the extended partition, this one if the stations were already
+     * connected.
+     */
+    StationPartition withConnected(Station s1, Station s2) {
+        if (connected(s1, s2))
+            return this;
 
-    private StationPartition(int[] integers) {
-        this.stationDestination = integers.clone();
+        int oldSize = stationParents.length;
+        int size = Math.max(oldSize, Math.max(s1.id(), s2.id()) + 1);
+        int[] parents = Arrays.copyOf(stationParents, size);
+        byte[] newRanks = Arrays.copyOf(ranks, size);
+        for (int i = oldSize ; i < size ; i++)
+            parents[i] = i;
+
+        int words = maskWords(size);
+        long[] newComponents;
+        if (words == maskWords) {
+            newComponents = Arrays.copyOf(components, size * words);
+            for (int i = oldSize ; i < size ; i++)
+                newComponents[i * words + i / Long.SIZE] = 1L << i;
+        } else newComponents = computeComponents(parents, words);
+
+        int root1 = find(parents, s1.id());
+        int root2 = find(parents, s2.id());
+        if (newRanks[root1] > newRanks[root2]) {
+            int root = root1;
+            root1 = root2;
+            root2 = root;
+        } else if (newRanks[root1] == newRanks[root2])
+            newRanks[root2] += 1;
+        parents[root1] = root2;
+        for (int i = 0 ; i < words ; i++)
+            newComponents[root2 * words + i] |= newComponents[root1 * words + i];
+
+        return new StationPartition(parents, newRanks, newComponents, words);
     }
 
     /**
@@ -23,16 +90,67 @@ public final class StationPartition implements StationConnectivity {
      */
     @Override
     public boolean connected(Station s1, Station s2) {
-        if (s1.id() < stationDestination.length && s2.id() < stationDestination.length)
-            return stationDestination[s1.id()] == stationDestination[s2.id()];
+        if (s1.id() < stationParents.length && s2.id() < stationParents.length)
+            return find(stationParents, s1.id()) == find(stationParents, s2.id());
         else return s1.id() == s2.id();
     }
 
+    /**
+     * To know if a station is connected to at least one of the stations of a bitmask, using the bitmask of the
+     * subset of the station, i. e. comparing up to 64 stations at once.
+     * @param stationId (int) : the identity of the station we're interested in.
+     * @param stations (long[]) : the bitmasks of stations (see maskWords).
+     * @param offset (int) : the index of the first long of the bitmask of interest in stations.
+     * @param words (int) : the number of longs of the bitmask of interest.
+     * @return boolean (Boolean) : true if the station is connected to one of the stations of the bitmask, false
+     * otherwise.
+     */
+    boolean connectedToAny(int stationId, long[] stations, int offset, int words) {
+        if (stationId >= stationParents.length) {
+            int word = stationId / Long.SIZE;
+            return word < words && (stations[offset + word] & (1L << stationId)) != 0;
+        }
+
+        int start = find(stationParents, stationId) * maskWords;
+        for (int i = 0 ; i < Math.min(words, maskWords) ; i++) {
+            if ((components[start + i] & stations[offset + i]) != 0)
+                return true;
+        }
+
+        return false;
+    }
+
+    //Helper method used to find the representative of the subset that includes station, compressing the path
+    //followed so that every station on it points directly to the representative
+    private static int find(int[] parents, int station) {
+        int root = station;
+        while (parents[root] != root)
+            root = parents[root];
+
+        while (parents[station] != root) {
+            int next = parents[station];
+            parents[station] = root;
+            station = next;
+        }
+
+        return root;
+    }
+
+    //Helper method computing the bitmask of the subset of each representative
+    private static long[] computeComponents(int[] parents, int maskWords) {
+        long[] components = new long[parents.length * maskWords];
+        for (int i = 0 ; i < parents.length ; i++)
+            components[find(parents, i) * maskWords + i / Long.SIZE] |= 1L << i;
+
+        return components;
+    }
+
 
     public static final class Builder {
 
         private final int stationCount;
         private final int[] stationPointers;
+        private final byte[] ranks;
 
         /**
          * Constructor.
@@ -47,38 +165,41 @@ public final class StationPartition implements StationConnectivity {
                 for (int i = 0 ; i < stationCount ; i++) {
                     stationPointers[i] = i;
                 }
+            ranks = new byte[stationCount];
         }
 
         /**
-         * Connects the two stations.
+         * Connects the two stations, the representative of the subset of lower rank being linked to the
+         * representative of the other one.
          * @param s1 (Station) : the first station
          * @param s2 (Station) : the second station
          * @return this (StationPartition.Builder) : the instance previously initialized.
          */
         public Builder connect(Station s1, Station s2) {
-            stationPointers[findDestination(s1.id())] = findDestination(s2.id());
+            int root1 = find(stationPointers, s1.id());
+            int root2 = find(stationPointers, s2.id());
+            if (root1 == root2)
+                return this;
+
+            if (ranks[root1] < ranks[root2]) {
+                stationPointers[root1] = root2;
+            } else {
+                stationPointers[root2] = root1;
+                if (ranks[root1] == ranks[root2])
+                    ranks[root1] += 1;
+            }
 
             return this;
         }
 
         /**
-         * Builds the flattened StationPartition.
+         * Builds the StationPartition.
          * @return stationPartition (StationPartition) : the built station partition.
          */
         public StationPartition build() {
-            for (int i = 0 ; i < stationCount ; i++) {
-                stationPointers[i] = findDestination(i);
-            }
-
-            return new StationPartition(stationPointers);
-        }
-
-        //Helper method used to find the representative of the subset that includes station
-        private int findDestination(int station) {
-            while (stationPointers[station] != station)
-                station = stationPointers[station];
-
-            return station;
+            int[] parents = stationPointers.clone();
+            int maskWords = maskWords(stationCount);
+            return new StationPartition(parents, ranks.clone(), computeComponents(parents, maskWords), maskWords);
         }
 
     }
@@ -1,5 +1,7 @@
 package ch.epfl.tchu.game;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.TreeSet;
 import ch.epfl.tchu.Preconditions;
@@ -12,6 +14,15 @@ public final class Ticket implements Comparable<Ticket> {
     
     private final List<Trip> trips;
     private final String text;
+
+    // Compiled form of the trips, grouped by departure station and amount of points, in decreasing order of points:
+    // the departure station and the points of each group, and the bitmask of its arrival stations (see
+    // StationPartition.maskWords), of maskWords longs per group.
+    private final int[] groupFroms;
+    private final int[] groupPoints;
+    private final long[] groupDestinations;
+    private final int maskWords;
+    private final int minPoints;
     
     /**
      * Primary constructor.
@@ -25,6 +36,36 @@ public final class Ticket implements Comparable<Ticket> {
         
         this.trips = List.copyOf(trips);
         this.text = computeText(trips);
+
+        List<Trip> sorted = new ArrayList<>(trips);
+        sorted.sort(Comparator.comparingInt((Trip t) -> t.points()).reversed()
+                .thenComparingInt(t -> t.from().id()));
+        int maxId = 0;
+        int min = Integer.MAX_VALUE;
+        int groupCount = 0;
+        for (int i = 0 ; i < sorted.size() ; i++) {
+            Trip t = sorted.get(i);
+            maxId = Math.max(maxId, t.to().id());
+            min = Math.min(min, t.points());
+            if (i == 0 || !sameGroup(sorted.get(i - 1), t))
+                groupCount += 1;
+        }
+
+        this.maskWords = StationPartition.maskWords(maxId + 1);
+        this.minPoints = min;
+        this.groupFroms = new int[groupCount];
+        this.groupPoints = new int[groupCount];
+        this.groupDestinations = new long[groupCount * maskWords];
+        int group = -1;
+        for (int i = 0 ; i < sorted.size() ; i++) {
+            Trip t = sorted.get(i);
+            if (i == 0 || !sameGroup(sorted.get(i - 1), t)) {
+                group += 1;
+                groupFroms[group] = t.from().id();
+                groupPoints[group] = t.points();
+            }
+            groupDestinations[group * maskWords + t.to().id() / Long.SIZE] |= 1L << t.to().id();
+        }
     }
     
     /**
@@ -45,12 +86,23 @@ public final class Ticket implements Comparable<Ticket> {
         return text;
     }
 
+    /**
+     * To get the trips of the ticket.
+     * @return trips (List<Trip>) : the unmodifiable list of the trips of the ticket.
+     */
+    public List<Trip> trips() {
+        return trips;
+    }
+
     /**
      * Tells how much points the ticket is currently worth.
      * @param connectivity (StationConnectivity) : the connectivity is the one of the player owning the ticket.
      * @return points (int) : the ticket's amount of point.
      */
     public int points(StationConnectivity connectivity) {
+        if (connectivity instanceof StationPartition)
+            return points((StationPartition) connectivity);
+
         int max = 0;
         int min = Integer.MAX_VALUE;
         int points ;
@@ -70,6 +122,22 @@ public final class Ticket implements Comparable<Ticket> {
         return points;
     }
 
+    //Helper method stating if two trips have the same departure station and amount of points
+    private static boolean sameGroup(Trip t1, Trip t2) {
+        return t1.points() == t2.points() && t1.from().id() == t2.from().id();
+    }
+
+    //Helper method computing the points of the ticket with the compiled trips, the groups being sorted by decreasing
+    //points so that the first group connected gives the points
+    private int points(StationPartition partition) {
+        for (int g = 0 ; g < groupFroms.length ; g++) {
+            if (partition.connectedToAny(groupFroms[g], groupDestinations, g * maskWords, maskWords))
+                return groupPoints[g];
+        }
+
+        return -minPoints;
+    }
+
     /**
      * Helper method used to compute the text of the ticket.
      * @return text (String) : the text of the ticket.
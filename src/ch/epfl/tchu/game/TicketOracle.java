@@ -0,0 +1,323 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * Immutable view of the map from the point of view of one player, telling the minimum amount of cars the player
+ * still needs to complete a ticket, given the routes it owns (which cost nothing) and the routes it cannot claim
+ * anymore (which are removed from the map).
+ *
+ * The cheapest way to link the stations of a trip is searched with Dijkstra's algorithm on the compiled map, from all
+ * the stations already connected to its departure by the player's routes (given by the player's station partition).
+ * The answers are memoized per ticket, for the routes owned and removed of the view. The views obtained from a view
+ * by claiming a route keep the answers the route cannot change: the ones whose cheapest way does not use a newly
+ * removed route, and, when the player claims a route of a cheapest way, the ones it shortens by its length (no other
+ * way can be shortened more).
+ */
+public final class TicketOracle {
+
+    /**
+     * The amount of cars needed for a ticket that cannot be completed anymore.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final CompiledMap map;
+    // Bitmasks of route ordinals.
+    private final long[] owned;
+    private final long[] removed;
+    private final StationPartition connectivity;
+    private final Map<Ticket, Answer> answers;
+
+    /**
+     * To get the view of a player owning no routes, on a map where no route is claimed.
+     * @param map (CompiledMap) : the compiled map of the game.
+     * @return oracle (TicketOracle) : the view of the player.
+     */
+    public static TicketOracle of(CompiledMap map) {
+        int words = (map.routeCount() + Long.SIZE - 1) / Long.SIZE;
+        return new TicketOracle(map, new long[words], new long[words], StationPartition.EMPTY,
+                new ConcurrentHashMap<>());
+    }
+
+    /**
+     * To get the view of a player.
+     * @param map (CompiledMap) : the compiled map of the game.
+     * @param ownedRoutes (Collection<Route>) : the routes the player owns.
+     * @param removedRoutes (Collection<Route>) : the routes the player cannot claim anymore (claimed by the other
+     * players, or parallel to a claimed route when the rules forbid to claim it).
+     * @return oracle (TicketOracle) : the view of the player.
+     * @throws IllegalArgumentException if one of the routes is not part of the map, or is both owned and removed.
+     */
+    public static TicketOracle of(CompiledMap map, Collection<Route> ownedRoutes, Collection<Route> removedRoutes) {
+        TicketOracle oracle = of(map);
+        for (Route r : ownedRoutes) {
+            int ordinal = ordinalIn(map, r);
+            oracle.owned[ordinal / Long.SIZE] |= 1L << ordinal;
+        }
+        for (Route r : removedRoutes) {
+            int ordinal = ordinalIn(map, r);
+            Preconditions.checkArgument(!isSet(oracle.owned, ordinal));
+            oracle.removed[ordinal / Long.SIZE] |= 1L << ordinal;
+        }
+
+        StationPartition connectivity = StationPartition.EMPTY;
+        for (Route r : ownedRoutes)
+            connectivity = connectivity.withConnected(r.station1(), r.station2());
+
+        return new TicketOracle(map, oracle.owned, oracle.removed, connectivity, oracle.answers);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private TicketOracle(CompiledMap map, long[] owned, long[] removed, StationPartition connectivity,
+                         Map<Ticket, Answer> answers) {
+        this.map = map;
+        this.owned = owned;
+        this.removed = removed;
+        this.connectivity = connectivity;
+        this.answers = answers;
+    }
+
+    /**
+     * To get the view once the player claimed a route, keeping the answers the route does not change.
+     * @param route (Route) : the route claimed by the player.
+     * @return oracle (TicketOracle) : the new view.
+     * @throws IllegalArgumentException if the route is not part of the map, or is owned or removed already.
+     */
+    public TicketOracle withOwnedRoute(Route route) {
+        int ordinal = ordinalIn(map, route);
+        Preconditions.checkArgument(!isSet(owned, ordinal) && !isSet(removed, ordinal));
+
+        Map<Ticket, Answer> newAnswers = new ConcurrentHashMap<>();
+        answers.forEach((ticket, answer) -> {
+            if (answer.cars == 0 || answer.cars == UNREACHABLE)
+                newAnswers.put(ticket, answer);
+            else if (isSet(answer.path, ordinal))
+                newAnswers.put(ticket, answer.without(ordinal, map.length(ordinal)));
+        });
+
+        return new TicketOracle(map, with(owned, ordinal), removed,
+                connectivity.withConnected(route.station1(), route.station2()), newAnswers);
+    }
+
+    /**
+     * To get the view once the player cannot claim a route anymore, keeping the answers the route does not change.
+     * @param route (Route) : the route removed, because another player claimed it or because it is parallel to a
+     * claimed route.
+     * @return oracle (TicketOracle) : the new view, this one if the route was already removed.
+     * @throws IllegalArgumentException if the route is not part of the map, or is owned by the player.
+     */
+    public TicketOracle withRemovedRoute(Route route) {
+        int ordinal = ordinalIn(map, route);
+        Preconditions.checkArgument(!isSet(owned, ordinal));
+        if (isSet(removed, ordinal))
+            return this;
+
+        Map<Ticket, Answer> newAnswers = new ConcurrentHashMap<>();
+        answers.forEach((ticket, answer) -> {
+            if (!isSet(answer.path, ordinal))
+                newAnswers.put(ticket, answer);
+        });
+
+        return new TicketOracle(map, owned, with(removed, ordinal), connectivity, newAnswers);
+    }
+
+    /**
+     * To get the minimum amount of cars the player still needs to complete a ticket, i. e. to connect the stations of
+     * one of its trips.
+     * @param ticket (Ticket) : the ticket of interest.
+     * @return cars (int) : the total length of the routes the player still needs to claim, 0 if the ticket is
+     * completed, UNREACHABLE if it cannot be completed anymore.
+     */
+    public int carsNeeded(Ticket ticket) { return answer(ticket).cars; }
+
+    /**
+     * To get the routes of one of the cheapest ways to complete a ticket.
+     * @param ticket (Ticket) : the ticket of interest.
+     * @return routes (List<Route>) : the routes the player still needs to claim, in the order of their ordinal, empty
+     * if the ticket is completed or cannot be completed anymore.
+     */
+    public List<Route> routesToClaim(Ticket ticket) {
+        long[] path = answer(ticket).path;
+        List<Route> routes = new ArrayList<>();
+        for (int w = 0 ; w < path.length ; w++) {
+            for (long bits = path[w] ; bits != 0 ; bits &= bits - 1)
+                routes.add(map.route(w * Long.SIZE + Long.numberOfTrailingZeros(bits)));
+        }
+
+        return routes;
+    }
+
+    //Helper method giving the memoized answer for a ticket, computing it if needed
+    private Answer answer(Ticket ticket) {
+        Answer answer = answers.get(ticket);
+        if (answer == null) {
+            answer = search(ticket);
+            answers.putIfAbsent(ticket, answer);
+        }
+
+        return answer;
+    }
+
+    //Helper method searching the cheapest way to complete a ticket, one search being done per departure station
+    private Answer search(Ticket ticket) {
+        int stationCount = map.stationCount();
+        int[] distances = new int[stationCount];
+        int[] previousRoutes = new int[stationCount];
+        Answer best = new Answer(UNREACHABLE, new long[owned.length]);
+        Station searchedFrom = null;
+
+        for (Trip trip : ticket.trips()) {
+            if (connectivity.connected(trip.from(), trip.to()))
+                return new Answer(0, new long[owned.length]);
+
+            int to = map.ordinal(trip.to());
+            if (to < 0 || map.ordinal(trip.from()) < 0)
+                continue;
+            if (!trip.from().equals(searchedFrom)) {
+                dijkstra(trip.from(), distances, previousRoutes);
+                searchedFrom = trip.from();
+            }
+            if (distances[to] < best.cars)
+                best = new Answer(distances[to], path(to, previousRoutes));
+        }
+
+        return best;
+    }
+
+    //Helper method computing the distances of all the stations from the ones connected to the given one, the owned
+    //routes costing nothing and the removed ones being ignored
+    private void dijkstra(Station from, int[] distances, int[] previousRoutes) {
+        int stationCount = map.stationCount();
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(previousRoutes, -1);
+        // Binary heap of the stations to visit, each entry being the distance in the upper half and the station in
+        // the lower one. A station is added again when its distance decreases, its outdated entries being skipped.
+        long[] heap = new long[stationCount + 2 * map.routeCount()];
+        int heapSize = 0;
+        for (int s = 0 ; s < stationCount ; s++) {
+            if (connectivity.connected(map.station(s), from)) {
+                distances[s] = 0;
+                heapSize = push(heap, heapSize, s);
+            }
+        }
+
+        while (heapSize > 0) {
+            long entry = heap[0];
+            heapSize = pop(heap, heapSize);
+            int station = (int) entry;
+            int distance = (int) (entry >>> Integer.SIZE);
+            if (distance > distances[station])
+                continue;
+
+            for (int h = map.adjacencyStart(station) ; h < map.adjacencyStart(station + 1) ; h++) {
+                int route = map.adjacentRoute(h);
+                if (isSet(removed, route))
+                    continue;
+                int target = map.adjacentStation(h);
+                int newDistance = distance + (isSet(owned, route) ? 0 : map.length(route));
+                if (newDistance < distances[target]) {
+                    distances[target] = newDistance;
+                    previousRoutes[target] = route;
+                    heapSize = push(heap, heapSize, ((long) newDistance << Integer.SIZE) | target);
+                }
+            }
+        }
+    }
+
+    //Helper method giving the bitmask of the routes to claim on the way found to a station
+    private long[] path(int station, int[] previousRoutes) {
+        long[] path = new long[owned.length];
+        while (previousRoutes[station] >= 0) {
+            int route = previousRoutes[station];
+            if (!isSet(owned, route))
+                path[route / Long.SIZE] |= 1L << route;
+            station = (map.station1(route) == station) ? map.station2(route) : map.station1(route);
+        }
+
+        return path;
+    }
+
+    //Helper method adding an entry to a binary heap, giving its new size
+    private static int push(long[] heap, int size, long entry) {
+        int i = size;
+        while (i > 0 && heap[(i - 1) / 2] > entry) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = entry;
+
+        return size + 1;
+    }
+
+    //Helper method removing the smallest entry of a binary heap, giving its new size
+    private static int pop(long[] heap, int size) {
+        long last = heap[--size];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child])
+                child += 1;
+            if (heap[child] >= last)
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+
+        return size;
+    }
+
+    //Helper method giving the ordinal of a route, checking it is part of the map
+    private static int ordinalIn(CompiledMap map, Route route) {
+        int ordinal = map.ordinal(route);
+        Preconditions.checkArgument(ordinal >= 0);
+
+        return ordinal;
+    }
+
+    //Helper method stating if a route is part of a bitmask
+    private static boolean isSet(long[] mask, int ordinal) {
+        return (mask[ordinal / Long.SIZE] & (1L << ordinal)) != 0;
+    }
+
+    //Helper method giving a copy of a bitmask where a route is added
+    private static long[] with(long[] mask, int ordinal) {
+        long[] copy = mask.clone();
+        copy[ordinal / Long.SIZE] |= 1L << ordinal;
+
+        return copy;
+    }
+
+    /**
+     * Cheapest way found to complete a ticket: its amount of cars, and the bitmask of the routes still to claim.
+     */
+    private static final class Answer {
+
+        private final int cars;
+        private final long[] path;
+
+        private Answer(int cars, long[] path) {
+            this.cars = cars;
+            this.path = path;
+        }
+
+        //Helper method giving the same way, where the given route of the way was claimed
+        private Answer without(int ordinal, int length) {
+            long[] newPath = path.clone();
+            newPath[ordinal / Long.SIZE] &= ~(1L << ordinal);
+
+            return new Answer(cars - length, newPath);
+        }
+
+    }
+
+}
@@ -1,7 +1,5 @@
 package ch.epfl.tchu.game;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /** 
@@ -23,38 +21,7 @@ public final class Trail {
         if (routes.isEmpty())
             return new Trail(null,null,null,0);
 
-        Trail longestTrail = new Trail(Collections.singletonList(routes.get(0)), routes.get(0).station1(),
-                routes.get(0).station2());
-        List<Trail> cs = new ArrayList<>();
-        List<Trail> rs = new ArrayList<>();
-
-        for (Route r : routes) {
-            cs.add(new Trail(Collections.singletonList(r), r.station1(), r.station2()));
-            cs.add(new Trail(Collections.singletonList(r), r.station2(), r.station1()));
-            rs.add(new Trail(Collections.singletonList(r), r.station1(), r.station2()));
-            rs.add(new Trail(Collections.singletonList(r), r.station2(), r.station1()));
-        }
-
-        while (!cs.isEmpty()) {
-            List<Trail> cs2 = new ArrayList<>();
-
-            for (Trail c : cs) {
-                for (Trail trail : rs) {
-                    if ((c.station2().id() == trail.station1().id()) && (!c.routes.contains(trail.routes.get(0)))) {
-                        List<Route> routes1 = new ArrayList<>(c.routes);
-                        routes1.add(trail.routes.get(0));
-                        cs2.add(new Trail(routes1, c.station1, trail.station2()));
-                    }
-                }
-
-                if (c.length() > longestTrail.length())
-                    longestTrail = new Trail(c.routes, c.station1, c.station2);
-            }
-
-            cs = cs2;
-        }
-
-        return longestTrail;
+        return new TrailSearch(routes).longest();
     }
 
     /**
@@ -0,0 +1,211 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Depth-first search of the longest trail that can be formed from a list of routes.
+ * Routes are handled through their index in the list, the routes already used by the trail in construction being
+ * marked in a bitset of longs, so that the search itself does not allocate anything. Only the winning trail is
+ * turned into a Trail object.
+ */
+final class TrailSearch {
+
+    private final List<Route> routes;
+    private final Station[] stations;
+    private final int[] lengths;
+
+    // Adjacency of the stations (compressed): the half-routes leaving the station of index s are the ones between
+    // adjacencyStart[s] (inclusive) and adjacencyStart[s + 1] (exclusive).
+    private final int[] adjacencyStart;
+    private final int[] adjacencyRoute;
+    private final int[] adjacencyTarget;
+
+    private final int totalLength;
+    private final long[] used;
+    private final int[] path;
+    private final int[] bestPath;
+    private int bestDepth;
+    private int bestLength;
+    private int bestStart;
+    private int bestEnd;
+    private int start;
+
+    /**
+     * Constructor.
+     * @param routes (List<Route>) : the routes the trails can be formed from.
+     */
+    TrailSearch(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+        int routeCount = this.routes.size();
+
+        int maxId = 0;
+        for (Route r : this.routes)
+            maxId = Math.max(maxId, Math.max(r.station1().id(), r.station2().id()));
+
+        int[] stationIndex = new int[maxId + 1];
+        Station[] stationsBuilder = new Station[2 * routeCount];
+        int stationCount = 0;
+        int[] ends = new int[2 * routeCount];
+        for (int i = 0 ; i < routeCount ; i++) {
+            Route r = this.routes.get(i);
+            for (int side = 0 ; side < 2 ; side++) {
+                Station s = (side == 0) ? r.station1() : r.station2();
+                if (stationIndex[s.id()] == 0) {
+                    stationsBuilder[stationCount] = s;
+                    stationIndex[s.id()] = ++stationCount;
+                }
+                ends[2 * i + side] = stationIndex[s.id()] - 1;
+            }
+        }
+
+        stations = new Station[stationCount];
+        System.arraycopy(stationsBuilder, 0, stations, 0, stationCount);
+
+        adjacencyStart = new int[stationCount + 1];
+        for (int end : ends)
+            adjacencyStart[end + 1] += 1;
+        for (int s = 0 ; s < stationCount ; s++)
+            adjacencyStart[s + 1] += adjacencyStart[s];
+
+        adjacencyRoute = new int[2 * routeCount];
+        adjacencyTarget = new int[2 * routeCount];
+        int[] fill = new int[stationCount];
+        for (int i = 0 ; i < 2 * routeCount ; i++) {
+            int from = ends[i];
+            int slot = adjacencyStart[from] + fill[from]++;
+            adjacencyRoute[slot] = i / 2;
+            adjacencyTarget[slot] = ends[i ^ 1];
+        }
+
+        lengths = new int[routeCount];
+        int totalLengthBuilder = 0;
+        for (int i = 0 ; i < routeCount ; i++) {
+            lengths[i] = this.routes.get(i).length();
+            totalLengthBuilder += lengths[i];
+        }
+        totalLength = totalLengthBuilder;
+
+        used = new long[(routeCount + 63) / 64];
+        path = new int[routeCount];
+        bestPath = new int[routeCount];
+    }
+
+    /**
+     * Computes one of the longest trails that can be formed from the given routes, knowing one of the longest trails
+     * formed by the same routes without the last one. The new longest trail is either the previous one or a trail
+     * using the new route, so the search is restricted to the routes connected to the new one, and skipped entirely
+     * when these routes are not long enough to beat the previous trail.
+     * @param previous (Trail) : one of the longest trails formed by the routes, the last one excluded.
+     * @param routes (List<Route>) : the routes, the last one being the newly added route.
+     * @return longest (Trail) : one of the longest trails formed by all the routes.
+     */
+    static Trail extended(Trail previous, List<Route> routes) {
+        Route added = routes.get(routes.size() - 1);
+        List<Route> component = new ArrayList<>();
+        component.add(added);
+        int componentLength = added.length();
+
+        int maxId = 0;
+        for (Route r : routes)
+            maxId = Math.max(maxId, Math.max(r.station1().id(), r.station2().id()));
+
+        // Lists the half-routes leaving every station: the first one in first[id], the following ones in next.
+        int routeCount = routes.size();
+        int[] first = new int[maxId + 1];
+        Arrays.fill(first, -1);
+        int[] next = new int[2 * routeCount];
+        for (int i = 0 ; i < 2 * routeCount ; i++) {
+            Route r = routes.get(i / 2);
+            int id = (i % 2 == 0) ? r.station1().id() : r.station2().id();
+            next[i] = first[id];
+            first[id] = i;
+        }
+
+        // Grows the connected component of the added route from its stations, each route being visited once.
+        boolean[] reached = new boolean[maxId + 1];
+        boolean[] inComponent = new boolean[routeCount];
+        int[] toVisit = new int[maxId + 1];
+        int toVisitCount = 0;
+        inComponent[routeCount - 1] = true;
+        for (Station s : added.stations()) {
+            if (!reached[s.id()]) {
+                reached[s.id()] = true;
+                toVisit[toVisitCount++] = s.id();
+            }
+        }
+        while (toVisitCount > 0) {
+            int id = toVisit[--toVisitCount];
+            for (int i = first[id] ; i >= 0 ; i = next[i]) {
+                if (inComponent[i / 2])
+                    continue;
+                Route r = routes.get(i / 2);
+                inComponent[i / 2] = true;
+                component.add(r);
+                componentLength += r.length();
+                int otherId = (i % 2 == 0) ? r.station2().id() : r.station1().id();
+                if (!reached[otherId]) {
+                    reached[otherId] = true;
+                    toVisit[toVisitCount++] = otherId;
+                }
+            }
+        }
+
+        if (componentLength <= previous.length())
+            return previous;
+
+        Trail candidate = new TrailSearch(component).longest();
+
+        return candidate.length() > previous.length()
+                ? candidate
+                : previous;
+    }
+
+    /**
+     * Computes one of the longest trails that can be formed from the routes.
+     * @return longest (Trail) : the longest trail, or null if there are no routes.
+     */
+    Trail longest() {
+        if (routes.isEmpty())
+            return null;
+
+        bestDepth = 0;
+        bestLength = 0;
+        for (start = 0 ; start < stations.length && bestLength < totalLength ; start++)
+            explore(start, 0, 0);
+
+        List<Route> trailRoutes = new ArrayList<>(bestDepth);
+        for (int i = 0 ; i < bestDepth ; i++)
+            trailRoutes.add(routes.get(bestPath[i]));
+
+        return new Trail(trailRoutes, stations[bestStart], stations[bestEnd]);
+    }
+
+    //Helper method extending, in every possible way, the trail currently in path that ends at the given station
+    private void explore(int station, int depth, int length) {
+        if (length > bestLength) {
+            bestLength = length;
+            bestDepth = depth;
+            bestStart = start;
+            bestEnd = station;
+            System.arraycopy(path, 0, bestPath, 0, depth);
+        }
+
+        for (int slot = adjacencyStart[station] ; slot < adjacencyStart[station + 1] ; slot++) {
+            if (bestLength == totalLength)
+                return;
+
+            int route = adjacencyRoute[slot];
+            long bit = 1L << route;
+            if ((used[route >>> 6] & bit) != 0)
+                continue;
+
+            used[route >>> 6] |= bit;
+            path[depth] = route;
+            explore(adjacencyTarget[slot], depth + 1, length + lengths[route]);
+            used[route >>> 6] &= ~bit;
+        }
+    }
+
+}
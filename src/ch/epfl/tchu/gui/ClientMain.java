@@ -2,6 +2,7 @@ package ch.epfl.tchu.gui;
 
 import java.util.List;
 
+import ch.epfl.tchu.net.ExecutionModel;
 import ch.epfl.tchu.net.RemoteChatClient;
 import ch.epfl.tchu.net.RemotePlayerClient;
 import javafx.application.Application;
@@ -67,10 +68,9 @@ public final class ClientMain extends Application {
         playerAdapter.setChatSystem(chatClient);
         RemotePlayerClient playerClient = new RemotePlayerClient(playerAdapter, hostName, port);
 
-        new Thread(() -> chatClient.run()).start();
-        Thread gameThread = new Thread(() -> playerClient.run());
-        gameThread.setDaemon(true);
-        gameThread.start();
+        // The game and the chat wait for the server on their own thread, virtual when available.
+        ExecutionModel.DEFAULT.start("chat", chatClient::run);
+        ExecutionModel.DEFAULT.start("game", playerClient::run);
         
     }
 
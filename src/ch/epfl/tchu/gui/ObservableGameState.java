@@ -90,13 +90,7 @@ public final class ObservableGameState {
             Card newCard = publicGameState.cardState().faceUpCard(slot);
             faceUpCards.get(slot).set(newCard);
         }
-        for (Route r : publicGameState.claimedRoutes()) {
-            var identity = PlayerId.PLAYER_1;
-            while (!publicGameState.playerState(identity).routes().contains(r)) {
-                identity = identity.next(allPlayers);
-            }
-            routes.get(r).set(identity);
-        }
+        routes.forEach((r, owner) -> owner.set(publicGameState.ownerOf(r)));
 
         // Properties of the public player state of each player
         for (PlayerId p : allPlayers) {
@@ -113,28 +107,20 @@ public final class ObservableGameState {
             cards.get(c).set(playerState.cards().countOf(c));
         claimable.forEach((r, p) -> claimable.get(r).set(false));
         if (publicGameState.currentPlayerId() == ownId) {
-            Set<List<Station>> stationsPair = new HashSet<List<Station>>();
-            if (allPlayers.size() == 2) {
-                routes.forEach((r, p) -> {
-                    if (p.get() != null)
-                        stationsPair.add(r.stations());
-                });
-                UsaMap.routes().forEach(r -> {
-                    if (newPlayerState.canClaimRoute(r))
-                        if (!stationsPair.contains(r.stations()))
-                            claimable.get(r).set(true);
-                });
-            } else {
-                routes.forEach((r, p) -> {
-                    if (p.get() == ownId)
-                        stationsPair.add(r.stations());
-                });
-                UsaMap.routes().forEach(r -> {
-                    if (routes.get(r).get() == null)
-                        if (newPlayerState.canClaimRoute(r))
-                            if (!stationsPair.contains(r.stations()))
-                                claimable.get(r).set(true);
-                });
+            // In a two-player game, a route cannot be claimed if a parallel one is claimed, and a player can never
+            // claim two parallel routes.
+            CompiledMap map = CompiledMap.usa();
+            for (Route r : map.routes()) {
+                if (publicGameState.isClaimed(r) || !newPlayerState.canClaimRoute(r))
+                    continue;
+
+                boolean isForbidden = false;
+                for (Route parallel : map.parallelRoutes(r)) {
+                    if (allPlayers.size() == 2 ? publicGameState.isClaimed(parallel)
+                            : publicGameState.ownerOf(parallel) == ownId)
+                        isForbidden = true;
+                }
+                claimable.get(r).set(!isForbidden);
             }
         }
 
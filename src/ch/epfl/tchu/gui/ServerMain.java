@@ -8,6 +8,7 @@ import java.util.*;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.*;
+import ch.epfl.tchu.net.ExecutionModel;
 import ch.epfl.tchu.net.RemoteChatProxy;
 import ch.epfl.tchu.net.RemotePlayerProxy;
 import javafx.application.Application;
@@ -72,23 +73,23 @@ public final class ServerMain extends Application {
             RemoteChatProxy chatProxy = new RemoteChatProxy(player1);
             player1.setChatSystem(chatProxy);
 
-            new Thread(() -> {
+            // Every chat client and the game wait on their own thread, virtual when available.
+            ExecutionModel threads = ExecutionModel.DEFAULT;
+            threads.start("chat-server", () -> {
                 while (true) {
                     try {
                         Socket socket = socketChat.accept();
-                        new Thread(() -> {
+                        threads.start("chat", () -> {
                             chatProxy.addClient(socket);
                             chatProxy.startReading(socket);
-                        }).start();
+                        });
                     } catch (IOException e) {
                         throw new UncheckedIOException(e);
                     }
                 }
-            }).start();
+            });
 
-            Thread gameThread = new Thread(() -> Game.play(players, playerNames, SortedBag.of(UsaMap.tickets()), new Random()));
-            gameThread.setDaemon(true);
-            gameThread.start();
+            threads.start("game", () -> Game.play(players, playerNames, SortedBag.of(UsaMap.tickets()), new Random()));
 
         } catch (IOException e) {
             throw new UncheckedIOException(e);
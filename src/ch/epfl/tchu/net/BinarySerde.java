@@ -0,0 +1,187 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A binary serde, which is an object capable of (de)serializing values of a given type to and from bytes, the
+ * counterpart of Serde for the binary protocol. Integers are written as varints (seven bits per byte, the highest
+ * bit telling if another byte follows) and the values of a list as their index in it, so that the values of the
+ * game mostly take one byte each.
+ * @param <E> : type of the elements the serde is able to (de)serialize.
+ */
+public interface BinarySerde<E> {
+
+    /**
+     * To serialize an object, appending its bytes to the given ones.
+     * @param object <E> : object which is to be serialized.
+     * @param out (ByteArrayOutputStream) : the bytes the object is appended to.
+     */
+    public abstract void serialize(E object, ByteArrayOutputStream out);
+
+    /**
+     * To deserialize an object from the given bytes, starting at their current position.
+     * @param in (ByteBuffer) : the bytes to read, whose position is moved after the object.
+     * @return object <E> : the deserialized object.
+     * @throws IllegalArgumentException if the bytes do not describe a valid object.
+     * @throws java.nio.BufferUnderflowException if the bytes end before the object.
+     */
+    public abstract E deserialize(ByteBuffer in);
+
+    /**
+     * To get the corresponding binary serde from given serializing and deserializing functions.
+     * @param serializer (BiConsumer<T, ByteArrayOutputStream>) : the serializing function.
+     * @param deserializer (Function<ByteBuffer, T>) : the deserializing function.
+     * @param <T> : type of the elements that are serialized.
+     * @return serde (BinarySerde<T>) : the binary serde resulting from the two functions.
+     */
+    public static <T> BinarySerde<T> of(BiConsumer<T, ByteArrayOutputStream> serializer,
+                                        Function<ByteBuffer, T> deserializer) {
+        return new BinarySerde<T>() {
+
+            @Override
+            public void serialize(T object, ByteArrayOutputStream out) { serializer.accept(object, out); }
+
+            @Override
+            public T deserialize(ByteBuffer in) { return deserializer.apply(in); }
+
+        };
+    }
+
+    /**
+     * To get the binary serde of the values of a list, each value being written as its index in the list.
+     * @param list (List<T>) : list of all the values.
+     * @param <T> : type of the values.
+     * @return serde (BinarySerde<T>) : the corresponding binary serde.
+     * @throws IllegalArgumentException if the list is empty.
+     */
+    public static <T> BinarySerde<T> oneOf(List<T> list) {
+        List<T> copyList = new ArrayList<>(list);
+        Preconditions.checkArgument(!copyList.isEmpty());
+
+        // Index of each value, the first one being kept for duplicates as Serde.oneOf does.
+        Map<T, Integer> indexes = new HashMap<>();
+        for (int i = 0 ; i < copyList.size() ; i++)
+            indexes.putIfAbsent(copyList.get(i), i);
+
+        return of((t, out) -> {
+            Integer index = indexes.get(t);
+            Preconditions.checkArgument(index != null);
+            writeVarInt(out, index);
+        }, in -> {
+            int index = readVarInt(in);
+            Preconditions.checkArgument(0 <= index && index < copyList.size());
+            return copyList.get(index);
+        });
+    }
+
+    /**
+     * To get a binary serde capable of (de)serializing values that can be null, preceded by a byte telling if they
+     * are.
+     * @param serde (BinarySerde<T>) : binary serde capable of (de)serializing the values that are not null.
+     * @param <T> : type of the values.
+     * @return serde (BinarySerde<T>) : binary serde capable of (de)serializing values of type <T> or null.
+     */
+    public static <T> BinarySerde<T> nullableOf(BinarySerde<T> serde) {
+        return of((t, out) -> {
+            out.write(t == null ? 0 : 1);
+            if (t != null)
+                serde.serialize(t, out);
+        }, in -> (in.get() == 0) ? null : serde.deserialize(in));
+    }
+
+    /**
+     * To get a binary serde capable of (de)serializing lists of values (de)serialized by the given binary serde,
+     * preceded by their size.
+     * @param serde (BinarySerde<T>) : binary serde capable of (de)serializing the elements of type <T>.
+     * @param <T> : type of the elements in the list.
+     * @return serde (BinarySerde<List<T>>) : binary serde capable of (de)serializing lists of values of type <T>.
+     */
+    public static <T> BinarySerde<List<T>> listOf(BinarySerde<T> serde) {
+        return of((list, out) -> {
+            writeVarInt(out, list.size());
+            for (T t : list)
+                serde.serialize(t, out);
+        }, in -> {
+            int size = readVarInt(in);
+            // Every element takes one byte at least, which bounds the size given by invalid bytes.
+            Preconditions.checkArgument(0 <= size && size <= in.remaining());
+            List<T> list = new ArrayList<>(size);
+            for (int i = 0 ; i < size ; i++)
+                list.add(serde.deserialize(in));
+
+            return list;
+        });
+    }
+
+    /**
+     * To get a binary serde capable of (de)serializing sorted bags of values (de)serialized by the given binary
+     * serde, preceded by their size.
+     * @param serde (BinarySerde<T>) : binary serde capable of (de)serializing the elements of type <T>.
+     * @param <T> : type of the elements in the sorted bag.
+     * @return serde (BinarySerde<SortedBag<T>>) : binary serde capable of (de)serializing sorted bags of values of
+     * type <T>.
+     */
+    public static <T extends Comparable<T>> BinarySerde<SortedBag<T>> bagOf(BinarySerde<T> serde) {
+        BinarySerde<List<T>> listSerde = listOf(serde);
+        return of((bag, out) -> listSerde.serialize(bag.toList(), out),
+                in -> SortedBag.of(listSerde.deserialize(in)));
+    }
+
+    /**
+     * To write a positive integer as a varint: seven bits per byte, from the lowest ones, the highest bit of a byte
+     * telling if another one follows.
+     * @param out (ByteArrayOutputStream) : the bytes the integer is appended to.
+     * @param value (int) : the integer, treated as unsigned.
+     */
+    public static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * To read a positive integer written as a varint.
+     * @param in (ByteBuffer) : the bytes to read, whose position is moved after the integer.
+     * @return value (int) : the integer.
+     * @throws IllegalArgumentException if the varint is longer than five bytes or does not fit an int.
+     * @throws java.nio.BufferUnderflowException if the bytes end before the integer.
+     */
+    public static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0 ; shift < Integer.SIZE ; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                Preconditions.checkArgument(shift < 28 || (b & 0x7F) < 0x10);
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * To get the bytes of a single object.
+     * @param object <E> : the object which is to be serialized.
+     * @return bytes (byte[]) : the bytes of the serialized object.
+     */
+    public default byte[] toBytes(E object) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serialize(object, out);
+
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,112 @@
+package ch.epfl.tchu.net;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.*;
+import ch.epfl.tchu.game.Player.TurnKind;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A class that contains the binary serdes of the project that do not depend on the map, the counterparts of the ones
+ * of Serdes (see MapSerdes for the ones depending on a map).
+ */
+public final class BinarySerdes {
+
+    /**
+     * Binary serde that serves to (de)encode an integer value (Integer), as the varint of its zigzag encoding so that
+     * small negative values take one byte as well.
+     */
+    public static final BinarySerde<Integer> integerSerde = BinarySerde.<Integer>of(
+            (t, out) -> BinarySerde.writeVarInt(out, (t << 1) ^ (t >> 31)),
+            in -> {
+                int zigzag = BinarySerde.readVarInt(in);
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            });
+
+    /**
+     * Binary serde that serves to (de)encode a string (String), as its length and its UTF-8 bytes.
+     */
+    public static final BinarySerde<String> stringSerde = BinarySerde.<String>of((a, out) -> {
+        byte[] bytes = a.getBytes(UTF_8);
+        BinarySerde.writeVarInt(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }, in -> {
+        int length = BinarySerde.readVarInt(in);
+        Preconditions.checkArgument(0 <= length && length <= in.remaining());
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, UTF_8);
+    });
+
+    /**
+     * Binary serde that serves to (de)encode a player id (PlayerId).
+     */
+    public static final BinarySerde<PlayerId> playerIdSerde = BinarySerde.<PlayerId>oneOf(PlayerId.ALL);
+
+    /**
+     * Binary serde that serves to (de)encode a turn kind (TurnKind).
+     */
+    public static final BinarySerde<TurnKind> turnKindSerde = BinarySerde.<TurnKind>oneOf(TurnKind.ALL);
+
+    /**
+     * Binary serde that serves to (de)encode a card (Card).
+     */
+    public static final BinarySerde<Card> cardSerde = BinarySerde.<Card>oneOf(Card.ALL);
+
+    /**
+     * Binary serde that serves to (de)encode a list of strings (List<String>).
+     */
+    public static final BinarySerde<List<String>> stringListSerde = BinarySerde.<String>listOf(stringSerde);
+
+    /**
+     * Binary serde that serves to (de)encode a list of cards (List<Card>).
+     */
+    public static final BinarySerde<List<Card>> cardListSerde = BinarySerde.<Card>listOf(cardSerde);
+
+    /**
+     * Binary serde that serves to (de)encode a sorted bag of cards (SortedBag<Card>), as the count of each kind of
+     * card, in the order of Card.ALL.
+     */
+    public static final BinarySerde<SortedBag<Card>> cardSortedBagSerde = BinarySerde.<SortedBag<Card>>of(
+            (a, out) -> {
+                for (Card c : Card.ALL)
+                    BinarySerde.writeVarInt(out, a.countOf(c));
+            }, in -> {
+                SortedBag.Builder<Card> builder = new SortedBag.Builder<>();
+                for (Card c : Card.ALL)
+                    builder.add(BinarySerde.readVarInt(in), c);
+                return builder.build();
+            });
+
+    /**
+     * Binary serde that serves to (de)encode a list of sorted bags of cards (List<SortedBag<Card>>).
+     */
+    public static final BinarySerde<List<SortedBag<Card>>> listOfSortedBagOfCardsSerde =
+            BinarySerde.<SortedBag<Card>>listOf(cardSortedBagSerde);
+
+    /**
+     * Binary serde that serves to (de)encode a public card state (PublicCardState).
+     */
+    public static final BinarySerde<PublicCardState> publicCardStateSerde = BinarySerde.<PublicCardState>of(
+            (a, out) -> {
+                for (Card c : a.faceUpCards())
+                    cardSerde.serialize(c, out);
+                BinarySerde.writeVarInt(out, a.deckSize());
+                BinarySerde.writeVarInt(out, a.discardsSize());
+            }, in -> {
+                List<Card> faceUpCards = new ArrayList<>(Constants.FACE_UP_CARDS_COUNT);
+                for (int i = 0 ; i < Constants.FACE_UP_CARDS_COUNT ; i++)
+                    faceUpCards.add(cardSerde.deserialize(in));
+                return new PublicCardState(faceUpCards, BinarySerde.readVarInt(in), BinarySerde.readVarInt(in));
+            });
+
+    /**
+     * Private empty constructor because irrelevant.
+     */
+    private BinarySerdes() {}
+
+}
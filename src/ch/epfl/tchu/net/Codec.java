@@ -0,0 +1,43 @@
+package ch.epfl.tchu.net;
+
+/**
+ * The serde and the binary serde of a type, to write its values with either protocol.
+ * @param <E> : type of the values.
+ */
+final class Codec<E> {
+
+    private final Serde<E> serde;
+    private final BinarySerde<E> binarySerde;
+
+    /**
+     * To get the codec made of the given serdes.
+     * @param serde (Serde<T>) : the serde used by the text protocol.
+     * @param binarySerde (BinarySerde<T>) : the binary serde used by the binary protocol.
+     * @param <T> : type of the values.
+     * @return codec (Codec<T>) : the codec.
+     */
+    static <T> Codec<T> of(Serde<T> serde, BinarySerde<T> binarySerde) {
+        return new Codec<>(serde, binarySerde);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Codec(Serde<E> serde, BinarySerde<E> binarySerde) {
+        this.serde = serde;
+        this.binarySerde = binarySerde;
+    }
+
+    /**
+     * To get the serde used by the text protocol.
+     * @return serde (Serde<E>) : the serde.
+     */
+    Serde<E> serde() { return serde; }
+
+    /**
+     * To get the binary serde used by the binary protocol.
+     * @return binarySerde (BinarySerde<E>) : the binary serde.
+     */
+    BinarySerde<E> binarySerde() { return binarySerde; }
+
+}
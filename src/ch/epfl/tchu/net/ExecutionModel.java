@@ -0,0 +1,165 @@
+package ch.epfl.tchu.net;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enumerates the kinds of threads running the games, the connections and the chats, which spend most of their time
+ * blocked waiting for a player. Every task gets its own thread, so that the Player interface can stay synchronous.
+ *
+ * Virtual threads are used through reflection, the code being compiled for Java 11: when the running Java version
+ * does not provide them, the VIRTUAL model uses platform threads instead. The model used by default is the one named by
+ * the system property "tchu.threads" ("platform" or "virtual"), VIRTUAL if it is not set.
+ */
+public enum ExecutionModel {
+
+    /**
+     * Platform threads, each one having its own stack.
+     */
+    PLATFORM,
+
+    /**
+     * Virtual threads, or platform threads if the running Java version does not provide them.
+     */
+    VIRTUAL;
+
+    /**
+     * The list of all the execution models (List<ExecutionModel>).
+     */
+    public static final List<ExecutionModel> ALL = List.of(ExecutionModel.values());
+
+    /**
+     * The number of execution models (int).
+     */
+    public static final int COUNT = ALL.size();
+
+    // The system property naming the default model, and the name of the model used if it is not set.
+    static final String PROPERTY = "tchu.threads";
+    static final String DEFAULT_NAME = "virtual";
+
+    /**
+     * The model used by default (ExecutionModel): the one named by the system property "tchu.threads", VIRTUAL if it
+     * is not set.
+     */
+    public static final ExecutionModel DEFAULT = of(System.getProperty(PROPERTY, DEFAULT_NAME));
+
+    // Stack size of the platform threads, small enough for thousands of waiting players to be cheap.
+    private static final long PLATFORM_STACK_SIZE = 512 * 1024;
+
+    /**
+     * To get the model of the given name.
+     * @param name (String) : the name of the model, in any case.
+     * @return model (ExecutionModel) : the model of this name.
+     * @throws IllegalArgumentException if no model has this name.
+     */
+    public static ExecutionModel of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * States if the running Java version provides virtual threads.
+     * @return virtualThreadsSupported (boolean) : true if the VIRTUAL model uses virtual threads.
+     */
+    public static boolean virtualThreadsSupported() { return VirtualThreads.SUPPORTED; }
+
+    /**
+     * To get a factory of daemon threads of this model.
+     * @param name (String) : the name of the threads, followed by their number.
+     * @return factory (ThreadFactory) : the factory of threads.
+     */
+    public ThreadFactory threadFactory(String name) {
+        if (this == VIRTUAL && VirtualThreads.SUPPORTED)
+            return VirtualThreads.factory(name);
+
+        AtomicLong count = new AtomicLong();
+        return task -> {
+            Thread thread = new Thread(null, task, name + "-" + count.getAndIncrement(), PLATFORM_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * To create an executor running every task on a new thread of this model, the platform threads being reused once
+     * their task is over.
+     * @param name (String) : the name of the threads, followed by their number.
+     * @return executor (ExecutorService) : the executor.
+     */
+    public ExecutorService newExecutor(String name) {
+        ThreadFactory factory = threadFactory(name);
+        return this == VIRTUAL && VirtualThreads.SUPPORTED
+                ? VirtualThreads.newExecutor(factory)
+                : Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * To start a task on a new thread of this model.
+     * @param name (String) : the name of the thread.
+     * @param task (Runnable) : the task.
+     * @return thread (Thread) : the thread started.
+     */
+    public Thread start(String name, Runnable task) {
+        Thread thread = threadFactory(name).newThread(task);
+        thread.start();
+        return thread;
+    }
+
+    // Holder of the reflective access to virtual threads, resolved once.
+    private static final class VirtualThreads {
+
+        private static final Method OF_VIRTUAL;
+        private static final Method NAME;
+        private static final Method FACTORY;
+        private static final Method NEW_EXECUTOR;
+        private static final boolean SUPPORTED;
+
+        static {
+            Method ofVirtual = null, name = null, factory = null, newExecutor = null;
+            boolean supported;
+            try {
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                name = builder.getMethod("name", String.class, long.class);
+                factory = builder.getMethod("factory");
+                newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                // The preview versions of virtual threads fail here unless enabled.
+                ofVirtual.invoke(null);
+                supported = true;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                supported = false;
+            }
+            OF_VIRTUAL = ofVirtual;
+            NAME = name;
+            FACTORY = factory;
+            NEW_EXECUTOR = newExecutor;
+            SUPPORTED = supported;
+        }
+
+        //Helper method creating a factory of virtual threads
+        private static ThreadFactory factory(String name) {
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+                return (ThreadFactory) FACTORY.invoke(builder);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new Error(e);
+            }
+        }
+
+        //Helper method creating an executor starting a thread of the given factory per task
+        private static ExecutorService newExecutor(ThreadFactory factory) {
+            try {
+                return (ExecutorService) NEW_EXECUTOR.invoke(null, factory);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new Error(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,300 @@
+package ch.epfl.tchu.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+
+/**
+ * Headless server hosting any number of games on one port. A single thread handles all the connections with a
+ * selector: it accepts the clients, negotiates their protocol, and reads and writes their bytes without ever
+ * blocking. As soon as enough clients are ready, they are put in a new game, played on a thread of the given
+ * executor through remote player proxies whose channels are non-blocking, so that the thread of a game only waits for
+ * the replies of its own players.
+ */
+public final class GameServer implements Closeable {
+
+    private static final List<String> DEFAULT_NAMES =
+            List.of("Ada", "Charles", "Alice", "Bob", "Emma", "Romain", "Joseph", "Camille");
+
+    private final MapDefinition map;
+    private final int playersPerGame;
+    private final Executor gameExecutor;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    // The channels ready, waiting for a game. Only used by the thread of the server.
+    private final Set<NioChannel> lobby = new LinkedHashSet<>();
+    // The channels having bytes to write, or closed, since the last selection.
+    private final Queue<NioChannel> writeRequests = new ConcurrentLinkedQueue<>();
+    private final Queue<NioChannel> closedChannels = new ConcurrentLinkedQueue<>();
+    private final AtomicLong gameCount = new AtomicLong();
+    private final AtomicInteger activeGameCount = new AtomicInteger();
+    private volatile boolean isClosed;
+    private volatile boolean isRunning;
+
+    /**
+     * To open a server, listening on the given port.
+     * @param port (int) : the port to listen on, 0 to use any free port.
+     * @param map (MapDefinition) : the map of the games, which the clients must use as well.
+     * @param playersPerGame (int) : the number of players of every game.
+     * @param gameExecutor (Executor) : the executor running the games, each one keeping a thread for its whole
+     *                     duration.
+     * @return server (GameServer) : the server, which handles the connections once run.
+     * @throws IllegalArgumentException if the number of players is not between 2 and PlayerId.COUNT.
+     * @throws UncheckedIOException if the port cannot be listened on.
+     */
+    public static GameServer open(int port, MapDefinition map, int playersPerGame, Executor gameExecutor) {
+        Preconditions.checkArgument(2 <= playersPerGame && playersPerGame <= PlayerId.COUNT);
+        try {
+            Selector selector = Selector.open();
+            ServerSocketChannel serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+            return new GameServer(map, playersPerGame, gameExecutor, selector, serverChannel);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private GameServer(MapDefinition map, int playersPerGame, Executor gameExecutor, Selector selector,
+                       ServerSocketChannel serverChannel) {
+        this.map = map;
+        this.playersPerGame = playersPerGame;
+        this.gameExecutor = gameExecutor;
+        this.selector = selector;
+        this.serverChannel = serverChannel;
+    }
+
+    /**
+     * To get the port the server listens on.
+     * @return port (int) : the local port of the server.
+     */
+    public int port() { return serverChannel.socket().getLocalPort(); }
+
+    /**
+     * To get the amount of games started since the server was opened.
+     * @return gameCount (long) : the amount of games started.
+     */
+    public long gameCount() { return gameCount.get(); }
+
+    /**
+     * To get the amount of games being played.
+     * @return activeGameCount (int) : the amount of games started and not finished yet.
+     */
+    public int activeGameCount() { return activeGameCount.get(); }
+
+    /**
+     * Handles the connections until the server is closed, on the calling thread.
+     * @throws UncheckedIOException if the selector fails.
+     */
+    public void run() {
+        isRunning = true;
+        try {
+            while (!isClosed) {
+                selector.select();
+                NioChannel channel;
+                while ((channel = writeRequests.poll()) != null) {
+                    if (channel.key().isValid() && channel.waitsForWrite())
+                        channel.key().interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+                while ((channel = closedChannels.poll()) != null)
+                    lobby.remove(channel);
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid())
+                        continue;
+                    try {
+                        if (key.isAcceptable())
+                            accept();
+                        else
+                            handle(key, (NioChannel) key.attachment());
+                    } catch (CancelledKeyException e) {
+                        // The channel was closed by the thread of its game meanwhile.
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+
+        } catch (IOException e) {
+            if (!isClosed)
+                throw new UncheckedIOException(e);
+        } finally {
+            closeConnections();
+        }
+    }
+
+    /**
+     * To close the server: it stops accepting clients and handling connections, the games being played ending as
+     * their players are disconnected.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        selector.wakeup();
+        if (!isRunning)
+            closeConnections();
+    }
+
+    /**
+     * Called by a channel whose bytes were not all written at once, to write the remaining ones when the socket
+     * accepts them.
+     * @param channel (NioChannel) : the channel.
+     */
+    void requestWrite(NioChannel channel) {
+        writeRequests.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Called by a channel when it is closed.
+     * @param channel (NioChannel) : the channel.
+     */
+    void onClosed(NioChannel channel) {
+        closedChannels.add(channel);
+        selector.wakeup();
+    }
+
+    //Helper method accepting the new clients, sending them the protocols accepted
+    private void accept() throws IOException {
+        SocketChannel socket;
+        while ((socket = serverChannel.accept()) != null) {
+            socket.configureBlocking(false);
+            socket.socket().setTcpNoDelay(true);
+
+            NioChannel channel = new NioChannel(this, socket, Protocol.ALL);
+            channel.setKey(socket.register(selector, SelectionKey.OP_READ, channel));
+            try {
+                channel.flush();
+            } catch (UncheckedIOException e) {
+                // The client left already, the channel being closed.
+            }
+        }
+    }
+
+    //Helper method reading or writing the bytes of a connection, starting a game when enough clients are ready
+    private void handle(SelectionKey key, NioChannel channel) {
+        if (key.isWritable()) {
+            channel.onWritable();
+            if (key.isValid() && !channel.waitsForWrite())
+                key.interestOps(SelectionKey.OP_READ);
+        }
+        if (key.isValid() && key.isReadable() && channel.onReadable()) {
+            lobby.add(channel);
+            if (lobby.size() >= playersPerGame)
+                startGame();
+        }
+        if (channel.isClosed())
+            lobby.remove(channel);
+    }
+
+    //Helper method starting a game with the first clients of the lobby, if enough of them are still connected
+    private void startGame() {
+        lobby.removeIf(NioChannel::isClosed);
+        if (lobby.size() < playersPerGame)
+            return;
+
+        List<NioChannel> channels = new ArrayList<>(playersPerGame);
+        for (NioChannel channel : lobby) {
+            channels.add(channel);
+            if (channels.size() == playersPerGame)
+                break;
+        }
+        lobby.removeAll(channels);
+
+        List<RemotePlayerProxy> proxies = new ArrayList<>(playersPerGame);
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> playerNames = new EnumMap<>(PlayerId.class);
+        for (int i = 0 ; i < playersPerGame ; i++) {
+            PlayerId p = PlayerId.ALL.get(i);
+            proxies.add(new RemotePlayerProxy(channels.get(i), map));
+            players.put(p, proxies.get(i));
+            playerNames.put(p, DEFAULT_NAMES.get(i));
+        }
+
+        gameCount.incrementAndGet();
+        activeGameCount.incrementAndGet();
+        gameExecutor.execute(() -> {
+            try {
+                Game.play(players, playerNames, SortedBag.of(map.tickets()), new Random());
+            } catch (RuntimeException e) {
+                // A player left or sent an invalid message, or the game failed: it is abandoned, its other players
+                // being disconnected.
+            } finally {
+                // The last notifications are sent before the channels are closed.
+                proxies.forEach(RemotePlayerProxy::close);
+                activeGameCount.decrementAndGet();
+            }
+        });
+    }
+
+    //Helper method closing the socket of the server and all the connections, once
+    private synchronized void closeConnections() {
+        if (!selector.isOpen())
+            return;
+        try {
+            serverChannel.close();
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() != null)
+                    ((NioChannel) key.attachment()).closeNow();
+            }
+            selector.close();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped, each game being played on its own thread.
+     * @param args (String[]) : the map ("ch", "usa" or the path of a map definition file, see MapDefinition), the
+     *             port, the number of players of every game and the execution model of the games ("platform" or
+     *             "virtual"), all optional ("usa", 5108, 2 and ExecutionModel.DEFAULT by default).
+     */
+    public static void main(String[] args) {
+        String mapName = args.length < 1 ? "usa" : args[0];
+        int port = args.length < 2 ? 5108 : Integer.parseInt(args[1]);
+        int playersPerGame = args.length < 3 ? 2 : Integer.parseInt(args[2]);
+        ExecutionModel threads = args.length < 4 ? ExecutionModel.DEFAULT : ExecutionModel.of(args[3]);
+
+        MapDefinition map = mapName.equalsIgnoreCase("usa")
+                ? MapDefinition.usa()
+                : mapName.equalsIgnoreCase("ch") ? MapDefinition.ch() : MapDefinition.load(Path.of(mapName));
+
+        try (GameServer server = open(port, map, playersPerGame, threads.newExecutor("game"))) {
+            System.out.println("Listening on port " + server.port());
+            server.run();
+        }
+    }
+
+}
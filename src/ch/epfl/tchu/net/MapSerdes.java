@@ -0,0 +1,276 @@
+package ch.epfl.tchu.net;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import ch.epfl.tchu.game.*;
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * The serdes depending on a map: the ones of its routes, stations and tickets, and of the values containing them,
+ * for the text protocol as well as for the binary one. There is only one instance per map, shared by all the games
+ * played on it.
+ */
+public final class MapSerdes {
+
+    private static final Map<MapDefinition, MapSerdes> INSTANCES = new ConcurrentHashMap<>();
+
+    private final Serde<Route> routeSerde;
+    private final Serde<Station> stationSerde;
+    private final Serde<Ticket> ticketSerde;
+    private final Serde<List<Route>> routeListSerde;
+    private final Serde<SortedBag<Ticket>> ticketSortedBagSerde;
+    private final Serde<Trail> trailSerde;
+    private final Serde<PublicPlayerState> publicPlayerStateSerde;
+    private final Serde<PlayerState> playerStateSerde;
+    private final Serde<PublicGameState> publicGameStateSerde;
+    private final BinarySerde<Route> routeBinarySerde;
+    private final BinarySerde<List<Route>> routeListBinarySerde;
+    private final BinarySerde<SortedBag<Ticket>> ticketSortedBagBinarySerde;
+    private final BinarySerde<Trail> trailBinarySerde;
+    private final BinarySerde<PublicPlayerState> publicPlayerStateBinarySerde;
+    private final BinarySerde<PlayerState> playerStateBinarySerde;
+    private final BinarySerde<PublicGameState> publicGameStateBinarySerde;
+
+    /**
+     * To get the serdes of the given map.
+     * @param map (MapDefinition) : the map of interest.
+     * @return serdes (MapSerdes) : the serdes of the map, the same ones for every call with the same map.
+     */
+    public static MapSerdes of(MapDefinition map) {
+        return INSTANCES.computeIfAbsent(map, MapSerdes::new);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private MapSerdes(MapDefinition map) {
+        routeSerde = Serde.<Route>oneOf(map.routes());
+        stationSerde = Serde.<Station>oneOf(map.stations());
+        ticketSerde = Serde.<Ticket>oneOf(map.tickets());
+        routeListSerde = Serde.<Route>listOf(routeSerde, ",");
+        ticketSortedBagSerde = Serde.<Ticket>bagOf(ticketSerde, ",");
+
+        trailSerde = Serde.<Trail>of(a -> routeListSerde.serialize(a.routes()) + "*"
+                        + stationSerde.serialize(a.station1()) + "*" + stationSerde.serialize(a.station2()),
+                b -> {
+                    String[] s = b.split(Pattern.quote("*"), -1);
+                    return new Trail(routeListSerde.deserialize(s[0]), stationSerde.deserialize(s[1]), stationSerde.deserialize(s[2]));
+                }
+        );
+
+        publicPlayerStateSerde = Serde.<PublicPlayerState>of(a -> {
+            String serialized = Serdes.integerSerde.serialize(a.ticketCount()) + ";"
+                    + Serdes.integerSerde.serialize(a.cardCount()) + ";"
+                    + routeListSerde.serialize(a.routes()) + ";";
+            return (a.longestTrail() != null)
+                    ? serialized + trailSerde.serialize(a.longestTrail())
+                    : serialized;
+            }, b -> {
+                String[] s = b.split(Pattern.quote(";"), -1);
+                if(!s[3].isEmpty())
+                    return new PublicPlayerState(Serdes.integerSerde.deserialize(s[0]), Serdes.integerSerde.deserialize(s[1]),
+                            routeListSerde.deserialize(s[2]), trailSerde.deserialize(s[3]));
+                return new PublicPlayerState(Serdes.integerSerde.deserialize(s[0]), Serdes.integerSerde.deserialize(s[1]),
+                        routeListSerde.deserialize(s[2]), null); // In case longestTrail is null
+            }
+        );
+
+        playerStateSerde = Serde.<PlayerState>of(a -> {
+            String serialized = ticketSortedBagSerde.serialize(a.tickets()) + ";"
+                    + Serdes.cardSortedBagSerde.serialize(a.cards()) + ";"
+                    + routeListSerde.serialize(a.routes()) + ";";
+            return (a.longestTrail() != null)
+                    ? serialized + trailSerde.serialize(a.longestTrail())
+                    : serialized;
+            }, b -> {
+                String[] s = b.split(Pattern.quote(";"), -1);
+                if(!s[3].isEmpty())
+                    return new PlayerState(ticketSortedBagSerde.deserialize(s[0]), Serdes.cardSortedBagSerde.deserialize(s[1]),
+                            routeListSerde.deserialize(s[2]), trailSerde.deserialize(s[3]));
+                return new PlayerState(ticketSortedBagSerde.deserialize(s[0]), Serdes.cardSortedBagSerde.deserialize(s[1]),
+                        routeListSerde.deserialize(s[2]), null); // In case longestTrail is null
+            }
+        );
+
+        publicGameStateSerde = Serde.<PublicGameState>of(a -> {
+            String playerStates = "";
+            for (int i = 0 ; i < a.numberOfPlayers() ; i++)
+                playerStates = playerStates.concat(publicPlayerStateSerde.serialize(a.playerState(PlayerId.ALL.get(i))) + ":");
+
+            String serialized = Serdes.integerSerde.serialize(a.numberOfPlayers()) + ":"
+                    + Serdes.integerSerde.serialize(a.ticketsCount()) + ":"
+                    + Serdes.publicCardStateSerde.serialize(a.cardState()) + ":"
+                    + Serdes.playerIdSerde.serialize(a.currentPlayerId()) + ":"
+                    + playerStates;
+            return (a.lastPlayer() != null)
+                    ? serialized + Serdes.playerIdSerde.serialize(a.lastPlayer())
+                    : serialized;
+            }, b -> {
+                String[] s = b.split(Pattern.quote(":"), -1);
+                int numberOfPlayers = Integer.parseInt(s[0]);
+                Map<PlayerId, PublicPlayerState> playerState = new HashMap<>();
+                for (int i = 0 ; i < numberOfPlayers; i++)
+                    playerState.put(PlayerId.ALL.get(i), publicPlayerStateSerde.deserialize(s[4 + i]));
+                if (!s[4 + numberOfPlayers].isEmpty())
+                    return new PublicGameState(Serdes.integerSerde.deserialize(s[1]), Serdes.publicCardStateSerde.deserialize(s[2]),
+                            Serdes.playerIdSerde.deserialize(s[3]), playerState, Serdes.playerIdSerde.deserialize(s[4 + numberOfPlayers]));
+                return new PublicGameState(Serdes.integerSerde.deserialize(s[1]), Serdes.publicCardStateSerde.deserialize(s[2]),
+                        Serdes.playerIdSerde.deserialize(s[3]), playerState, null); // In case lastPlayerId is null
+            }
+        );
+
+        routeBinarySerde = BinarySerde.<Route>oneOf(map.routes());
+        routeListBinarySerde = BinarySerde.<Route>listOf(routeBinarySerde);
+        ticketSortedBagBinarySerde = BinarySerde.<Ticket>bagOf(BinarySerde.<Ticket>oneOf(map.tickets()));
+        // The stations of the trail of a player without routes are null.
+        BinarySerde<Station> stationBinarySerde = BinarySerde.<Station>nullableOf(
+                BinarySerde.<Station>oneOf(map.stations()));
+
+        trailBinarySerde = BinarySerde.<Trail>of((a, out) -> {
+            routeListBinarySerde.serialize(a.routes(), out);
+            stationBinarySerde.serialize(a.station1(), out);
+            stationBinarySerde.serialize(a.station2(), out);
+        }, in -> new Trail(routeListBinarySerde.deserialize(in), stationBinarySerde.deserialize(in),
+                stationBinarySerde.deserialize(in)));
+        BinarySerde<Trail> longestTrailBinarySerde = BinarySerde.<Trail>nullableOf(trailBinarySerde);
+
+        publicPlayerStateBinarySerde = BinarySerde.<PublicPlayerState>of((a, out) -> {
+            BinarySerde.writeVarInt(out, a.ticketCount());
+            BinarySerde.writeVarInt(out, a.cardCount());
+            routeListBinarySerde.serialize(a.routes(), out);
+            longestTrailBinarySerde.serialize(a.longestTrail(), out);
+        }, in -> new PublicPlayerState(BinarySerde.readVarInt(in), BinarySerde.readVarInt(in),
+                routeListBinarySerde.deserialize(in), longestTrailBinarySerde.deserialize(in)));
+
+        playerStateBinarySerde = BinarySerde.<PlayerState>of((a, out) -> {
+            ticketSortedBagBinarySerde.serialize(a.tickets(), out);
+            BinarySerdes.cardSortedBagSerde.serialize(a.cards(), out);
+            routeListBinarySerde.serialize(a.routes(), out);
+            longestTrailBinarySerde.serialize(a.longestTrail(), out);
+        }, in -> new PlayerState(ticketSortedBagBinarySerde.deserialize(in),
+                BinarySerdes.cardSortedBagSerde.deserialize(in), routeListBinarySerde.deserialize(in),
+                longestTrailBinarySerde.deserialize(in)));
+
+        BinarySerde<PlayerId> lastPlayerBinarySerde = BinarySerde.<PlayerId>nullableOf(BinarySerdes.playerIdSerde);
+        publicGameStateBinarySerde = BinarySerde.<PublicGameState>of((a, out) -> {
+            BinarySerde.writeVarInt(out, a.numberOfPlayers());
+            BinarySerde.writeVarInt(out, a.ticketsCount());
+            BinarySerdes.publicCardStateSerde.serialize(a.cardState(), out);
+            BinarySerdes.playerIdSerde.serialize(a.currentPlayerId(), out);
+            for (int i = 0 ; i < a.numberOfPlayers() ; i++)
+                publicPlayerStateBinarySerde.serialize(a.playerState(PlayerId.ALL.get(i)), out);
+            lastPlayerBinarySerde.serialize(a.lastPlayer(), out);
+        }, in -> {
+            int numberOfPlayers = BinarySerde.readVarInt(in);
+            Preconditions.checkArgument(0 <= numberOfPlayers && numberOfPlayers <= PlayerId.COUNT);
+            int ticketsCount = BinarySerde.readVarInt(in);
+            PublicCardState cardState = BinarySerdes.publicCardStateSerde.deserialize(in);
+            PlayerId currentPlayerId = BinarySerdes.playerIdSerde.deserialize(in);
+            Map<PlayerId, PublicPlayerState> playerState = new EnumMap<>(PlayerId.class);
+            for (int i = 0 ; i < numberOfPlayers ; i++)
+                playerState.put(PlayerId.ALL.get(i), publicPlayerStateBinarySerde.deserialize(in));
+            return new PublicGameState(ticketsCount, cardState, currentPlayerId, playerState,
+                    lastPlayerBinarySerde.deserialize(in));
+        });
+    }
+
+    /**
+     * To get the serde that serves to (de)encode a route (Route) of the map.
+     * @return serde (Serde<Route>) : the serde.
+     */
+    public Serde<Route> routeSerde() { return routeSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a station (Station) of the map.
+     * @return serde (Serde<Station>) : the serde.
+     */
+    public Serde<Station> stationSerde() { return stationSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a ticket (Ticket) of the map.
+     * @return serde (Serde<Ticket>) : the serde.
+     */
+    public Serde<Ticket> ticketSerde() { return ticketSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a list of routes (List<Route>) of the map.
+     * @return serde (Serde<List<Route>>) : the serde.
+     */
+    public Serde<List<Route>> routeListSerde() { return routeListSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a sorted bag of tickets (SortedBag<Ticket>) of the map.
+     * @return serde (Serde<SortedBag<Ticket>>) : the serde.
+     */
+    public Serde<SortedBag<Ticket>> ticketSortedBagSerde() { return ticketSortedBagSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a trail (Trail) of the map.
+     * @return serde (Serde<Trail>) : the serde.
+     */
+    public Serde<Trail> trailSerde() { return trailSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a public player state (PublicPlayerState) of the map.
+     * @return serde (Serde<PublicPlayerState>) : the serde.
+     */
+    public Serde<PublicPlayerState> publicPlayerStateSerde() { return publicPlayerStateSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a player state (PlayerState) of the map.
+     * @return serde (Serde<PlayerState>) : the serde.
+     */
+    public Serde<PlayerState> playerStateSerde() { return playerStateSerde; }
+
+    /**
+     * To get the serde that serves to (de)encode a public game state (PublicGameState) of the map.
+     * @return serde (Serde<PublicGameState>) : the serde.
+     */
+    public Serde<PublicGameState> publicGameStateSerde() { return publicGameStateSerde; }
+
+    /**
+     * To get the binary serde that serves to (de)encode a route (Route) of the map.
+     * @return serde (BinarySerde<Route>) : the binary serde.
+     */
+    public BinarySerde<Route> routeBinarySerde() { return routeBinarySerde; }
+
+    /**
+     * To get the binary serde that serves to (de)encode a list of routes (List<Route>) of the map.
+     * @return serde (BinarySerde<List<Route>>) : the binary serde.
+     */
+    public BinarySerde<List<Route>> routeListBinarySerde() { return routeListBinarySerde; }
+
+    /**
+     * To get the binary serde that serves to (de)encode a sorted bag of tickets (SortedBag<Ticket>) of the map.
+     * @return serde (BinarySerde<SortedBag<Ticket>>) : the binary serde.
+     */
+    public BinarySerde<SortedBag<Ticket>> ticketSortedBagBinarySerde() { return ticketSortedBagBinarySerde; }
+
+    /**
+     * To get the binary serde that serves to (de)encode a trail (Trail) of the map.
+     * @return serde (BinarySerde<Trail>) : the binary serde.
+     */
+    public BinarySerde<Trail> trailBinarySerde() { return trailBinarySerde; }
+
+    /**
+     * To get the binary serde that serves to (de)encode a public player state (PublicPlayerState) of the map.
+     * @return serde (BinarySerde<PublicPlayerState>) : the binary serde.
+     */
+    public BinarySerde<PublicPlayerState> publicPlayerStateBinarySerde() { return publicPlayerStateBinarySerde; }
+
+    /**
+     * To get the binary serde that serves to (de)encode a player state (PlayerState) of the map.
+     * @return serde (BinarySerde<PlayerState>) : the binary serde.
+     */
+    public BinarySerde<PlayerState> playerStateBinarySerde() { return playerStateBinarySerde; }
+
+    /**
+     * To get the binary serde that serves to (de)encode a public game state (PublicGameState) of the map.
+     * @return serde (BinarySerde<PublicGameState>) : the binary serde.
+     */
+    public BinarySerde<PublicGameState> publicGameStateBinarySerde() { return publicGameStateBinarySerde; }
+
+}
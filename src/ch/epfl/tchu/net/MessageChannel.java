@@ -0,0 +1,51 @@
+package ch.epfl.tchu.net;
+
+import java.io.Closeable;
+
+/**
+ * This interface represents a channel carrying the messages between a proxy and its client, once the protocol they
+ * are written with is negotiated. The messages are sent in order, but may be kept in a buffer until the channel is
+ * flushed.
+ */
+public interface MessageChannel extends Closeable {
+
+    /**
+     * The length of the longest message accepted, which bounds the memory a corrupted length can take (int).
+     */
+    public static final int MAX_MESSAGE_LENGTH = 1 << 20;
+
+    /**
+     * To get the protocol the messages are written with.
+     * @return protocol (Protocol) : the protocol negotiated for the channel.
+     */
+    public abstract Protocol protocol();
+
+    /**
+     * To send a message, which may be kept in a buffer until the channel is flushed.
+     * @param message (byte[]) : the message, without any framing.
+     * @throws java.io.UncheckedIOException if the message cannot be sent.
+     */
+    public abstract void send(byte[] message);
+
+    /**
+     * To send the messages kept in a buffer, if any.
+     * @throws java.io.UncheckedIOException if the messages cannot be sent.
+     */
+    public abstract void flush();
+
+    /**
+     * To wait for the next message and receive it.
+     * @return message (byte[]) : the message, without any framing, or null if the channel was closed by the other
+     * side.
+     * @throws java.io.UncheckedIOException if the message cannot be received.
+     */
+    public abstract byte[] receive();
+
+    /**
+     * To close the channel, once the messages kept in a buffer are sent.
+     * @throws java.io.UncheckedIOException if the channel cannot be closed.
+     */
+    @Override
+    public abstract void close();
+
+}
@@ -18,7 +18,9 @@ public enum MessageId {
     DRAW_SLOT,
     ROUTE,
     CARDS,
-    CHOOSE_ADDITIONAL_CARDS;
+    CHOOSE_ADDITIONAL_CARDS,
+    // Sent instead of UPDATE_STATE with the binary protocol, the states being written as deltas from the last ones.
+    UPDATE_STATE_DELTA;
 
     /**
      * The list of all possible message id (List<MessageId>).
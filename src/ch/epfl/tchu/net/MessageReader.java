@@ -0,0 +1,94 @@
+package ch.epfl.tchu.net;
+
+import java.nio.ByteBuffer;
+
+import ch.epfl.tchu.Preconditions;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Reader of the values of a message written with a given protocol, in the order they were added to it.
+ */
+final class MessageReader {
+
+    private final ByteBuffer bytes;
+    private final String[] words;
+    private final MessageId messageId;
+    private int nextWord;
+
+    /**
+     * To read a message of the proxy, starting with its identity.
+     * @param protocol (Protocol) : the protocol the message is written with.
+     * @param message (byte[]) : the bytes of the message.
+     * @return reader (MessageReader) : the reader of the message.
+     * @throws IllegalArgumentException if the message does not start with a valid identity.
+     */
+    static MessageReader message(Protocol protocol, byte[] message) {
+        if (protocol == Protocol.TEXT) {
+            String[] words = new String(message, US_ASCII).split(" ", -1);
+            return new MessageReader(null, words, MessageId.valueOf(words[0]), 1);
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(message);
+        int ordinal = BinarySerde.readVarInt(bytes);
+        Preconditions.checkArgument(0 <= ordinal && ordinal < MessageId.COUNT);
+        return new MessageReader(bytes, null, MessageId.ALL.get(ordinal), 0);
+    }
+
+    /**
+     * To read a reply of the client.
+     * @param protocol (Protocol) : the protocol the reply is written with.
+     * @param reply (byte[]) : the bytes of the reply.
+     * @return reader (MessageReader) : the reader of the reply.
+     */
+    static MessageReader reply(Protocol protocol, byte[] reply) {
+        return (protocol == Protocol.TEXT)
+                ? new MessageReader(null, new String[] { new String(reply, US_ASCII) }, null, 0)
+                : new MessageReader(ByteBuffer.wrap(reply), null, null, 0);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private MessageReader(ByteBuffer bytes, String[] words, MessageId messageId, int nextWord) {
+        this.bytes = bytes;
+        this.words = words;
+        this.messageId = messageId;
+        this.nextWord = nextWord;
+    }
+
+    /**
+     * To get the identity of the message.
+     * @return messageId (MessageId) : the identity of the message, null for a reply.
+     */
+    MessageId messageId() { return messageId; }
+
+    /**
+     * To read the next value of the message.
+     * @param codec (Codec<E>) : the codec of the value.
+     * @param <E> : type of the value.
+     * @return value <E> : the value.
+     * @throws IllegalArgumentException if the message does not contain a valid value.
+     */
+    <E> E next(Codec<E> codec) {
+        if (words == null)
+            return codec.binarySerde().deserialize(bytes);
+
+        Preconditions.checkArgument(nextWord < words.length);
+        return codec.serde().deserialize(words[nextWord++]);
+    }
+
+    /**
+     * To read the next value of a message written with the binary protocol.
+     * @param binarySerde (BinarySerde<E>) : the binary serde of the value.
+     * @param <E> : type of the value.
+     * @return value <E> : the value.
+     * @throws IllegalArgumentException if the message is not written with the binary protocol, or does not contain a
+     * valid value.
+     */
+    <E> E next(BinarySerde<E> binarySerde) {
+        Preconditions.checkArgument(bytes != null);
+        return binarySerde.deserialize(bytes);
+    }
+
+}
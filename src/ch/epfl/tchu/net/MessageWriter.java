@@ -0,0 +1,92 @@
+package ch.epfl.tchu.net;
+
+import java.io.ByteArrayOutputStream;
+import java.util.StringJoiner;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Builder of a message written with a given protocol: a message of the proxy, starting with its identity, or a reply
+ * of the client. With the text protocol, the values are separated by spaces.
+ */
+final class MessageWriter {
+
+    private final Protocol protocol;
+    private final StringJoiner text;
+    private final ByteArrayOutputStream bytes;
+
+    /**
+     * To start a message of the proxy.
+     * @param protocol (Protocol) : the protocol the message is written with.
+     * @param messageId (MessageId) : the identity of the message.
+     * @return writer (MessageWriter) : the writer of the message.
+     */
+    static MessageWriter message(Protocol protocol, MessageId messageId) {
+        MessageWriter writer = new MessageWriter(protocol);
+        if (protocol == Protocol.TEXT)
+            writer.text.add(messageId.name());
+        else
+            BinarySerde.writeVarInt(writer.bytes, messageId.ordinal());
+
+        return writer;
+    }
+
+    /**
+     * To start a reply of the client.
+     * @param protocol (Protocol) : the protocol the reply is written with.
+     * @return writer (MessageWriter) : the writer of the reply.
+     */
+    static MessageWriter reply(Protocol protocol) {
+        return new MessageWriter(protocol);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private MessageWriter(Protocol protocol) {
+        this.protocol = protocol;
+        this.text = (protocol == Protocol.TEXT) ? new StringJoiner(" ") : null;
+        this.bytes = (protocol == Protocol.TEXT) ? null : new ByteArrayOutputStream();
+    }
+
+    /**
+     * To add a value to the message.
+     * @param codec (Codec<E>) : the codec of the value.
+     * @param value <E> : the value.
+     * @param <E> : type of the value.
+     * @return writer (MessageWriter) : this writer.
+     */
+    <E> MessageWriter add(Codec<E> codec, E value) {
+        if (protocol == Protocol.TEXT)
+            text.add(codec.serde().serialize(value));
+        else
+            codec.binarySerde().serialize(value, bytes);
+
+        return this;
+    }
+
+    /**
+     * To add a value that only the binary protocol can write to the message.
+     * @param binarySerde (BinarySerde<E>) : the binary serde of the value.
+     * @param value <E> : the value.
+     * @param <E> : type of the value.
+     * @return writer (MessageWriter) : this writer.
+     * @throws IllegalStateException if the message is written with the text protocol.
+     */
+    <E> MessageWriter add(BinarySerde<E> binarySerde, E value) {
+        if (protocol != Protocol.BINARY)
+            throw new IllegalStateException();
+        binarySerde.serialize(value, bytes);
+
+        return this;
+    }
+
+    /**
+     * To get the message.
+     * @return message (byte[]) : the bytes of the message, without any framing.
+     */
+    byte[] toBytes() {
+        return (protocol == Protocol.TEXT) ? text.toString().getBytes(US_ASCII) : bytes.toByteArray();
+    }
+
+}
@@ -0,0 +1,300 @@
+package ch.epfl.tchu.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Message channel on a non-blocking socket channel of a GameServer, whose reads are done by the thread of the server
+ * and whose writes are done by the thread flushing the channel when the socket accepts all the bytes at once, by the
+ * thread of the server otherwise. The thread of the game only blocks while waiting for the messages of its client.
+ *
+ * The channel starts by sending the protocols the server accepts and is ready once the client chose one.
+ */
+final class NioChannel implements MessageChannel {
+
+    // Initial size of the buffer of the bytes read, which grows when a longer message is received.
+    private static final int INITIAL_INPUT_SIZE = 256;
+    // Amount of bytes waiting to be written from which the client is considered too slow, and disconnected.
+    private static final int MAX_PENDING_OUTPUT = 1 << 22;
+    // Marker of the end of the messages received.
+    private static final byte[] END = new byte[0];
+
+    private final GameServer server;
+    private final SocketChannel socket;
+    private final List<Protocol> protocols;
+    private final BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+    // Only used by the thread of the server.
+    private SelectionKey key;
+    private ByteBuffer input = ByteBuffer.allocate(INITIAL_INPUT_SIZE);
+    // Null until the client chose it.
+    private volatile Protocol protocol;
+
+    // Guarded by this channel.
+    private final ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+    private ByteBuffer output = ByteBuffer.allocate(0);
+    private boolean waitsForWrite;
+    private boolean closing;
+    private boolean closed;
+
+    /**
+     * Constructor, sending the protocols accepted by the server.
+     * @param server (GameServer) : the server which accepted the connection.
+     * @param socket (SocketChannel) : the non-blocking socket channel of the client.
+     * @param protocols (List<Protocol>) : the protocols the server accepts.
+     */
+    NioChannel(GameServer server, SocketChannel socket, List<Protocol> protocols) {
+        this.server = server;
+        this.socket = socket;
+        this.protocols = List.copyOf(protocols);
+        byte[] hello = Protocol.helloOf(protocols).getBytes(US_ASCII);
+        buffered.write(hello, 0, hello.length);
+        buffered.write('\n');
+    }
+
+    /**
+     * To set the key of the channel, once registered to the selector of the server.
+     * @param key (SelectionKey) : the key of the channel.
+     */
+    void setKey(SelectionKey key) { this.key = key; }
+
+    /**
+     * To get the key of the channel.
+     * @return key (SelectionKey) : the key of the channel in the selector of the server.
+     */
+    SelectionKey key() { return key; }
+
+    /**
+     * States if the client chose the protocol of the channel.
+     * @return isReady (boolean) : true if the protocol was negotiated.
+     */
+    boolean isReady() { return protocol != null; }
+
+    @Override
+    public Protocol protocol() { return protocol; }
+
+    @Override
+    public synchronized void send(byte[] message) {
+        if (protocol == Protocol.TEXT) {
+            buffered.write(message, 0, message.length);
+            buffered.write('\n');
+        } else {
+            BinarySerde.writeVarInt(buffered, message.length);
+            buffered.write(message, 0, message.length);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (closed)
+            throw new UncheckedIOException(new EOFException("Connection closed"));
+        if (buffered.size() == 0)
+            return;
+
+        if (output.hasRemaining()) {
+            ByteBuffer newOutput = ByteBuffer.allocate(output.remaining() + buffered.size());
+            newOutput.put(output).put(buffered.toByteArray()).flip();
+            output = newOutput;
+        } else {
+            output = ByteBuffer.wrap(buffered.toByteArray());
+        }
+        buffered.reset();
+
+        if (output.remaining() > MAX_PENDING_OUTPUT) {
+            closeNow();
+            throw new UncheckedIOException(new IOException("Client too slow"));
+        }
+        // When the server already waits for the socket to accept bytes, it writes the new ones as well.
+        if (!waitsForWrite) {
+            try {
+                socket.write(output);
+            } catch (IOException e) {
+                closeNow();
+                throw new UncheckedIOException(e);
+            }
+            if (output.hasRemaining()) {
+                waitsForWrite = true;
+                server.requestWrite(this);
+            }
+        }
+    }
+
+    @Override
+    public byte[] receive() {
+        try {
+            byte[] message = received.take();
+            if (message == END) {
+                // Kept for the next calls.
+                received.add(END);
+                return null;
+            }
+
+            return message;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        }
+    }
+
+    /**
+     * To close the channel once the bytes sent are written.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            // The channel is closed already.
+        }
+        if (waitsForWrite)
+            closing = true;
+        else
+            closeNow();
+    }
+
+    /**
+     * States if the server has bytes to write once the socket accepts them.
+     * @return waitsForWrite (boolean) : true if the server waits for the socket to accept bytes.
+     */
+    synchronized boolean waitsForWrite() { return waitsForWrite; }
+
+    /**
+     * Called by the thread of the server when the socket accepts bytes, to write the ones waiting.
+     */
+    synchronized void onWritable() {
+        try {
+            socket.write(output);
+        } catch (IOException e) {
+            closeNow();
+            return;
+        }
+        if (!output.hasRemaining()) {
+            waitsForWrite = false;
+            if (closing)
+                closeNow();
+        }
+    }
+
+    /**
+     * Called by the thread of the server when the socket has bytes to read, to receive the complete messages.
+     * @return becameReady (boolean) : true if the client just chose the protocol.
+     */
+    boolean onReadable() {
+        boolean wasReady = isReady();
+        try {
+            if (!input.hasRemaining())
+                growInput();
+            if (socket.read(input) < 0) {
+                closeNow();
+                return false;
+            }
+
+            input.flip();
+            byte[] message;
+            while (input.hasRemaining() && (message = nextMessage()) != null) {
+                if (isReady()) {
+                    received.add(message);
+                } else {
+                    List<Protocol> chosen = Protocol.parseHello(new String(message, US_ASCII));
+                    if (chosen.size() != 1 || !protocols.contains(chosen.get(0)))
+                        throw new ProtocolException("Protocol not accepted: " + chosen);
+                    protocol = chosen.get(0);
+                }
+            }
+            input.compact();
+
+        } catch (IOException e) {
+            closeNow();
+            return false;
+        }
+
+        return !wasReady && isReady();
+    }
+
+    /**
+     * States if the channel is closed.
+     * @return isClosed (boolean) : true if the channel is closed.
+     */
+    synchronized boolean isClosed() { return closed; }
+
+    /**
+     * To close the channel at once, the thread of the game receiving the end of the messages.
+     */
+    synchronized void closeNow() {
+        if (closed)
+            return;
+        closed = true;
+        received.add(END);
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // The channel is closed anyway.
+        }
+        server.onClosed(this);
+    }
+
+    //Helper method extracting the next complete message of the bytes read, null if it is not complete yet, the
+    //negotiation being written as a line
+    private byte[] nextMessage() throws ProtocolException {
+        int start = input.position();
+        if (protocol != Protocol.BINARY) {
+            for (int i = start ; i < input.limit() ; i++) {
+                if (input.get(i) == '\n') {
+                    byte[] line = new byte[i - start];
+                    input.get(line);
+                    input.get();
+                    return line;
+                }
+            }
+            if (input.remaining() > MAX_MESSAGE_LENGTH)
+                throw new ProtocolException("Line too long");
+            return null;
+        }
+
+        int length = 0;
+        for (int shift = 0 ; ; shift += 7) {
+            if (!input.hasRemaining()) {
+                input.position(start);
+                return null;
+            }
+            int b = input.get();
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                break;
+            if (shift >= 21)
+                throw new ProtocolException("Invalid frame length");
+        }
+        if (length > MAX_MESSAGE_LENGTH)
+            throw new ProtocolException("Frame too long: " + length);
+        if (input.remaining() < length) {
+            input.position(start);
+            return null;
+        }
+
+        byte[] frame = new byte[length];
+        input.get(frame);
+
+        return frame;
+    }
+
+    //Helper method doubling the size of the buffer of the bytes read, which is full
+    private void growInput() {
+        ByteBuffer newInput = ByteBuffer.allocate(input.capacity() * 2);
+        input.flip();
+        newInput.put(input);
+        input = newInput;
+    }
+
+}
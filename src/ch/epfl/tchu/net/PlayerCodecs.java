@@ -0,0 +1,65 @@
+package ch.epfl.tchu.net;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.Player.TurnKind;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * The codecs of the values exchanged between a player proxy and its client for the games played on a map. There is
+ * only one instance per map.
+ */
+final class PlayerCodecs {
+
+    private static final Map<MapDefinition, PlayerCodecs> INSTANCES = new ConcurrentHashMap<>();
+
+    final Codec<Integer> integer;
+    final Codec<String> string;
+    final Codec<PlayerId> playerId;
+    final Codec<TurnKind> turnKind;
+    final Codec<List<String>> stringList;
+    final Codec<SortedBag<Card>> cardSortedBag;
+    final Codec<List<SortedBag<Card>>> listOfSortedBagOfCards;
+    final Codec<Route> route;
+    final Codec<SortedBag<Ticket>> ticketSortedBag;
+    final Codec<PlayerState> playerState;
+    final Codec<PublicGameState> publicGameState;
+
+    /**
+     * To get the codecs of the given map.
+     * @param map (MapDefinition) : the map of interest.
+     * @return codecs (PlayerCodecs) : the codecs of the map, the same ones for every call with the same map.
+     */
+    static PlayerCodecs of(MapDefinition map) {
+        return INSTANCES.computeIfAbsent(map, PlayerCodecs::new);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private PlayerCodecs(MapDefinition map) {
+        MapSerdes serdes = MapSerdes.of(map);
+        integer = Codec.of(Serdes.integerSerde, BinarySerdes.integerSerde);
+        string = Codec.of(Serdes.stringSerde, BinarySerdes.stringSerde);
+        playerId = Codec.of(Serdes.playerIdSerde, BinarySerdes.playerIdSerde);
+        turnKind = Codec.of(Serdes.turnKindSerde, BinarySerdes.turnKindSerde);
+        stringList = Codec.of(Serdes.stringListSerde, BinarySerdes.stringListSerde);
+        cardSortedBag = Codec.of(Serdes.cardSortedBagSerde, BinarySerdes.cardSortedBagSerde);
+        listOfSortedBagOfCards = Codec.of(Serdes.listOfSortedBagOfCardsSerde,
+                BinarySerdes.listOfSortedBagOfCardsSerde);
+        route = Codec.of(serdes.routeSerde(), serdes.routeBinarySerde());
+        ticketSortedBag = Codec.of(serdes.ticketSortedBagSerde(), serdes.ticketSortedBagBinarySerde());
+        playerState = Codec.of(serdes.playerStateSerde(), serdes.playerStateBinarySerde());
+        publicGameState = Codec.of(serdes.publicGameStateSerde(), serdes.publicGameStateBinarySerde());
+    }
+
+}
@@ -0,0 +1,74 @@
+package ch.epfl.tchu.net;
+
+import java.net.ProtocolException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Enum class that contains the protocols the messages between a proxy and its client can be written with, one of
+ * them being negotiated for each connection.
+ */
+public enum Protocol {
+
+    /**
+     * Messages written as lines of ASCII text, the values being serialized by the serdes (Serde).
+     */
+    TEXT,
+
+    /**
+     * Messages written as frames of bytes preceded by their length, the values being serialized by the binary serdes
+     * (BinarySerde).
+     */
+    BINARY;
+
+    /**
+     * The list of all the protocols (List<Protocol>).
+     */
+    public static final List<Protocol> ALL = List.of(Protocol.values());
+
+    /**
+     * The number of protocols (int).
+     */
+    public static final int COUNT = ALL.size();
+
+    private static final String HELLO = "PROTOCOL";
+
+    /**
+     * To get the line of the negotiation giving protocols: the ones accepted by a proxy, or the one chosen by a
+     * client.
+     * @param protocols (List<Protocol>) : the protocols.
+     * @return line (String) : the line, without its end.
+     */
+    static String helloOf(List<Protocol> protocols) {
+        StringJoiner line = new StringJoiner(" ");
+        line.add(HELLO);
+        for (Protocol p : protocols)
+            line.add(p.name());
+
+        return line.toString();
+    }
+
+    /**
+     * To get the protocols given by a line of the negotiation, the ones unknown to this side being ignored.
+     * @param line (String) : the line, without its end.
+     * @return protocols (List<Protocol>) : the protocols known to this side, in the order of the line.
+     * @throws ProtocolException if the line is not a line of the negotiation.
+     */
+    static List<Protocol> parseHello(String line) throws ProtocolException {
+        String[] words = line.split(" ", -1);
+        if (!words[0].equals(HELLO))
+            throw new ProtocolException("Unexpected negotiation: " + words[0]);
+
+        List<Protocol> protocols = new ArrayList<>();
+        for (int i = 1 ; i < words.length ; i++) {
+            for (Protocol p : ALL) {
+                if (p.name().equals(words[i]))
+                    protocols.add(p);
+            }
+        }
+
+        return protocols;
+    }
+
+}
@@ -4,8 +4,8 @@ import ch.epfl.tchu.game.Player;
 
 import java.io.*;
 import java.net.Socket;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
@@ -23,7 +23,8 @@ public class RemoteChatProxy implements ChatSystem {
      */
     public RemoteChatProxy(Player player) {
         this.player = player;
-        sockets = new ArrayList<>();
+        // The clients are added and read on their own threads.
+        sockets = new CopyOnWriteArrayList<>();
     }
 
     /**
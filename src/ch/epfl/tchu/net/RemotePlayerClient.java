@@ -3,13 +3,11 @@ package ch.epfl.tchu.net;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.*;
 import java.io.*;
+import java.net.ProtocolException;
 import java.net.Socket;
-import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
-import static java.nio.charset.StandardCharsets.US_ASCII;
 
 /**
  * RemotePlayerClient creates client of a remote player, which is to be connected to the proxy.
@@ -19,16 +17,36 @@ public final class RemotePlayerClient {
 
     private final Player player;
     private final Socket socket;
+    private final Protocol protocol;
+    private final MapDefinition map;
+    private final PlayerCodecs codecs;
 
     /**
-     * Public constructor.
+     * Public constructor, the binary protocol being used if the proxy accepts it, for a game on the map of the United
+     * States.
      * @param player (Player) : player who is given remote access.
      * @param name (String) : name used to connect to the proxy.
      * @param port (int) : port number used to connect to the proxy.
      * @throws UncheckedIOException if an unchecked exception is found.
      */
     public RemotePlayerClient(Player player, String name, int port) {
+        this(player, name, port, Protocol.BINARY, MapDefinition.usa());
+    }
+
+    /**
+     * Public constructor.
+     * @param player (Player) : player who is given remote access.
+     * @param name (String) : name used to connect to the proxy.
+     * @param port (int) : port number used to connect to the proxy.
+     * @param protocol (Protocol) : the protocol to use if the proxy accepts it.
+     * @param map (MapDefinition) : the map of the game.
+     * @throws UncheckedIOException if an unchecked exception is found.
+     */
+    public RemotePlayerClient(Player player, String name, int port, Protocol protocol, MapDefinition map) {
         this.player = player;
+        this.protocol = protocol;
+        this.map = map;
+        this.codecs = PlayerCodecs.of(map);
         try {
             socket = new Socket(name, port);
 
@@ -38,22 +56,25 @@ public final class RemotePlayerClient {
     }
 
     /**
-     * When this method is run, allows to realize the exchanges with the proxy.
+     * When this method is run, negotiates the protocol and then allows to realize the exchanges with the proxy.
      * @throws UncheckedIOException if an unchecked exception is found.
      */
     public void run() {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
-            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), US_ASCII))) {
+        StateDeltas deltas = StateDeltas.of(map);
+        // The last states received, from which the deltas are applied.
+        PublicGameState lastState = null;
+        PlayerState lastOwnState = null;
 
-            String message;
-            while ((message = reader.readLine()) != null) {
-                String[] splitString = message.split(Pattern.quote(" "), -1);
+        try (MessageChannel channel = StreamChannel.connect(socket, protocol)) {
+            byte[] bytes;
+            while ((bytes = channel.receive()) != null) {
+                MessageReader message = MessageReader.message(channel.protocol(), bytes);
 
-                switch (MessageId.valueOf(splitString[0])) {
+                switch (message.messageId()) {
 
                     case INIT_PLAYERS:
-                        PlayerId ownId = Serdes.playerIdSerde.deserialize(splitString[1]);
-                        List<String> names = Serdes.stringListSerde.deserialize(splitString[2]);
+                        PlayerId ownId = message.next(codecs.playerId);
+                        List<String> names = message.next(codecs.stringList);
                         List<PlayerId> allPlayers = PlayerId.ALL.subList(0, names.size());
                         Map<PlayerId, String> playerNames = new HashMap<>();
                             for (int i = 0 ; i < allPlayers.size() ; i++)
@@ -62,78 +83,79 @@ public final class RemotePlayerClient {
                         break;
 
                     case RECEIVE_INFO:
-                        String info = Serdes.stringSerde.deserialize(splitString[1]);
+                        String info = message.next(codecs.string);
                         player.receiveInfo(info);
                         break;
 
                     case UPDATE_STATE:
-                        PublicGameState newState = Serdes.publicGameStateSerde.deserialize(splitString[1]);
-                        PlayerState ownState = Serdes.playerStateSerde.deserialize(splitString[2]);
+                        PublicGameState newState = message.next(codecs.publicGameState);
+                        PlayerState ownState = message.next(codecs.playerState);
                         player.updateState(newState, ownState);
+                        lastState = newState;
+                        lastOwnState = ownState;
+                        break;
+
+                    case UPDATE_STATE_DELTA:
+                        if (lastState == null)
+                            throw new UncheckedIOException(new ProtocolException("Delta without a complete state"));
+                        lastState = message.next(deltas.publicGameStateSerde(lastState));
+                        lastOwnState = message.next(deltas.playerStateSerde(lastOwnState));
+                        player.updateState(lastState, lastOwnState);
                         break;
 
                     case SET_INITIAL_TICKETS:
-                        SortedBag<Ticket> allInitialTickets = Serdes.ticketSortedBagSerde.deserialize(splitString[1]);
+                        SortedBag<Ticket> allInitialTickets = message.next(codecs.ticketSortedBag);
                         player.setInitialTicketChoice(allInitialTickets);
                         break;
 
                     case CHOOSE_INITIAL_TICKETS:
                         SortedBag<Ticket> chosenInitialTickets = player.chooseInitialTickets();
-                        sendMessage(writer, Serdes.ticketSortedBagSerde.serialize(chosenInitialTickets));
+                        sendMessage(channel, codecs.ticketSortedBag, chosenInitialTickets);
                         break;
 
                     case NEXT_TURN:
                         Player.TurnKind nextTurn = player.nextTurn();
-                        sendMessage(writer, Serdes.turnKindSerde.serialize(nextTurn));
+                        sendMessage(channel, codecs.turnKind, nextTurn);
                         break;
 
                     case CHOOSE_TICKETS:
-                        SortedBag<Ticket> allTickets = Serdes.ticketSortedBagSerde.deserialize(splitString[1]);
+                        SortedBag<Ticket> allTickets = message.next(codecs.ticketSortedBag);
                         SortedBag<Ticket> chosenTickets = player.chooseTickets(allTickets);
-                        sendMessage(writer, Serdes.ticketSortedBagSerde.serialize(chosenTickets));
+                        sendMessage(channel, codecs.ticketSortedBag, chosenTickets);
                         break;
 
                     case DRAW_SLOT:
                         int slot = player.drawSlot();
-                        sendMessage(writer, Serdes.integerSerde.serialize(slot));
+                        sendMessage(channel, codecs.integer, slot);
                         break;
 
                     case ROUTE:
                         Route route = player.claimedRoute();
-                        sendMessage(writer, Serdes.routeSerde.serialize(route));
+                        sendMessage(channel, codecs.route, route);
                         break;
 
                     case CARDS:
                         SortedBag<Card> cards = player.initialClaimCards();
-                        sendMessage(writer, Serdes.cardSortedBagSerde.serialize(cards));
+                        sendMessage(channel, codecs.cardSortedBag, cards);
                         break;
 
                     case CHOOSE_ADDITIONAL_CARDS:
-                        List<SortedBag<Card>> allCards = Serdes.listOfSortedBagOfCardsSerde.deserialize(splitString[1]);
+                        List<SortedBag<Card>> allCards = message.next(codecs.listOfSortedBagOfCards);
                         SortedBag<Card> chosenCards = player.chooseAdditionalCards(allCards);
-                        sendMessage(writer, Serdes.cardSortedBagSerde.serialize(chosenCards));
+                        sendMessage(channel, codecs.cardSortedBag, chosenCards);
                         break;
 
                     default:
                         throw new Error();
                 }
             }
-
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
         }
     }
 
-    // Helper method to send a message through the buffered writer.
-    private void sendMessage(BufferedWriter w, String serializedMessage) {
-        try {
-            w.write(serializedMessage);
-            w.write('\n');
-            w.flush();
-
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    // Helper method to send a reply through the channel.
+    private static <E> void sendMessage(MessageChannel channel, Codec<E> codec, E value) {
+        channel.send(MessageWriter.reply(channel.protocol()).add(codec, value).toBytes());
+        channel.flush();
     }
 
 }
@@ -1,18 +1,22 @@
 package ch.epfl.tchu.net;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.UncheckedIOException;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import static java.nio.charset.StandardCharsets.US_ASCII;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.MapDefinition;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
@@ -22,26 +26,94 @@ import ch.epfl.tchu.game.Ticket;
 
 /**
  * RemotePlayerProxy creates a proxy of a remote player, which is to be connected to the client.
+ * The notifications (the messages the client does not reply to) are kept by the proxy, and sent with the next
+ * request or once a short delay expires, so that the messages of a turn take a few writes only.
  * @author Cristian Safta (324694)
  */
-public final class RemotePlayerProxy implements Player {
+public final class RemotePlayerProxy implements Player, Closeable {
 
-    private final BufferedWriter w;
-    private final BufferedReader r;
+    /**
+     * The default amount of states sent between two complete states (keyframes), the other ones being sent as
+     * deltas when the binary protocol is used.
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 32;
+    /**
+     * The default amount of milliseconds a notification may wait in the buffer of the channel before being flushed.
+     */
+    public static final long DEFAULT_FLUSH_DELAY_MILLIS = 10;
+
+    // Hands the notifications of all the proxies to FLUSHES once their delay expires, without writing them itself.
+    private static final ScheduledExecutorService FLUSH_SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(ExecutionModel.PLATFORM.threadFactory("flush-scheduler"));
+    // Writes the delayed notifications, each flush on its own thread, so that a slow client only delays its own.
+    private static final Executor FLUSHES = ExecutionModel.DEFAULT.newExecutor("flush");
+
+    private final MessageChannel channel;
+    private final PlayerCodecs codecs;
+    private final StateDeltas deltas;
+    private final int keyframeInterval;
+    private final long flushDelayMillis;
+    // Guards the notifications waiting to be sent, only held while they are copied, never while writing them.
+    private final Lock pendingLock = new ReentrantLock();
+    private List<byte[]> pendingMessages = new ArrayList<>();
+    private boolean isFlushScheduled;
+    // Held while writing to the channel, so that the messages are written in the order they were taken.
+    private final Lock writeLock = new ReentrantLock();
+    // The last states sent, from which the next ones can be written as deltas.
+    private PublicGameState lastState;
+    private PlayerState lastOwnState;
+    private int deltasSinceKeyframe;
 
     /**
-     * Public constructor.
+     * Public constructor, negotiating the protocol with the client (any protocol being accepted), for a game on the
+     * map of the United States.
      * @param socket (Socket) : the socket of the client.
      * @throws UncheckedIOException if an unchecked exception is found.
      */
     public RemotePlayerProxy(Socket socket) {
-        try {
-            w = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), US_ASCII));
-            r = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+        this(StreamChannel.accept(socket, Protocol.ALL), MapDefinition.usa());
+    }
 
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    /**
+     * Public constructor, sending a complete state every DEFAULT_KEYFRAME_INTERVAL states.
+     * @param channel (MessageChannel) : the channel connected to the client.
+     * @param map (MapDefinition) : the map of the game.
+     */
+    public RemotePlayerProxy(MessageChannel channel, MapDefinition map) {
+        this(channel, map, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Public constructor, flushing the notifications after DEFAULT_FLUSH_DELAY_MILLIS milliseconds at most.
+     * @param channel (MessageChannel) : the channel connected to the client.
+     * @param map (MapDefinition) : the map of the game.
+     * @param keyframeInterval (int) : the amount of states sent between two complete states, 1 to send only complete
+     *                         states.
+     * @throws IllegalArgumentException if keyframeInterval is not strictly positive.
+     */
+    public RemotePlayerProxy(MessageChannel channel, MapDefinition map, int keyframeInterval) {
+        this(channel, map, keyframeInterval, DEFAULT_FLUSH_DELAY_MILLIS);
+    }
+
+    /**
+     * Public constructor.
+     * @param channel (MessageChannel) : the channel connected to the client.
+     * @param map (MapDefinition) : the map of the game.
+     * @param keyframeInterval (int) : the amount of states sent between two complete states, 1 to send only complete
+     *                         states.
+     * @param flushDelayMillis (long) : the amount of milliseconds a notification may wait before being flushed, 0 to
+     *                         flush every message at once.
+     * @throws IllegalArgumentException if keyframeInterval is not strictly positive or if flushDelayMillis is
+     * negative.
+     */
+    public RemotePlayerProxy(MessageChannel channel, MapDefinition map, int keyframeInterval, long flushDelayMillis) {
+        Preconditions.checkArgument(keyframeInterval > 0);
+        Preconditions.checkArgument(flushDelayMillis >= 0);
+        this.channel = channel;
+        this.codecs = PlayerCodecs.of(map);
+        this.deltas = StateDeltas.of(map);
+        this.keyframeInterval = keyframeInterval;
+        this.flushDelayMillis = flushDelayMillis;
     }
 
     /**
@@ -55,8 +127,7 @@ public final class RemotePlayerProxy implements Player {
             for (int i = 0 ; i < playerNames.size() ; i++)
                 names.add(playerNames.get(PlayerId.ALL.get(i)));
 
-        String message = Serdes.playerIdSerde.serialize(ownId) + " " + Serdes.stringListSerde.serialize(names);
-        sendMessage(MessageId.INIT_PLAYERS, message);
+        sendNotification(message(MessageId.INIT_PLAYERS).add(codecs.playerId, ownId).add(codecs.stringList, names));
     }
 
     /**
@@ -65,8 +136,7 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public void receiveInfo(String info) {
-        String message = Serdes.stringSerde.serialize(info);
-        sendMessage(MessageId.RECEIVE_INFO, message);
+        sendNotification(message(MessageId.RECEIVE_INFO).add(codecs.string, info));
     }
 
     /**
@@ -78,14 +148,29 @@ public final class RemotePlayerProxy implements Player {
 
     /**
      * Method that is called when the state of the game changes to communicate to the player the state of
-     * the game (only the components that he can view) and his own state
+     * the game (only the components that he can view) and his own state, as deltas from the last states sent when
+     * the binary protocol is used, except every keyframeInterval states
      * @param newState (PublicGameState) : the state of the game
      * @param ownState (PlayerState) : the state of the player
      */
     @Override
     public void updateState(PublicGameState newState, PlayerState ownState) {
-        String message = Serdes.publicGameStateSerde.serialize(newState) + " " + Serdes.playerStateSerde.serialize(ownState);
-        sendMessage(MessageId.UPDATE_STATE, message);
+        // The stream keeps the messages in order, so the last states sent are the ones the client knows.
+        boolean isDelta = channel.protocol() == Protocol.BINARY && lastState != null
+                && deltasSinceKeyframe + 1 < keyframeInterval
+                && StateDeltas.canFollow(lastState, newState) && StateDeltas.canFollow(lastOwnState, ownState);
+        if (isDelta) {
+            sendNotification(message(MessageId.UPDATE_STATE_DELTA)
+                    .add(deltas.publicGameStateSerde(lastState), newState)
+                    .add(deltas.playerStateSerde(lastOwnState), ownState));
+            deltasSinceKeyframe += 1;
+        } else {
+            sendNotification(message(MessageId.UPDATE_STATE).add(codecs.publicGameState, newState)
+                    .add(codecs.playerState, ownState));
+            deltasSinceKeyframe = 0;
+        }
+        lastState = newState;
+        lastOwnState = ownState;
     }
 
     /**
@@ -94,8 +179,7 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
-        String message = Serdes.ticketSortedBagSerde.serialize(tickets);
-        sendMessage(MessageId.SET_INITIAL_TICKETS, message);
+        sendNotification(message(MessageId.SET_INITIAL_TICKETS).add(codecs.ticketSortedBag, tickets));
     }
 
     /**
@@ -105,8 +189,8 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public SortedBag<Ticket> chooseInitialTickets() {
-        sendMessage(MessageId.CHOOSE_INITIAL_TICKETS);
-        return Serdes.ticketSortedBagSerde.deserialize(receiveMessage());
+        sendRequest(message(MessageId.CHOOSE_INITIAL_TICKETS));
+        return receiveMessage(codecs.ticketSortedBag);
     }
 
     /**
@@ -115,8 +199,8 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public TurnKind nextTurn() {
-        sendMessage(MessageId.NEXT_TURN);
-        return Serdes.turnKindSerde.deserialize(receiveMessage());
+        sendRequest(message(MessageId.NEXT_TURN));
+        return receiveMessage(codecs.turnKind);
     }
 
     /**
@@ -127,9 +211,8 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
-        String message = Serdes.ticketSortedBagSerde.serialize(options);
-        sendMessage(MessageId.CHOOSE_TICKETS, message);
-        return Serdes.ticketSortedBagSerde.deserialize(receiveMessage());
+        sendRequest(message(MessageId.CHOOSE_TICKETS).add(codecs.ticketSortedBag, options));
+        return receiveMessage(codecs.ticketSortedBag);
     }
 
     /**
@@ -139,8 +222,8 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public int drawSlot() {
-        sendMessage(MessageId.DRAW_SLOT);
-        return Serdes.integerSerde.deserialize(receiveMessage());
+        sendRequest(message(MessageId.DRAW_SLOT));
+        return receiveMessage(codecs.integer);
     }
 
     /**
@@ -149,8 +232,8 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public Route claimedRoute() {
-        sendMessage(MessageId.ROUTE);
-        return Serdes.routeSerde.deserialize(receiveMessage());
+        sendRequest(message(MessageId.ROUTE));
+        return receiveMessage(codecs.route);
     }
 
     /**
@@ -159,8 +242,8 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public SortedBag<Card> initialClaimCards() {
-        sendMessage(MessageId.CARDS);
-        return Serdes.cardSortedBagSerde.deserialize(receiveMessage());
+        sendRequest(message(MessageId.CARDS));
+        return receiveMessage(codecs.cardSortedBag);
     }
 
     /**
@@ -174,44 +257,101 @@ public final class RemotePlayerProxy implements Player {
      */
     @Override
     public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
-        String message = Serdes.listOfSortedBagOfCardsSerde.serialize(options);
-        sendMessage(MessageId.CHOOSE_ADDITIONAL_CARDS, message);
-        return Serdes.cardSortedBagSerde.deserialize(receiveMessage());
+        sendRequest(message(MessageId.CHOOSE_ADDITIONAL_CARDS).add(codecs.listOfSortedBagOfCards, options));
+        return receiveMessage(codecs.cardSortedBag);
     }
 
 
-    //Helper methods used to send a message to the client
-    private void sendMessage(MessageId messageId, String serializedMessage) {
+    /**
+     * To close the proxy at the end of the game: the notifications not sent yet are sent, and the channel is closed.
+     * @throws UncheckedIOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() {
         try {
-            w.write(messageId.name() + " " + serializedMessage);
-            w.write('\n');
-            w.flush();
-
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            send(null);
+        } catch (UncheckedIOException e) {
+            // The client left, the channel being closed anyway.
         }
+        channel.close();
     }
 
-    private void sendMessage(MessageId messageId) {
+    //Helper method starting a message written with the protocol of the channel
+    private MessageWriter message(MessageId messageId) {
+        return MessageWriter.message(channel.protocol(), messageId);
+    }
+
+    //Helper method used to send a notification to the client, with the next request or once the delay expires
+    private void sendNotification(MessageWriter message) {
+        if (flushDelayMillis == 0) {
+            send(message.toBytes());
+            return;
+        }
+
+        boolean schedulesFlush;
+        pendingLock.lock();
         try {
-            w.write(messageId.name());
-            w.write('\n');
-            w.flush();
+            pendingMessages.add(message.toBytes());
+            schedulesFlush = !isFlushScheduled;
+            isFlushScheduled = true;
+        } finally {
+            pendingLock.unlock();
+        }
+        if (schedulesFlush) {
+            FLUSH_SCHEDULER.schedule(() -> FLUSHES.execute(this::flushNotifications), flushDelayMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
 
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+    //Helper method used to send a request to the client, at once with the notifications preceding it
+    private void sendRequest(MessageWriter message) {
+        send(message.toBytes());
+    }
+
+    //Helper method sending the notifications whose delay expired, unless a request sent them meanwhile
+    private void flushNotifications() {
+        try {
+            send(null);
+        } catch (UncheckedIOException e) {
+            // The client left, which the next request reveals to the game.
         }
     }
 
-    //Helper method used to read a message from the client
-    private String receiveMessage() {
+    //Helper method writing the pending notifications followed by the given message (if not null), and flushing them
+    private void send(byte[] message) {
+        writeLock.lock();
         try {
-            return r.readLine();
+            List<byte[]> messages;
+            pendingLock.lock();
+            try {
+                messages = pendingMessages;
+                pendingMessages = new ArrayList<>();
+                if (message == null)
+                    isFlushScheduled = false;
+            } finally {
+                pendingLock.unlock();
+            }
+            if (message != null)
+                messages.add(message);
+            if (messages.isEmpty())
+                return;
 
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            for (byte[] m : messages)
+                channel.send(m);
+            channel.flush();
+
+        } finally {
+            writeLock.unlock();
         }
     }
 
-}
+    //Helper method used to read the reply of the client
+    private <E> E receiveMessage(Codec<E> codec) {
+        byte[] reply = channel.receive();
+        if (reply == null)
+            throw new UncheckedIOException(new EOFException());
 
+        return MessageReader.reply(channel.protocol(), reply).next(codec);
+    }
+
+}
@@ -4,7 +4,9 @@ import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.regex.Pattern;
@@ -71,7 +73,12 @@ public interface Serde<E> {
         Preconditions.checkArgument(copyList != null);
         Preconditions.checkArgument(!copyList.isEmpty());
 
-        Function<T, String> serializer = t -> Integer.toString(copyList.indexOf(t));
+        // Index of each value, the first one being kept for duplicates as indexOf would do.
+        Map<T, Integer> indexes = new HashMap<>();
+        for (int i = 0 ; i < copyList.size() ; i++)
+            indexes.putIfAbsent(copyList.get(i), i);
+
+        Function<T, String> serializer = t -> Integer.toString(indexes.getOrDefault(t, -1));
         Function<String, T> deserializer = s -> copyList.get(Objects.checkIndex(Integer.parseInt(s), copyList.size()));
 
         return of(serializer, deserializer);
@@ -11,7 +11,8 @@ import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Player.TurnKind;
 
 /**
- * A class that contains all the useful serdes of the project as attributes.
+ * A class that contains all the useful serdes of the project as attributes, the ones depending on the map being the
+ * ones of the map of the United States (see MapSerdes for the other maps).
  * @author Cristian Safta (324694)
  * @author Jérémy Chaverot (315858)
  */
@@ -50,138 +51,83 @@ public final class Serdes {
     public static final Serde<Card> cardSerde = Serde.<Card>oneOf(Card.ALL);
 
     /**
-     * Serde that serves to (de)encode a route (Route).
+     * Serde that serves to (de)encode a list of strings (List<String>).
      */
-    public static final Serde<Route> routeSerde = Serde.<Route>oneOf(UsaMap.routes());
+    public static final Serde<List<String>> stringListSerde = Serde.<String>listOf(stringSerde, ",");
 
     /**
-     * Serde that serves to (de)encode a station (Station).
+     * Serde that serves to (de)encode a list of cards (List<Card>).
      */
-    public static final Serde<Station> stationSerde = Serde.<Station>oneOf(UsaMap.stations());
+    public static final Serde<List<Card>> cardListSerde = Serde.<Card>listOf(cardSerde, ",");
 
     /**
-     * Serde that serves to (de)encode a ticket (Ticket).
+     * Serde that serves to (de)encode a sorted bag of cards (SortedBag<Card>).
      */
-    public static final Serde<Ticket> ticketSerde = Serde.<Ticket>oneOf(UsaMap.tickets());
+    public static final Serde<SortedBag<Card>> cardSortedBagSerde = Serde.<Card>bagOf(cardSerde, ",");
 
     /**
-     * Serde that serves to (de)encode a list of strings (List<String>).
+     * Serde that serves to (de)encode a list of sorted bags of tickets (List<SortedBag<Card>>).
      */
-    public static final Serde<List<String>> stringListSerde = Serde.<String>listOf(stringSerde, ",");
+    public static final Serde<List<SortedBag<Card>>> listOfSortedBagOfCardsSerde = Serde.<SortedBag<Card>>listOf(cardSortedBagSerde, ";");
 
     /**
-     * Serde that serves to (de)encode a list of cards (List<Card>).
+     * Serde that serves to (de)encode a public card state (PublicCardState).
      */
-    public static final Serde<List<Card>> cardListSerde = Serde.<Card>listOf(cardSerde, ",");
+    public static final Serde<PublicCardState> publicCardStateSerde = Serde.<PublicCardState>of(a ->
+        cardListSerde.serialize(a.faceUpCards())+ ";" + integerSerde.serialize(a.deckSize()) + ";"
+                + integerSerde.serialize(a.discardsSize()), b -> {
+            String[] s = b.split(Pattern.quote(";"), -1);
+            return new PublicCardState(cardListSerde.deserialize(s[0]), integerSerde.deserialize(s[1]),
+                    integerSerde.deserialize(s[2]));
+    });
+
+    // Declared after the serdes above, which the serdes of the maps use.
+    private static final MapSerdes USA = MapSerdes.of(MapDefinition.usa());
 
     /**
-     * Serde that serves to (de)encode a list of routes (List<Route>).
+     * Serde that serves to (de)encode a route (Route).
      */
-    public static final Serde<List<Route>> routeListSerde = Serde.<Route>listOf(routeSerde, ",");
+    public static final Serde<Route> routeSerde = USA.routeSerde();
 
     /**
-     * Serde that serves to (de)encode a sorted bag of cards (SortedBag<Card>).
+     * Serde that serves to (de)encode a station (Station).
      */
-    public static final Serde<SortedBag<Card>> cardSortedBagSerde = Serde.<Card>bagOf(cardSerde, ",");
+    public static final Serde<Station> stationSerde = USA.stationSerde();
 
     /**
-     * Serde that serves to (de)encode a sorted bag of tickets (SortedBag<Ticket>).
+     * Serde that serves to (de)encode a ticket (Ticket).
      */
-    public static final Serde<SortedBag<Ticket>> ticketSortedBagSerde = Serde.<Ticket>bagOf(ticketSerde, ",");
+    public static final Serde<Ticket> ticketSerde = USA.ticketSerde();
 
     /**
-     * Serde that serves to (de)encode a list of sorted bags of tickets (List<SortedBag<Card>>).
+     * Serde that serves to (de)encode a list of routes (List<Route>).
      */
-    public static final Serde<List<SortedBag<Card>>> listOfSortedBagOfCardsSerde = Serde.<SortedBag<Card>>listOf(cardSortedBagSerde, ";");
+    public static final Serde<List<Route>> routeListSerde = USA.routeListSerde();
 
     /**
-     * Serde that serves to (de)encode a trail (Trail).
+     * Serde that serves to (de)encode a sorted bag of tickets (SortedBag<Ticket>).
      */
-    public static final Serde<Trail> trailSerde = Serde.<Trail>of(a -> routeListSerde.serialize(a.routes()) + "*"
-                    + stationSerde.serialize(a.station1()) + "*" + stationSerde.serialize(a.station2()),
-            b -> {
-                String[] s = b.split(Pattern.quote("*"), -1);
-                return new Trail(routeListSerde.deserialize(s[0]), stationSerde.deserialize(s[1]), stationSerde.deserialize(s[2]));
-            }
-    );
+    public static final Serde<SortedBag<Ticket>> ticketSortedBagSerde = USA.ticketSortedBagSerde();
 
     /**
-     * Serde that serves to (de)encode a public card state (PublicCardState).
+     * Serde that serves to (de)encode a trail (Trail).
      */
-    public static final Serde<PublicCardState> publicCardStateSerde = Serde.<PublicCardState>of(a ->
-        cardListSerde.serialize(a.faceUpCards())+ ";" + integerSerde.serialize(a.deckSize()) + ";"
-                + integerSerde.serialize(a.discardsSize()), b -> {
-            String[] s = b.split(Pattern.quote(";"), -1);
-            return new PublicCardState(cardListSerde.deserialize(s[0]), integerSerde.deserialize(s[1]),
-                    integerSerde.deserialize(s[2]));
-    });
+    public static final Serde<Trail> trailSerde = USA.trailSerde();
 
     /**
      * Serde that serves to (de)encode a public player state (PublicPlayerState).
      */
-    public static final Serde<PublicPlayerState> publicPlayerStateSerde = Serde.<PublicPlayerState>of(a -> {
-        String serialized = integerSerde.serialize(a.ticketCount()) + ";" + integerSerde.serialize(a.cardCount()) + ";"
-                + routeListSerde.serialize(a.routes()) + ";";
-        return (a.longestTrail() != null)
-                ? serialized + trailSerde.serialize(a.longestTrail())
-                : serialized;
-        }, b -> {
-                String[] s = b.split(Pattern.quote(";"), -1);
-                if(!s[3].isEmpty())
-                    return new PublicPlayerState(integerSerde.deserialize(s[0]), integerSerde.deserialize(s[1]),
-                            routeListSerde.deserialize(s[2]), trailSerde.deserialize(s[3]));
-            return new PublicPlayerState(integerSerde.deserialize(s[0]), integerSerde.deserialize(s[1]),
-                    routeListSerde.deserialize(s[2]), null); // In case longestTrail is null
-        }
-    );
+    public static final Serde<PublicPlayerState> publicPlayerStateSerde = USA.publicPlayerStateSerde();
 
     /**
      * Serde that serves to (de)encode a player state (PlayerState).
      */
-    public static final Serde<PlayerState> playerStateSerde = Serde.<PlayerState>of(a -> {
-        String serialized = ticketSortedBagSerde.serialize(a.tickets()) + ";" + cardSortedBagSerde.serialize(a.cards()) + ";"
-                + routeListSerde.serialize(a.routes()) + ";";
-        return (a.longestTrail() != null)
-                ? serialized + trailSerde.serialize(a.longestTrail())
-                : serialized;
-        }, b -> {
-                String[] s = b.split(Pattern.quote(";"), -1);
-                if(!s[3].isEmpty())
-                    return new PlayerState(ticketSortedBagSerde.deserialize(s[0]), cardSortedBagSerde.deserialize(s[1]),
-                            routeListSerde.deserialize(s[2]), trailSerde.deserialize(s[3]));
-            return new PlayerState(ticketSortedBagSerde.deserialize(s[0]), cardSortedBagSerde.deserialize(s[1]),
-                    routeListSerde.deserialize(s[2]), null); // In case longestTrail is null
-        }
-    );
+    public static final Serde<PlayerState> playerStateSerde = USA.playerStateSerde();
 
     /**
      * Serde that serves to (de)encode a public game state (PublicGameState).
      */
-    public static final Serde<PublicGameState> publicGameStateSerde = Serde.<PublicGameState>of(a -> {
-        String playerStates = "";
-            for (int i = 0 ; i < a.numberOfPlayers() ; i++)
-                playerStates = playerStates.concat(publicPlayerStateSerde.serialize(a.playerState(PlayerId.ALL.get(i))) + ":");
-
-        String serialized = integerSerde.serialize(a.numberOfPlayers()) + ":"
-                + integerSerde.serialize(a.ticketsCount()) + ":"
-                + publicCardStateSerde.serialize(a.cardState()) + ":"
-                + playerIdSerde.serialize(a.currentPlayerId()) + ":"
-                + playerStates;
-        return (a.lastPlayer() != null)
-                ? serialized + playerIdSerde.serialize(a.lastPlayer())
-                : serialized;
-        }, b -> {
-        String[] s = b.split(Pattern.quote(":"), -1);
-        int numberOfPlayers = Integer.parseInt(s[0]);
-        Map<PlayerId, PublicPlayerState> playerState = new HashMap<>();
-            for (int i = 0 ; i < numberOfPlayers; i++)
-                playerState.put(PlayerId.ALL.get(i), publicPlayerStateSerde.deserialize(s[4 + i]));
-        if (!s[4 + numberOfPlayers].isEmpty())
-            return new PublicGameState(integerSerde.deserialize(s[1]), publicCardStateSerde.deserialize(s[2]),
-                    playerIdSerde.deserialize(s[3]), playerState, playerIdSerde.deserialize(s[4 + numberOfPlayers]));
-        return new PublicGameState(integerSerde.deserialize(s[1]), publicCardStateSerde.deserialize(s[2]),
-                playerIdSerde.deserialize(s[3]), playerState, null); // In case lastPlayerId is null
-    });
+    public static final Serde<PublicGameState> publicGameStateSerde = USA.publicGameStateSerde();
 
     /**
      * Private empty constructor because irrelevant.
@@ -0,0 +1,311 @@
+package ch.epfl.tchu.net;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.*;
+
+/**
+ * The binary serdes of the states following a base state, which only write what changed since it: the face-up cards
+ * replaced, the counts, the routes claimed and the cards gained or lost, preceded by the mask of the values that
+ * changed (so that the players whose state did not change take no byte at all). There is only one instance per map.
+ *
+ * A state can follow a base state if it has the same players and if every player kept its routes (and its tickets,
+ * for the private state), which is the case of all the states of a game from its first one.
+ */
+final class StateDeltas {
+
+    private static final Map<MapDefinition, StateDeltas> INSTANCES = new ConcurrentHashMap<>();
+    private static final BinarySerde<PlayerId> LAST_PLAYER_SERDE = BinarySerde.nullableOf(BinarySerdes.playerIdSerde);
+
+    // Bits of the changes of a public game state, each value being written only if it changed.
+    private static final int TICKETS_COUNT = 1;
+    private static final int FACE_UP_CARDS = 1 << 1;
+    private static final int DECK_SIZE = 1 << 2;
+    private static final int DISCARDS_SIZE = 1 << 3;
+    private static final int CURRENT_PLAYER = 1 << 4;
+    private static final int LAST_PLAYER = 1 << 5;
+    private static final int PLAYERS = 1 << 6;
+    // Bits of the changes of the state of a player.
+    private static final int TICKETS = 1;
+    private static final int CARDS = 1 << 1;
+    private static final int ROUTES = 1 << 2;
+    private static final int LONGEST_TRAIL = 1 << 3;
+
+    private final BinarySerde<List<Route>> routeListSerde;
+    private final BinarySerde<SortedBag<Ticket>> ticketSortedBagSerde;
+    private final BinarySerde<Trail> longestTrailSerde;
+
+    /**
+     * To get the binary serdes of the deltas of the states of the given map.
+     * @param map (MapDefinition) : the map of interest.
+     * @return deltas (StateDeltas) : the serdes of the map, the same ones for every call with the same map.
+     */
+    static StateDeltas of(MapDefinition map) {
+        return INSTANCES.computeIfAbsent(map, StateDeltas::new);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private StateDeltas(MapDefinition map) {
+        MapSerdes serdes = MapSerdes.of(map);
+        routeListSerde = serdes.routeListBinarySerde();
+        ticketSortedBagSerde = serdes.ticketSortedBagBinarySerde();
+        longestTrailSerde = BinarySerde.nullableOf(serdes.trailBinarySerde());
+    }
+
+    /**
+     * States if a public game state can be written as a delta from a base state.
+     * @param base (PublicGameState) : the base state.
+     * @param state (PublicGameState) : the state following it.
+     * @return canFollow (boolean) : true if the state has the same players, each one having kept its routes.
+     */
+    static boolean canFollow(PublicGameState base, PublicGameState state) {
+        if (base.numberOfPlayers() != state.numberOfPlayers())
+            return false;
+        for (int i = 0 ; i < state.numberOfPlayers() ; i++) {
+            PlayerId p = PlayerId.ALL.get(i);
+            if (!isPrefix(base.playerState(p).routes(), state.playerState(p).routes()))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * States if a player state can be written as a delta from a base state.
+     * @param base (PlayerState) : the base state.
+     * @param state (PlayerState) : the state following it.
+     * @return canFollow (boolean) : true if the player kept its tickets and its routes.
+     */
+    static boolean canFollow(PlayerState base, PlayerState state) {
+        return state.tickets().contains(base.tickets()) && isPrefix(base.routes(), state.routes());
+    }
+
+    /**
+     * To get the binary serde of the public game states following a base state.
+     * @param base (PublicGameState) : the base state, known by both sides.
+     * @return serde (BinarySerde<PublicGameState>) : the binary serde of the states that can follow the base state.
+     */
+    BinarySerde<PublicGameState> publicGameStateSerde(PublicGameState base) {
+        return BinarySerde.of((state, out) -> {
+            Preconditions.checkArgument(canFollow(base, state));
+            PublicCardState baseCards = base.cardState();
+            PublicCardState cards = state.cardState();
+            int changedSlots = 0;
+            for (int slot : Constants.FACE_UP_CARD_SLOTS) {
+                if (baseCards.faceUpCard(slot) != cards.faceUpCard(slot))
+                    changedSlots |= 1 << slot;
+            }
+            int changedPlayers = 0;
+            for (int i = 0 ; i < state.numberOfPlayers() ; i++) {
+                PlayerId p = PlayerId.ALL.get(i);
+                if (changes(base.playerState(p), state.playerState(p)) != 0)
+                    changedPlayers |= 1 << i;
+            }
+
+            int changes = mask(state.ticketsCount() != base.ticketsCount(), TICKETS_COUNT)
+                    | mask(changedSlots != 0, FACE_UP_CARDS)
+                    | mask(cards.deckSize() != baseCards.deckSize(), DECK_SIZE)
+                    | mask(cards.discardsSize() != baseCards.discardsSize(), DISCARDS_SIZE)
+                    | mask(state.currentPlayerId() != base.currentPlayerId(), CURRENT_PLAYER)
+                    | mask(state.lastPlayer() != base.lastPlayer(), LAST_PLAYER)
+                    | mask(changedPlayers != 0, PLAYERS);
+            out.write(changes);
+            if (has(changes, TICKETS_COUNT))
+                BinarySerde.writeVarInt(out, state.ticketsCount());
+            if (has(changes, FACE_UP_CARDS)) {
+                out.write(changedSlots);
+                for (int slot : Constants.FACE_UP_CARD_SLOTS) {
+                    if ((changedSlots & (1 << slot)) != 0)
+                        BinarySerdes.cardSerde.serialize(cards.faceUpCard(slot), out);
+                }
+            }
+            if (has(changes, DECK_SIZE))
+                BinarySerde.writeVarInt(out, cards.deckSize());
+            if (has(changes, DISCARDS_SIZE))
+                BinarySerde.writeVarInt(out, cards.discardsSize());
+            if (has(changes, CURRENT_PLAYER))
+                BinarySerdes.playerIdSerde.serialize(state.currentPlayerId(), out);
+            if (has(changes, LAST_PLAYER))
+                LAST_PLAYER_SERDE.serialize(state.lastPlayer(), out);
+            if (has(changes, PLAYERS)) {
+                out.write(changedPlayers);
+                for (int i = 0 ; i < state.numberOfPlayers() ; i++) {
+                    if ((changedPlayers & (1 << i)) != 0)
+                        serializePlayer(base.playerState(PlayerId.ALL.get(i)), state.playerState(PlayerId.ALL.get(i)),
+                                out);
+                }
+            }
+        }, in -> {
+            PublicCardState baseCards = base.cardState();
+            int changes = in.get();
+            int ticketsCount = has(changes, TICKETS_COUNT) ? BinarySerde.readVarInt(in) : base.ticketsCount();
+            List<Card> faceUpCards = baseCards.faceUpCards();
+            if (has(changes, FACE_UP_CARDS)) {
+                int changedSlots = in.get();
+                faceUpCards = new ArrayList<>(faceUpCards);
+                for (int slot : Constants.FACE_UP_CARD_SLOTS) {
+                    if ((changedSlots & (1 << slot)) != 0)
+                        faceUpCards.set(slot, BinarySerdes.cardSerde.deserialize(in));
+                }
+            }
+            int deckSize = has(changes, DECK_SIZE) ? BinarySerde.readVarInt(in) : baseCards.deckSize();
+            int discardsSize = has(changes, DISCARDS_SIZE) ? BinarySerde.readVarInt(in) : baseCards.discardsSize();
+            PlayerId currentPlayerId = has(changes, CURRENT_PLAYER)
+                    ? BinarySerdes.playerIdSerde.deserialize(in)
+                    : base.currentPlayerId();
+            PlayerId lastPlayer = has(changes, LAST_PLAYER) ? LAST_PLAYER_SERDE.deserialize(in) : base.lastPlayer();
+
+            int changedPlayers = has(changes, PLAYERS) ? in.get() : 0;
+            Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+            for (int i = 0 ; i < base.numberOfPlayers() ; i++) {
+                PlayerId p = PlayerId.ALL.get(i);
+                PublicPlayerState baseState = base.playerState(p);
+                playerStates.put(p, ((changedPlayers & (1 << i)) != 0)
+                        ? deserializePlayer(baseState, in)
+                        : baseState);
+            }
+
+            return new PublicGameState(ticketsCount, new PublicCardState(faceUpCards, deckSize, discardsSize),
+                    currentPlayerId, playerStates, lastPlayer);
+        });
+    }
+
+    /**
+     * To get the binary serde of the player states following a base state.
+     * @param base (PlayerState) : the base state, known by both sides.
+     * @return serde (BinarySerde<PlayerState>) : the binary serde of the states that can follow the base state.
+     */
+    BinarySerde<PlayerState> playerStateSerde(PlayerState base) {
+        return BinarySerde.of((state, out) -> {
+            Preconditions.checkArgument(canFollow(base, state));
+            int changes = mask(state.tickets().size() != base.tickets().size(), TICKETS)
+                    | mask(!state.cardBag().equals(base.cardBag()), CARDS)
+                    | mask(state.routes().size() != base.routes().size(), ROUTES)
+                    | mask(state.longestTrail() != base.longestTrail(), LONGEST_TRAIL);
+            out.write(changes);
+            if (has(changes, TICKETS))
+                ticketSortedBagSerde.serialize(state.tickets().difference(base.tickets()), out);
+            if (has(changes, CARDS))
+                serializeCardDifference(base.cardBag(), state.cardBag(), out);
+            serializeRoutes(changes, base, state, out);
+        }, in -> {
+            int changes = in.get();
+            SortedBag<Ticket> tickets = has(changes, TICKETS)
+                    ? base.tickets().union(ticketSortedBagSerde.deserialize(in))
+                    : base.tickets();
+            SortedBag<Card> cards = has(changes, CARDS)
+                    ? deserializeCardDifference(base.cardBag(), in)
+                    : base.cards();
+            List<Route> routes = deserializeRoutes(changes, base, in);
+            Trail longestTrail = has(changes, LONGEST_TRAIL) ? longestTrailSerde.deserialize(in) : base.longestTrail();
+            return new PlayerState(tickets, cards, routes, longestTrail);
+        });
+    }
+
+    //Helper method giving the mask of the changes of the public state of a player
+    private static int changes(PublicPlayerState base, PublicPlayerState state) {
+        return mask(state.ticketCount() != base.ticketCount(), TICKETS)
+                | mask(state.cardCount() != base.cardCount(), CARDS)
+                | mask(state.routes().size() != base.routes().size(), ROUTES)
+                | mask(state.longestTrail() != base.longestTrail(), LONGEST_TRAIL);
+    }
+
+    //Helper method writing the changes of the public state of a player, preceded by their mask
+    private void serializePlayer(PublicPlayerState base, PublicPlayerState state, ByteArrayOutputStream out) {
+        int changes = changes(base, state);
+        out.write(changes);
+        if (has(changes, TICKETS))
+            BinarySerde.writeVarInt(out, state.ticketCount());
+        if (has(changes, CARDS))
+            BinarySerde.writeVarInt(out, state.cardCount());
+        serializeRoutes(changes, base, state, out);
+    }
+
+    //Helper method reading the public state of a player written by serializePlayer
+    private PublicPlayerState deserializePlayer(PublicPlayerState base, ByteBuffer in) {
+        int changes = in.get();
+        int ticketCount = has(changes, TICKETS) ? BinarySerde.readVarInt(in) : base.ticketCount();
+        int cardCount = has(changes, CARDS) ? BinarySerde.readVarInt(in) : base.cardCount();
+        List<Route> routes = deserializeRoutes(changes, base, in);
+        Trail longestTrail = has(changes, LONGEST_TRAIL) ? longestTrailSerde.deserialize(in) : base.longestTrail();
+
+        return new PublicPlayerState(ticketCount, cardCount, routes, longestTrail);
+    }
+
+    //Helper method writing the differences of the counts of the kinds of cards that changed, preceded by the mask of
+    //these kinds
+    private static void serializeCardDifference(CardBag base, CardBag cards, ByteArrayOutputStream out) {
+        int changedKinds = 0;
+        for (Card c : Card.ALL) {
+            if (base.countOf(c) != cards.countOf(c))
+                changedKinds |= 1 << c.ordinal();
+        }
+        BinarySerde.writeVarInt(out, changedKinds);
+        for (Card c : Card.ALL) {
+            if ((changedKinds & (1 << c.ordinal())) != 0)
+                BinarySerdes.integerSerde.serialize(cards.countOf(c) - base.countOf(c), out);
+        }
+    }
+
+    //Helper method reading the cards written by serializeCardDifference
+    private static SortedBag<Card> deserializeCardDifference(CardBag base, ByteBuffer in) {
+        int changedKinds = BinarySerde.readVarInt(in);
+        SortedBag.Builder<Card> builder = new SortedBag.Builder<>();
+        for (Card c : Card.ALL) {
+            int count = base.countOf(c);
+            if ((changedKinds & (1 << c.ordinal())) != 0)
+                count += BinarySerdes.integerSerde.deserialize(in);
+            builder.add(count, c);
+        }
+
+        return builder.build();
+    }
+
+    //Helper method writing the routes claimed since the base state and the new longest trail, if they changed
+    private void serializeRoutes(int changes, PublicPlayerState base, PublicPlayerState state,
+                                 ByteArrayOutputStream out) {
+        if (has(changes, ROUTES))
+            routeListSerde.serialize(state.routes().subList(base.routes().size(), state.routes().size()), out);
+        if (has(changes, LONGEST_TRAIL))
+            longestTrailSerde.serialize(state.longestTrail(), out);
+    }
+
+    //Helper method reading the routes written by serializeRoutes, the longest trail being read afterwards
+    private List<Route> deserializeRoutes(int changes, PublicPlayerState base, ByteBuffer in) {
+        if (!has(changes, ROUTES))
+            return base.routes();
+
+        List<Route> newRoutes = routeListSerde.deserialize(in);
+        List<Route> routes = new ArrayList<>(base.routes().size() + newRoutes.size());
+        routes.addAll(base.routes());
+        routes.addAll(newRoutes);
+
+        return routes;
+    }
+
+    //Helper method giving the bit of a change if it happened
+    private static int mask(boolean changed, int bit) {
+        return changed ? bit : 0;
+    }
+
+    //Helper method stating if a mask contains the bit of a change
+    private static boolean has(int changes, int bit) {
+        return (changes & bit) != 0;
+    }
+
+    //Helper method stating if a list of routes starts with the other one
+    private static boolean isPrefix(List<Route> prefix, List<Route> routes) {
+        return prefix.size() <= routes.size() && (prefix == routes || prefix.equals(routes.subList(0, prefix.size())));
+    }
+
+}
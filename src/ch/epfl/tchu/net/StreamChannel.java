@@ -0,0 +1,215 @@
+package ch.epfl.tchu.net;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.util.List;
+
+import ch.epfl.tchu.Preconditions;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Message channel on the streams of a socket, whose protocol is negotiated when the channel is created: the proxy
+ * sends the line "PROTOCOL" followed by the protocols it accepts, and the client answers the line "PROTOCOL" followed
+ * by the one it chooses. The messages of the text protocol are then lines, and the ones of the binary protocol are
+ * preceded by their length as a varint.
+ */
+public final class StreamChannel implements MessageChannel {
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private final Protocol protocol;
+
+    /**
+     * To create the channel of a proxy, negotiating its protocol with the client.
+     * @param socket (Socket) : the socket of the client.
+     * @param protocols (List<Protocol>) : the protocols the proxy accepts.
+     * @return channel (StreamChannel) : the channel, using the protocol the client chose.
+     * @throws IllegalArgumentException if no protocol is accepted.
+     * @throws UncheckedIOException if the negotiation fails, or if the client chooses a protocol not accepted.
+     */
+    public static StreamChannel accept(Socket socket, List<Protocol> protocols) {
+        Preconditions.checkArgument(!protocols.isEmpty());
+        try {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            writeHello(out, protocols);
+            out.flush();
+
+            List<Protocol> chosen = readHello(in);
+            if (chosen.size() != 1 || !protocols.contains(chosen.get(0)))
+                throw new ProtocolException("Protocol not accepted: " + chosen);
+
+            return new StreamChannel(socket, in, out, chosen.get(0));
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * To create the channel of a client, choosing its protocol among the ones the proxy accepts.
+     * @param socket (Socket) : the socket connected to the proxy.
+     * @param preferred (Protocol) : the protocol to use if the proxy accepts it, the first one it accepts being used
+     * otherwise.
+     * @return channel (StreamChannel) : the channel, using the chosen protocol.
+     * @throws UncheckedIOException if the negotiation fails.
+     */
+    public static StreamChannel connect(Socket socket, Protocol preferred) {
+        try {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+            List<Protocol> accepted = readHello(in);
+            if (accepted.isEmpty())
+                throw new ProtocolException("No protocol accepted");
+            Protocol protocol = accepted.contains(preferred) ? preferred : accepted.get(0);
+            writeHello(out, List.of(protocol));
+            out.flush();
+
+            return new StreamChannel(socket, in, out, protocol);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private StreamChannel(Socket socket, InputStream in, OutputStream out, Protocol protocol) {
+        this.socket = socket;
+        this.in = in;
+        this.out = out;
+        this.protocol = protocol;
+    }
+
+    @Override
+    public Protocol protocol() { return protocol; }
+
+    @Override
+    public void send(byte[] message) {
+        try {
+            switch (protocol) {
+                case TEXT:
+                    out.write(message);
+                    out.write('\n');
+                    break;
+                case BINARY:
+                    ByteArrayOutputStream length = new ByteArrayOutputStream(5);
+                    BinarySerde.writeVarInt(length, message.length);
+                    length.writeTo(out);
+                    out.write(message);
+                    break;
+                default:
+                    throw new Error();
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public byte[] receive() {
+        try {
+            switch (protocol) {
+                case TEXT:
+                    return readLine(in);
+                case BINARY:
+                    return readFrame(in);
+                default:
+                    throw new Error();
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try (socket) {
+            out.flush();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Helper method writing the line of the negotiation giving the protocols
+    private static void writeHello(OutputStream out, List<Protocol> protocols) throws IOException {
+        out.write(Protocol.helloOf(protocols).getBytes(US_ASCII));
+        out.write('\n');
+    }
+
+    //Helper method reading the line of the negotiation, giving the protocols it contains
+    private static List<Protocol> readHello(InputStream in) throws IOException {
+        byte[] line = readLine(in);
+        if (line == null)
+            throw new EOFException();
+
+        return Protocol.parseHello(new String(line, US_ASCII));
+    }
+
+    //Helper method reading the bytes up to the next end of line, null if the stream ends first
+    private static byte[] readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0)
+                return null;
+            if (line.size() >= MAX_MESSAGE_LENGTH)
+                throw new ProtocolException("Line too long");
+            line.write(b);
+        }
+
+        return line.toByteArray();
+    }
+
+    //Helper method reading a frame preceded by its length, null if the stream ends before it
+    private static byte[] readFrame(InputStream in) throws IOException {
+        int length = 0;
+        for (int shift = 0 ; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0)
+                    return null;
+                throw new EOFException();
+            }
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                break;
+            if (shift >= 21)
+                throw new ProtocolException("Invalid frame length");
+        }
+        if (length > MAX_MESSAGE_LENGTH)
+            throw new ProtocolException("Frame too long: " + length);
+
+        byte[] frame = in.readNBytes(length);
+        if (frame.length != length)
+            throw new EOFException();
+
+        return frame;
+    }
+
+}
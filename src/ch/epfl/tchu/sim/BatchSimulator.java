@@ -0,0 +1,209 @@
+package ch.epfl.tchu.sim;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameResult;
+import ch.epfl.tchu.game.MapDefinition;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * Headless runner playing complete games with Game.play, in parallel on a fork/join pool, without any user interface.
+ * Every game is played with its own Random, whose seed is derived from the seed of the batch and the index of the
+ * game, and every player gets its own seed as well, so that a batch gives the same summaries each time it is run,
+ * whatever the parallelism.
+ */
+public final class BatchSimulator {
+
+    /**
+     * Factory of the players seated in the simulated games.
+     */
+    @FunctionalInterface
+    public interface PlayerFactory {
+
+        /**
+         * To get a new player for a game.
+         * @param playerId (PlayerId) : the identity of the player in the game.
+         * @param seed (long) : the seed the player should use for its own random choices.
+         * @return player (Player) : a new player.
+         */
+        Player newPlayer(PlayerId playerId, long seed);
+
+    }
+
+    private final SortedBag<Ticket> tickets;
+    private final List<PlayerId> players;
+    private final Map<PlayerId, String> playerNames;
+    private final PlayerFactory factory;
+
+    /**
+     * Constructor.
+     * @param tickets (List<Ticket>) : the tickets of the map the games are played on.
+     * @param playerCount (int) : the number of players of each game.
+     * @param factory (PlayerFactory) : the factory of the players.
+     * @throws IllegalArgumentException if playerCount is not between 2 and PlayerId.COUNT (both inclusive).
+     */
+    public BatchSimulator(List<Ticket> tickets, int playerCount, PlayerFactory factory) {
+        Preconditions.checkArgument(2 <= playerCount && playerCount <= PlayerId.COUNT);
+
+        this.tickets = SortedBag.of(tickets);
+        this.players = PlayerId.ALL.subList(0, playerCount);
+        this.factory = factory;
+
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : players)
+            names.put(p, "Bot " + (p.ordinal() + 1));
+        this.playerNames = Map.copyOf(names);
+    }
+
+    /**
+     * Plays one complete game.
+     * @param seed (long) : the seed of the game.
+     * @return summary (GameSummary) : the summary of the game.
+     */
+    public GameSummary play(long seed) {
+        int[] turns = new int[1];
+        Map<PlayerId, Player> gamePlayers = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : players)
+            gamePlayers.put(p, new TurnCountingPlayer(factory.newPlayer(p, mix(seed, p.ordinal() + 1)), turns));
+
+        GameResult result = Game.play(gamePlayers, playerNames, tickets, new Random(seed));
+
+        return GameSummary.of(seed, turns[0], result);
+    }
+
+    /**
+     * Plays the given amount of games in parallel, giving the summary of every game to the sink as soon as it ends.
+     * @param gameCount (long) : the amount of games to play.
+     * @param seed (long) : the seed of the batch.
+     * @param parallelism (int) : the amount of games played at the same time.
+     * @param sink (Consumer<? super GameSummary>) : the sink of the summaries, which must be thread-safe.
+     * @throws IllegalArgumentException if gameCount is negative or if parallelism is not strictly positive.
+     */
+    public void run(long gameCount, long seed, int parallelism, Consumer<? super GameSummary> sink) {
+        Preconditions.checkArgument(gameCount >= 0);
+        Preconditions.checkArgument(parallelism > 0);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> LongStream.range(0, gameCount)
+                    .parallel()
+                    .forEach(i -> sink.accept(play(mix(seed, -i - 1)))))
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a batch of games between scripted players and prints the statistics of the seats.
+     * @param args (String[]) : the map ("ch", "usa" or the path of a map definition file, see MapDefinition), the
+     *             amount of games, the number of players and the seed of the batch, all optional ("usa", 10000, 2 and
+     *             2021 by default).
+     */
+    public static void main(String[] args) {
+        String mapName = args.length < 1 ? "usa" : args[0];
+        long gameCount = args.length < 2 ? 10_000 : Long.parseLong(args[1]);
+        int playerCount = args.length < 3 ? 2 : Integer.parseInt(args[2]);
+        long seed = args.length < 4 ? 2021 : Long.parseLong(args[3]);
+
+        MapDefinition map = mapName.equalsIgnoreCase("usa")
+                ? MapDefinition.usa()
+                : mapName.equalsIgnoreCase("ch") ? MapDefinition.ch() : MapDefinition.load(Path.of(mapName));
+        BatchSimulator simulator = new BatchSimulator(map.tickets(), playerCount,
+                (p, s) -> new ScriptedPlayer(s, map.routes()));
+        BatchStatistics statistics = new BatchStatistics(playerCount);
+
+        long start = System.nanoTime();
+        simulator.run(gameCount, seed, Runtime.getRuntime().availableProcessors(), statistics);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.print(statistics);
+        System.out.println(millis + " ms (" + (gameCount * 1000 / Math.max(1, millis)) + " games/s)");
+    }
+
+    //Helper method deriving a seed from another one and an index (SplitMix64 finalizer)
+    private static long mix(long seed, long index) {
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Player forwarding everything to another one, counting the turns played by all the players of a game.
+     */
+    private static final class TurnCountingPlayer implements Player {
+
+        private final Player player;
+        private final int[] turns;
+
+        private TurnCountingPlayer(Player player, int[] turns) {
+            this.player = player;
+            this.turns = turns;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) { player.receiveInfo(info); }
+
+        @Override
+        public void receiveMessage(String message) { player.receiveMessage(message); }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) { player.setInitialTicketChoice(tickets); }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() { return player.chooseInitialTickets(); }
+
+        @Override
+        public TurnKind nextTurn() {
+            turns[0] += 1;
+            return player.nextTurn();
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) { return player.chooseTickets(options); }
+
+        @Override
+        public int drawSlot() { return player.drawSlot(); }
+
+        @Override
+        public Route claimedRoute() { return player.claimedRoute(); }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() { return player.initialClaimCards(); }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return player.chooseAdditionalCards(options);
+        }
+
+    }
+
+}
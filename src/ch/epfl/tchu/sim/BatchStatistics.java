@@ -0,0 +1,127 @@
+package ch.epfl.tchu.sim;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import ch.epfl.tchu.game.PlayerId;
+
+/**
+ * Thread-safe sink of game summaries, gathering statistics per seat: wins, draws, points, longest trail lengths and
+ * longest trail bonuses, as well as the amount of turns of the games.
+ */
+public final class BatchStatistics implements Consumer<GameSummary> {
+
+    private final List<PlayerId> players;
+    private final LongAdder games = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    // Indexed by PlayerId.ordinal().
+    private final LongAdder[] wins = newAdders();
+    private final LongAdder[] points = newAdders();
+    private final LongAdder[] trailLengths = newAdders();
+    private final LongAdder[] trailBonuses = newAdders();
+
+    /**
+     * Constructor.
+     * @param playerCount (int) : the number of players of the games.
+     */
+    public BatchStatistics(int playerCount) {
+        this.players = PlayerId.ALL.subList(0, playerCount);
+    }
+
+    @Override
+    public void accept(GameSummary summary) {
+        games.increment();
+        turns.add(summary.turns());
+        if (summary.winners().size() > 1)
+            draws.increment();
+
+        for (PlayerId p : summary.players()) {
+            int i = p.ordinal();
+            points[i].add(summary.points(p));
+            trailLengths[i].add(summary.trailLength(p));
+            if (summary.hasTrailBonus(p))
+                trailBonuses[i].increment();
+        }
+        if (summary.winners().size() == 1)
+            wins[summary.winners().get(0).ordinal()].increment();
+    }
+
+    /**
+     * To get the amount of games recorded.
+     * @return games (long) : the amount of games.
+     */
+    public long games() { return games.sum(); }
+
+    /**
+     * To get the amount of games won by a player alone.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return wins (long) : the amount of games won by the player.
+     */
+    public long wins(PlayerId playerId) { return wins[playerId.ordinal()].sum(); }
+
+    /**
+     * To get the amount of games ending in a draw.
+     * @return draws (long) : the amount of draws.
+     */
+    public long draws() { return draws.sum(); }
+
+    /**
+     * To get the mean final points of a player.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return meanPoints (double) : the mean points, or 0 if no game was recorded.
+     */
+    public double meanPoints(PlayerId playerId) { return mean(points[playerId.ordinal()]); }
+
+    /**
+     * To get the mean length of the longest trail of a player.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return meanTrailLength (double) : the mean length, or 0 if no game was recorded.
+     */
+    public double meanTrailLength(PlayerId playerId) { return mean(trailLengths[playerId.ordinal()]); }
+
+    /**
+     * To get the mean amount of turns of a game.
+     * @return meanTurns (double) : the mean amount of turns, or 0 if no game was recorded.
+     */
+    public double meanTurns() { return mean(turns); }
+
+    @Override
+    public String toString() {
+        long gameCount = games();
+        StringBuilder s = new StringBuilder();
+        s.append(String.format(Locale.ROOT, "%d games, %.1f turns per game, %d draws%n",
+                gameCount, meanTurns(), draws()));
+        for (PlayerId p : players) {
+            s.append(String.format(Locale.ROOT,
+                    "%s : %5.1f%% wins, %6.1f points, trail %4.1f, trail bonus %5.1f%%%n",
+                    p, percentage(wins(p), gameCount), meanPoints(p), meanTrailLength(p),
+                    percentage(trailBonuses[p.ordinal()].sum(), gameCount)));
+        }
+
+        return s.toString();
+    }
+
+    //Helper method computing the mean of a sum over all the games
+    private double mean(LongAdder sum) {
+        long gameCount = games();
+        return gameCount == 0 ? 0 : sum.sum() / (double) gameCount;
+    }
+
+    //Helper method computing a percentage
+    private static double percentage(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+
+    //Helper method creating one adder per player identity
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[PlayerId.COUNT];
+        for (int i = 0 ; i < adders.length ; i++)
+            adders[i] = new LongAdder();
+
+        return adders;
+    }
+
+}
@@ -0,0 +1,115 @@
+package ch.epfl.tchu.sim;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+import ch.epfl.tchu.game.GameResult;
+import ch.epfl.tchu.game.PlayerId;
+
+/**
+ * Immutable summary of a complete game played by the batch simulator: its seed, its amount of turns, and the final
+ * points, longest trail length and longest trail bonus of each player.
+ */
+public final class GameSummary {
+
+    private final long seed;
+    private final int turns;
+    private final List<PlayerId> players;
+    // Indexed by PlayerId.ordinal().
+    private final int[] points;
+    private final int[] trailLengths;
+    private final boolean[] trailBonuses;
+    private final List<PlayerId> winners;
+
+    /**
+     * To get the summary of a game from its result.
+     * @param seed (long) : the seed the game was played with.
+     * @param turns (int) : the amount of turns played.
+     * @param result (GameResult) : the result of the game, as returned by Game.play.
+     * @return summary (GameSummary) : the summary of the game.
+     */
+    public static GameSummary of(long seed, int turns, GameResult result) {
+        List<PlayerId> players = result.players();
+        int[] points = new int[PlayerId.COUNT];
+        int[] trailLengths = new int[PlayerId.COUNT];
+        boolean[] trailBonuses = new boolean[PlayerId.COUNT];
+        for (PlayerId p : players) {
+            points[p.ordinal()] = result.points(p);
+            trailLengths[p.ordinal()] = result.longestTrail(p).length();
+            trailBonuses[p.ordinal()] = result.hasTrailBonus(p);
+        }
+
+        return new GameSummary(seed, turns, players, points, trailLengths, trailBonuses, result.winners());
+    }
+
+    /**
+     * Private constructor.
+     */
+    private GameSummary(long seed, int turns, List<PlayerId> players, int[] points, int[] trailLengths,
+                        boolean[] trailBonuses, List<PlayerId> winners) {
+        this.seed = seed;
+        this.turns = turns;
+        this.players = players;
+        this.points = points;
+        this.trailLengths = trailLengths;
+        this.trailBonuses = trailBonuses;
+        this.winners = winners;
+    }
+
+    /**
+     * To get the seed of the game, with which it can be played again identically.
+     * @return seed (long) : the seed of the game.
+     */
+    public long seed() { return seed; }
+
+    /**
+     * To get the amount of turns played, the last turns included.
+     * @return turns (int) : the amount of turns.
+     */
+    public int turns() { return turns; }
+
+    /**
+     * To get the players of the game.
+     * @return players (List<PlayerId>) : the players, in the order of their identity.
+     */
+    public List<PlayerId> players() { return players; }
+
+    /**
+     * To get the final points of a player, the longest trail bonus included.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return points (int) : the final points of the player.
+     */
+    public int points(PlayerId playerId) { return points[playerId.ordinal()]; }
+
+    /**
+     * To get the length of the longest trail of a player.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return trailLength (int) : the length of the longest trail of the player.
+     */
+    public int trailLength(PlayerId playerId) { return trailLengths[playerId.ordinal()]; }
+
+    /**
+     * States if a player got the longest trail bonus.
+     * @param playerId (PlayerId) : the player of interest.
+     * @return hasTrailBonus (boolean) : true if the player got the bonus, false otherwise.
+     */
+    public boolean hasTrailBonus(PlayerId playerId) { return trailBonuses[playerId.ordinal()]; }
+
+    /**
+     * To get the winners of the game, several players winning in case of a draw.
+     * @return winners (List<PlayerId>) : the players having the most points.
+     */
+    public List<PlayerId> winners() { return winners; }
+
+    @Override
+    public String toString() {
+        StringJoiner j = new StringJoiner(", ", "{", "}");
+        j.add("seed=" + seed);
+        j.add("turns=" + turns);
+        for (PlayerId p : players)
+            j.add(p + "=" + points(p) + (hasTrailBonus(p) ? "*" : ""));
+
+        return j.toString();
+    }
+
+}
@@ -0,0 +1,100 @@
+package ch.epfl.tchu;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class SortedBagTest {
+
+    private static SortedBag<Integer> randomBag(Random rng) {
+        var builder = new SortedBag.Builder<Integer>();
+        var elementCount = rng.nextInt(5);
+        for (int i = 0; i < elementCount; i++)
+            builder.add(1 + rng.nextInt(4), rng.nextInt(10));
+        return builder.build();
+    }
+
+    private static List<SortedBag<Integer>> subsetsList(SortedBag<Integer> bag, int size) {
+        var subsets = new ArrayList<SortedBag<Integer>>();
+        bag.subsetsOfSizeIterator(size).forEachRemaining(subsets::add);
+        return subsets;
+    }
+
+    // Compares the multiplicities of two subsets from the greatest element to the smallest one.
+    private static int colexCompare(SortedBag<Integer> bag, SortedBag<Integer> s1, SortedBag<Integer> s2) {
+        var elements = new ArrayList<>(bag.toSet());
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            var c = Integer.compare(s1.countOf(elements.get(i)), s2.countOf(elements.get(i)));
+            if (c != 0)
+                return c;
+        }
+        return 0;
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeIteratorFailsWithInvalidSize() {
+        var bag = SortedBag.of(2, 1, 3, 2);
+        assertThrows(IllegalArgumentException.class, () -> {
+            bag.subsetsOfSizeIterator(-1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            bag.subsetsOfSizeIterator(6);
+        });
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeIteratorWorksOnKnownExample() {
+        var bag = SortedBag.of(2, "a", 3, "b");
+        var subsets = new ArrayList<SortedBag<String>>();
+        bag.subsetsOfSizeIterator(3).forEachRemaining(subsets::add);
+        assertEquals(List.of(
+                SortedBag.of(2, "a", 1, "b"),
+                SortedBag.of(1, "a", 2, "b"),
+                SortedBag.of(3, "b")), subsets);
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeIteratorGivesOnlyTheEmptyBagForSizeZero() {
+        var iterator = SortedBag.of(2, 1).subsetsOfSizeIterator(0);
+        assertEquals(SortedBag.of(), iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeIteratorGivesEverySubsetOnceInColexOrder() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 500; i++) {
+            var bag = randomBag(rng);
+            var elements = bag.toList();
+            for (int size = 0; size <= bag.size(); size++) {
+                var expected = new HashSet<SortedBag<Integer>>();
+                for (int mask = 0; mask < (1 << elements.size()); mask++) {
+                    if (Integer.bitCount(mask) != size)
+                        continue;
+                    var builder = new SortedBag.Builder<Integer>();
+                    for (int k = 0; k < elements.size(); k++) {
+                        if ((mask & (1 << k)) != 0)
+                            builder.add(elements.get(k));
+                    }
+                    expected.add(builder.build());
+                }
+
+                var subsets = subsetsList(bag, size);
+                assertEquals(expected.size(), subsets.size());
+                assertEquals(expected, new HashSet<>(subsets));
+                assertEquals(expected, bag.subsetsOfSize(size));
+                for (int k = 1; k < subsets.size(); k++)
+                    assertTrue(colexCompare(bag, subsets.get(k - 1), subsets.get(k)) < 0);
+            }
+        }
+    }
+
+}
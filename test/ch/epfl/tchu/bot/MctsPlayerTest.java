@@ -0,0 +1,66 @@
+package ch.epfl.tchu.bot;
+
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.sim.BatchSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class MctsPlayerTest {
+
+    private static final Duration LONG_BUDGET = Duration.ofMinutes(1);
+
+    private static BatchSimulator newSimulator(int playerCount, int iterations, int parallelism) {
+        return new BatchSimulator(ChMap.tickets(), playerCount, (p, s) -> p == PlayerId.PLAYER_1
+                ? new MctsPlayer(s, ChMap.routes(), ChMap.tickets(), iterations, LONG_BUDGET, parallelism)
+                : new ScriptedPlayer(s, ChMap.routes()));
+    }
+
+    @Test
+    void mctsPlayerConstructorFailsWithInvalidBudgets() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new MctsPlayer(0, ChMap.routes(), ChMap.tickets(), 0, LONG_BUDGET, 1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new MctsPlayer(0, ChMap.routes(), ChMap.tickets(), 10, Duration.ZERO, 1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new MctsPlayer(0, ChMap.routes(), ChMap.tickets(), 10, LONG_BUDGET, 0);
+        });
+    }
+
+    @Test
+    void mctsPlayerPlaysCompleteGames() {
+        for (int playerCount = 2; playerCount <= 3; playerCount++) {
+            var simulator = newSimulator(playerCount, 8, 1);
+            for (long seed = 0; seed < 3; seed++) {
+                var summary = simulator.play(seed);
+                assertTrue(summary.turns() > 0);
+                assertFalse(summary.winners().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void mctsPlayerWithIterationBudgetIsReproducible() {
+        var simulator = newSimulator(2, 16, 2);
+        for (long seed = 0; seed < 2; seed++)
+            assertEquals(simulator.play(seed).toString(), simulator.play(seed).toString());
+    }
+
+    @Test
+    void mctsPlayerBeatsScriptedPlayerMostOfTheTime() {
+        var simulator = newSimulator(2, 50, 2);
+        var wins = 0;
+        for (long seed = 0; seed < 10; seed++) {
+            if (simulator.play(seed).winners().equals(List.of(PlayerId.PLAYER_1)))
+                wins += 1;
+        }
+        assertTrue(wins >= 6);
+    }
+
+}
@@ -0,0 +1,76 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CardBagTest {
+
+    private static SortedBag<Card> randomCards(Random rng, int maxCount) {
+        var builder = new SortedBag.Builder<Card>();
+        for (Card c : Card.ALL)
+            builder.add(rng.nextInt(maxCount + 1), c);
+        return builder.build();
+    }
+
+    @Test
+    void cardBagOfFailsWithTooManyCards() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            CardBag.of(CardBag.MAX_COUNT + 1, Card.RED);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            CardBag.of(SortedBag.of(CardBag.MAX_COUNT + 1, Card.LOCOMOTIVE));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            CardBag.of(1, Card.RED, 2, Card.RED);
+        });
+    }
+
+    @Test
+    void cardBagUnionFailsOnOverflow() {
+        var bag = CardBag.of(CardBag.MAX_COUNT, Card.BLUE);
+        assertThrows(IllegalArgumentException.class, () -> {
+            bag.with(Card.BLUE);
+        });
+        assertEquals(CardBag.MAX_COUNT, bag.with(Card.GREEN).countOf(Card.BLUE));
+    }
+
+    @Test
+    void cardBagMatchesSortedBag() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var cards1 = randomCards(rng, CardBag.MAX_COUNT / 2);
+            var cards2 = randomCards(rng, CardBag.MAX_COUNT / 2);
+            var bag1 = CardBag.of(cards1);
+            var bag2 = CardBag.of(cards2);
+
+            assertEquals(cards1, bag1.toSortedBag());
+            assertEquals(cards1.size(), bag1.size());
+            assertEquals(cards1.isEmpty(), bag1.isEmpty());
+            for (Card c : Card.ALL) {
+                assertEquals(cards1.countOf(c), bag1.countOf(c));
+                assertEquals(cards1.contains(c), bag1.contains(c));
+            }
+            assertEquals(cards1.contains(cards2), bag1.contains(bag2));
+            assertEquals(cards1.union(cards2), bag1.union(bag2).toSortedBag());
+            assertEquals(cards1.difference(cards2), bag1.difference(bag2).toSortedBag());
+            assertTrue(bag1.union(bag2).contains(bag2));
+            assertEquals(bag1, bag1.union(bag2).difference(bag2));
+        }
+    }
+
+    @Test
+    void cardBagContainsWorksOnEdgeCases() {
+        assertTrue(CardBag.EMPTY.contains(CardBag.EMPTY));
+        assertFalse(CardBag.EMPTY.contains(CardBag.of(1, Card.LOCOMOTIVE)));
+        var full = CardBag.of(CardBag.MAX_COUNT, Card.BLACK);
+        assertTrue(full.contains(full));
+        assertFalse(full.difference(CardBag.of(1, Card.BLACK)).contains(full));
+        assertEquals(CardBag.EMPTY, CardBag.of(2, Card.RED).difference(CardBag.of(5, Card.RED)));
+    }
+
+}
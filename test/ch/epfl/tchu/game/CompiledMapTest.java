@@ -0,0 +1,82 @@
+package ch.epfl.tchu.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CompiledMapTest {
+
+    private static final List<CompiledMap> MAPS = List.of(CompiledMap.usa(), CompiledMap.ch());
+
+    @Test
+    void compiledMapOfFailsWithDuplicateRoutes() {
+        var routes = new ArrayList<>(ChMap.routes());
+        routes.add(routes.get(0));
+        assertThrows(IllegalArgumentException.class, () -> {
+            CompiledMap.of(routes);
+        });
+    }
+
+    @Test
+    void compiledMapOrdinalsAreDenseAndConsistent() {
+        assertEquals(UsaMap.routes(), CompiledMap.usa().routes());
+        assertEquals(ChMap.routes(), CompiledMap.ch().routes());
+        for (var map : MAPS) {
+            for (int i = 0; i < map.routeCount(); i++) {
+                var route = map.route(i);
+                assertEquals(i, map.ordinal(route));
+                assertEquals(route.station1(), map.station(map.station1(i)));
+                assertEquals(route.station2(), map.station(map.station2(i)));
+                assertEquals(route.length(), map.length(i));
+            }
+            for (int s = 0; s < map.stationCount(); s++)
+                assertEquals(s, map.ordinal(map.station(s)));
+        }
+        assertEquals(-1, CompiledMap.usa().ordinal(ChMap.routes().get(0)));
+        assertEquals(-1, CompiledMap.usa().ordinal(new Station(1000, "Nowhere")));
+    }
+
+    @Test
+    void compiledMapAdjacencyContainsEveryRouteTwice() {
+        for (var map : MAPS) {
+            var halfRoutes = new int[map.routeCount()];
+            for (int s = 0; s < map.stationCount(); s++) {
+                for (int h = map.adjacencyStart(s); h < map.adjacencyStart(s + 1); h++) {
+                    var r = map.adjacentRoute(h);
+                    halfRoutes[r] += 1;
+                    assertTrue(map.station1(r) == s || map.station2(r) == s);
+                    assertEquals(map.station1(r) == s ? map.station2(r) : map.station1(r), map.adjacentStation(h));
+                }
+            }
+            assertEquals(2 * map.routeCount(), map.adjacencyStart(map.stationCount()));
+            for (var count : halfRoutes)
+                assertEquals(2, count);
+        }
+    }
+
+    @Test
+    void compiledMapParallelRoutesLinkTheSameStations() {
+        for (var map : MAPS) {
+            var groups = new HashSet<Integer>();
+            for (var route : map.routes()) {
+                var stations = Set.of(route.station1(), route.station2());
+                var expected = new ArrayList<Route>();
+                for (var other : map.routes()) {
+                    if (other != route && stations.equals(Set.of(other.station1(), other.station2())))
+                        expected.add(other);
+                }
+                assertEquals(expected, map.parallelRoutes(route));
+                for (var other : expected)
+                    assertEquals(map.parallelGroup(map.ordinal(route)), map.parallelGroup(map.ordinal(other)));
+                groups.add(map.parallelGroup(map.ordinal(route)));
+            }
+            assertEquals(groups.size(), map.parallelGroupCount());
+        }
+    }
+
+}
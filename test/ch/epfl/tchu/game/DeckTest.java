@@ -120,6 +120,20 @@ class DeckTest {
         assertEquals(cards, actualCardsBuilder.build());
     }
 
+    @Test
+    void deckIsUnchangedByDecksDrawnFromIt() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var deck = Deck.of(SortedBag.of(listOfSize(20)), rng);
+            var expected = deckToList(deck);
+            var drawn = deck.withoutTopCards(rng.nextInt(21));
+            if (!drawn.isEmpty())
+                drawn.withoutTopCard();
+            assertEquals(expected, deckToList(deck));
+            assertEquals(expected.subList(expected.size() - drawn.size(), expected.size()), deckToList(drawn));
+        }
+    }
+
     private static <E extends Comparable<E>> List<E> deckToList(Deck<E> deck) {
         var list = new ArrayList<E>(deck.size());
         while (!deck.isEmpty()) {
@@ -0,0 +1,213 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.net.MapSerdes;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class GameLogTest {
+
+    private static final MapDefinition MAP = MapDefinition.ch();
+
+    @Test
+    void gameLogDoesNotChangeTheGame() throws IOException {
+        Path file = Files.createTempFile("tchu", ".log");
+        try {
+            for (long seed = 0; seed < 3; seed++) {
+                Files.delete(file);
+                var unlogged = new ArrayList<GameState>();
+                var logged = new ArrayList<GameState>();
+                var finalState = play(3, seed, unlogged, null);
+                var loggedFinalState = play(3, seed, logged, GameLog.create(file, MAP, 10));
+                assertEquals(describe(finalState), describe(loggedFinalState));
+                assertEquals(unlogged.size(), logged.size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void gameLogRebuildsTheStateAtTheStartOfEveryTurn() throws IOException {
+        Path directory = Files.createTempDirectory("tchu");
+        try {
+            for (int playerCount = 2; playerCount <= 4; playerCount++) {
+                for (int interval : new int[] {1, 7, 1000}) {
+                    Path file = directory.resolve(playerCount + "-" + interval + ".log");
+                    var states = new ArrayList<GameState>();
+                    var finalState = play(playerCount, playerCount, states, GameLog.create(file, MAP, interval));
+
+                    assertEquals(states.size(), GameLog.turnCount(file));
+                    for (int turn = 0; turn < states.size(); turn++)
+                        assertEquals(describe(states.get(turn)), describe(GameLog.stateAt(file, MAP, turn)));
+                    assertEquals(describe(finalState), describe(GameLog.lastState(file, MAP)));
+                }
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (var file : (Iterable<Path>) files::iterator)
+                    Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void gameLogCutShortStillGivesItsTurns() throws IOException {
+        Path file = Files.createTempFile("tchu", ".log");
+        try {
+            Files.delete(file);
+            var states = new ArrayList<GameState>();
+            play(2, 42, states, GameLog.create(file, MAP, 5));
+
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length / 2 + 3));
+            int turnCount = GameLog.turnCount(file);
+            assertTrue(turnCount > 0 && turnCount < states.size());
+            for (int turn = 0; turn < turnCount; turn++)
+                assertEquals(describe(states.get(turn)), describe(GameLog.stateAt(file, MAP, turn)));
+            assertThrows(IllegalArgumentException.class, () -> {
+                GameLog.stateAt(file, MAP, turnCount);
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void gameLogFailsWithInvalidArguments() throws IOException {
+        Path file = Files.createTempFile("tchu", ".log");
+        try {
+            assertThrows(IllegalArgumentException.class, () -> {
+                GameLog.create(file.resolveSibling("other.log"), MAP, 0);
+            });
+            assertThrows(java.io.UncheckedIOException.class, () -> {
+                GameLog.create(file, MAP, 1);
+            });
+
+            Files.delete(file);
+            play(2, 0, new ArrayList<>(), GameLog.create(file, MAP, 1));
+            assertThrows(IllegalArgumentException.class, () -> {
+                GameLog.stateAt(file, MapDefinition.usa(), 0);
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                GameLog.stateAt(file, MAP, -1);
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static GameState play(int playerCount, long seed, List<GameState> turnStates, GameLog log) {
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL.subList(0, playerCount)) {
+            players.put(p, new RecordingPlayer(new ScriptedPlayer(seed * PlayerId.COUNT + p.ordinal(), MAP.routes()),
+                    turnStates));
+            names.put(p, p.name());
+        }
+
+        if (log == null)
+            return Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(seed)).finalState();
+        try (log) {
+            return Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(seed), log).finalState();
+        }
+    }
+
+    private static String describe(GameState state) {
+        var serdes = MapSerdes.of(MAP);
+        var description = new StringBuilder(serdes.publicGameStateSerde().serialize(state));
+        for (PlayerId p : state.allPlayers())
+            description.append('|').append(serdes.playerStateSerde().serialize(state.playerState(p)));
+        description.append('|').append(state.ticketDeck().toList());
+        description.append('|').append(state.cardState().deck().toList());
+        description.append('|').append(state.cardState().discards().toSortedBag());
+        return description.toString();
+    }
+
+    // Player recording the state at the start of every turn, Game updating the state of the players just before.
+    private static final class RecordingPlayer implements Player {
+        private final Player player;
+        private final List<GameState> turnStates;
+        private GameState state;
+
+        RecordingPlayer(Player player, List<GameState> turnStates) {
+            this.player = player;
+            this.turnStates = turnStates;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void receiveMessage(String message) {
+            player.receiveMessage(message);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            state = (GameState) newState;
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return player.chooseInitialTickets();
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            turnStates.add(state);
+            return player.nextTurn();
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return player.chooseTickets(options);
+        }
+
+        @Override
+        public int drawSlot() {
+            return player.drawSlot();
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return player.claimedRoute();
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return player.initialClaimCards();
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return player.chooseAdditionalCards(options);
+        }
+    }
+
+}
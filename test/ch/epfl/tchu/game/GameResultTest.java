@@ -0,0 +1,107 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class GameResultTest {
+
+    @Test
+    void gameResultGivesTheBonusAndTheVictoryToAllTiedPlayers() {
+        var players = PlayerId.ALL.subList(0, 3);
+        var state = GameState.initial(players, SortedBag.of(ChMap.tickets()), new Random(2021));
+        var result = GameResult.of(state);
+
+        assertEquals(players, result.trailBonusPlayers());
+        assertEquals(players, result.winners());
+        assertEquals(players, result.ranking());
+        assertEquals(Constants.LONGEST_TRAIL_BONUS_POINTS, result.winnerPoints());
+        for (PlayerId p : players) {
+            assertTrue(result.hasTrailBonus(p));
+            assertNotNull(result.finalState().playerState(p).longestTrail());
+        }
+    }
+
+    @Test
+    void gameResultIsConsistentWithTheFinalState() {
+        for (int playerCount = 2; playerCount <= 4; playerCount++) {
+            for (long seed = 0; seed < 5; seed++) {
+                var result = play(playerCount, seed);
+                var finalState = result.finalState();
+                assertEquals(PlayerId.ALL.subList(0, playerCount), result.players());
+
+                int maxTrailLength = 0;
+                for (PlayerId p : result.players())
+                    maxTrailLength = Math.max(maxTrailLength, finalState.playerState(p).currentLongestTrail().length());
+                for (PlayerId p : result.players()) {
+                    var playerState = finalState.playerState(p);
+                    boolean hasBonus = playerState.currentLongestTrail().length() == maxTrailLength;
+                    assertEquals(hasBonus, result.hasTrailBonus(p));
+                    assertEquals(hasBonus, playerState.longestTrail() != null);
+                    assertEquals(playerState.finalPoints() + (hasBonus ? Constants.LONGEST_TRAIL_BONUS_POINTS : 0),
+                            result.points(p));
+                }
+
+                List<PlayerId> ranking = result.ranking();
+                assertEquals(playerCount, ranking.size());
+                for (int i = 1; i < ranking.size(); i++) {
+                    int previous = result.points(ranking.get(i - 1));
+                    int current = result.points(ranking.get(i));
+                    assertTrue(previous > current
+                            || (previous == current && ranking.get(i - 1).ordinal() < ranking.get(i).ordinal()));
+                }
+                for (PlayerId p : result.players())
+                    assertEquals(result.points(p) == result.winnerPoints(), result.winners().contains(p));
+            }
+        }
+    }
+
+    @Test
+    void gameResultIsTheSameWhenPlayersAreScoredConcurrently() {
+        for (long seed = 0; seed < 10; seed++) {
+            // Distinct states, so that the concurrent scoring computes the longest trails itself.
+            var sequential = GameResult.of(claimedState(seed), Integer.MAX_VALUE);
+            var concurrent = GameResult.of(claimedState(seed), 0);
+
+            assertEquals(sequential.ranking(), concurrent.ranking());
+            assertEquals(sequential.winners(), concurrent.winners());
+            assertEquals(sequential.trailBonusPlayers(), concurrent.trailBonusPlayers());
+            for (PlayerId p : sequential.players()) {
+                assertEquals(sequential.points(p), concurrent.points(p));
+                assertEquals(sequential.longestTrail(p).length(), concurrent.longestTrail(p).length());
+            }
+        }
+    }
+
+    // The state of a game of 4 players who claimed random routes in turn, without paying for them.
+    private static GameState claimedState(long seed) {
+        var rng = new Random(seed);
+        var state = GameState.initial(PlayerId.ALL.subList(0, 4), SortedBag.of(ChMap.tickets()), rng);
+        var routes = new ArrayList<>(ChMap.routes());
+        Collections.shuffle(routes, rng);
+        for (var route : routes.subList(0, 48))
+            state = state.withClaimedRoute(route, SortedBag.of()).forNextTurn();
+        return state;
+    }
+
+    private static GameResult play(int playerCount, long seed) {
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL.subList(0, playerCount)) {
+            players.put(p, new ScriptedPlayer(seed * PlayerId.COUNT + p.ordinal(), ChMap.routes()));
+            names.put(p, p.name());
+        }
+
+        return Game.play(players, names, SortedBag.of(ChMap.tickets()), new Random(seed));
+    }
+
+}
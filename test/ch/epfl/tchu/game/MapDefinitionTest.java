@@ -0,0 +1,128 @@
+package ch.epfl.tchu.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class MapDefinitionTest {
+
+    private static final List<MapDefinition> MAPS = List.of(MapDefinition.usa(), MapDefinition.ch());
+
+    @Test
+    void mapDefinitionBuiltInMapsShareTheirElements() {
+        assertSame(UsaMap.routes(), MapDefinition.usa().routes());
+        assertSame(ChMap.tickets(), MapDefinition.ch().tickets());
+        assertSame(CompiledMap.usa(), MapDefinition.usa().compiledMap());
+        assertSame(CompiledMap.ch(), MapDefinition.ch().compiledMap());
+    }
+
+    @Test
+    void mapDefinitionTextRoundTripGivesAnEquivalentMap() {
+        for (var map : MAPS)
+            assertEquivalent(map, MapDefinition.parse(map.toText()));
+    }
+
+    @Test
+    void mapDefinitionBinaryRoundTripGivesAnEquivalentMap() throws IOException {
+        Path directory = Files.createTempDirectory("tchu");
+        try {
+            for (var map : MAPS) {
+                Path binary = directory.resolve(map.name() + ".map.bin");
+                map.writeBinary(binary);
+                assertEquivalent(map, MapDefinition.mapBinary(binary));
+                Files.delete(binary);
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void mapDefinitionParseFailsOnInvalidDefinitions() {
+        var valid = List.of("map test", "station 0 A", "station 1 B", "route A_B_1 0 1 2 OVERGROUND -", "ticket 0-1:3");
+        assertEquals(1, MapDefinition.parse(valid).routes().size());
+
+        var invalids = List.of(
+                List.of("station 0 A", "station 1 B"),
+                List.of("map test", "station 1 A"),
+                List.of("map test", "station 0 A", "station 1 B", "route A_B_1 0 2 2 OVERGROUND -"),
+                List.of("map test", "station 0 A", "station 1 B", "route A_B_1 0 1 2 OVERGROUND PINK"),
+                List.of("map test", "station 0 A", "station 1 B", "ticket 0-1"),
+                List.of("map test", "station 0 A", "tunnel 0 1"));
+        for (var lines : invalids) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                MapDefinition.parse(lines);
+            });
+        }
+    }
+
+    @Test
+    void mapDefinitionLoadsEachFileOnceAndUsesItsBinaryForm() throws IOException {
+        Path directory = Files.createTempDirectory("tchu");
+        Path source = directory.resolve("ch.map");
+        Path binary = directory.resolve("ch.map.bin");
+        try {
+            Files.write(source, MapDefinition.ch().toText());
+            var loaded = MapDefinition.load(source);
+            assertSame(loaded, MapDefinition.load(directory.resolve(".").resolve("ch.map")));
+            assertEquivalent(MapDefinition.ch(), loaded);
+
+            // The text of a copy is changed without changing its size nor its date: its binary form is still used.
+            assertTrue(Files.isRegularFile(binary));
+            Path copy = directory.resolve("copy.map");
+            var lines = new ArrayList<>(MapDefinition.ch().toText());
+            lines.set(0, "map zz");
+            Files.write(copy, lines);
+            Files.setLastModifiedTime(copy, Files.getLastModifiedTime(source));
+            Files.copy(binary, directory.resolve("copy.map.bin"));
+            assertEquals("ch", MapDefinition.load(copy).name());
+
+            // Whereas a stale binary form is ignored and replaced.
+            Path other = directory.resolve("other.map");
+            lines.set(0, "map other");
+            Files.write(other, lines);
+            Files.copy(binary, directory.resolve("other.map.bin"));
+            assertEquals("other", MapDefinition.load(other).name());
+            assertEquals("other", MapDefinition.mapBinary(directory.resolve("other.map.bin")).name());
+        } finally {
+            for (var name : List.of("ch.map", "copy.map", "other.map")) {
+                Files.deleteIfExists(directory.resolve(name));
+                Files.deleteIfExists(directory.resolve(name + ".bin"));
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void assertEquivalent(MapDefinition expected, MapDefinition actual) {
+        assertEquals(expected.name(), actual.name());
+        assertEquals(expected.stations().size(), actual.stations().size());
+        for (int i = 0; i < expected.stations().size(); i++) {
+            assertEquals(expected.stations().get(i).id(), actual.stations().get(i).id());
+            assertEquals(expected.stations().get(i).name(), actual.stations().get(i).name());
+        }
+        assertEquals(expected.routes().size(), actual.routes().size());
+        for (int i = 0; i < expected.routes().size(); i++) {
+            var r1 = expected.routes().get(i);
+            var r2 = actual.routes().get(i);
+            assertEquals(r1.id(), r2.id());
+            assertEquals(r1.station1().id(), r2.station1().id());
+            assertEquals(r1.station2().id(), r2.station2().id());
+            assertEquals(r1.length(), r2.length());
+            assertEquals(r1.level(), r2.level());
+            assertEquals(r1.color(), r2.color());
+        }
+        assertEquals(expected.tickets().size(), actual.tickets().size());
+        for (int i = 0; i < expected.tickets().size(); i++) {
+            assertEquals(expected.tickets().get(i).text(), actual.tickets().get(i).text());
+            assertEquals(expected.tickets().get(i).trips().size(), actual.tickets().get(i).trips().size());
+        }
+        assertEquals(expected.compiledMap().parallelGroupCount(), actual.compiledMap().parallelGroupCount());
+    }
+
+}
@@ -383,4 +383,34 @@ class RouteTest {
             assertEquals(expectedClaimPoints.get(l), r.claimPoints());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void routePossibleClaimCardsWithHandMatchesFilteredOptions() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var cardsB = new SortedBag.Builder<Card>();
+            for (var card : Card.ALL)
+                cardsB.add(rng.nextInt(5), card);
+            var cards = cardsB.build();
+            var cardBag = CardBag.of(cards);
+            for (var r : ChMap.routes()) {
+                var expected = new ArrayList<SortedBag<Card>>();
+                for (var option : r.possibleClaimCards()) {
+                    if (cards.contains(option))
+                        expected.add(option);
+                }
+                assertEquals(expected, r.possibleClaimCards(cardBag));
+                assertEquals(!expected.isEmpty(), r.canBeClaimedWith(cardBag));
+            }
+        }
+    }
+
+    @Test
+    void routePossibleClaimCardsIsUnmodifiable() {
+        var r = ChMap.routes().get(0);
+        assertSame(r.possibleClaimCards(), r.possibleClaimCards());
+        assertThrows(UnsupportedOperationException.class, () -> {
+            r.possibleClaimCards().clear();
+        });
+    }
+}
@@ -0,0 +1,180 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class SimulationStateTest {
+
+    private static final List<PlayerId> PLAYERS = PlayerId.ALL.subList(0, 3);
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected.ticketDeck().toList(), actual.ticketDeck().toList());
+        assertEquals(expected.cardState().faceUpCards(), actual.cardState().faceUpCards());
+        assertEquals(expected.cardState().deck().toList(), actual.cardState().deck().toList());
+        assertEquals(expected.cardState().discards(), actual.cardState().discards());
+        assertEquals(expected.currentPlayerId(), actual.currentPlayerId());
+        assertEquals(expected.lastPlayer(), actual.lastPlayer());
+        assertEquals(expected.allPlayers(), actual.allPlayers());
+        for (PlayerId p : PLAYERS) {
+            var e = expected.playerState(p);
+            var a = actual.playerState(p);
+            assertEquals(e.tickets(), a.tickets());
+            assertEquals(e.cards(), a.cards());
+            assertEquals(e.routes(), a.routes());
+            assertEquals(e.carCount(), a.carCount());
+            assertEquals(e.finalPoints(), a.finalPoints());
+        }
+    }
+
+    private static GameState initialState(Random rng) {
+        var state = GameState.initial(PLAYERS, SortedBag.of(ChMap.tickets()), rng);
+        for (PlayerId p : PLAYERS) {
+            var tickets = state.topTickets(Constants.INITIAL_TICKETS_COUNT);
+            state = state.withoutTopTickets(Constants.INITIAL_TICKETS_COUNT)
+                    .withInitiallyChosenTickets(p, SortedBag.of(tickets.get(0)));
+        }
+        return state;
+    }
+
+    @Test
+    void simulationStateOfThenToGameStateIsIdentity() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            var state = initialState(rng);
+            assertSameState(state, SimulationState.of(state).toGameState());
+        }
+    }
+
+    @Test
+    void simulationStateFollowsGameStateAndUndoesMoves() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            var seed = rng.nextLong();
+            var gameRng = new Random(seed);
+            var simulationRng = new Random(seed);
+
+            var state = initialState(rng);
+            var simulation = SimulationState.of(state);
+            var states = new ArrayList<GameState>();
+            var marks = new ArrayList<Integer>();
+
+            for (int turn = 0; turn < 200 && state.lastPlayer() != state.currentPlayerId(); turn++) {
+                states.add(state);
+                marks.add(simulation.mark());
+
+                var claimable = new ArrayList<Route>();
+                for (Route r : ChMap.routes()) {
+                    var owner = state.ownerOf(r);
+                    assertEquals(state.claimedRoutes().contains(r), state.isClaimed(r));
+                    assertEquals(state.isClaimed(r), simulation.isClaimed(r));
+                    assertTrue(owner == null || state.playerState(owner).routes().contains(r));
+                    if (!state.isClaimed(r) && state.currentPlayerState().canClaimRoute(r))
+                        claimable.add(r);
+                }
+
+                var action = rng.nextInt(4);
+                if (action == 0 && state.ticketsCount() >= Constants.IN_GAME_TICKETS_COUNT) {
+                    var drawn = state.topTickets(Constants.IN_GAME_TICKETS_COUNT);
+                    assertEquals(drawn, simulation.topTickets(Constants.IN_GAME_TICKETS_COUNT));
+                    var chosen = SortedBag.of(drawn.get(rng.nextInt(drawn.size())));
+                    state = state.withChosenAdditionalTickets(drawn, chosen);
+                    simulation.chooseAdditionalTickets(drawn, chosen);
+                } else if (action == 1 && !claimable.isEmpty()) {
+                    var route = claimable.get(rng.nextInt(claimable.size()));
+                    var options = state.currentPlayerState().possibleClaimCards(route);
+                    assertEquals(options, simulation.possibleClaimCards(route));
+                    var cards = options.get(rng.nextInt(options.size()));
+                    if (route.level() == Route.Level.UNDERGROUND && state.canDrawCards()) {
+                        for (int k = 0; k < Constants.ADDITIONAL_TUNNEL_CARDS; k++) {
+                            state = state.withCardsDeckRecreatedIfNeeded(gameRng);
+                            simulation.recreateCardsDeckIfNeeded(simulationRng);
+                            var top = state.topCard();
+                            state = state.withoutTopCard().withMoreDiscardedCards(SortedBag.of(top));
+                            assertEquals(top, simulation.discardTopCard());
+                        }
+                    }
+                    state = state.withClaimedRoute(route, cards);
+                    simulation.claimRoute(route, cards);
+                } else if (state.canDrawCards()) {
+                    for (int k = 0; k < Constants.IN_GAME_CARDS_COUNT; k++) {
+                        state = state.withCardsDeckRecreatedIfNeeded(gameRng);
+                        simulation.recreateCardsDeckIfNeeded(simulationRng);
+                        var slot = rng.nextInt(Constants.FACE_UP_CARDS_COUNT + 1) - 1;
+                        if (slot == Constants.DECK_SLOT) {
+                            state = state.withBlindlyDrawnCard();
+                            simulation.drawBlindCard();
+                        } else {
+                            state = state.withDrawnFaceUpCard(slot);
+                            simulation.drawFaceUpCard(slot);
+                        }
+                    }
+                }
+
+                assertEquals(state.lastTurnBegins(), simulation.lastTurnBegins());
+                state = state.forNextTurn();
+                simulation.nextTurn();
+                assertSameState(state, simulation.toGameState());
+            }
+
+            for (int k = states.size() - 1; k >= 0; k--) {
+                simulation.undoTo(marks.get(k));
+                assertSameState(states.get(k), simulation.toGameState());
+            }
+            assertFalse(simulation.canUndo());
+        }
+    }
+
+    @Test
+    void simulationStateDeterminizedKeepsWhatThePlayerKnows() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            var state = initialState(rng);
+            for (int k = 0; k < 10; k++)
+                state = state.withCardsDeckRecreatedIfNeeded(rng).withBlindlyDrawnCard().forNextTurn();
+            var top = state.topTickets(Constants.IN_GAME_TICKETS_COUNT);
+            var ownId = PLAYERS.get(rng.nextInt(PLAYERS.size()));
+
+            var simulation = SimulationState.determinized(state, ownId, state.playerState(ownId), ChMap.tickets(),
+                    top, rng);
+            var determinized = simulation.toGameState();
+
+            assertEquals(state.ticketsCount(), determinized.ticketsCount());
+            assertEquals(top, determinized.topTickets(top.size()));
+            assertEquals(state.cardState().faceUpCards(), determinized.cardState().faceUpCards());
+            assertEquals(state.cardState().deckSize(), determinized.cardState().deckSize());
+            assertEquals(state.cardState().discardsSize(), determinized.cardState().discardsSize());
+            assertEquals(state.currentPlayerId(), determinized.currentPlayerId());
+            var allCards = SortedBag.<Card>of();
+            for (PlayerId p : PLAYERS) {
+                var e = state.playerState(p);
+                var a = determinized.playerState(p);
+                assertEquals(e.ticketCount(), a.ticketCount());
+                assertEquals(e.cardCount(), a.cardCount());
+                assertEquals(e.routes(), a.routes());
+                allCards = allCards.union(a.cards());
+                if (p == ownId) {
+                    assertEquals(e.tickets(), a.tickets());
+                    assertEquals(e.cards(), a.cards());
+                }
+            }
+            allCards = allCards.union(SortedBag.of(determinized.cardState().faceUpCards()))
+                    .union(SortedBag.of(determinized.cardState().deck().toList()))
+                    .union(determinized.cardState().discards().toSortedBag());
+            assertEquals(Constants.ALL_CARDS, allCards);
+        }
+    }
+
+    @Test
+    void simulationStateUndoFailsWithEmptyLog() {
+        var simulation = SimulationState.of(initialState(new Random(2021)));
+        assertThrows(IllegalArgumentException.class, simulation::undo);
+    }
+
+}
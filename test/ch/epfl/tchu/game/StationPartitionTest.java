@@ -154,6 +154,30 @@ class StationPartitionTest {
         }
     }
 
+    @Test
+    void stationPartitionWithConnectedMatchesBuilder() {
+        var chMap = new ChMap();
+        var stations = chMap.ALL_STATIONS;
+        var routes = new ArrayList<>(chMap.ALL_ROUTES);
+
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            Collections.shuffle(routes, rng);
+            var pb = new StationPartition.Builder(stations.size());
+            var p = StationPartition.EMPTY;
+            for (var r : routes.subList(0, 1 + rng.nextInt(30))) {
+                pb.connect(r.station1(), r.station2());
+                p = p.withConnected(r.station1(), r.station2());
+            }
+            var built = pb.build();
+
+            for (var s1 : stations) {
+                for (var s2 : stations)
+                    assertEquals(built.connected(s1, s2), p.connected(s1, s2));
+            }
+        }
+    }
+
     private static List<Station> reducedChStations() {
         return List.of(
                 new Station(0, "Berne"),
@@ -0,0 +1,134 @@
+package ch.epfl.tchu.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class TicketOracleTest {
+
+    private static final List<MapDefinition> MAPS = List.of(MapDefinition.usa(), MapDefinition.ch());
+
+    @Test
+    void ticketOracleGivesTheLengthOfTheShortestTrips() {
+        for (var map : MAPS) {
+            var oracle = TicketOracle.of(map.compiledMap());
+            var distances = floydWarshall(map.compiledMap(), Set.of(), Set.of());
+            for (var ticket : map.tickets())
+                assertEquals(expectedCars(map.compiledMap(), distances, ticket), oracle.carsNeeded(ticket));
+        }
+    }
+
+    @Test
+    void ticketOracleAccountsForOwnedAndRemovedRoutes() {
+        var rng = new Random(2021);
+        for (var map : MAPS) {
+            var compiled = map.compiledMap();
+            for (int game = 0; game < 5; game++) {
+                var routes = new ArrayList<>(map.routes());
+                Collections.shuffle(routes, rng);
+                var owned = new HashSet<Route>();
+                var removed = new HashSet<Route>();
+                var oracle = TicketOracle.of(compiled);
+
+                for (var route : routes.subList(0, routes.size() / 2)) {
+                    if (rng.nextInt(3) == 0) {
+                        owned.add(route);
+                        oracle = oracle.withOwnedRoute(route);
+                    } else {
+                        removed.add(route);
+                        oracle = oracle.withRemovedRoute(route);
+                    }
+
+                    // Some answers are computed at every step, to be carried over to the next views.
+                    var ticket = map.tickets().get(rng.nextInt(map.tickets().size()));
+                    oracle.carsNeeded(ticket);
+                    if ((owned.size() + removed.size()) % 10 != 0)
+                        continue;
+
+                    var distances = floydWarshall(compiled, owned, removed);
+                    var fresh = TicketOracle.of(compiled, owned, removed);
+                    var connectivity = PlayerState.connectivityOf(List.copyOf(owned));
+                    for (var t : map.tickets()) {
+                        int expected = expectedCars(compiled, distances, t);
+                        assertEquals(expected, oracle.carsNeeded(t));
+                        assertEquals(expected, fresh.carsNeeded(t));
+                        assertEquals(expected == 0, t.points(connectivity) > 0);
+
+                        int length = 0;
+                        for (var r : oracle.routesToClaim(t)) {
+                            assertFalse(owned.contains(r) || removed.contains(r));
+                            length += r.length();
+                        }
+                        assertEquals(expected == TicketOracle.UNREACHABLE ? 0 : expected, length);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void ticketOracleFailsWithInvalidRoutes() {
+        var compiled = MapDefinition.ch().compiledMap();
+        var route = MapDefinition.ch().routes().get(0);
+        var otherRoute = MapDefinition.usa().routes().get(0);
+        assertThrows(IllegalArgumentException.class, () -> {
+            TicketOracle.of(compiled).withOwnedRoute(otherRoute);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            TicketOracle.of(compiled).withOwnedRoute(route).withOwnedRoute(route);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            TicketOracle.of(compiled).withOwnedRoute(route).withRemovedRoute(route);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            TicketOracle.of(compiled, List.of(route), List.of(route));
+        });
+    }
+
+    private static int expectedCars(CompiledMap map, int[][] distances, Ticket ticket) {
+        int min = TicketOracle.UNREACHABLE;
+        for (var trip : ticket.trips()) {
+            int from = map.ordinal(trip.from());
+            int to = map.ordinal(trip.to());
+            if (from >= 0 && to >= 0)
+                min = Math.min(min, distances[from][to]);
+        }
+        return min;
+    }
+
+    private static int[][] floydWarshall(CompiledMap map, Set<Route> owned, Set<Route> removed) {
+        int n = map.stationCount();
+        var distances = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++)
+                distances[i][j] = (i == j) ? 0 : TicketOracle.UNREACHABLE;
+        }
+        for (int r = 0; r < map.routeCount(); r++) {
+            var route = map.route(r);
+            if (removed.contains(route))
+                continue;
+            int cost = owned.contains(route) ? 0 : route.length();
+            int s1 = map.station1(r);
+            int s2 = map.station2(r);
+            distances[s1][s2] = Math.min(distances[s1][s2], cost);
+            distances[s2][s1] = Math.min(distances[s2][s1], cost);
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (distances[i][k] != TicketOracle.UNREACHABLE && distances[k][j] != TicketOracle.UNREACHABLE)
+                        distances[i][j] = Math.min(distances[i][j], distances[i][k] + distances[k][j]);
+                }
+            }
+        }
+        return distances;
+    }
+
+}
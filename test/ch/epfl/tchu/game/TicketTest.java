@@ -1,9 +1,11 @@
 package ch.epfl.tchu.game;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -71,6 +73,28 @@ class TicketTest {
         assertEquals(+11, map.FR_NEIGHBORS.points(connectivity));
     }
 
+    @Test
+    void pointsWithStationPartitionAreTheSameAsWithAnyConnectivity() {
+        var rng = TestRandomizer.newRandom();
+        assertSamePointsWithRandomPartitions(ChMap.routes(), ChMap.tickets(), rng);
+        assertSamePointsWithRandomPartitions(UsaMap.routes(), UsaMap.tickets(), rng);
+    }
+
+    private static void assertSamePointsWithRandomPartitions(List<Route> routes, List<Ticket> tickets, Random rng) {
+        for (int i = 0; i < 200; i++) {
+            var partition = StationPartition.EMPTY;
+            var routeCount = rng.nextInt(routes.size());
+            for (int j = 0; j < routeCount; j++) {
+                var route = routes.get(rng.nextInt(routes.size()));
+                partition = partition.withConnected(route.station1(), route.station2());
+            }
+
+            StationConnectivity connectivity = partition::connected;
+            for (Ticket ticket : tickets)
+                assertEquals(ticket.points(connectivity), ticket.points(partition));
+        }
+    }
+
     @Test
     void compareToWorksOnKnownTickets() {
         var map = new TestMap();
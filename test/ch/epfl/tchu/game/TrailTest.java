@@ -1,8 +1,15 @@
 package ch.epfl.tchu.game;
 
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 
 class TrailTest {
@@ -334,6 +341,104 @@ class TrailTest {
         assertEquals(28, longestG.length());
     }
 
+    @Test
+    void trailLongestReturnsAValidTrailOnDenseNetwork() {
+        var routes = ChMap.routes().subList(0, 40);
+        var longest = Trail.longest(routes);
+
+        var station = longest.station1();
+        var length = 0;
+        for (var route : longest.routes()) {
+            station = route.stationOpposite(station);
+            length += route.length();
+        }
+        assertEquals(longest.station2(), station);
+        assertEquals(longest.length(), length);
+        assertEquals(longest.routes().size(), Set.copyOf(longest.routes()).size());
+    }
+
+    @Test
+    void trailLongestHasTheLengthOfAnExhaustiveSearchOnBothMaps() {
+        var rng = TestRandomizer.newRandom();
+        for (var allRoutes : List.of(UsaMap.routes(), ChMap.routes())) {
+            for (int i = 0; i < 200; i++) {
+                var routes = connectedRoutes(allRoutes, 4 + rng.nextInt(12), rng);
+                assertEquals(exhaustiveLongestLength(routes), Trail.longest(routes).length());
+            }
+        }
+    }
+
+    // Grows a connected set of routes from a random one, to get networks with branches and cycles.
+    private static List<Route> connectedRoutes(List<Route> allRoutes, int size, Random rng) {
+        var routes = new ArrayList<Route>();
+        var stations = new HashSet<Station>();
+        var first = allRoutes.get(rng.nextInt(allRoutes.size()));
+        routes.add(first);
+        stations.addAll(first.stations());
+        while (routes.size() < size) {
+            var candidates = new ArrayList<Route>();
+            for (var route : allRoutes) {
+                if (!routes.contains(route)
+                        && (stations.contains(route.station1()) || stations.contains(route.station2())))
+                    candidates.add(route);
+            }
+            if (candidates.isEmpty())
+                break;
+            var route = candidates.get(rng.nextInt(candidates.size()));
+            routes.add(route);
+            stations.addAll(route.stations());
+        }
+        return routes;
+    }
+
+    // The breadth-first search Trail.longest used before, extending every trail by every route it does not contain.
+    private static int exhaustiveLongestLength(List<Route> routes) {
+        var longest = 0;
+        // Every trail is a list of routes and the station it ends at.
+        var trails = new ArrayList<List<Route>>();
+        var ends = new ArrayList<Station>();
+        for (var route : routes) {
+            for (var station : route.stations()) {
+                trails.add(List.of(route));
+                ends.add(route.stationOpposite(station));
+            }
+        }
+        while (!trails.isEmpty()) {
+            var nextTrails = new ArrayList<List<Route>>();
+            var nextEnds = new ArrayList<Station>();
+            for (int i = 0; i < trails.size(); i++) {
+                var trail = trails.get(i);
+                longest = Math.max(longest, trail.stream().mapToInt(Route::length).sum());
+                for (var route : routes) {
+                    if (!trail.contains(route) && route.stations().contains(ends.get(i))) {
+                        var nextTrail = new ArrayList<>(trail);
+                        nextTrail.add(route);
+                        nextTrails.add(nextTrail);
+                        nextEnds.add(route.stationOpposite(ends.get(i)));
+                    }
+                }
+            }
+            trails = nextTrails;
+            ends = nextEnds;
+        }
+        return longest;
+    }
+
+    @Test
+    void currentLongestTrailIsKeptUpToDateWhenClaimingRoutes() {
+        var rng = TestRandomizer.newRandom();
+        var allRoutes = new ArrayList<>(ChMap.routes());
+        for (int i = 0; i < 20; i++) {
+            Collections.shuffle(allRoutes, rng);
+            var playerState = PlayerState.initial(SortedBag.of(4, Card.LOCOMOTIVE));
+            for (var route : allRoutes.subList(0, 25)) {
+                playerState = playerState.withClaimedRoute(route, SortedBag.of());
+                assertEquals(Trail.longest(playerState.routes()).length(),
+                        playerState.currentLongestTrail().length());
+            }
+        }
+    }
+
     private static final class ChRoutes {
         // Stations
         final Station BAD = new Station(0, "Baden");
@@ -0,0 +1,222 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class BinarySerdesTest {
+
+    private static final MapDefinition MAP = MapDefinition.usa();
+
+    @Test
+    void binaryIntegerSerdeWorksOnAllSizes() {
+        var values = List.of(0, 1, -1, 63, -64, 64, 127, 128, 300, -300, 1 << 20, Integer.MAX_VALUE,
+                Integer.MIN_VALUE);
+        for (int v : values)
+            assertEquals(v, BinarySerdes.integerSerde.deserialize(ByteBuffer.wrap(BinarySerdes.integerSerde.toBytes(v))));
+        assertEquals(1, BinarySerdes.integerSerde.toBytes(-1).length);
+        assertEquals(1, BinarySerdes.integerSerde.toBytes(Constants.FACE_UP_CARDS_COUNT).length);
+
+        var out = new ByteArrayOutputStream();
+        for (int v : values)
+            BinarySerde.writeVarInt(out, v);
+        var in = ByteBuffer.wrap(out.toByteArray());
+        for (int v : values)
+            assertEquals(v, BinarySerde.readVarInt(in));
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void binarySerdesFailOnInvalidBytes() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySerde.readVarInt(ByteBuffer.wrap(new byte[] { -1, -1, -1, -1, -1, 1 }));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySerdes.cardSerde.deserialize(ByteBuffer.wrap(new byte[] { (byte) Card.COUNT }));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySerdes.stringListSerde.deserialize(ByteBuffer.wrap(new byte[] { 100, 0 }));
+        });
+
+        // Varints of 5 bytes whose bit 31 is set, read as negative ints.
+        var negative = new byte[] { -1, -1, -1, -1, 0x0F, 0, 0, 0 };
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySerdes.cardSerde.deserialize(ByteBuffer.wrap(negative));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySerdes.cardListSerde.deserialize(ByteBuffer.wrap(negative));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySerdes.stringSerde.deserialize(ByteBuffer.wrap(negative));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            MessageReader.message(Protocol.BINARY, negative);
+        });
+    }
+
+    @Test
+    void binarySerdesRoundTripTheStatesOfAGame() {
+        var serdes = MapSerdes.of(MAP);
+        var states = new ArrayList<PublicGameState>();
+        var ownStates = new ArrayList<PlayerState>();
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL.subList(0, 3)) {
+            var player = new ScriptedPlayer(p.ordinal(), MAP.routes());
+            players.put(p, new ForwardingPlayer(player) {
+                @Override
+                public void updateState(PublicGameState newState, PlayerState ownState) {
+                    states.add(newState);
+                    ownStates.add(ownState);
+                    super.updateState(newState, ownState);
+                }
+            });
+            names.put(p, "Joueur é" + p.ordinal());
+        }
+        Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(2021));
+
+        long textLength = 0;
+        long binaryLength = 0;
+        for (int i = 0; i < states.size(); i++) {
+            var text = serdes.publicGameStateSerde().serialize(states.get(i)) + " "
+                    + serdes.playerStateSerde().serialize(ownStates.get(i));
+            var out = new ByteArrayOutputStream();
+            serdes.publicGameStateBinarySerde().serialize(states.get(i), out);
+            serdes.playerStateBinarySerde().serialize(ownStates.get(i), out);
+            textLength += text.length();
+            binaryLength += out.size();
+
+            var in = ByteBuffer.wrap(out.toByteArray());
+            var state = serdes.publicGameStateBinarySerde().deserialize(in);
+            var ownState = serdes.playerStateBinarySerde().deserialize(in);
+            assertFalse(in.hasRemaining());
+            assertEquals(text, serdes.publicGameStateSerde().serialize(state) + " "
+                    + serdes.playerStateSerde().serialize(ownState));
+        }
+        assertTrue(binaryLength * 2 < textLength);
+
+        for (var name : names.values())
+            assertEquals(name, BinarySerdes.stringSerde.deserialize(ByteBuffer.wrap(BinarySerdes.stringSerde.toBytes(name))));
+        var options = List.of(SortedBag.of(2, Card.BLUE, 1, Card.LOCOMOTIVE), SortedBag.<Card>of());
+        assertEquals(options, BinarySerdes.listOfSortedBagOfCardsSerde.deserialize(
+                ByteBuffer.wrap(BinarySerdes.listOfSortedBagOfCardsSerde.toBytes(options))));
+    }
+
+    @Test
+    void remotePlayersPlayTheSameGameWithBothProtocols() throws Exception {
+        var expected = play(null);
+        for (var protocol : Protocol.ALL) {
+            var result = play(protocol);
+            for (PlayerId p : expected.players())
+                assertEquals(expected.points(p), result.points(p));
+            assertEquals(expected.ranking(), result.ranking());
+        }
+    }
+
+    private static GameResult play(Protocol protocol) throws Exception {
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL.subList(0, 2)) {
+            players.put(p, new ScriptedPlayer(p.ordinal(), MAP.routes()));
+            names.put(p, p.name());
+        }
+        if (protocol == null)
+            return Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(2021));
+
+        try (var serverSocket = new ServerSocket(0)) {
+            var remotePlayer = players.get(PlayerId.PLAYER_1);
+            var client = new Thread(() -> new RemotePlayerClient(remotePlayer, "localhost",
+                    serverSocket.getLocalPort(), protocol, MAP).run());
+            client.start();
+            try (Socket socket = serverSocket.accept()) {
+                var proxy = new RemotePlayerProxy(StreamChannel.accept(socket, List.of(protocol)), MAP);
+                players.put(PlayerId.PLAYER_1, proxy);
+                return Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(2021));
+            } finally {
+                client.join();
+            }
+        }
+    }
+
+    private static class ForwardingPlayer implements Player {
+        private final Player player;
+
+        ForwardingPlayer(Player player) {
+            this.player = player;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void receiveMessage(String message) {
+            player.receiveMessage(message);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return player.chooseInitialTickets();
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            return player.nextTurn();
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return player.chooseTickets(options);
+        }
+
+        @Override
+        public int drawSlot() {
+            return player.drawSlot();
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return player.claimedRoute();
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return player.initialClaimCards();
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return player.chooseAdditionalCards(options);
+        }
+    }
+
+}
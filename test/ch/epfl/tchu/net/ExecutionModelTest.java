@@ -0,0 +1,67 @@
+package ch.epfl.tchu.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ExecutionModelTest {
+
+    @Test
+    void executionModelOfWorksWithAnyCase() {
+        assertEquals(ExecutionModel.PLATFORM, ExecutionModel.of("platform"));
+        assertEquals(ExecutionModel.VIRTUAL, ExecutionModel.of("virtual"));
+        assertEquals(ExecutionModel.VIRTUAL, ExecutionModel.of("Virtual"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            ExecutionModel.of("green");
+        });
+    }
+
+    @Test
+    void executionModelDefaultIsVirtualUnlessThePropertyIsSet() {
+        assertEquals(ExecutionModel.VIRTUAL, ExecutionModel.of(ExecutionModel.DEFAULT_NAME));
+        var property = System.getProperty(ExecutionModel.PROPERTY, ExecutionModel.DEFAULT_NAME);
+        assertEquals(ExecutionModel.of(property), ExecutionModel.DEFAULT);
+    }
+
+    @Test
+    void executionModelThreadsAreDaemonsNamedAfterTheirTask() throws Exception {
+        for (var model : ExecutionModel.ALL) {
+            var thread = model.threadFactory("game").newThread(() -> {});
+            assertTrue(thread.isDaemon());
+            assertTrue(thread.getName().startsWith("game-"));
+
+            var ran = new CountDownLatch(1);
+            model.start("chat", ran::countDown).join(10_000);
+            assertEquals(0, ran.getCount());
+        }
+    }
+
+    @Test
+    void executionModelExecutorsRunManyWaitingTasksAtOnce() throws Exception {
+        int taskCount = 1_000;
+        for (var model : ExecutionModel.ALL) {
+            var executor = model.newExecutor("player");
+            var started = new CountDownLatch(taskCount);
+            var release = new CountDownLatch(1);
+            for (int i = 0; i < taskCount; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            // Every task blocks, so they all run only if each one has its own thread.
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.*;
+import ch.epfl.tchu.gui.StringsFr;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class GameServerTest {
+
+    private static final MapDefinition MAP = MapDefinition.usa();
+
+    @Test
+    void gameServerPlaysConcurrentGamesWithBothProtocols() throws Exception {
+        var games = ExecutionModel.DEFAULT.newExecutor("game");
+        var server = GameServer.open(0, MAP, 2, games);
+        try {
+            var serverThread = startServer(server);
+            var clients = new ArrayList<Client>();
+            for (int i = 0; i < 8; i++) {
+                var protocol = Protocol.ALL.get(i % Protocol.COUNT);
+                var player = new ScriptedPlayer(i, MAP.routes());
+                clients.add(startClient(player, server.port(), protocol));
+            }
+            for (var client : clients) {
+                client.join();
+                client.assertPlayedWholeGame();
+            }
+
+            assertEquals(4, server.gameCount());
+            awaitGames(games);
+            assertEquals(0, server.activeGameCount());
+            server.close();
+            serverThread.join(10_000);
+            assertFalse(serverThread.isAlive());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    void gameServerAbandonsTheGameOfAPlayerWhoLeft() throws Exception {
+        var games = ExecutionModel.DEFAULT.newExecutor("game");
+        try (var server = GameServer.open(0, MAP, 2, games)) {
+            startServer(server);
+            var scripted = new ScriptedPlayer(0, MAP.routes());
+            var leaving = (Player) Proxy.newProxyInstance(
+                    Player.class.getClassLoader(), new Class<?>[] { Player.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("nextTurn"))
+                            throw new IllegalStateException();
+                        return method.invoke(scripted, args);
+                    });
+            var leavingClient = startClient(leaving, server.port(), Protocol.BINARY);
+            var otherClient = startClient(new ScriptedPlayer(1, MAP.routes()), server.port(), Protocol.TEXT);
+            leavingClient.join();
+            otherClient.join();
+
+            assertFalse(leavingClient.completed.get());
+            assertTrue(leavingClient.failure.get() instanceof IllegalStateException);
+            assertNull(otherClient.failure.get());
+            assertTrue(otherClient.completed.get());
+
+            assertEquals(1, server.gameCount());
+            awaitGames(games);
+            assertEquals(0, server.activeGameCount());
+        }
+    }
+
+    @Test
+    void gameServerDoesNotStartAGameWithAClientWhoLeftTheLobby() throws Exception {
+        var games = ExecutionModel.DEFAULT.newExecutor("game");
+        try (var server = GameServer.open(0, MAP, 2, games)) {
+            startServer(server);
+            StreamChannel.connect(new Socket("localhost", server.port()), Protocol.BINARY).close();
+
+            var clients = List.of(
+                    startClient(new ScriptedPlayer(0, MAP.routes()), server.port(), Protocol.BINARY),
+                    startClient(new ScriptedPlayer(1, MAP.routes()), server.port(), Protocol.TEXT));
+            for (var client : clients) {
+                client.join();
+                client.assertPlayedWholeGame();
+            }
+
+            assertEquals(1, server.gameCount());
+            awaitGames(games);
+            assertEquals(0, server.activeGameCount());
+        }
+    }
+
+    @Test
+    void gameServerFailsWithAnInvalidNumberOfPlayers() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameServer.open(0, MAP, 1, Runnable::run);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameServer.open(0, MAP, PlayerId.COUNT + 1, Runnable::run);
+        });
+    }
+
+    private static Thread startServer(GameServer server) {
+        var thread = new Thread(server::run);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static Client startClient(Player player, int port, Protocol protocol) {
+        var client = new Client();
+        var recordingPlayer = (Player) Proxy.newProxyInstance(
+                Player.class.getClassLoader(), new Class<?>[] { Player.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("receiveInfo"))
+                        client.infos.add((String) args[0]);
+                    else if (method.getName().equals("updateState"))
+                        client.lastState.set((PublicGameState) args[0]);
+                    try {
+                        return method.invoke(player, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        client.thread = new Thread(() -> {
+            try {
+                new RemotePlayerClient(recordingPlayer, "localhost", port, protocol, MAP).run();
+                client.completed.set(true);
+            } catch (RuntimeException | Error e) {
+                client.failure.set(e);
+            }
+        });
+        client.thread.setDaemon(true);
+        client.thread.start();
+        return client;
+    }
+
+    private static void awaitGames(ExecutorService games) throws InterruptedException {
+        games.shutdown();
+        assertTrue(games.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    // Outcome of a client, and what its player received.
+    private static final class Client {
+
+        private Thread thread;
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<String> infos = new CopyOnWriteArrayList<>();
+        private final AtomicReference<PublicGameState> lastState = new AtomicReference<>();
+
+        private void join() throws InterruptedException {
+            thread.join(60_000);
+            assertFalse(thread.isAlive());
+        }
+
+        private void assertPlayedWholeGame() {
+            assertNull(failure.get());
+            assertTrue(completed.get());
+            // The final state is the one of the last turn, followed by the announce of the winners.
+            assertNotNull(lastState.get());
+            assertNotNull(lastState.get().lastPlayer());
+            var wins = StringsFr.WINS.split("%s")[1];
+            var draw = StringsFr.DRAW.split("%s")[1];
+            assertTrue(infos.stream().anyMatch(i -> i.contains(wins) || i.contains(draw)));
+        }
+
+    }
+
+}
@@ -0,0 +1,207 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.*;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class RemotePlayerProxyTest {
+
+    private static final MapDefinition MAP = MapDefinition.usa();
+
+    @Test
+    void remotePlayerProxyFlushesNotificationsWithTheNextRequest() throws Exception {
+        var expectedInfos = new ArrayList<String>();
+        play(null, 0, expectedInfos);
+        for (var protocol : Protocol.ALL) {
+            // The delay never expires during the game, so that only the requests flush.
+            var infos = new ArrayList<String>();
+            var channel = play(protocol, TimeUnit.MINUTES.toMillis(10), infos);
+            assertEquals(expectedInfos, infos);
+            assertTrue(channel.flushCount * 3 < channel.sendCount);
+
+            var unbufferedInfos = new ArrayList<String>();
+            var unbufferedChannel = play(protocol, 0, unbufferedInfos);
+            assertEquals(expectedInfos, unbufferedInfos);
+            assertEquals(unbufferedChannel.sendCount, unbufferedChannel.flushCount);
+        }
+    }
+
+    @Test
+    void remotePlayerProxyFlushesNotificationsOnceTheDelayExpires() throws Exception {
+        try (var serverSocket = new ServerSocket(0)) {
+            var received = new CountDownLatch(1);
+            var player = recording(new ScriptedPlayer(0, MAP.routes()), info -> received.countDown());
+            var client = new Thread(() -> new RemotePlayerClient(player, "localhost",
+                    serverSocket.getLocalPort(), Protocol.BINARY, MAP).run());
+            client.start();
+            try (var channel = StreamChannel.accept(serverSocket.accept(), Protocol.ALL)) {
+                var proxy = new RemotePlayerProxy(channel, MAP, RemotePlayerProxy.DEFAULT_KEYFRAME_INTERVAL, 10);
+                proxy.receiveInfo("info");
+                assertTrue(received.await(10, TimeUnit.SECONDS));
+            } finally {
+                client.join();
+            }
+        }
+    }
+
+    @Test
+    void remotePlayerProxyDelayedFlushesDoNotWaitForASlowClient() throws Exception {
+        var slowFlushing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var slowProxy = new RemotePlayerProxy(channel(() -> {
+            slowFlushing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), MAP, 1, 1);
+        var flushed = new CountDownLatch(1);
+        var proxy = new RemotePlayerProxy(channel(flushed::countDown), MAP, 1, 1);
+        try {
+            slowProxy.receiveInfo("info");
+            assertTrue(slowFlushing.await(10, TimeUnit.SECONDS));
+
+            // The game thread keeps sending notifications while the previous ones are written.
+            var game = new Thread(() -> slowProxy.receiveInfo("info"));
+            game.start();
+            game.join(10_000);
+            assertFalse(game.isAlive());
+
+            proxy.receiveInfo("info");
+            assertTrue(flushed.await(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void remotePlayerProxyFailsWithANegativeFlushDelay() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new RemotePlayerProxy(new CountingChannel(null), MAP, 1, -1);
+        });
+    }
+
+    // Plays a game whose first player is remote if the protocol is not null, giving the channel of its proxy.
+    private static CountingChannel play(Protocol protocol, long flushDelayMillis, List<String> infos)
+            throws Exception {
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL.subList(0, 2)) {
+            players.put(p, new ScriptedPlayer(p.ordinal(), MAP.routes()));
+            names.put(p, p.name());
+        }
+        var first = recording(players.get(PlayerId.PLAYER_1), infos::add);
+        players.put(PlayerId.PLAYER_1, first);
+        if (protocol == null) {
+            Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(2021));
+            return null;
+        }
+
+        try (var serverSocket = new ServerSocket(0)) {
+            var client = new Thread(() -> new RemotePlayerClient(first, "localhost",
+                    serverSocket.getLocalPort(), protocol, MAP).run());
+            client.start();
+            var channel = new CountingChannel(StreamChannel.accept(serverSocket.accept(), List.of(protocol)));
+            try (var proxy = new RemotePlayerProxy(channel, MAP, RemotePlayerProxy.DEFAULT_KEYFRAME_INTERVAL,
+                    flushDelayMillis)) {
+                players.put(PlayerId.PLAYER_1, proxy);
+                Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(2021));
+            } finally {
+                client.join();
+            }
+            return channel;
+        }
+    }
+
+    private static Player recording(Player player, java.util.function.Consumer<String> infos) {
+        return (Player) java.lang.reflect.Proxy.newProxyInstance(
+                Player.class.getClassLoader(), new Class<?>[] { Player.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("receiveInfo"))
+                        infos.accept((String) args[0]);
+                    return method.invoke(player, args);
+                });
+    }
+
+    // Binary channel calling the given action on every flush.
+    private static MessageChannel channel(Runnable onFlush) {
+        return new MessageChannel() {
+            @Override
+            public Protocol protocol() {
+                return Protocol.BINARY;
+            }
+
+            @Override
+            public void send(byte[] message) { }
+
+            @Override
+            public void flush() {
+                onFlush.run();
+            }
+
+            @Override
+            public byte[] receive() {
+                return null;
+            }
+
+            @Override
+            public void close() { }
+        };
+    }
+
+    // Channel counting the messages sent and the flushes actually sending messages.
+    private static final class CountingChannel implements MessageChannel {
+        private final MessageChannel channel;
+        private int sendCount;
+        private int flushCount;
+        private boolean hasPendingMessages;
+
+        CountingChannel(MessageChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public Protocol protocol() {
+            return channel.protocol();
+        }
+
+        @Override
+        public void send(byte[] message) {
+            sendCount += 1;
+            hasPendingMessages = true;
+            channel.send(message);
+        }
+
+        @Override
+        public void flush() {
+            if (hasPendingMessages)
+                flushCount += 1;
+            hasPendingMessages = false;
+            channel.flush();
+        }
+
+        @Override
+        public byte[] receive() {
+            return channel.receive();
+        }
+
+        @Override
+        public void close() {
+            flush();
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class StateDeltasTest {
+
+    private static final MapDefinition MAP = MapDefinition.usa();
+
+    @Test
+    void stateDeltasRebuildTheStatesOfAGame() {
+        var serdes = MapSerdes.of(MAP);
+        var deltas = StateDeltas.of(MAP);
+        for (int playerCount = 2; playerCount <= 4; playerCount++) {
+            var states = new ArrayList<PublicGameState>();
+            var ownStates = new ArrayList<PlayerState>();
+            play(playerCount, states, ownStates);
+
+            long fullLength = 0;
+            long deltaLength = 0;
+            PublicGameState state = states.get(0);
+            PlayerState ownState = ownStates.get(0);
+            for (int i = 1; i < states.size(); i++) {
+                assertTrue(StateDeltas.canFollow(states.get(i - 1), states.get(i)));
+                assertTrue(StateDeltas.canFollow(ownStates.get(i - 1), ownStates.get(i)));
+
+                var out = new ByteArrayOutputStream();
+                deltas.publicGameStateSerde(states.get(i - 1)).serialize(states.get(i), out);
+                deltas.playerStateSerde(ownStates.get(i - 1)).serialize(ownStates.get(i), out);
+                deltaLength += out.size();
+                fullLength += serdes.publicGameStateBinarySerde().toBytes(states.get(i)).length
+                        + serdes.playerStateBinarySerde().toBytes(ownStates.get(i)).length;
+
+                // The deltas are applied to the states rebuilt so far, as a client does.
+                var in = ByteBuffer.wrap(out.toByteArray());
+                state = deltas.publicGameStateSerde(state).deserialize(in);
+                ownState = deltas.playerStateSerde(ownState).deserialize(in);
+                assertFalse(in.hasRemaining());
+                assertEquals(serdes.publicGameStateSerde().serialize(states.get(i)),
+                        serdes.publicGameStateSerde().serialize(state));
+                assertEquals(serdes.playerStateSerde().serialize(ownStates.get(i)),
+                        serdes.playerStateSerde().serialize(ownState));
+            }
+            assertTrue(deltaLength * 4 < fullLength);
+        }
+    }
+
+    @Test
+    void stateDeltasCannotFollowStatesWithLessRoutesOrTickets() {
+        var routes = MAP.routes();
+        var tickets = SortedBag.of(1, MAP.tickets().get(0), 1, MAP.tickets().get(1));
+        var cards = SortedBag.of(2, Card.RED);
+        var base = new PlayerState(tickets, cards, routes.subList(0, 2), null);
+
+        assertTrue(StateDeltas.canFollow(base, new PlayerState(tickets, SortedBag.of(), routes.subList(0, 3), null)));
+        assertFalse(StateDeltas.canFollow(base, new PlayerState(tickets, cards, routes.subList(1, 3), null)));
+        assertFalse(StateDeltas.canFollow(base, new PlayerState(SortedBag.of(MAP.tickets().get(0)), cards,
+                routes.subList(0, 2), null)));
+        assertThrows(IllegalArgumentException.class, () -> {
+            StateDeltas.of(MAP).playerStateSerde(base).toBytes(new PlayerState(tickets, cards, List.of(), null));
+        });
+    }
+
+    private static void play(int playerCount, List<PublicGameState> states, List<PlayerState> ownStates) {
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL.subList(0, playerCount)) {
+            var player = new ScriptedPlayer(p.ordinal(), MAP.routes());
+            players.put(p, player);
+            names.put(p, p.name());
+        }
+        // The states received by the first player.
+        var first = players.get(PlayerId.PLAYER_1);
+        players.put(PlayerId.PLAYER_1, (Player) java.lang.reflect.Proxy.newProxyInstance(
+                Player.class.getClassLoader(), new Class<?>[] { Player.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("updateState")) {
+                        states.add((PublicGameState) args[0]);
+                        ownStates.add((PlayerState) args[1]);
+                    }
+                    return method.invoke(first, args);
+                }));
+        Game.play(players, names, SortedBag.of(MAP.tickets()), new Random(playerCount));
+    }
+
+}
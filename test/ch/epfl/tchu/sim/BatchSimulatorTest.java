@@ -0,0 +1,70 @@
+package ch.epfl.tchu.sim;
+
+import ch.epfl.tchu.bot.ScriptedPlayer;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.PlayerId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class BatchSimulatorTest {
+
+    private static BatchSimulator newSimulator(int playerCount) {
+        return new BatchSimulator(ChMap.tickets(), playerCount, (p, s) -> new ScriptedPlayer(s, ChMap.routes()));
+    }
+
+    @Test
+    void batchSimulatorFailsWithInvalidPlayerCount() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            newSimulator(1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            newSimulator(PlayerId.COUNT + 1);
+        });
+    }
+
+    @Test
+    void batchSimulatorPlayIsReproducible() {
+        for (int playerCount = 2; playerCount <= 4; playerCount++) {
+            var simulator = newSimulator(playerCount);
+            for (long seed = 0; seed < 5; seed++)
+                assertEquals(simulator.play(seed).toString(), simulator.play(seed).toString());
+        }
+    }
+
+    @Test
+    void batchSimulatorRunGivesEverySummaryWhateverTheParallelism() {
+        var simulator = newSimulator(3);
+        Map<Long, String> sequential = new ConcurrentHashMap<>();
+        Map<Long, String> parallel = new ConcurrentHashMap<>();
+        simulator.run(40, 2021, 1, s -> sequential.put(s.seed(), s.toString()));
+        simulator.run(40, 2021, 4, s -> parallel.put(s.seed(), s.toString()));
+
+        assertEquals(40, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void batchSimulatorSummariesAreConsistent() {
+        var statistics = new BatchStatistics(2);
+        newSimulator(2).run(20, 1, 2, s -> {
+            var winners = s.winners();
+            assertFalse(winners.isEmpty());
+            for (var p : s.players())
+                assertTrue(s.points(p) <= s.points(winners.get(0)));
+            assertTrue(s.turns() > 0);
+            statistics.accept(s);
+        });
+
+        assertEquals(20, statistics.games());
+        var wins = 0L;
+        for (var p : List.of(PlayerId.PLAYER_1, PlayerId.PLAYER_2))
+            wins += statistics.wins(p);
+        assertEquals(20, wins + statistics.draws());
+    }
+
+}